@@ -0,0 +1,210 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.benchmark;
+
+import com.yahoo.parsec.gradle.generators.ParsecGeneratorUtil;
+import com.yahoo.parsec.gradle.generators.ParsecJsonCodecGenerator;
+import com.yahoo.parsec.gradle.generators.ParsecPackageResolver;
+import com.yahoo.parsec.gradle.generators.ParsecPackageStruct;
+import com.yahoo.parsec.gradle.utils.FileUtils;
+import org.eclipse.persistence.jaxb.rs.MOXyJsonProvider;
+import org.gradle.api.logging.Logging;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JsonCodecBenchmark.
+ * the time to write and read a data object as JSON with MOXy, as ParsecApplication does by default, and
+ * with the ParsecJsonCodec generated by generateJsonCodecs. The data objects and the codec are generated
+ * and compiled when the benchmark starts, so a JDK is needed to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private static final String GENERATED_PACKAGE = "com.example.parsec_generated";
+
+    private static final Annotation[] ANNOTATIONS = new Annotation[0];
+
+    @Param({"1", "100"})
+    private int members;
+
+    private final FileUtils fileUtils = new FileUtils(Logging.getLogger(JsonCodecBenchmark.class));
+
+    private final MOXyJsonProvider moxy = new MOXyJsonProvider();
+
+    private final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(64 * 1024);
+
+    private File projectDir;
+
+    private URLClassLoader classLoader;
+
+    private Class<Object> teamClass;
+
+    private MessageBodyReader<Object> codecReader;
+
+    private MessageBodyWriter<Object> codecWriter;
+
+    private byte[] json;
+
+    private Object team;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        projectDir = Files.createTempDirectory("parsec-json-codec").toFile();
+        Path generatedSourceRootPath = projectDir.toPath().resolve("build/generated-sources/java");
+        Path dir = generatedSourceRootPath.resolve(GENERATED_PACKAGE.replace('.', '/'));
+        Files.createDirectories(dir);
+        write(dir.resolve("SampleResources.java"),
+                "package " + GENERATED_PACKAGE + ";\n\npublic class SampleResources { }\n");
+        write(dir.resolve("User.java"), user());
+        write(dir.resolve("Team.java"), team());
+
+        ParsecGeneratorUtil generatorUtil = new ParsecGeneratorUtil(fileUtils);
+        ParsecPackageStruct packageStruct = new ParsecPackageResolver(generatorUtil, fileUtils).resolve(
+                projectDir, "/src/main/java/", generatedSourceRootPath, "parsec_generated");
+        new ParsecJsonCodecGenerator(packageStruct, generatorUtil).generateParsecJsonCodec();
+
+        File classesDir = new File(projectDir, "classes");
+        classesDir.mkdirs();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int exitCode = compiler.run(null, null, null,
+                "-d", classesDir.getPath(), "-cp", System.getProperty("java.class.path"),
+                dir.resolve("User.java").toString(), dir.resolve("Team.java").toString(),
+                dir.resolve("ParsecJsonCodec.java").toString());
+        if (exitCode != 0) {
+            throw new IllegalStateException("Failed to compile the generated json codec");
+        }
+
+        classLoader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()}, getClass().getClassLoader());
+        teamClass = (Class<Object>) classLoader.loadClass(GENERATED_PACKAGE + ".Team");
+        Object codec = classLoader.loadClass(GENERATED_PACKAGE + ".ParsecJsonCodec$TeamCodec").newInstance();
+        codecReader = (MessageBodyReader<Object>) codec;
+        codecWriter = (MessageBodyWriter<Object>) codec;
+
+        StringBuilder builder = new StringBuilder("{\"name\":\"platform\",\"active\":true,\"members\":[");
+        for (int i = 0; i < members; i++) {
+            builder.append(i > 0 ? "," : "")
+                    .append("{\"name\":\"user").append(i).append("\",\"occupation\":\"engineer\",\"age\":")
+                    .append(20 + i % 40).append(",\"id\":\"").append(1000 + i).append("\",\"salary\":")
+                    .append(1000.5 + i).append(",\"tags\":[\"java\",\"rdl\"]}");
+        }
+        json = builder.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+        team = codecRead();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        classLoader.close();
+        fileUtils.deleteDirectory(projectDir.toPath());
+    }
+
+    @Benchmark
+    public Object moxyRead() throws IOException {
+        return moxy.readFrom(teamClass, teamClass, ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE,
+                new MultivaluedHashMap<String, String>(), new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public Object codecRead() throws IOException {
+        return codecReader.readFrom(teamClass, teamClass, ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE,
+                new MultivaluedHashMap<String, String>(), new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public int moxyWrite() throws IOException {
+        outputStream.reset();
+        moxy.writeTo(team, teamClass, teamClass, ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE,
+                new MultivaluedHashMap<String, Object>(), outputStream);
+        return outputStream.size();
+    }
+
+    @Benchmark
+    public int codecWrite() throws IOException {
+        outputStream.reset();
+        codecWriter.writeTo(team, teamClass, teamClass, ANNOTATIONS, MediaType.APPLICATION_JSON_TYPE,
+                new MultivaluedHashMap<String, Object>(), outputStream);
+        return outputStream.size();
+    }
+
+    private static void write(final Path path, final String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String user() {
+        return "package " + GENERATED_PACKAGE + ";\n\n"
+                + "import java.util.List;\n\n"
+                + "public final class User implements java.io.Serializable {\n"
+                + "    private String name;\n"
+                + "    private String occupation;\n"
+                + "    private int age;\n"
+                + "    private String id;\n"
+                + "    private Double salary;\n"
+                + "    private List<String> tags;\n\n"
+                + "    public User() { }\n\n"
+                + "    public String getName() { return name; }\n"
+                + "    public String getOccupation() { return occupation; }\n"
+                + "    public int getAge() { return age; }\n"
+                + "    public String getId() { return id; }\n"
+                + "    public Double getSalary() { return salary; }\n"
+                + "    public List<String> getTags() { return tags; }\n\n"
+                + "    public User setName(String name) { this.name = name; return this; }\n"
+                + "    public User setOccupation(String occupation) { this.occupation = occupation; return this; }\n"
+                + "    public User setAge(int age) { this.age = age; return this; }\n"
+                + "    public User setId(String id) { this.id = id; return this; }\n"
+                + "    public User setSalary(Double salary) { this.salary = salary; return this; }\n"
+                + "    public User setTags(List<String> tags) { this.tags = tags; return this; }\n"
+                + "}\n";
+    }
+
+    private static String team() {
+        return "package " + GENERATED_PACKAGE + ";\n\n"
+                + "import java.util.List;\n\n"
+                + "public final class Team implements java.io.Serializable {\n"
+                + "    private String name;\n"
+                + "    private boolean active;\n"
+                + "    private List<User> members;\n\n"
+                + "    public Team() { }\n\n"
+                + "    public String getName() { return name; }\n"
+                + "    public boolean getActive() { return active; }\n"
+                + "    public List<User> getMembers() { return members; }\n\n"
+                + "    public Team setName(String name) { this.name = name; return this; }\n"
+                + "    public Team setActive(boolean active) { this.active = active; return this; }\n"
+                + "    public Team setMembers(List<User> members) { this.members = members; return this; }\n"
+                + "}\n";
+    }
+}
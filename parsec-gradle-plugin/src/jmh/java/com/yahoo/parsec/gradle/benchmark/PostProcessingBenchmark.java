@@ -0,0 +1,195 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.benchmark;
+
+import com.yahoo.parsec.gradle.generators.ParsecApplicationGenerator;
+import com.yahoo.parsec.gradle.generators.ParsecGeneratorUtil;
+import com.yahoo.parsec.gradle.generators.ParsecPackageResolver;
+import com.yahoo.parsec.gradle.generators.ParsecPackageStruct;
+import com.yahoo.parsec.gradle.generators.ParsecValidationGroupGenerator;
+import com.yahoo.parsec.gradle.utils.FileUtils;
+import org.gradle.api.logging.Logging;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PostProcessingBenchmark.
+ * the time parsec-generate takes to post-process the rdl generator outputs: resolving the
+ * packages, handlers, resources and data objects with their validation groups, rendering the
+ * per-package templates and writing ParsecValidationGroups and ParsecApplication, on a
+ * synthetic generated source tree of many models over many namespaces.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PostProcessingBenchmark {
+
+    private static final String JAVA_SOURCE_ROOT = "/src/main/java/";
+
+    private static final String GENERATED_NAMESPACE = "parsec_generated";
+
+    private static final String[] VALIDATION_GROUPS = {"Insert", "Update", "Patch", "Delete"};
+
+    @Param({"10", "1000", "10000"})
+    private int models;
+
+    @Param({"1", "10", "100"})
+    private int namespaces;
+
+    private final FileUtils fileUtils = new FileUtils(Logging.getLogger(PostProcessingBenchmark.class));
+
+    private final ParsecGeneratorUtil generatorUtil = new ParsecGeneratorUtil(fileUtils);
+
+    private final ParsecPackageResolver packageResolver = new ParsecPackageResolver(generatorUtil, fileUtils);
+
+    private File projectDir;
+
+    private Path generatedSourceRootPath;
+
+    private ParsecPackageStruct packageStruct;
+
+    @Setup
+    public void setUp() throws IOException {
+        projectDir = Files.createTempDirectory("parsec-post-processing").toFile();
+        generatedSourceRootPath = projectDir.toPath().resolve("build/generated-sources/java");
+        for (int n = 0; n < namespaces; n++) {
+            String packageName = "com.example.namespace" + n;
+            Path dir = generatedSourceRootPath.resolve(
+                    ParsecGeneratorUtil.packageNameToPath(packageName) + "/" + GENERATED_NAMESPACE);
+            Files.createDirectories(dir);
+            write(dir.resolve("Sample" + n + "Resources.java"), resources(packageName, n));
+            write(dir.resolve("Sample" + n + "Handler.java"), handler(packageName, n));
+        }
+        for (int m = 0; m < models; m++) {
+            String packageName = "com.example.namespace" + (m % namespaces);
+            Path dir = generatedSourceRootPath.resolve(
+                    ParsecGeneratorUtil.packageNameToPath(packageName) + "/" + GENERATED_NAMESPACE);
+            write(dir.resolve("Model" + m + ".java"), model(packageName, m));
+        }
+        packageStruct = packageResolver.resolve(
+                projectDir, JAVA_SOURCE_ROOT, generatedSourceRootPath, GENERATED_NAMESPACE);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fileUtils.deleteDirectory(projectDir.toPath());
+    }
+
+    @Benchmark
+    public ParsecPackageStruct resolve() throws IOException {
+        return packageResolver.resolve(projectDir, JAVA_SOURCE_ROOT, generatedSourceRootPath, GENERATED_NAMESPACE);
+    }
+
+    @Benchmark
+    public void renderValidationGroups(final Blackhole blackhole) throws IOException {
+        for (Map.Entry<String, Set<String>> entry : packageStruct.getValidationGroups().entrySet()) {
+            StringBuilder validationGroups = new StringBuilder();
+            for (String validationGroup : entry.getValue()) {
+                validationGroups.append("    public interface ").append(validationGroup).append(" { }\n");
+            }
+            Map<String, String> replaceMaterials = new HashMap<>();
+            replaceMaterials.put("{validationGroups}", validationGroups.toString());
+            blackhole.consume(generatorUtil.renderTemplate(
+                    "ParsecValidationGroups.java", entry.getKey(), replaceMaterials).getBytes());
+        }
+    }
+
+    @Benchmark
+    public void generateParsecValidationGroups() throws IOException {
+        new ParsecValidationGroupGenerator(packageStruct, generatorUtil, fileUtils).generateParsecValidationGroups();
+    }
+
+    @Benchmark
+    public void generateParsecApplication() throws IOException {
+        new ParsecApplicationGenerator(packageStruct, generatorUtil).generateParsecApplication(true);
+    }
+
+    private static void write(final Path path, final String content) throws IOException {
+        Files.write(path, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String header(final String packageName) {
+        return "//\n"
+                + "// This file is generated by parsec_rdl\n"
+                + "// Please DO NOT edit directly; changes could be overwritten.\n"
+                + "//\n"
+                + "package " + packageName + "." + GENERATED_NAMESPACE + ";\n\n";
+    }
+
+    private static String model(final String packageName, final int m) {
+        String insert = VALIDATION_GROUPS[m % VALIDATION_GROUPS.length];
+        String update = VALIDATION_GROUPS[(m + 1) % VALIDATION_GROUPS.length];
+        return header(packageName)
+                + "import javax.validation.constraints.NotNull;\n"
+                + "import javax.validation.constraints.Size;\n\n"
+                + "public final class Model" + m + " implements java.io.Serializable {\n\n"
+                + "    @NotNull(\n"
+                + "        groups = {\n"
+                + "            ParsecValidationGroups." + insert + ".class\n"
+                + "        }\n"
+                + "    )\n"
+                + "    @Size(\n"
+                + "        min=3,\n"
+                + "        groups = {\n"
+                + "            ParsecValidationGroups." + insert + ".class,\n"
+                + "            ParsecValidationGroups." + update + ".class\n"
+                + "        }\n"
+                + "    )\n"
+                + "    private String name;\n\n"
+                + "    private int age;\n\n"
+                + "    public String getName() { return name; }\n\n"
+                + "    public int getAge() { return age; }\n\n"
+                + "    public Model" + m + " setName(String name) { this.name = name; return this; }\n\n"
+                + "    public Model" + m + " setAge(int age) { this.age = age; return this; }\n"
+                + "}\n";
+    }
+
+    private static String resources(final String packageName, final int n) {
+        return header(packageName)
+                + "import javax.inject.Inject;\n"
+                + "import javax.ws.rs.*;\n"
+                + "import javax.ws.rs.core.*;\n\n"
+                + "@Path(\"/sample" + n + "/v1\")\n"
+                + "public class Sample" + n + "Resources {\n\n"
+                + "    @GET\n"
+                + "    @Path(\"/models/{id}\")\n"
+                + "    @Produces(MediaType.APPLICATION_JSON)\n"
+                + "    public String getModel(@PathParam(\"id\") Integer id) {\n"
+                + "        return _delegate.getModel(id);\n"
+                + "    }\n\n"
+                + "    @Inject private Sample" + n + "Handler _delegate;\n"
+                + "}\n";
+    }
+
+    private static String handler(final String packageName, final int n) {
+        return header(packageName)
+                + "public interface Sample" + n + "Handler {\n"
+                + "    public String getModel(Integer id);\n"
+                + "}\n";
+    }
+}
@@ -0,0 +1,99 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.benchmark;
+
+import com.yahoo.parsec.gradle.generators.ParsecGeneratorUtil;
+import com.yahoo.parsec.gradle.utils.FileUtils;
+import org.apache.commons.compress.utils.IOUtils;
+import org.gradle.api.logging.Logging;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TemplateRenderBenchmark.
+ * the time parsec-generate takes to render the per-package templates of many namespaces, with
+ * the template loaded and replaced placeholder by placeholder on every call as it used to be,
+ * and with the parsed template cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    private static final List<String> TEMPLATES = Arrays.asList(
+            "ParsecApplication.java", "ParsecValidationGroups.java", "ParsecWebListener.java", "ParsecWrapperServlet.java");
+
+    @Param({"300"})
+    private int namespaces;
+
+    private final ParsecGeneratorUtil generatorUtil =
+            new ParsecGeneratorUtil(new FileUtils(Logging.getLogger(TemplateRenderBenchmark.class)));
+
+    private final List<String> packageNames = new ArrayList<>();
+
+    private final Map<String, String> replaceMaterials = new HashMap<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < namespaces; i++) {
+            packageNames.add("com.example.namespace" + i);
+        }
+        StringBuilder imports = new StringBuilder();
+        StringBuilder register = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            imports.append("import com.example.namespace.Resource").append(i).append(";\n");
+            register.append("        register(Resource").append(i).append(".class);\n");
+        }
+        replaceMaterials.put("{imports}", imports.toString());
+        replaceMaterials.put("{binding}", "        bind(ResourceHandler.class).to(ResourceHandlerImpl.class);\n");
+        replaceMaterials.put("{register}", register.toString());
+        replaceMaterials.put("{validationGroups}", "    public interface Insert { }\n    public interface Update { }\n");
+    }
+
+    @Benchmark
+    public void replaceEachPlaceholder(final Blackhole blackhole) throws IOException {
+        for (String packageName : packageNames) {
+            for (String templateName : TEMPLATES) {
+                try (InputStream inputStream = getClass().getResourceAsStream("/templates/" + templateName)) {
+                    String output = new String(IOUtils.toByteArray(inputStream)).replace("{packageName}", packageName);
+                    for (Map.Entry<String, String> replaceEntry : replaceMaterials.entrySet()) {
+                        output = output.replace(replaceEntry.getKey(), replaceEntry.getValue());
+                    }
+                    blackhole.consume(output.getBytes());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void renderParsedTemplate(final Blackhole blackhole) throws IOException {
+        for (String packageName : packageNames) {
+            for (String templateName : TEMPLATES) {
+                blackhole.consume(generatorUtil.renderTemplate(templateName, packageName, replaceMaterials).getBytes());
+            }
+        }
+    }
+}
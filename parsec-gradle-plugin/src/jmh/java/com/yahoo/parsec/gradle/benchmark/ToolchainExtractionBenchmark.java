@@ -0,0 +1,115 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.benchmark;
+
+import com.yahoo.parsec.gradle.utils.FileUtils;
+import com.yahoo.parsec.gradle.utils.PathUtils;
+import com.yahoo.parsec.gradle.utils.ToolchainCache;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.gradle.api.logging.Logging;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ToolchainExtractionBenchmark.
+ * the time parsec-init takes to extract the rdl binary and the parsec generators into an empty
+ * bin directory, with the temp file and ZipFile per generator extraction it used to do, and with
+ * the single-pass streaming extraction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ToolchainExtractionBenchmark {
+
+    private static final List<String> GENERATORS = Arrays.asList("java-model", "java-server", "java-client", "swagger");
+
+    private final FileUtils fileUtils = new FileUtils(Logging.getLogger(ToolchainExtractionBenchmark.class));
+
+    private final String rdlBinSuffix = ToolchainCache.getRdlBinSuffix();
+
+    private File binDir;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        binDir = Files.createTempDirectory("parsec-bin").toFile();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        fileUtils.deleteDirectory(binDir.toPath());
+    }
+
+    @Benchmark
+    public void tempFileExtraction() throws IOException {
+        String rdlBinaryPath = binDir + "/" + PathUtils.RDL_BINARY;
+        if (rdlBinSuffix.equals("darwin")) {
+            File file = fileUtils.getFileFromResource("/rdl-bin/rdl.zip");
+            try (
+                    ZipFile zipFile = new ZipFile(file);
+                    InputStream inputStream = zipFile.getInputStream(zipFile.getEntry(PathUtils.RDL_BINARY))
+            ) {
+                fileUtils.writeResourceAsExecutable(inputStream, rdlBinaryPath);
+            }
+            Files.delete(file.toPath());
+        } else {
+            fileUtils.unTarZip("/rdl-bin/rdl.tgz", binDir.getPath(), true);
+            try (InputStream rdlStream = new FileInputStream(rdlBinaryPath)) {
+                fileUtils.writeResourceAsExecutable(rdlStream, rdlBinaryPath);
+            }
+        }
+
+        File file = fileUtils.getFileFromResource("/rdl-gen/rdl-gen.zip");
+        for (String g : GENERATORS) {
+            String generatorBinary = PathUtils.RDL_GEN_PARSEC_PREFIX + g;
+            try (
+                    ZipFile zipFile = new ZipFile(file);
+                    InputStream inputStream = zipFile.getInputStream(
+                            zipFile.getEntry(generatorBinary + "-" + rdlBinSuffix)
+                    )
+            ) {
+                fileUtils.writeResourceAsExecutable(inputStream, binDir + "/" + generatorBinary);
+            }
+        }
+        Files.delete(file.toPath());
+    }
+
+    @Benchmark
+    public void streamingExtraction() throws IOException {
+        String archive = rdlBinSuffix.equals("darwin") ? "/rdl-bin/rdl.zip" : "/rdl-bin/rdl.tgz";
+        fileUtils.extractArchiveEntriesAsExecutable(
+                archive, Collections.singletonMap(PathUtils.RDL_BINARY, binDir + "/" + PathUtils.RDL_BINARY));
+
+        Map<String, String> entries = new HashMap<>();
+        for (String g : GENERATORS) {
+            String generatorBinary = PathUtils.RDL_GEN_PARSEC_PREFIX + g;
+            entries.put(generatorBinary + "-" + rdlBinSuffix, binDir + "/" + generatorBinary);
+        }
+        fileUtils.extractArchiveEntriesAsExecutable("/rdl-gen/rdl-gen.zip", entries);
+    }
+}
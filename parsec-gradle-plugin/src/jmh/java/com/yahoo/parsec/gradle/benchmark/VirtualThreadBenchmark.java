@@ -0,0 +1,153 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.benchmark;
+
+import com.yahoo.parsec.gradle.generators.ParsecGeneratorUtil;
+import com.yahoo.parsec.gradle.utils.FileUtils;
+import org.gradle.api.logging.Logging;
+import org.glassfish.jersey.spi.ExecutorServiceProvider;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * VirtualThreadBenchmark.
+ * a load test of blocking resource methods: bursts of concurrent requests whose handler blocks on I/O,
+ * served by a pool of 200 platform threads like the default thread pool of Jetty, and by the virtual
+ * thread executor of the ParsecVirtualThreads generated by useVirtualThreads. The requests
+ * counter gives the throughput; run with -prof gc for the heap each burst takes, which holds the stacks of
+ * the virtual threads, the platform threads keep theirs out of the heap. The virtual threads need JDK 21
+ * or later.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class VirtualThreadBenchmark {
+
+    private static final String GENERATED_PACKAGE = "com.example.parsec_generated";
+
+    /**
+     * the max threads of the default QueuedThreadPool of Jetty.
+     */
+    private static final int JETTY_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"1000", "10000"})
+    private int concurrency;
+
+    @Param({"20"})
+    private int blockMillis;
+
+    private final FileUtils fileUtils = new FileUtils(Logging.getLogger(VirtualThreadBenchmark.class));
+
+    private File projectDir;
+
+    private URLClassLoader classLoader;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() throws Exception {
+        if ("platform".equals(threads)) {
+            executor = Executors.newFixedThreadPool(JETTY_MAX_THREADS);
+            return;
+        }
+
+        projectDir = Files.createTempDirectory("parsec-virtual-threads").toFile();
+        Path dir = projectDir.toPath().resolve(GENERATED_PACKAGE.replace('.', '/'));
+        Files.createDirectories(dir);
+        Path source = dir.resolve("ParsecVirtualThreads.java");
+        Files.write(source, new ParsecGeneratorUtil(fileUtils)
+                .renderTemplate("ParsecVirtualThreads.java", "com.example", new HashMap<>())
+                .getBytes(StandardCharsets.UTF_8));
+
+        File classesDir = new File(projectDir, "classes");
+        classesDir.mkdirs();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        int exitCode = compiler.run(null, null, null,
+                "-d", classesDir.getPath(), "-cp", System.getProperty("java.class.path"), source.toString());
+        if (exitCode != 0) {
+            throw new IllegalStateException("Failed to compile the generated ParsecVirtualThreads");
+        }
+
+        classLoader = new URLClassLoader(new URL[] {classesDir.toURI().toURL()}, getClass().getClassLoader());
+        Object provider = classLoader.loadClass(
+                GENERATED_PACKAGE + ".ParsecVirtualThreads$VirtualThreadExecutorProvider").newInstance();
+        executor = ((ExecutorServiceProvider) provider).getExecutorService();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException, InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+        if (classLoader != null) {
+            classLoader.close();
+            fileUtils.deleteDirectory(projectDir.toPath());
+        }
+    }
+
+    /**
+     * the requests served, reported per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Requests {
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+        }
+    }
+
+    @Benchmark
+    public void serveBurst(final Requests requests) throws InterruptedException {
+        final CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            executor.execute(() -> {
+                try {
+                    // the handler waiting on a backend
+                    Thread.sleep(blockMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        requests.requests += concurrency;
+    }
+}
@@ -5,7 +5,11 @@ package com.yahoo.parsec.gradle;
 
 import com.yahoo.parsec.gradle.utils.FileUtils;
 import com.yahoo.parsec.gradle.utils.PathUtils;
+import com.yahoo.parsec.gradle.utils.ToolchainCache;
 import org.gradle.api.DefaultTask;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Internal;
 
 /**
  * @author waynewu
@@ -20,6 +24,13 @@ abstract public class AbstractParsecGradleTask extends DefaultTask{
     String description;
     String group;
 
+    /**
+     * The build directories of the project and the root project, kept with the task by the configuration
+     * cache; they follow later changes of the build directories until then.
+     */
+    private final DirectoryProperty buildDirectory;
+    private final DirectoryProperty rootBuildDirectory;
+
     AbstractParsecGradleTask(final String name, final String description){
         super();
         this.name = name;
@@ -31,7 +42,52 @@ abstract public class AbstractParsecGradleTask extends DefaultTask{
             pluginExtension = new ParsecPluginExtension();
         }
         fileUtils = new FileUtils(getLogger());
-        pathUtils = new PathUtils(getProject(), pluginExtension);
+        buildDirectory = getProject().getObjects().directoryProperty();
+        buildDirectory.set(getProject().getLayout().getBuildDirectory());
+        rootBuildDirectory = getProject().getObjects().directoryProperty();
+        rootBuildDirectory.set(getProject().getRootProject().getLayout().getBuildDirectory());
+        pathUtils = new PathUtils(getProject().getProjectDir(), buildDirectory, rootBuildDirectory,
+                getProject().getGradle().getGradleUserHomeDir(), pluginExtension);
+    }
+
+    /**
+     * The build directory of the project.
+     *
+     * @return build directory
+     */
+    @Internal
+    public DirectoryProperty getBuildDirectory() {
+        return buildDirectory;
+    }
+
+    /**
+     * The build directory of the root project, where the aggregate store is.
+     *
+     * @return root build directory
+     */
+    @Internal
+    public DirectoryProperty getRootBuildDirectory() {
+        return rootBuildDirectory;
+    }
+
+    /**
+     * The version of the plugin, so outputs cached by another plugin version are not reused.
+     *
+     * @return plugin version
+     */
+    @Input
+    public String getPluginVersion() {
+        return ToolchainCache.getPluginVersion();
+    }
+
+    /**
+     * The version of the rdl parser and the parsec generators.
+     *
+     * @return generator version
+     */
+    @Input
+    public String getGeneratorVersion() {
+        return ToolchainCache.getGeneratorVersion();
     }
 
     void setPluginExtension(ParsecPluginExtension pluginExtension){ this.pluginExtension = pluginExtension; }
@@ -3,29 +3,94 @@
 
 package com.yahoo.parsec.gradle;
 
-import com.yahoo.parsec.gradle.generators.ParsecFileGenerator;
-import com.yahoo.parsec.gradle.generators.ParsecGeneratorUtil;
-import com.yahoo.parsec.gradle.generators.ParsecPackageResolver;
+import com.yahoo.parsec.gradle.utils.PathUtils;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.gradle.api.Action;
+import org.gradle.api.Task;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.api.tasks.TaskExecutionException;
-import org.testng.Assert;
+import org.gradle.workers.WorkerExecutor;
 
-import java.io.ByteArrayInputStream;
+import javax.inject.Inject;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.*;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
 
 /**
  * @author sho
  */
+@CacheableTask
 public class ParsecGenerateTask extends AbstractParsecGradleTask {
 
+    /**
+     * The RDL files, found when the inputs are snapshotted, and every RDL file of the source path
+     * they may include.
+     */
+    private final FileCollection rdlFiles;
 
     public ParsecGenerateTask(){
         super("parsec-generate", "Parsec: parse through the RDLs and generate necessary files");
+        rdlFiles = getProject().files(
+                new Callable<List<String>>() {
+                    @Override
+                    public List<String> call() {
+                        return ParsecGenerateWork.findRdlFiles(pluginExtension, pathUtils);
+                    }
+                },
+                getProject().fileTree(new Callable<File>() {
+                    @Override
+                    public File call() {
+                        return pathUtils.getSourceDir();
+                    }
+                }).include("**/*.rdl"));
+
+        // the swagger json copies would be missing if the outputs were restored from the build cache
+        getOutputs().doNotCacheIf("additionSwaggerJsonPath is set", new Spec<Task>() {
+            @Override
+            public boolean isSatisfiedBy(Task task) {
+                return getAdditionSwaggerJsonPath() != null;
+            }
+        });
+
+        // the files generated once into src/main/java are not outputs, so a cache hit or an up-to-date
+        // task would leave them missing
+        getOutputs().doNotCacheIf("a file generated into src/main/java is missing", new Spec<Task>() {
+            @Override
+            public boolean isSatisfiedBy(Task task) {
+                return ParsecGenerateWork.isSourceRootFileMissing(pluginExtension, pathUtils, fileUtils);
+            }
+        });
+        getOutputs().upToDateWhen(new Spec<Task>() {
+            @Override
+            public boolean isSatisfiedBy(Task task) {
+                return !ParsecGenerateWork.isSourceRootFileMissing(pluginExtension, pathUtils, fileUtils);
+            }
+        });
+    }
+
+    /**
+     * The worker executor, injected by Gradle.
+     *
+     * @return worker executor
+     */
+    @Inject
+    public WorkerExecutor getWorkerExecutor() {
+        throw new UnsupportedOperationException();
     }
 
     /**
@@ -35,305 +100,153 @@ public class ParsecGenerateTask extends AbstractParsecGradleTask {
      */
     @TaskAction
     public void executeTask() throws TaskExecutionException {
-
-        try {
-            // Create ${baseDir}/target/generated-sources/java
-            fileUtils.checkAndCreateDirectory(pathUtils.getGeneratedSourcesDir());
-
-            // Find RDL files to parse / generate
-            ArrayList<String> files = new ArrayList<>(); //RDL files
-            if ("*.rdl".equals(pluginExtension.getSourceFiles())) {
-                addFiles(files, pathUtils.getSourceDir()); //sourceDir = "src/main/rdl"
-            } else {
-                for (String filename : pluginExtension.getSourceFiles().split(",")) {
-                    File file = filename.startsWith("/") ?
-                        new File(filename) : new File(pathUtils.getSourcePath(), filename);
-                    if (file.exists()) {
-                        files.add(file.getPath());
-                    }
+        if (pluginExtension.isUseWorkerApi()) {
+            // the worker gets a plain copy of the extension and the paths, not the project
+            final ParsecPluginExtension extension = new ParsecPluginExtension(pluginExtension);
+            final PathUtils workPathUtils = pathUtils.snapshot(extension);
+            final String fingerprint = getGeneratorFingerprint();
+            getWorkerExecutor().noIsolation().submit(ParsecGenerateWorkAction.class,
+                    new Action<ParsecGenerateWorkAction.Parameters>() {
+                @Override
+                public void execute(ParsecGenerateWorkAction.Parameters parameters) {
+                    parameters.getPluginExtension().set(extension);
+                    parameters.getPathUtils().set(workPathUtils);
+                    parameters.getFingerprint().set(fingerprint);
                 }
-            }
-
-            getLogger().info("RDL files: " + files.size());
-            getLogger().error("RDL file list: " + files);
-
-            // Leave if no files found
-            if (files.size() == 0) {
-                getLogger().info("0 RDL files found");
-                return;
-            }
-
-            if (pluginExtension.isGenerateSwagger() || pluginExtension.isGenerateJson()) {
-                // Create ${buildDir}/generated-resources/parsec/doc
-                fileUtils.checkAndCreateDirectory(pathUtils.getDocPath());
-            }
-
-            if (pluginExtension.isHandleUncaughtExceptions()) {
-                // thrown error layout of parsec exception mapper depends on generated parsec error object
-                pluginExtension.setGenerateParsecError(true);
-            }
-
-            for (String file : files) {
-                getLogger().info("");
-                getLogger().info("Parsing " + file);
-
-                if (pluginExtension.isGenerateClient()) {
-                    List<String> options = new ArrayList<>();
-                    options.add("-o");
-                    options.add(pathUtils.getGeneratedSourcesPath());
-                    if (pluginExtension.isGenerateModelClassNamePcSuffix()) {
-                        options.add("-xpc=true");
-                    }
-                    rdlGenerate(
-                            pathUtils.getRdlBinaryPath(),
-                            "parsec-java-client",
-                            file,
-                            options
-                    );
-                }
-
-                if (pluginExtension.isGenerateSwagger()) {
-                    List<String> options = new ArrayList<>();
-                    options.add("-o");
-                    options.add(pathUtils.getDocPath());
-                    if (pluginExtension.isGenerateParsecError()) {
-                        options.add("-xe=true");
-                    }
-                    if (pluginExtension != null && !pluginExtension.getSwaggerSchema().isEmpty()) {
-                        options.add("-xc=" + pluginExtension.getSwaggerSchema());
-                    }
-                    if (pluginExtension.getFinalName() != null && !pluginExtension.getFinalName().isEmpty()) {
-                        options.add("-xf=" + pluginExtension.getFinalName());
-                    }
-                    rdlGenerate(pathUtils.getRdlBinaryPath(), "parsec-swagger", file, options);
-                }
-
-                if (pluginExtension.isGenerateJson()) {
-                    rdlGenerate(
-                        pathUtils.getRdlBinaryPath(),
-                        "json",
-                        file,
-                        Arrays.asList("-o", pathUtils.getDocPath())
-                    );
-                }
-
-                if (pluginExtension.isGenerateModel()) {
-                    List<String> options = new ArrayList<>();
-                    options.add("-o");
-                    options.add(pathUtils.getGeneratedSourcesPath());
-                    if (pluginExtension.isGenerateModelClassNamePcSuffix()) {
-                        options.add("-xpc=true");
-                    }
-                    if (pluginExtension.isAccessorNamingStyle()) {
-                        options.add("-xnamingStyle=" + pluginExtension.getAccessorNamingStyle());
-                    }
-                    rdlGenerate(
-                        pathUtils.getRdlBinaryPath(),
-                        "parsec-java-model",
-                        file,
-                        options
-                    );
-                }
-
-                if (pluginExtension.isGenerateServer()) {
-                    List<String> options = new ArrayList<>();
-                    options.add("-o");
-                    options.add(pathUtils.getGeneratedSourcesPath());
-                    if (pluginExtension.isGenerateHandlerImpl()) {
-                        options.add("-xi=true");
-                    } else {
-                        options.add("-xi=false");
-                    }
-                    if (pluginExtension.isUseSmartMethodNames()) {
-                        options.add("-xp=true");
-                    } else {
-                        options.add("-xp=false");
-                    }
-                    if (pluginExtension.isGenerateParsecError()) {
-                        options.add("-xe=true");
-                    } else {
-                        options.add("-xe=false");
-                    }
-                    if (pluginExtension.isGenerateModelClassNamePcSuffix()) {
-                        options.add("-xpc=true");
-                    }
-                    rdlGenerate(
-                        pathUtils.getRdlBinaryPath(),
-                        "parsec-java-server",
-                        file,
-                        options
-                    );
-                }
-            }
-
-            getLogger().info("");
-
-            if (pluginExtension.isGenerateSwagger()) {
-                Set<Path> swaggerJsons = fileUtils.findFiles(pathUtils.getDocPath(), "regex:^\\w+_swagger\\.json$");
-                if (!swaggerJsons.isEmpty()) {
-                    boolean needCopySwaggerJson = false;
-                    if (pluginExtension.getAdditionSwaggerJsonPath() != null
-                            && !pluginExtension.getAdditionSwaggerJsonPath().isEmpty()) {
-                        needCopySwaggerJson = true;
-                    }
-                    if (needCopySwaggerJson) {
-                        File f = new File(pluginExtension.getAdditionSwaggerJsonPath());
-                        fileUtils.checkAndCreateDirectory(f.getAbsolutePath());
-                    }
-                    StringBuilder stringBuilder = new StringBuilder()
-                        .append(getOverwriteWarningCommentBlock())
-                        .append("var localSwaggerJsons = [")
-                        .append(System.getProperty("line.separator"));
-                    List<Path> sortedSwaggerJsons = new ArrayList<>(swaggerJsons);
-                    Collections.sort(sortedSwaggerJsons, new Comparator<Path>() {
-                        @Override
-                        public int compare(Path o1, Path o2) {
-                            return o1.getFileName().toString().compareTo(o2.getFileName().toString());
-                        }
-                    });
-                    int i = 0;
-                    for (Path swaggerJson : sortedSwaggerJsons) {
-                        i++;
-
-                        stringBuilder.append("\t\"")
-                            .append(swaggerJson.getFileName())
-                            .append("\"");
+            });
+            return;
+        }
 
-                        if (i < swaggerJsons.size()) {
-                            stringBuilder.append(",");
-                        }
+        try {
+            new ParsecGenerateWork(getLogger(), fileUtils, pluginExtension, pathUtils, getGeneratorFingerprint())
+                    .execute();
+        } catch (IOException e) {
+            throw new TaskExecutionException(this, e);
+        }
+    }
 
-                        stringBuilder.append(System.getProperty("line.separator"));
-                        if (needCopySwaggerJson) {
-                            try {
-                                Files.copy(
-                                    swaggerJson,
-                                    new File(pluginExtension.getAdditionSwaggerJsonPath()
-                                            + File.separator + swaggerJson.getFileName()).toPath(),
-                                    StandardCopyOption.REPLACE_EXISTING
-                                );
-                            } catch (IOException e) {
-                                getLogger().warn("Copy File Error: " + swaggerJson.toString()
-                                        + " => " + pluginExtension.getAdditionSwaggerJsonPath());
-                            }
-                        }
-                    }
+    /**
+     * The RDL files to parse / generate, with the RDL files of the source path they may include,
+     * so a change of an included file makes the task out of date.
+     *
+     * @return RDL files
+     */
+    @InputFiles
+    @PathSensitive(PathSensitivity.RELATIVE)
+    public FileCollection getRdlFiles() {
+        return rdlFiles;
+    }
 
-                    stringBuilder.append("]");
-                    fileUtils.writeResourceToFile(
-                        new ByteArrayInputStream(stringBuilder.toString().getBytes()),
-                        pathUtils.getDocPath() + "/_local-swagger-jsons.js",
-                        true
-                    );
-                    if (needCopySwaggerJson) {
-                        try {
-                            Files.copy(
-                                    new File(pathUtils.getDocPath() + "/_local-swagger-jsons.js").toPath(),
-                                    new File(pluginExtension.getAdditionSwaggerJsonPath()
-                                            + "/_local-swagger-jsons.js").toPath(),
-                                    StandardCopyOption.REPLACE_EXISTING
-                            );
-                        } catch (IOException e) {
-                            getLogger().warn("Copy File Error: _local-swagger-jsons.js => "
-                                    + pluginExtension.getAdditionSwaggerJsonPath());
-                        }
-                    }
-                }
+    /**
+     * The extension options that change the generated files.
+     *
+     * @return option name to value
+     */
+    @Input
+    public Map<String, String> getGeneratorOptions() {
+        Map<String, String> options = new TreeMap<>();
+        options.put("sourceFiles", pluginExtension.getSourceFiles());
+        options.put("swaggerSchema", pluginExtension.getSwaggerSchema());
+        options.put("generateModel", String.valueOf(pluginExtension.isGenerateModel()));
+        options.put("generateServer", String.valueOf(pluginExtension.isGenerateServer()));
+        options.put("generateSwagger", String.valueOf(pluginExtension.isGenerateSwagger()));
+        options.put("generateJson", String.valueOf(pluginExtension.isGenerateJson()));
+        options.put("generateHandlerImpl", String.valueOf(pluginExtension.isGenerateHandlerImpl()));
+        options.put("generateClient", String.valueOf(pluginExtension.isGenerateClient()));
+        options.put("generateParsecError", String.valueOf(
+                pluginExtension.isGenerateParsecError() || pluginExtension.isHandleUncaughtExceptions()));
+        options.put("generateModelClassNamePcSuffix", String.valueOf(pluginExtension.isGenerateModelClassNamePcSuffix()));
+        options.put("useSmartMethodNames", String.valueOf(pluginExtension.isUseSmartMethodNames()));
+        options.put("handleUncaughtExceptions", String.valueOf(pluginExtension.isHandleUncaughtExceptions()));
+        options.put("finalName", String.valueOf(pluginExtension.getFinalName()));
+        options.put("accessorNamingStyle", String.valueOf(pluginExtension.getAccessorNamingStyle()));
+        options.put("generateJsonCodecs", String.valueOf(pluginExtension.isGenerateJsonCodecs()));
+        options.put("generateValidators", String.valueOf(pluginExtension.isGenerateValidators()));
+        options.put("generateAsyncHandlers", String.valueOf(pluginExtension.isGenerateAsyncHandlers()));
+        options.put("useVirtualThreads", String.valueOf(pluginExtension.isUseVirtualThreads()));
+        options.put("generateServerBootstrap", String.valueOf(pluginExtension.isGenerateServerBootstrap()));
+        if (pluginExtension.isGenerateServerBootstrap()) {
+            for (Map.Entry<String, String> setting : pluginExtension.getServerSettings().entrySet()) {
+                options.put("server." + setting.getKey(), setting.getValue());
             }
+        }
+        return options;
+    }
 
-            if (pluginExtension.isGenerateServer()) {
-                // handle handler, resources
-                final ParsecGeneratorUtil generatorUtil = new ParsecGeneratorUtil(fileUtils);
-                ParsecFileGenerator parsecFileGenerator = new ParsecFileGenerator(
-                    pathUtils.getGeneratedSourcesDir().toPath(),
-                    getProject(),
-                    fileUtils,
-                    new ParsecPackageResolver(generatorUtil, fileUtils),
-                    generatorUtil
-                );
-
-                // not support handle uncaught exception under multiple namespaces until now
-                if (parsecFileGenerator.hasMultipleNamespaces() && pluginExtension.isHandleUncaughtExceptions()) {
-                    getLogger().error("handleUncaughtException not support under multiple namespaces");
-                    pluginExtension.setHandleUncaughtExceptions(false);
-                }
-
-                parsecFileGenerator.generateParsecApplication(pluginExtension.isHandleUncaughtExceptions());
-                parsecFileGenerator.generateParsecValidationGroups();
-                parsecFileGenerator.generateFromTemplateToSourceRoot("DefaultResourceContext.java");
-                parsecFileGenerator.generateFromTemplateToIntersectSourceRoot("DefaultApplication.java");
-                parsecFileGenerator.generateFromTemplateToIntersectSourceRoot("DefaultWebListener.java");
-                parsecFileGenerator.generateFromTemplateToIntersectGeneratedNamespace("ParsecWrapperServlet.java");
-                parsecFileGenerator.generateFromTemplateToIntersectGeneratedNamespace("ParsecWebListener.java");
-
-                if (pluginExtension.isHandleUncaughtExceptions()) {
-                    parsecFileGenerator.generateFromTemplateToIntersectSourceRoot("DefaultExceptionMapper.java");
-                    parsecFileGenerator.generateFromTemplateToIntersectGeneratedNamespace("ParsecExceptionMapper.java");
-                }
-            }
+    /**
+     * Whether the swagger jsons are bundled.
+     *
+     * @return true if bundled
+     */
+    @Input
+    public boolean isBundleSwagger() {
+        return pluginExtension.isBundleSwagger();
+    }
 
-        } catch (IOException e) {
-            throw new TaskExecutionException(this, e);
+    /**
+     * The directory the swagger jsons are copied to, relative to the project directory if inside it.
+     *
+     * @return addition swagger json path, null if not set
+     */
+    @Input
+    @Optional
+    public String getAdditionSwaggerJsonPath() {
+        String additionSwaggerJsonPath = pluginExtension.getAdditionSwaggerJsonPath();
+        if (additionSwaggerJsonPath == null || additionSwaggerJsonPath.isEmpty()) {
+            return null;
         }
+        return ParsecGenerateWork.getProjectRelativePath(pathUtils.getProjectDir(), additionSwaggerJsonPath);
     }
 
     /**
-     * Add file.
+     * The generated sources directory.
      *
-     * @param files files
-     * @param sourcePath source path
+     * @return generated sources directory
      */
-    void addFiles(ArrayList<String> files, File sourcePath) {
-        if (sourcePath != null && sourcePath.exists()) {
-            for (String filename : sourcePath.list()) {
-                File file = new File(sourcePath, filename);
-                if (file.isDirectory()) {
-                    addFiles(files, file);
-                } else if (filename.endsWith(".rdl")) {
-                    files.add(file.getPath());
-                }
-            }
-        }
+    @OutputDirectory
+    public File getGeneratedSourcesDir() {
+        return pathUtils.getGeneratedSourcesDir();
     }
 
     /**
-     * RDL generate.
+     * The generated doc directory.
      *
-     * @param type type
-     * @param sourcePath source path
-     * @param options options
-     * @throws TaskExecutionException TaskExecutionException
+     * @return generated doc directory
      */
-    void rdlGenerate(
-        final String executable,
-        String type,
-        String sourcePath,
-        List<String> options
-    ) throws TaskExecutionException {
-        try {
-            File f = new File(executable);
-            List<String> command =  new ArrayList<>();
-            command.addAll(Arrays.asList(executable, "generate", type, sourcePath));
-            command.addAll(2, options);
+    @OutputDirectory
+    public File getDocDir() {
+        return pathUtils.getDocDir();
+    }
 
-            getLogger().info(" Generating " + type);
-            getLogger().debug("execute command: {}", command);
-            ProcessBuilder processBuilder = new ProcessBuilder(command)
-                .directory(getProject().getProjectDir())
-                .inheritIO();
+    /**
+     * The parsed RDL schema cache, only kept for this workspace.
+     *
+     * @return schema cache directory
+     */
+    @LocalState
+    public File getSchemaCacheDir() {
+        return pathUtils.getSchemaCacheDir();
+    }
 
-            // Add execute PATH
-            Map<String, String> env = processBuilder.environment();
-            env.put("PATH", pathUtils.getBinPath());
-            Process process = processBuilder.start();
+    /**
+     * The manifest of the RDL files and the files they produced.
+     *
+     * @return manifest file
+     */
+    @OutputFile
+    public File getManifestFile() {
+        return pathUtils.getGenerateManifestFile();
+    }
 
-            int errorCode = process.waitFor();
-            if (errorCode != 0) {
-                throw new IOException("Error parsing RDL file " + sourcePath);
-            }
-        } catch (IOException | InterruptedException e) {
-            throw new TaskExecutionException(this, e);
-        }
+    /**
+     * Get the fingerprint of the generator options and version, the outputs of all RDL files
+     * are regenerated if it changes.
+     *
+     * @return fingerprint
+     */
+    @Internal
+    String getGeneratorFingerprint() {
+        return DigestUtils.sha256Hex(getGeneratorOptions() + getGeneratorVersion());
     }
 
     /**
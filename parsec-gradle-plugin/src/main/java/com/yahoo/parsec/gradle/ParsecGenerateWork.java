@@ -0,0 +1,1202 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle;
+
+import com.yahoo.parsec.gradle.generators.ParsecApplicationOptions;
+import com.yahoo.parsec.gradle.generators.ParsecFileGenerator;
+import com.yahoo.parsec.gradle.generators.ParsecGeneratorUtil;
+import com.yahoo.parsec.gradle.generators.ParsecPackageResolver;
+import com.yahoo.parsec.gradle.generators.ParsecRdlGenerateJob;
+import com.yahoo.parsec.gradle.generators.ParsecRdlGenerateRunner;
+import com.yahoo.parsec.gradle.utils.FileUtils;
+import com.yahoo.parsec.gradle.utils.GenerateManifest;
+import com.yahoo.parsec.gradle.utils.GenerateReport;
+import com.yahoo.parsec.gradle.utils.OutputDigests;
+import com.yahoo.parsec.gradle.utils.PathUtils;
+import com.yahoo.parsec.gradle.utils.SwaggerBundle;
+import com.yahoo.parsec.gradle.utils.ToolchainCache;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.gradle.api.GradleException;
+import org.gradle.api.logging.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * ParsecGenerateWork.
+ * the work of parsec-generate: run the rdl generators on the changed RDL files and generate the
+ * parsec java files. It needs its parameters only and no project, so it can run either on the
+ * task thread or in a Gradle worker, see ParsecGenerateWorkAction.
+ */
+public class ParsecGenerateWork implements Runnable {
+
+    /**
+     * the generator whose outputs are specific to each project.
+     */
+    private static final String SERVER_GENERATOR = "parsec-java-server";
+
+    /**
+     * the include statement of a RDL file.
+     */
+    private static final Pattern INCLUDE_PATTERN = Pattern.compile("(?m)^\\s*include\\s+\"([^\"]+)\"");
+
+    /**
+     * the logger.
+     */
+    private final Logger logger;
+
+    /**
+     * the file utils.
+     */
+    private final FileUtils fileUtils;
+
+    /**
+     * the plugin extension, a copy when run as a worker.
+     */
+    private final ParsecPluginExtension pluginExtension;
+
+    /**
+     * the path utils.
+     */
+    private final PathUtils pathUtils;
+
+    /**
+     * the fingerprint of the generator options and version.
+     */
+    private final String fingerprint;
+
+    /**
+     * the timings of the current run.
+     */
+    private GenerateReport report;
+
+    /**
+     * the RDL files each RDL file of the current run includes, directly or not, to their content hash.
+     */
+    private final Map<String, Map<String, String>> includes = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param logger logger
+     * @param fileUtils file utils
+     * @param pluginExtension plugin extension
+     * @param pathUtils path utils
+     * @param fingerprint generator fingerprint
+     */
+    public ParsecGenerateWork(
+            final Logger logger,
+            final FileUtils fileUtils,
+            final ParsecPluginExtension pluginExtension,
+            final PathUtils pathUtils,
+            final String fingerprint
+    ) {
+        this.logger = logger;
+        this.fileUtils = fileUtils;
+        this.pluginExtension = pluginExtension;
+        this.pathUtils = pathUtils;
+        this.fingerprint = fingerprint;
+    }
+
+    @Override
+    public void run() {
+        try {
+            execute();
+        } catch (IOException e) {
+            throw new GradleException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parsec generate.
+     *
+     * @throws IOException IOException
+     */
+    public void execute() throws IOException {
+        report = new GenerateReport(getGenerationMode());
+        OutputDigests outputDigests = OutputDigests.load(pathUtils.getOutputDigestsFile());
+        fileUtils.setOutputDigests(outputDigests);
+        try {
+            generate(outputDigests);
+        } finally {
+            fileUtils.setOutputDigests(null);
+            try {
+                outputDigests.save(pathUtils.getOutputDigestsFile());
+            } catch (IOException e) {
+                logger.warn("Cannot write parsec output digests: " + e.getMessage());
+            }
+            try {
+                report.save(pathUtils.getGenerateReportFile());
+            } catch (IOException e) {
+                logger.warn("Cannot write parsec-generate report: " + e.getMessage());
+            }
+            for (String line : report.getSummary()) {
+                logger.lifecycle(line);
+            }
+        }
+    }
+
+    /**
+     * Get the timings of the last run.
+     *
+     * @return report, null if not run yet
+     */
+    GenerateReport getReport() {
+        return report;
+    }
+
+    private void generate(final OutputDigests outputDigests) throws IOException {
+        // Create ${baseDir}/target/generated-sources/java
+        fileUtils.checkAndCreateDirectory(pathUtils.getGeneratedSourcesDir());
+        if (!pluginExtension.isStagedGeneration()) {
+            generateTo().save(pathUtils.getGenerateManifestFile());
+            return;
+        }
+
+        // generate and post process in the staging directory, where the outputs are hard linked, then move in
+        // the files this run replaced once every step succeeded; the files are moved in one by one
+        File stagingDir = pathUtils.getStagingDir();
+        fileUtils.deleteDirectory(stagingDir.toPath());
+        try {
+            long start = System.currentTimeMillis();
+            Path stagedSources = Paths.get(pathUtils.getStagedGeneratedSourcesPath());
+            Path stagedDoc = Paths.get(pathUtils.getStagedDocPath());
+            fileUtils.checkAndCreateDirectory(stagedSources.toString());
+            fileUtils.checkAndCreateDirectory(stagedDoc.toString());
+            fileUtils.linkFiles(pathUtils.getGeneratedSourcesDir().toPath(), stagedSources);
+            fileUtils.linkFiles(pathUtils.getDocDir().toPath(), stagedDoc);
+            report.addPhase("stageOutputs", System.currentTimeMillis() - start);
+
+            GenerateManifest manifest = generateTo();
+
+            start = System.currentTimeMillis();
+            int deleted = fileUtils.deleteMissingFiles(stagedSources, pathUtils.getGeneratedSourcesDir().toPath())
+                    + fileUtils.deleteMissingFiles(stagedDoc, pathUtils.getDocDir().toPath());
+            int moved = fileUtils.moveChangedFiles(stagedSources, pathUtils.getGeneratedSourcesDir().toPath())
+                    + fileUtils.moveChangedFiles(stagedDoc, pathUtils.getDocDir().toPath());
+            outputDigests.move(stagedSources.toFile(), pathUtils.getGeneratedSourcesDir());
+            outputDigests.move(stagedDoc.toFile(), pathUtils.getDocDir());
+            report.addPhase("moveStagedOutputs", System.currentTimeMillis() - start);
+            logger.info("Staged files moved in: " + moved + ", deleted: " + deleted);
+            manifest.save(pathUtils.getGenerateManifestFile());
+        } finally {
+            fileUtils.deleteDirectory(stagingDir.toPath());
+        }
+    }
+
+    /**
+     * Generate into the output directories, the staged ones in staged generation.
+     *
+     * @return the manifest of the run, to save once the outputs are in place
+     * @throws IOException IOException
+     */
+    private GenerateManifest generateTo() throws IOException {
+        // Find RDL files to parse / generate
+        List<String> files = findRdlFiles(pluginExtension, pathUtils);
+
+        logger.info("RDL files: " + files.size());
+        logger.error("RDL file list: " + files);
+
+        // Keep the outputs of unchanged RDL files, regenerate the others
+        GenerateManifest previousManifest = GenerateManifest.load(pathUtils.getGenerateManifestFile());
+        GenerateManifest manifest = new GenerateManifest(fingerprint);
+        long phaseStart = System.currentTimeMillis();
+        Map<String, String> changedFiles = findChangedRdlFiles(files, previousManifest, manifest);
+        report.addPhase("findChangedRdlFiles", System.currentTimeMillis() - phaseStart);
+
+        // Leave if no files found
+        if (files.size() == 0) {
+            logger.info("0 RDL files found");
+            pruneOutputs(previousManifest, manifest);
+            return manifest;
+        }
+
+        if (pluginExtension.isGenerateSwagger() || pluginExtension.isGenerateJson()) {
+            // Create ${buildDir}/generated-resources/parsec/doc
+            fileUtils.checkAndCreateDirectory(getOutputDocPath());
+        }
+
+        if (pluginExtension.isHandleUncaughtExceptions()) {
+            // thrown error layout of parsec exception mapper depends on generated parsec error object
+            pluginExtension.setGenerateParsecError(true);
+        }
+
+        logger.info("RDL files changed: " + changedFiles.size());
+        if (!changedFiles.isEmpty()) {
+            rdlGenerate(changedFiles, manifest);
+        }
+        pruneOutputs(previousManifest, manifest);
+        pruneSchemaCache(manifest);
+
+        logger.info("");
+
+        phaseStart = System.currentTimeMillis();
+        if (pluginExtension.isGenerateSwagger()) {
+            Set<Path> swaggerJsons = fileUtils.findFiles(getOutputDocPath(), "regex:^\\w+_swagger\\.json$");
+            if (!swaggerJsons.isEmpty()) {
+                boolean needCopySwaggerJson = false;
+                if (pluginExtension.getAdditionSwaggerJsonPath() != null
+                        && !pluginExtension.getAdditionSwaggerJsonPath().isEmpty()) {
+                    needCopySwaggerJson = true;
+                }
+                if (needCopySwaggerJson) {
+                    File f = new File(pluginExtension.getAdditionSwaggerJsonPath());
+                    fileUtils.checkAndCreateDirectory(f.getAbsolutePath());
+                }
+                StringBuilder stringBuilder = new StringBuilder()
+                    .append(ParsecGenerateTask.getOverwriteWarningCommentBlock())
+                    .append("var localSwaggerJsons = [")
+                    .append(System.getProperty("line.separator"));
+                List<Path> sortedSwaggerJsons = new ArrayList<>(swaggerJsons);
+                Collections.sort(sortedSwaggerJsons, new Comparator<Path>() {
+                    @Override
+                    public int compare(Path o1, Path o2) {
+                        return o1.getFileName().toString().compareTo(o2.getFileName().toString());
+                    }
+                });
+                int i = 0;
+                for (Path swaggerJson : sortedSwaggerJsons) {
+                    i++;
+
+                    stringBuilder.append("\t\"")
+                        .append(swaggerJson.getFileName())
+                        .append("\"");
+
+                    if (i < swaggerJsons.size()) {
+                        stringBuilder.append(",");
+                    }
+
+                    stringBuilder.append(System.getProperty("line.separator"));
+                    if (needCopySwaggerJson) {
+                        try {
+                            copySwaggerFile(
+                                swaggerJson,
+                                new File(pluginExtension.getAdditionSwaggerJsonPath()
+                                        + File.separator + swaggerJson.getFileName()).toPath()
+                            );
+                        } catch (IOException e) {
+                            logger.warn("Copy File Error: " + swaggerJson.toString()
+                                    + " => " + pluginExtension.getAdditionSwaggerJsonPath());
+                        }
+                    }
+                }
+
+                stringBuilder.append("]");
+                SwaggerBundle swaggerBundle = null;
+                if (pluginExtension.isBundleSwagger()) {
+                    swaggerBundle = SwaggerBundle.create(sortedSwaggerJsons);
+                    appendSwaggerBundle(stringBuilder, swaggerBundle);
+                }
+                fileUtils.writeResourceToFile(
+                    new ByteArrayInputStream(stringBuilder.toString().getBytes()),
+                    getOutputDocPath() + "/_local-swagger-jsons.js",
+                    true
+                );
+                List<File> bundleFiles = swaggerBundle == null
+                        ? Collections.<File>emptyList() : swaggerBundle.save(fileUtils, new File(getOutputDocPath()));
+                if (needCopySwaggerJson) {
+                    try {
+                        copySwaggerFile(
+                                new File(getOutputDocPath() + "/_local-swagger-jsons.js").toPath(),
+                                new File(pluginExtension.getAdditionSwaggerJsonPath()
+                                        + "/_local-swagger-jsons.js").toPath()
+                        );
+                    } catch (IOException e) {
+                        logger.warn("Copy File Error: _local-swagger-jsons.js => "
+                                + pluginExtension.getAdditionSwaggerJsonPath());
+                    }
+                    for (File bundleFile : bundleFiles) {
+                        try {
+                            copySwaggerFile(bundleFile.toPath(), new File(
+                                    pluginExtension.getAdditionSwaggerJsonPath(), bundleFile.getName()).toPath());
+                        } catch (IOException e) {
+                            logger.warn("Copy File Error: " + bundleFile.getName() + " => "
+                                    + pluginExtension.getAdditionSwaggerJsonPath());
+                        }
+                    }
+                    if (swaggerBundle != null) {
+                        swaggerBundle.deleteStaleBundles(
+                                fileUtils, new File(pluginExtension.getAdditionSwaggerJsonPath()));
+                    }
+                }
+            }
+        }
+
+        report.addPhase("swaggerIndex", System.currentTimeMillis() - phaseStart);
+
+        if (pluginExtension.isGenerateServer()) {
+            // handle handler, resources
+            phaseStart = System.currentTimeMillis();
+            final ParsecGeneratorUtil generatorUtil = new ParsecGeneratorUtil(fileUtils);
+            ParsecFileGenerator parsecFileGenerator = new ParsecFileGenerator(
+                Paths.get(getOutputSourcesPath()),
+                pathUtils.getProjectDir(),
+                fileUtils,
+                new ParsecPackageResolver(generatorUtil, fileUtils),
+                generatorUtil
+            );
+            report.addPhase("resolve", System.currentTimeMillis() - phaseStart);
+
+            // not support handle uncaught exception under multiple namespaces until now
+            if (parsecFileGenerator.hasMultipleNamespaces() && pluginExtension.isHandleUncaughtExceptions()) {
+                logger.error("handleUncaughtException not support under multiple namespaces");
+                pluginExtension.setHandleUncaughtExceptions(false);
+            }
+
+            if (pluginExtension.isGenerateAsyncHandlers()) {
+                phaseStart = System.currentTimeMillis();
+                for (Map.Entry<String, Set<String>> entry : parsecFileGenerator.generateAsyncHandlers().entrySet()) {
+                    logger.warn("generateAsyncHandlers: the methods " + entry.getValue() + " of " + entry.getKey()
+                            + " do not have the layout of the server generator, and are left synchronous");
+                }
+                report.addPhase("asyncHandlersGenerate", System.currentTimeMillis() - phaseStart);
+            }
+
+            if (pluginExtension.isUseVirtualThreads()) {
+                phaseStart = System.currentTimeMillis();
+                parsecFileGenerator.generateVirtualThreads();
+                report.addPhase("virtualThreadsGenerate", System.currentTimeMillis() - phaseStart);
+            }
+
+            if (pluginExtension.isGenerateServerBootstrap()) {
+                phaseStart = System.currentTimeMillis();
+                parsecFileGenerator.generateServerBootstrap(pluginExtension.getServerSettings());
+                report.addPhase("serverBootstrapGenerate", System.currentTimeMillis() - phaseStart);
+            }
+
+            phaseStart = System.currentTimeMillis();
+            ParsecApplicationOptions applicationOptions = new ParsecApplicationOptions();
+            applicationOptions.setHandleUncaughtException(pluginExtension.isHandleUncaughtExceptions());
+            applicationOptions.setRegisterJsonCodecs(pluginExtension.isGenerateJsonCodecs());
+            applicationOptions.setRegisterValidators(pluginExtension.isGenerateValidators());
+            applicationOptions.setRegisterVirtualThreads(pluginExtension.isUseVirtualThreads());
+            parsecFileGenerator.generateParsecApplication(applicationOptions);
+            report.addPhase("applicationGenerate", System.currentTimeMillis() - phaseStart);
+
+            if (pluginExtension.isGenerateJsonCodecs()) {
+                phaseStart = System.currentTimeMillis();
+                parsecFileGenerator.generateParsecJsonCodec();
+                report.addPhase("jsonCodecGenerate", System.currentTimeMillis() - phaseStart);
+            }
+
+            if (pluginExtension.isGenerateValidators()) {
+                phaseStart = System.currentTimeMillis();
+                parsecFileGenerator.generateParsecValidators();
+                report.addPhase("validatorsGenerate", System.currentTimeMillis() - phaseStart);
+            }
+
+            phaseStart = System.currentTimeMillis();
+            parsecFileGenerator.generateParsecValidationGroups();
+            report.addPhase("validationGroupsGenerate", System.currentTimeMillis() - phaseStart);
+
+            phaseStart = System.currentTimeMillis();
+            // the files kept in src/main/java are not task outputs, the manifest lists them for the task
+            List<File> sourceRootFiles = new ArrayList<>(
+                    parsecFileGenerator.generateFromTemplateToSourceRoot("DefaultResourceContext.java"));
+            sourceRootFiles.add(parsecFileGenerator.generateFromTemplateToIntersectSourceRoot("DefaultApplication.java"));
+            sourceRootFiles.add(parsecFileGenerator.generateFromTemplateToIntersectSourceRoot("DefaultWebListener.java"));
+            parsecFileGenerator.generateFromTemplateToIntersectGeneratedNamespace("ParsecWrapperServlet.java");
+            parsecFileGenerator.generateFromTemplateToIntersectGeneratedNamespace("ParsecWebListener.java");
+
+            if (pluginExtension.isHandleUncaughtExceptions()) {
+                sourceRootFiles.add(
+                        parsecFileGenerator.generateFromTemplateToIntersectSourceRoot("DefaultExceptionMapper.java"));
+                parsecFileGenerator.generateFromTemplateToIntersectGeneratedNamespace("ParsecExceptionMapper.java");
+            }
+            for (File sourceRootFile : sourceRootFiles) {
+                manifest.addSourceRootFile(getProjectRelativePath(pathUtils.getProjectDir(), sourceRootFile.getPath()));
+            }
+            report.addPhase("templates", System.currentTimeMillis() - phaseStart);
+        }
+        return manifest;
+    }
+
+    /**
+     * Get the names of the files parsec-generate writes into src/main/java if they do not exist.
+     *
+     * @param pluginExtension plugin extension
+     * @return file names, empty if the server is not generated
+     */
+    static Set<String> getSourceRootFileNames(final ParsecPluginExtension pluginExtension) {
+        Set<String> names = new TreeSet<>();
+        if (pluginExtension.isGenerateServer()) {
+            names.addAll(Arrays.asList(
+                    "DefaultResourceContext.java", "DefaultApplication.java", "DefaultWebListener.java"));
+            if (pluginExtension.isHandleUncaughtExceptions()) {
+                names.add("DefaultExceptionMapper.java");
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Check if a file parsec-generate writes into src/main/java is missing. The files recorded in the manifest are
+     * checked, and the ones not recorded with the current options are looked up by name under src/main/java.
+     *
+     * @param pluginExtension plugin extension
+     * @param pathUtils path utils
+     * @param fileUtils file utils
+     * @return true if a file is missing
+     */
+    static boolean isSourceRootFileMissing(
+            final ParsecPluginExtension pluginExtension,
+            final PathUtils pathUtils,
+            final FileUtils fileUtils
+    ) {
+        Set<String> names = getSourceRootFileNames(pluginExtension);
+        if (names.isEmpty()) {
+            return false;
+        }
+        try {
+            GenerateManifest manifest = GenerateManifest.load(pathUtils.getGenerateManifestFile());
+            for (String sourceRootFile : manifest.getSourceRootFiles()) {
+                File file = new File(sourceRootFile);
+                if (!(file.isAbsolute() ? file : new File(pathUtils.getProjectDir(), sourceRootFile)).isFile()) {
+                    return true;
+                }
+                names.remove(file.getName());
+            }
+            if (names.isEmpty()) {
+                return false;
+            }
+            // not generated in this workspace with the current options yet
+            for (Path found : fileUtils.findFiles(
+                    new File(pathUtils.getProjectDir(), "src/main/java").getPath(), "glob:*.java")) {
+                names.remove(found.getFileName().toString());
+            }
+            return !names.isEmpty();
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Append the bundle file name and the content hash of each swagger json to the local swagger jsons script.
+     *
+     * @param stringBuilder local swagger jsons script
+     * @param swaggerBundle swagger bundle
+     */
+    private void appendSwaggerBundle(final StringBuilder stringBuilder, final SwaggerBundle swaggerBundle) {
+        String lineSeparator = System.getProperty("line.separator");
+        stringBuilder.append(lineSeparator)
+            .append("var localSwaggerBundle = \"").append(swaggerBundle.getFileName()).append("\";")
+            .append(lineSeparator)
+            .append("var localSwaggerJsonHashes = {")
+            .append(lineSeparator);
+        int i = 0;
+        for (Map.Entry<String, String> entry : swaggerBundle.getHashes().entrySet()) {
+            i++;
+            stringBuilder.append("\t\"").append(entry.getKey()).append("\": \"").append(entry.getValue()).append("\"")
+                .append(i < swaggerBundle.getHashes().size() ? "," : "")
+                .append(lineSeparator);
+        }
+        stringBuilder.append("};");
+    }
+
+    /**
+     * Copy a swagger file to the addition swagger json path, hard linked if bundling swagger.
+     *
+     * @param source source file
+     * @param target target file
+     * @throws IOException IOException
+     */
+    private void copySwaggerFile(final Path source, final Path target) throws IOException {
+        if (pluginExtension.isBundleSwagger()) {
+            fileUtils.linkOrCopy(source, target);
+        } else {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Find the RDL files to parse / generate.
+     *
+     * @param pluginExtension plugin extension
+     * @param pathUtils path utils
+     * @return RDL files
+     */
+    static List<String> findRdlFiles(final ParsecPluginExtension pluginExtension, final PathUtils pathUtils) {
+        ArrayList<String> files = new ArrayList<>(); //RDL files
+        if ("*.rdl".equals(pluginExtension.getSourceFiles())) {
+            addFiles(files, pathUtils.getSourceDir()); //sourceDir = "src/main/rdl"
+        } else {
+            for (String filename : pluginExtension.getSourceFiles().split(",")) {
+                File file = filename.startsWith("/") ?
+                    new File(filename) : new File(pathUtils.getSourcePath(), filename);
+                if (file.exists()) {
+                    files.add(file.getPath());
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Find the RDL files that changed since the previous manifest, the unchanged ones are put into
+     * the new manifest with their previous outputs. A RDL file also changed if a RDL file it includes,
+     * directly or not, changed.
+     *
+     * @param files RDL files
+     * @param previousManifest previous manifest
+     * @param manifest new manifest
+     * @return changed RDL file to content hash
+     * @throws IOException IOException
+     */
+    Map<String, String> findChangedRdlFiles(
+            final List<String> files,
+            final GenerateManifest previousManifest,
+            final GenerateManifest manifest
+    ) throws IOException {
+        boolean sameFingerprint = manifest.getFingerprint().equals(previousManifest.getFingerprint());
+        Map<String, String> changedFiles = new LinkedHashMap<>();
+        Map<String, String> digests = new HashMap<>();
+        includes.clear();
+        for (String file : files) {
+            String key = getProjectRelativePath(pathUtils.getProjectDir(), file);
+            String hash = fileUtils.getFileDigest(Paths.get(file));
+            Set<String> outputs = previousManifest.getOutputs(key);
+            Map<String, String> previousIncludes = previousManifest.getIncludes(key);
+            if (sameFingerprint && hash.equals(previousManifest.getHash(key))
+                    && includesUnchanged(previousIncludes, digests) && outputsExist(outputs)) {
+                // the same content includes the same RDL files
+                includes.put(file, previousIncludes);
+                manifest.put(key, hash, previousIncludes, outputs);
+            } else {
+                includes.put(file, findIncludes(file));
+                changedFiles.put(file, hash);
+            }
+        }
+        return changedFiles;
+    }
+
+    /**
+     * Find the RDL files a RDL file includes, directly or not, from its include statements.
+     * The included paths are relative to the RDL file that includes them.
+     *
+     * @param file RDL file
+     * @return included RDL path, relative to the project directory if inside it, to content hash
+     * @throws IOException IOException
+     */
+    Map<String, String> findIncludes(final String file) throws IOException {
+        Map<String, String> fileIncludes = new TreeMap<>();
+        Path rdlFile = Paths.get(file).toAbsolutePath().normalize();
+        Set<Path> visited = new HashSet<>(Collections.singleton(rdlFile));
+        Deque<Path> pending = new ArrayDeque<>(visited);
+        while (!pending.isEmpty()) {
+            Path current = pending.poll();
+            for (String include : fileUtils.findPatternsInFile(current, INCLUDE_PATTERN)) {
+                Path included = current.resolveSibling(include).normalize();
+                // a missing RDL file fails the generator, it is not recorded
+                if (Files.isRegularFile(included) && visited.add(included)) {
+                    fileIncludes.put(getProjectRelativePath(pathUtils.getProjectDir(), included.toString()),
+                            fileUtils.getFileDigest(included));
+                    pending.add(included);
+                }
+            }
+        }
+        return fileIncludes;
+    }
+
+    private boolean includesUnchanged(final Map<String, String> fileIncludes, final Map<String, String> digests)
+            throws IOException {
+        for (Map.Entry<String, String> include : fileIncludes.entrySet()) {
+            String digest = digests.get(include.getKey());
+            if (digest == null) {
+                File file = new File(include.getKey());
+                if (!file.isAbsolute()) {
+                    file = new File(pathUtils.getProjectDir(), include.getKey());
+                }
+                if (!file.isFile()) {
+                    return false;
+                }
+                digest = fileUtils.getFileDigest(file.toPath());
+                digests.put(include.getKey(), digest);
+            }
+            if (!digest.equals(include.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the hash of the schema of a RDL file: its content hash, and the content hashes of the RDL
+     * files it includes if any.
+     *
+     * @param hash content hash
+     * @param fileIncludes included RDL path to content hash
+     * @return hash
+     */
+    static String getSchemaHash(final String hash, final Map<String, String> fileIncludes) {
+        return fileIncludes.isEmpty() ? hash : DigestUtils.sha256Hex(hash + " " + new TreeMap<>(fileIncludes));
+    }
+
+    private String getSchemaHash(final String file, final String hash) {
+        Map<String, String> fileIncludes = includes.get(file);
+        return getSchemaHash(hash, fileIncludes == null ? Collections.<String, String>emptyMap() : fileIncludes);
+    }
+
+    /**
+     * RDL generate, and record the files each RDL file produced and the RDL files it includes in the manifest.
+     *
+     * @param changedFiles RDL file to content hash
+     * @param manifest manifest
+     * @throws IOException IOException
+     */
+    void rdlGenerate(final Map<String, String> changedFiles, final GenerateManifest manifest) throws IOException {
+        ParsecRdlGenerateRunner runner = new ParsecRdlGenerateRunner(
+                logger, pathUtils.getProjectDir(), pathUtils.getBinPath());
+        runner.setJobListener(new JobReporter());
+        long start = System.currentTimeMillis();
+
+        // RDL file to the schema file the generators read
+        Map<String, String> schemaFiles = new HashMap<>();
+        for (String file : changedFiles.keySet()) {
+            schemaFiles.put(file, file);
+        }
+        if (pluginExtension.isParseOnce()) {
+            schemaFiles.putAll(parseSchemas(runner, changedFiles));
+            report.addPhase("parseSchemas", System.currentTimeMillis() - start);
+        }
+        long generateStart = System.currentTimeMillis();
+
+        if (pluginExtension.isAggregateGeneration()) {
+            aggregateGenerate(runner, changedFiles, schemaFiles, manifest);
+        } else {
+            List<ParsecRdlGenerateJob> jobs = new ArrayList<>();
+            for (String file : changedFiles.keySet()) {
+                jobs.addAll(createRdlGenerateJobs(pathUtils.getRdlBinaryPath(), file, schemaFiles.get(file)));
+            }
+            List<List<Path>> jobOutputs = runJobsInOwnDirectories(runner, jobs);
+            Map<String, Set<String>> outputs = new HashMap<>();
+            for (int i = 0; i < jobs.size(); i++) {
+                Set<String> rdlOutputs = outputs.computeIfAbsent(jobs.get(i).getRdlFile(), key -> new TreeSet<>());
+                for (Path output : jobOutputs.get(i)) {
+                    rdlOutputs.add(getOutputKey(output));
+                }
+            }
+            for (Map.Entry<String, String> entry : changedFiles.entrySet()) {
+                Set<String> rdlOutputs = outputs.get(entry.getKey());
+                manifest.put(getProjectRelativePath(pathUtils.getProjectDir(), entry.getKey()), entry.getValue(),
+                        includes.get(entry.getKey()),
+                        rdlOutputs == null ? Collections.<String>emptySet() : rdlOutputs);
+            }
+        }
+        report.addPhase("rdlGenerate", System.currentTimeMillis() - generateStart);
+    }
+
+    /**
+     * Run the jobs, each writing into a directory of its own, then copy the files of each job in order to the
+     * directory it writes to. The files of every job are told apart this way, whether the jobs run one at a time
+     * or not.
+     *
+     * @param runner runner
+     * @param jobs jobs
+     * @return the files of each job, in its output directory, in job order
+     * @throws IOException IOException
+     */
+    private List<List<Path>> runJobsInOwnDirectories(
+            final ParsecRdlGenerateRunner runner,
+            final List<ParsecRdlGenerateJob> jobs
+    ) throws IOException {
+        List<ParsecRdlGenerateJob> ownJobs = new ArrayList<>();
+        try {
+            for (int i = 0; i < jobs.size(); i++) {
+                File dir = pathUtils.getJobOutputDir(i, new File(jobs.get(i).getOutputDir()));
+                fileUtils.deleteDirectory(dir.getParentFile().toPath());
+                fileUtils.checkAndCreateDirectory(dir);
+                ownJobs.add(jobs.get(i).withOutputDir(dir.getPath()));
+            }
+            runJobs(runner, ownJobs);
+
+            List<List<Path>> outputs = new ArrayList<>();
+            for (int i = 0; i < jobs.size(); i++) {
+                outputs.add(fileUtils.copyChangedFiles(
+                        Paths.get(ownJobs.get(i).getOutputDir()), Paths.get(jobs.get(i).getOutputDir())));
+            }
+            return outputs;
+        } finally {
+            for (ParsecRdlGenerateJob ownJob : ownJobs) {
+                fileUtils.deleteDirectory(new File(ownJob.getOutputDir()).getParentFile().toPath());
+            }
+        }
+    }
+
+    /**
+     * RDL generate through the aggregate store shared by every project of the build. The outputs of
+     * the model, client, swagger and json generators of a RDL file are stored once for its content,
+     * name and generator options, and copied from the store when another project generated them
+     * already; the server generator still runs for each project.
+     *
+     * @param runner runner
+     * @param changedFiles RDL file to content hash
+     * @param schemaFiles RDL file to the schema file the generators read
+     * @param manifest manifest
+     * @throws IOException IOException
+     */
+    private void aggregateGenerate(
+            final ParsecRdlGenerateRunner runner,
+            final Map<String, String> changedFiles,
+            final Map<String, String> schemaFiles,
+            final GenerateManifest manifest
+    ) throws IOException {
+        File storeDir = pathUtils.getAggregateStoreDir();
+        fileUtils.checkAndCreateDirectory(storeDir);
+        String executable = pathUtils.getRdlBinaryPath();
+        List<ParsecRdlGenerateJob> jobs = new ArrayList<>();
+        // RDL file to its store entry, and the entries generated by this run to their final place
+        Map<String, File> entries = new HashMap<>();
+        Map<File, File> newEntries = new HashMap<>();
+
+        for (String file : changedFiles.keySet()) {
+            List<ParsecRdlGenerateJob> sharedJobs = new ArrayList<>();
+            for (ParsecRdlGenerateJob job : createRdlGenerateJobs(executable, file, schemaFiles.get(file))) {
+                if (SERVER_GENERATOR.equals(job.getType())) {
+                    jobs.add(job);
+                } else {
+                    sharedJobs.add(job);
+                }
+            }
+            if (sharedJobs.isEmpty()) {
+                continue;
+            }
+
+            File entryDir = new File(storeDir,
+                    getAggregateKey(file, getSchemaHash(file, changedFiles.get(file)), sharedJobs));
+            entries.put(file, entryDir);
+            if (entryDir.isDirectory() || newEntries.containsValue(entryDir)) {
+                continue;
+            }
+            File newEntryDir = new File(storeDir, entryDir.getName() + ".tmp-" + UUID.randomUUID());
+            File sourcesDir = new File(newEntryDir, "java");
+            File docDir = new File(newEntryDir, "doc");
+            fileUtils.checkAndCreateDirectory(sourcesDir);
+            fileUtils.checkAndCreateDirectory(docDir);
+            newEntries.put(newEntryDir, entryDir);
+            for (ParsecRdlGenerateJob job : createRdlGenerateJobs(
+                    executable, file, schemaFiles.get(file), sourcesDir.getPath(), docDir.getPath())) {
+                if (!SERVER_GENERATOR.equals(job.getType())) {
+                    jobs.add(job);
+                }
+            }
+        }
+        logger.lifecycle("Aggregate store: {} of {} RDL files reused",
+                entries.size() - newEntries.size(), entries.size());
+
+        Map<String, Set<String>> serverOutputs = new HashMap<>();
+        try {
+            List<List<Path>> jobOutputs = runJobsInOwnDirectories(runner, jobs);
+            for (int i = 0; i < jobs.size(); i++) {
+                if (SERVER_GENERATOR.equals(jobs.get(i).getType())) {
+                    Set<String> outputs = serverOutputs.computeIfAbsent(
+                            jobs.get(i).getRdlFile(), key -> new TreeSet<>());
+                    for (Path output : jobOutputs.get(i)) {
+                        outputs.add(getOutputKey(output));
+                    }
+                }
+            }
+            for (Map.Entry<File, File> entry : newEntries.entrySet()) {
+                try {
+                    // another project may have stored the same entry meanwhile, then it is kept
+                    Files.move(entry.getKey().toPath(), entry.getValue().toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    if (!entry.getValue().isDirectory()) {
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            for (File newEntryDir : newEntries.keySet()) {
+                fileUtils.deleteDirectory(newEntryDir.toPath());
+            }
+        }
+
+        for (Map.Entry<String, String> entry : changedFiles.entrySet()) {
+            Set<String> outputs = new TreeSet<>();
+            if (serverOutputs.containsKey(entry.getKey())) {
+                outputs.addAll(serverOutputs.get(entry.getKey()));
+            }
+            File entryDir = entries.get(entry.getKey());
+            if (entryDir != null) {
+                for (Path output : fileUtils.copyChangedFiles(
+                        new File(entryDir, "java").toPath(), Paths.get(getOutputSourcesPath()))) {
+                    outputs.add(getOutputKey(output));
+                }
+                for (Path output : fileUtils.copyChangedFiles(
+                        new File(entryDir, "doc").toPath(), Paths.get(getOutputDocPath()))) {
+                    outputs.add(getOutputKey(output));
+                }
+            }
+            manifest.put(getProjectRelativePath(pathUtils.getProjectDir(), entry.getKey()), entry.getValue(),
+                    includes.get(entry.getKey()), outputs);
+        }
+    }
+
+    /**
+     * Get the aggregate store key of the outputs of a RDL file: the hash of the generator version,
+     * the RDL file name and schema, and the jobs without their output paths.
+     *
+     * @param file RDL file
+     * @param hash RDL schema hash
+     * @param jobs jobs of the RDL file
+     * @return key
+     */
+    private String getAggregateKey(final String file, final String hash, final List<ParsecRdlGenerateJob> jobs) {
+        StringBuilder key = new StringBuilder(ToolchainCache.getGeneratorVersion())
+                .append(' ').append(new File(file).getName())
+                .append(' ').append(hash);
+        for (ParsecRdlGenerateJob job : jobs) {
+            List<String> options = new ArrayList<>(job.getOptions());
+            int output = options.indexOf("-o");
+            if (output >= 0 && output + 1 < options.size()) {
+                options.subList(output, output + 2).clear();
+            }
+            key.append(' ').append(job.getType()).append(options);
+        }
+        return DigestUtils.sha256Hex(key.toString());
+    }
+
+    /**
+     * Parse the RDL files into JSON schemas, a schema is only parsed if not cached yet.
+     * The cache is keyed by the RDL schema hash and the generator version.
+     *
+     * @param runner runner
+     * @param changedFiles RDL file to content hash
+     * @return RDL file to JSON schema file
+     * @throws IOException IOException
+     */
+    Map<String, String> parseSchemas(
+            final ParsecRdlGenerateRunner runner,
+            final Map<String, String> changedFiles
+    ) throws IOException {
+        List<ParsecRdlGenerateJob> jobs = new ArrayList<>();
+        for (Map.Entry<String, String> entry : changedFiles.entrySet()) {
+            File schemaDir = getSchemaDir(getSchemaHash(entry.getKey(), entry.getValue()));
+            if (findSchemaFile(schemaDir) == null) {
+                fileUtils.checkAndCreateDirectory(schemaDir.getPath());
+                jobs.add(new ParsecRdlGenerateJob(
+                        pathUtils.getRdlBinaryPath(),
+                        "json",
+                        entry.getKey(),
+                        Arrays.asList("-o", schemaDir.getPath())
+                ));
+            }
+        }
+        logger.info("RDL schemas cached: " + (changedFiles.size() - jobs.size()) + "/" + changedFiles.size());
+        runJobs(runner, jobs);
+
+        Map<String, String> schemaFiles = new HashMap<>();
+        for (Map.Entry<String, String> entry : changedFiles.entrySet()) {
+            File schemaFile = findSchemaFile(getSchemaDir(getSchemaHash(entry.getKey(), entry.getValue())));
+            if (schemaFile == null) {
+                throw new IOException("Error parsing RDL file " + entry.getKey());
+            }
+            schemaFiles.put(entry.getKey(), schemaFile.getPath());
+        }
+        return schemaFiles;
+    }
+
+    /**
+     * Delete the cached schemas of the RDL files that are no longer in the manifest.
+     *
+     * @param manifest manifest
+     * @throws IOException IOException
+     */
+    void pruneSchemaCache(final GenerateManifest manifest) throws IOException {
+        File[] schemaDirs = pathUtils.getSchemaCacheDir().listFiles();
+        if (schemaDirs == null) {
+            return;
+        }
+        Set<String> keep = new HashSet<>();
+        for (String rdlFile : manifest.getRdlFiles()) {
+            keep.add(getSchemaDir(getSchemaHash(manifest.getHash(rdlFile), manifest.getIncludes(rdlFile))).getName());
+        }
+        for (File schemaDir : schemaDirs) {
+            if (!keep.contains(schemaDir.getName())) {
+                fileUtils.deleteDirectory(schemaDir.toPath());
+            }
+        }
+    }
+
+    private File getSchemaDir(final String hash) {
+        return new File(pathUtils.getSchemaCacheDir(), DigestUtils.sha256Hex(hash + ToolchainCache.getGeneratorVersion()));
+    }
+
+    private File findSchemaFile(final File schemaDir) {
+        File[] schemaFiles = schemaDir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".json");
+            }
+        });
+        return schemaFiles == null || schemaFiles.length == 0 ? null : schemaFiles[0];
+    }
+
+    private String getGenerationMode() {
+        return pluginExtension.isParallelGeneration() ? "parallel" : "serial";
+    }
+
+    private void runJobs(final ParsecRdlGenerateRunner runner, final List<ParsecRdlGenerateJob> jobs)
+            throws IOException {
+        if (pluginExtension.isParallelGeneration()) {
+            runner.runParallel(jobs, pluginExtension.getGenerationThreads());
+        } else {
+            runner.runSerial(jobs);
+        }
+    }
+
+    /**
+     * Delete the outputs of the previous manifest that no RDL file in the new manifest produces.
+     *
+     * @param previousManifest previous manifest
+     * @param manifest new manifest
+     * @throws IOException IOException
+     */
+    void pruneOutputs(final GenerateManifest previousManifest, final GenerateManifest manifest) throws IOException {
+        Set<String> outputs = manifest.getAllOutputs();
+        for (String output : previousManifest.getAllOutputs()) {
+            if (!outputs.contains(output)) {
+                fileUtils.deleteFile(getOutputPath(output));
+            }
+        }
+    }
+
+    /**
+     * Get the path the generators write the sources to, the staged one in staged generation.
+     *
+     * @return generated sources path
+     */
+    private String getOutputSourcesPath() {
+        return pluginExtension.isStagedGeneration()
+                ? pathUtils.getStagedGeneratedSourcesPath() : pathUtils.getGeneratedSourcesPath();
+    }
+
+    /**
+     * Get the path the generators write the docs to, the staged one in staged generation.
+     *
+     * @return doc path
+     */
+    private String getOutputDocPath() {
+        return pluginExtension.isStagedGeneration() ? pathUtils.getStagedDocPath() : pathUtils.getDocPath();
+    }
+
+    /**
+     * Get the manifest key of an output, its path relative to the build directory once in place.
+     *
+     * @param output output file
+     * @return manifest key
+     */
+    private String getOutputKey(final Path output) {
+        Path stagedSources = Paths.get(pathUtils.getStagedGeneratedSourcesPath());
+        Path stagedDoc = Paths.get(pathUtils.getStagedDocPath());
+        if (pluginExtension.isStagedGeneration() && output.startsWith(stagedSources)) {
+            return PathUtils.getRelativeGeneratedSourcesPath() + "/" + stagedSources.relativize(output);
+        } else if (pluginExtension.isStagedGeneration() && output.startsWith(stagedDoc)) {
+            return PathUtils.getRelativeDocPath() + "/" + stagedDoc.relativize(output);
+        }
+        return Paths.get(pathUtils.getProjectBuildPath()).relativize(output).toString();
+    }
+
+    /**
+     * Get the path of an output from its manifest key, the staged one in staged generation.
+     *
+     * @param output manifest key of an output
+     * @return path
+     */
+    private Path getOutputPath(final String output) {
+        if (pluginExtension.isStagedGeneration()
+                && output.startsWith(PathUtils.getRelativeGeneratedSourcesPath() + "/")) {
+            return Paths.get(pathUtils.getStagedGeneratedSourcesPath(),
+                    output.substring(PathUtils.getRelativeGeneratedSourcesPath().length() + 1));
+        } else if (pluginExtension.isStagedGeneration() && output.startsWith(PathUtils.getRelativeDocPath() + "/")) {
+            return Paths.get(pathUtils.getStagedDocPath(), output.substring(PathUtils.getRelativeDocPath().length() + 1));
+        }
+        return Paths.get(pathUtils.getProjectBuildPath(), output);
+    }
+
+    private boolean outputsExist(final Set<String> outputs) {
+        for (String output : outputs) {
+            if (!new File(pathUtils.getProjectBuildPath(), output).exists()) {
+                return false;
+            }
+        }
+        return !outputs.isEmpty();
+    }
+
+    /**
+     * Get the path of a file relative to the project directory, or absolute if outside of it.
+     *
+     * @param projectDir project directory
+     * @param file file
+     * @return path
+     */
+    static String getProjectRelativePath(final File projectDir, final String file) {
+        Path projectPath = projectDir.toPath().toAbsolutePath();
+        Path filePath = Paths.get(file).toAbsolutePath();
+        return filePath.startsWith(projectPath) ? projectPath.relativize(filePath).toString() : filePath.toString();
+    }
+
+    /**
+     * Add file.
+     *
+     * @param files files
+     * @param sourcePath source path
+     */
+    static void addFiles(ArrayList<String> files, File sourcePath) {
+        if (sourcePath != null && sourcePath.exists()) {
+            for (String filename : sourcePath.list()) {
+                File file = new File(sourcePath, filename);
+                if (file.isDirectory()) {
+                    addFiles(files, file);
+                } else if (filename.endsWith(".rdl")) {
+                    files.add(file.getPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Create the rdl generate jobs of a RDL file, one for each enabled generator.
+     *
+     * @param executable rdl executable
+     * @param file RDL file
+     * @return jobs
+     */
+    List<ParsecRdlGenerateJob> createRdlGenerateJobs(final String executable, final String file) {
+        return createRdlGenerateJobs(executable, file, file);
+    }
+
+    /**
+     * Create the rdl generate jobs of a RDL file that read the given schema file.
+     *
+     * @param executable rdl executable
+     * @param file RDL file
+     * @param schemaFile the RDL file or its parsed JSON schema
+     * @return jobs
+     */
+    List<ParsecRdlGenerateJob> createRdlGenerateJobs(
+            final String executable, final String file, final String schemaFile) {
+        return createRdlGenerateJobs(executable, file, schemaFile, getOutputSourcesPath(), getOutputDocPath());
+    }
+
+    /**
+     * Create the rdl generate jobs of a RDL file that read the given schema file and write to the given paths.
+     *
+     * @param executable rdl executable
+     * @param file RDL file
+     * @param schemaFile the RDL file or its parsed JSON schema
+     * @param sourcesPath the path the java generators write to
+     * @param docPath the path the swagger and json generators write to
+     * @return jobs
+     */
+    private List<ParsecRdlGenerateJob> createRdlGenerateJobs(
+            final String executable,
+            final String file,
+            final String schemaFile,
+            final String sourcesPath,
+            final String docPath
+    ) {
+        List<ParsecRdlGenerateJob> jobs = new ArrayList<>();
+
+        if (pluginExtension.isGenerateClient()) {
+            List<String> options = new ArrayList<>();
+            options.add("-o");
+            options.add(sourcesPath);
+            if (pluginExtension.isGenerateModelClassNamePcSuffix()) {
+                options.add("-xpc=true");
+            }
+            jobs.add(new ParsecRdlGenerateJob(executable, "parsec-java-client", file, schemaFile, options));
+        }
+
+        if (pluginExtension.isGenerateSwagger()) {
+            List<String> options = new ArrayList<>();
+            options.add("-o");
+            options.add(docPath);
+            if (pluginExtension.isGenerateParsecError()) {
+                options.add("-xe=true");
+            }
+            if (pluginExtension != null && !pluginExtension.getSwaggerSchema().isEmpty()) {
+                options.add("-xc=" + pluginExtension.getSwaggerSchema());
+            }
+            if (pluginExtension.getFinalName() != null && !pluginExtension.getFinalName().isEmpty()) {
+                options.add("-xf=" + pluginExtension.getFinalName());
+            }
+            jobs.add(new ParsecRdlGenerateJob(executable, "parsec-swagger", file, schemaFile, options));
+        }
+
+        if (pluginExtension.isGenerateJson()) {
+            jobs.add(new ParsecRdlGenerateJob(
+                executable,
+                "json",
+                file,
+                schemaFile,
+                Arrays.asList("-o", docPath)
+            ));
+        }
+
+        if (pluginExtension.isGenerateModel()) {
+            List<String> options = new ArrayList<>();
+            options.add("-o");
+            options.add(sourcesPath);
+            if (pluginExtension.isGenerateModelClassNamePcSuffix()) {
+                options.add("-xpc=true");
+            }
+            if (pluginExtension.isAccessorNamingStyle()) {
+                options.add("-xnamingStyle=" + pluginExtension.getAccessorNamingStyle());
+            }
+            jobs.add(new ParsecRdlGenerateJob(executable, "parsec-java-model", file, schemaFile, options));
+        }
+
+        if (pluginExtension.isGenerateServer()) {
+            List<String> options = new ArrayList<>();
+            options.add("-o");
+            options.add(sourcesPath);
+            if (pluginExtension.isGenerateHandlerImpl()) {
+                options.add("-xi=true");
+            } else {
+                options.add("-xi=false");
+            }
+            if (pluginExtension.isUseSmartMethodNames()) {
+                options.add("-xp=true");
+            } else {
+                options.add("-xp=false");
+            }
+            if (pluginExtension.isGenerateParsecError()) {
+                options.add("-xe=true");
+            } else {
+                options.add("-xe=false");
+            }
+            if (pluginExtension.isGenerateModelClassNamePcSuffix()) {
+                options.add("-xpc=true");
+            }
+            jobs.add(new ParsecRdlGenerateJob(executable, SERVER_GENERATOR, file, schemaFile, options));
+        }
+
+        return jobs;
+    }
+
+    /**
+     * records every finished job in the report, with the number of files in its output directory,
+     * which is its own.
+     */
+    private final class JobReporter implements ParsecRdlGenerateRunner.JobListener {
+        @Override
+        public void jobFinished(final ParsecRdlGenerateJob job, final long millis, final int exitCode)
+                throws IOException {
+            String outputDir = job.getOutputDir();
+            int count = outputDir == null || !new File(outputDir).isDirectory()
+                    ? -1 : fileUtils.findFiles(outputDir, "glob:*").size();
+            report.addJob(getProjectRelativePath(pathUtils.getProjectDir(), job.getRdlFile()),
+                    job.getType(), millis, exitCode, count);
+        }
+    }
+}
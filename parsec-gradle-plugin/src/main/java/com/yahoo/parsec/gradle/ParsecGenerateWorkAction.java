@@ -0,0 +1,49 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle;
+
+import com.yahoo.parsec.gradle.utils.FileUtils;
+import com.yahoo.parsec.gradle.utils.PathUtils;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+/**
+ * ParsecGenerateWorkAction.
+ * runs ParsecGenerateWork in a Gradle worker, submitted to the no isolation work queue by parsec-generate
+ * when useWorkerApi is set.
+ */
+public abstract class ParsecGenerateWorkAction implements WorkAction<ParsecGenerateWorkAction.Parameters> {
+
+    /**
+     * The parameters of the work, isolated by Gradle when submitted.
+     */
+    public interface Parameters extends WorkParameters {
+
+        /**
+         * @return a plain copy of the plugin extension
+         */
+        Property<ParsecPluginExtension> getPluginExtension();
+
+        /**
+         * @return the path utils, resolved without the project
+         */
+        Property<PathUtils> getPathUtils();
+
+        /**
+         * @return the generator fingerprint
+         */
+        Property<String> getFingerprint();
+    }
+
+    @Override
+    public void execute() {
+        Logger logger = Logging.getLogger(ParsecGenerateTask.class);
+        Parameters parameters = getParameters();
+        new ParsecGenerateWork(logger, new FileUtils(logger), parameters.getPluginExtension().get(),
+                parameters.getPathUtils().get(), parameters.getFingerprint().get()).run();
+    }
+}
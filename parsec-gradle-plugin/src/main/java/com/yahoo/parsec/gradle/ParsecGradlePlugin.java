@@ -7,9 +7,12 @@ import com.yahoo.parsec.gradle.utils.PathUtils;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
 import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.plugins.JavaPluginConvention;
 import org.gradle.api.tasks.SourceSet;
-import org.gradle.api.tasks.SourceSetContainer;
 import org.gradle.api.tasks.TaskContainer;
+import org.gradle.api.tasks.TaskProvider;
+
+import java.util.concurrent.Callable;
 
 /**
  * @author sho
@@ -22,24 +25,27 @@ public class ParsecGradlePlugin implements Plugin<Project> {
         PathUtils pathUtils = new PathUtils(project, pluginExtension);
         TaskContainer tasks = project.getTasks();
 
-        // Create tasks (when applied as a plugin)
-        ParsecInitTask initTask = tasks.create("parsec-init", ParsecInitTask.class);
-        ParsecGenerateTask generateTask = tasks.create("parsec-generate", ParsecGenerateTask.class);
-
-        // Make generate trigger init.
-        generateTask.dependsOn(initTask);
+        // Register tasks (when applied as a plugin), they are only created if they are part of the build
+        TaskProvider<ParsecInitTask> initTask = tasks.register("parsec-init", ParsecInitTask.class);
+        TaskProvider<ParsecGenerateTask> generateTask = tasks.register(
+                "parsec-generate",
+                ParsecGenerateTask.class,
+                // Make generate trigger init.
+                task -> task.dependsOn(initTask)
+        );
 
         project.getPlugins().withType(JavaPlugin.class, plugin -> {
-            SourceSet sourceSet = ((SourceSetContainer) project.getProperties().get("sourceSets")).getByName("main");
+            SourceSet sourceSet = project.getConvention().getPlugin(JavaPluginConvention.class)
+                    .getSourceSets().getByName(SourceSet.MAIN_SOURCE_SET_NAME);
 
-            // Add ${buildDir}/generated-sources/java to sources
-            sourceSet.getJava().srcDir(pathUtils.getGeneratedSourcesPath());
+            // Add ${buildDir}/generated-sources/java to sources, resolved when read so a later buildDir is followed
+            sourceSet.getJava().srcDir((Callable<String>) pathUtils::getGeneratedSourcesPath);
 
             // Add ${buildDir}/generated-resources/parsec to resources
-            sourceSet.getResources().srcDir(pathUtils.getGeneratedResourcesPath());
+            sourceSet.getResources().srcDir((Callable<String>) pathUtils::getGeneratedResourcesPath);
 
             // Make compileJava trigger generate
-            tasks.getByName(JavaPlugin.COMPILE_JAVA_TASK_NAME).dependsOn(generateTask);
+            tasks.named(JavaPlugin.COMPILE_JAVA_TASK_NAME).configure(task -> task.dependsOn(generateTask));
         });
     }
 }
@@ -4,25 +4,86 @@
 package com.yahoo.parsec.gradle;
 
 import com.yahoo.parsec.gradle.utils.PathUtils;
-import org.apache.commons.compress.archivers.zip.ZipFile;
+import com.yahoo.parsec.gradle.utils.ToolchainCache;
+import com.yahoo.parsec.gradle.utils.ToolchainStamp;
+import org.gradle.api.Task;
+import org.gradle.api.specs.Spec;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
 import org.gradle.api.tasks.TaskAction;
 import org.gradle.api.tasks.TaskExecutionException;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author sho
  */
+@CacheableTask
 public class ParsecInitTask extends AbstractParsecGradleTask {
 
     public ParsecInitTask(){
         super("parsec-init", "Parsec: initialize the process for parsec-generate");
+
+        // the shared toolchain is not a task output, it has to be checked on every run
+        Spec<Task> sharedToolchainCache = new Spec<Task>() {
+            @Override
+            public boolean isSatisfiedBy(Task task) {
+                return pluginExtension.isSharedToolchainCache();
+            }
+        };
+        getOutputs().doNotCacheIf("sharedToolchainCache is set", sharedToolchainCache);
+        getOutputs().upToDateWhen(task -> !pluginExtension.isSharedToolchainCache());
+    }
+
+    /**
+     * The platform of the rdl binaries to extract.
+     *
+     * @return rdl bin suffix
+     */
+    @Input
+    public String getRdlBinSuffix() {
+        return ToolchainCache.getRdlBinSuffix();
+    }
+
+    /**
+     * Whether to extract swagger-ui.
+     *
+     * @return generate swagger
+     */
+    @Input
+    public boolean isGenerateSwagger() {
+        return pluginExtension.isGenerateSwagger();
+    }
+
+    /**
+     * The directory the rdl binaries, generators and scripts are extracted to.
+     *
+     * @return bin directory, null if in the shared toolchain cache
+     */
+    @OutputDirectory
+    @Optional
+    public File getBinDir() {
+        return pluginExtension.isSharedToolchainCache() ? null : new File(pathUtils.getBinPath());
+    }
+
+    /**
+     * The directory swagger-ui is extracted to.
+     *
+     * @return swagger-ui directory, null if swagger is not generated
+     */
+    @OutputDirectory
+    @Optional
+    public File getSwaggerUIDir() {
+        return isGenerateSwagger() ? new File(pathUtils.getSwaggerUIPath()) : null;
     }
 
     /**
@@ -36,29 +97,17 @@ public class ParsecInitTask extends AbstractParsecGradleTask {
         try {
             // Create ${buildDir}/bin
             fileUtils.checkAndCreateDirectory(pathUtils.getBinPath());
-            String rdlBinSuffix = System.getProperty("os.name").equals("Mac OS X") ? "darwin" : "linux";
-
-            // Extract rdl parser to ${buildDir}/bin
-            extractRdlBinary(rdlBinSuffix);
-
-            // Extract generator
-            extractParsecRdlGenerator(rdlBinSuffix,
-                    Arrays.asList("java-model", "java-server", "java-client", "swagger"));
-
-            // Create ${baseDir}/parsec-bin
-            fileUtils.checkAndCreateDirectory(pathUtils.getBinPath());
-
-            // Copy all scripts under resource/scripts to ${baseDir}/parsec-bin
-            for (Path scriptPath : fileUtils.listDirFilePaths("scripts")) {
-                String scriptPathString = scriptPath.toString();
-                if (scriptPathString.endsWith(".sh") || scriptPathString.endsWith(".rb")) {
-                    fileUtils.writeResourceAsExecutable(
-                        scriptPath.toString(),
-                        pathUtils.getBinPath() + "/" + scriptPath.getFileName()
-                    );
-                }
+            final String rdlBinSuffix = getRdlBinSuffix();
+
+            // Skip the extraction if the toolchain in the bin path is up to date,
+            // the shared toolchain cache is locked against other builds meanwhile
+            final File binDir = new File(pathUtils.getBinPath());
+            if (pluginExtension.isSharedToolchainCache()) {
+                ToolchainCache.withLock(binDir, () -> extractToolchainIfChanged(binDir, rdlBinSuffix));
+            } else {
+                extractToolchainIfChanged(binDir, rdlBinSuffix);
             }
-            String test = pathUtils.getBinPath();
+
             if (pluginExtension.isGenerateSwagger()) {
                 String swaggerUIPath = pathUtils.getSwaggerUIPath();
 
@@ -75,22 +124,77 @@ public class ParsecInitTask extends AbstractParsecGradleTask {
         }
     }
 
-    void extractRdlBinary(final String rdlBinSuffix) throws IOException {
-        if (rdlBinSuffix.equals("darwin")) {
-            File file = fileUtils.getFileFromResource("/rdl-bin/rdl.zip");
-            ZipFile zipFile = new ZipFile(file);
-            InputStream inputStream = zipFile.getInputStream(zipFile.getEntry(PathUtils.RDL_BINARY));
-            fileUtils.writeResourceAsExecutable(inputStream, pathUtils.getRdlBinaryPath());
+    /**
+     * The version of the extracted toolchain.
+     *
+     * @return toolchain version
+     */
+    String getToolchainVersion() {
+        return ToolchainCache.getToolchainVersion();
+    }
+
+    /**
+     * Extract the toolchain unless the stamp in the bin directory shows it is up to date.
+     *
+     * @param binDir bin directory
+     * @param rdlBinSuffix rdl bin suffix
+     * @throws IOException IOException
+     */
+    void extractToolchainIfChanged(final File binDir, final String rdlBinSuffix) throws IOException {
+        String toolchainVersion = getToolchainVersion();
+        File stampFile = pathUtils.getToolchainStampFile();
+        ToolchainStamp stamp = ToolchainStamp.load(stampFile);
+        if (stamp != null && stamp.isUpToDate(toolchainVersion, binDir.toPath(), stampFile)) {
+            getLogger().info("Parsec toolchain is up to date: " + binDir);
         } else {
-            // the tgz file for linux
-            fileUtils.unTarZip("/rdl-bin/rdl.tgz", pathUtils.getBinPath(), true);
-            InputStream rdlStream = new FileInputStream(pathUtils.getRdlBinaryPath());
-            if (rdlStream != null) {
-                fileUtils.writeResourceAsExecutable(rdlStream, pathUtils.getRdlBinaryPath());
+            extractToolchain(rdlBinSuffix);
+            ToolchainStamp.create(toolchainVersion, binDir.toPath(), stampFile).save(stampFile);
+        }
+    }
+
+    /**
+     * Extract rdl parser, generators and scripts to ${buildDir}/bin.
+     *
+     * @param rdlBinSuffix rdl bin suffix
+     * @throws IOException IOException
+     */
+    void extractToolchain(final String rdlBinSuffix) throws IOException {
+        // Extract rdl parser to ${buildDir}/bin
+        extractRdlBinary(rdlBinSuffix);
+
+        // Extract generator
+        extractParsecRdlGenerator(rdlBinSuffix,
+                Arrays.asList("java-model", "java-server", "java-client", "swagger"));
+
+        // Create ${baseDir}/parsec-bin
+        fileUtils.checkAndCreateDirectory(pathUtils.getBinPath());
+
+        // Copy all scripts under resource/scripts to ${baseDir}/parsec-bin
+        for (Path scriptPath : fileUtils.listDirFilePaths("scripts")) {
+            String scriptPathString = scriptPath.toString();
+            if (scriptPathString.endsWith(".sh") || scriptPathString.endsWith(".rb")) {
+                fileUtils.writeResourceAsExecutable(
+                    scriptPath.toString(),
+                    pathUtils.getBinPath() + "/" + scriptPath.getFileName()
+                );
             }
         }
     }
 
+    /**
+     * Extract rdl binary. Only the rdl entry of the archive is extracted, the plugin runs nothing
+     * else from it, and the archive is read no further once it is found.
+     *
+     * @param rdlBinSuffix rdl bin suffix
+     * @throws IOException IOException
+     */
+    void extractRdlBinary(final String rdlBinSuffix) throws IOException {
+        // the zip file for darwin, the tgz file for linux
+        String archive = rdlBinSuffix.equals("darwin") ? "/rdl-bin/rdl.zip" : "/rdl-bin/rdl.tgz";
+        fileUtils.extractArchiveEntriesAsExecutable(
+                archive, Collections.singletonMap(PathUtils.RDL_BINARY, pathUtils.getRdlBinaryPath()));
+    }
+
     /**
      * Extract Parsec Rdl Generator.
      *
@@ -99,18 +203,11 @@ public class ParsecInitTask extends AbstractParsecGradleTask {
      * @throws IOException IOException
      */
     void extractParsecRdlGenerator(final String rdlBinSuffix, final List<String> generators) throws IOException {
-        final File file = fileUtils.getFileFromResource("/rdl-gen/rdl-gen.zip");
-
+        Map<String, String> entries = new HashMap<>();
         for (String g: generators) {
             String generatorBinary = PathUtils.RDL_GEN_PARSEC_PREFIX + g;
-            try (
-                    ZipFile zipFile = new ZipFile(file);
-                    InputStream inputStream = zipFile.getInputStream(
-                            zipFile.getEntry(generatorBinary + "-" + rdlBinSuffix)
-                    )
-            ) {
-                fileUtils.writeResourceAsExecutable(inputStream, pathUtils.getBinPath() + "/" + generatorBinary);
-            }
+            entries.put(generatorBinary + "-" + rdlBinSuffix, pathUtils.getBinPath() + "/" + generatorBinary);
         }
+        fileUtils.extractArchiveEntriesAsExecutable("/rdl-gen/rdl-gen.zip", entries);
     }
 }
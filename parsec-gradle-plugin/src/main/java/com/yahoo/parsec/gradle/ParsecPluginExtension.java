@@ -3,10 +3,16 @@
 
 package com.yahoo.parsec.gradle;
 
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 /**
  * @author sho
  */
-public class ParsecPluginExtension {
+public class ParsecPluginExtension implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * The path where RDL files ({@code *.rdl}) are located.
@@ -95,6 +101,173 @@ public class ParsecPluginExtension {
      */
     private String accessorNamingStyle = "";
 
+    /**
+     * If set to true, the (RDL file, generator) jobs run concurrently instead of one after another.
+     */
+    private boolean parallelGeneration = false;
+
+    /**
+     * The max number of concurrent generator jobs when parallel generation is on, defaults to the number of cores.
+     */
+    private int generationThreads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * If set to true, each RDL file is parsed once into a cached JSON schema that every generator reads.
+     */
+    private boolean parseOnce = false;
+
+    /**
+     * If set to true, the rdl parser and generators are extracted once per machine into the gradle user home
+     * and shared by every project, instead of into each project's build/bin.
+     */
+    private boolean sharedToolchainCache = false;
+
+    /**
+     * If set to true, parsec-generate does its work in a Gradle worker, so it can run at the same time
+     * as other tasks and other projects' parsec-generate.
+     */
+    private boolean useWorkerApi = false;
+
+    /**
+     * If set to true, the generators write into a staging directory, and only the files that changed are moved
+     * into the generated sources once every generator succeeded, one file at a time.
+     */
+    private boolean stagedGeneration = false;
+
+    /**
+     * If set to true, the swagger jsons are also merged into one content hashed bundle with a gzip variant,
+     * and hard linked instead of copied to additionSwaggerJsonPath where possible.
+     */
+    private boolean bundleSwagger = false;
+
+    /**
+     * If set to true, the outputs of the model, client, swagger and json generators are kept in a store in the
+     * root project build directory, and reused by every project that generates the same RDL file.
+     */
+    private boolean aggregateGeneration = false;
+
+    /**
+     * If set to true, a streaming JSON reader and writer is generated for each data object and registered
+     * in ParsecApplication ahead of MOXy.
+     */
+    private boolean generateJsonCodecs = false;
+
+    /**
+     * If set to true, a plain java validator is generated for each data object and validation group, and
+     * registered in ParsecApplication to check the request parameters before Hibernate Validator does.
+     */
+    private boolean generateValidators = false;
+
+    /**
+     * If set to true, the handler methods return a CompletionStage, and the resources resume an AsyncResponse
+     * when it completes instead of holding the request thread.
+     */
+    private boolean generateAsyncHandlers = false;
+
+    /**
+     * If set to true, the resource methods are managed async, and run on virtual threads instead of the
+     * container threads when the application runs on JDK 21 or later.
+     */
+    private boolean useVirtualThreads = false;
+
+    /**
+     * If set to true, the generated servers create their Jetty server with the generated ParsecServerBootstrap,
+     * with the server settings below instead of the Jetty defaults.
+     */
+    private boolean generateServerBootstrap = false;
+
+    /**
+     * The min threads of the server thread pool.
+     */
+    private int serverMinThreads = 8;
+
+    /**
+     * The max threads of the server thread pool.
+     */
+    private int serverMaxThreads = 200;
+
+    /**
+     * The max requests waiting for a thread of the server thread pool, unbounded if not positive.
+     */
+    private int serverMaxQueuedRequests = -1;
+
+    /**
+     * The acceptor threads of the server connector, picked by Jetty from the number of cores if negative.
+     */
+    private int serverAcceptors = -1;
+
+    /**
+     * The selector threads of the server connector, picked by Jetty from the number of cores if negative.
+     */
+    private int serverSelectors = -1;
+
+    /**
+     * The idle timeout of the server connections, in milliseconds.
+     */
+    private long serverIdleTimeout = 30000;
+
+    /**
+     * The size of the response buffer, in bytes.
+     */
+    private int serverOutputBufferSize = 32768;
+
+    /**
+     * If set to true, the server also speaks HTTP/2 cleartext (h2c) on its port.
+     */
+    private boolean serverHttp2Cleartext = false;
+
+    /**
+     * Default constructor.
+     */
+    public ParsecPluginExtension() {
+    }
+
+    /**
+     * Copy constructor, e.g. to hand the settings over to a worker.
+     *
+     * @param other the extension to copy
+     */
+    public ParsecPluginExtension(final ParsecPluginExtension other) {
+        this.sourcePath = other.sourcePath;
+        this.sourceFiles = other.sourceFiles;
+        this.swaggerRootPath = other.swaggerRootPath;
+        this.swaggerSchema = other.swaggerSchema;
+        this.generateModel = other.generateModel;
+        this.generateServer = other.generateServer;
+        this.generateSwagger = other.generateSwagger;
+        this.generateJson = other.generateJson;
+        this.generateHandlerImpl = other.generateHandlerImpl;
+        this.generateClient = other.generateClient;
+        this.generateParsecError = other.generateParsecError;
+        this.generateModelClassNamePcSuffix = other.generateModelClassNamePcSuffix;
+        this.useSmartMethodNames = other.useSmartMethodNames;
+        this.handleUncaughtExceptions = other.handleUncaughtExceptions;
+        this.finalName = other.finalName;
+        this.additionSwaggerJsonPath = other.additionSwaggerJsonPath;
+        this.accessorNamingStyle = other.accessorNamingStyle;
+        this.parallelGeneration = other.parallelGeneration;
+        this.generationThreads = other.generationThreads;
+        this.parseOnce = other.parseOnce;
+        this.sharedToolchainCache = other.sharedToolchainCache;
+        this.useWorkerApi = other.useWorkerApi;
+        this.stagedGeneration = other.stagedGeneration;
+        this.bundleSwagger = other.bundleSwagger;
+        this.aggregateGeneration = other.aggregateGeneration;
+        this.generateJsonCodecs = other.generateJsonCodecs;
+        this.generateValidators = other.generateValidators;
+        this.generateAsyncHandlers = other.generateAsyncHandlers;
+        this.useVirtualThreads = other.useVirtualThreads;
+        this.generateServerBootstrap = other.generateServerBootstrap;
+        this.serverMinThreads = other.serverMinThreads;
+        this.serverMaxThreads = other.serverMaxThreads;
+        this.serverMaxQueuedRequests = other.serverMaxQueuedRequests;
+        this.serverAcceptors = other.serverAcceptors;
+        this.serverSelectors = other.serverSelectors;
+        this.serverIdleTimeout = other.serverIdleTimeout;
+        this.serverOutputBufferSize = other.serverOutputBufferSize;
+        this.serverHttp2Cleartext = other.serverHttp2Cleartext;
+    }
+
     public String getSourcePath() {
         return sourcePath;
     }
@@ -234,4 +407,190 @@ public class ParsecPluginExtension {
     public boolean isAccessorNamingStyle() {
         return accessorNamingStyle != null && !accessorNamingStyle.isEmpty();
     }
+
+    public boolean isParallelGeneration() {
+        return parallelGeneration;
+    }
+
+    public void setParallelGeneration(boolean parallelGeneration) {
+        this.parallelGeneration = parallelGeneration;
+    }
+
+    public int getGenerationThreads() {
+        return generationThreads;
+    }
+
+    public void setGenerationThreads(int generationThreads) {
+        this.generationThreads = generationThreads;
+    }
+
+    public boolean isParseOnce() {
+        return parseOnce;
+    }
+
+    public void setParseOnce(boolean parseOnce) {
+        this.parseOnce = parseOnce;
+    }
+
+    public boolean isSharedToolchainCache() {
+        return sharedToolchainCache;
+    }
+
+    public void setSharedToolchainCache(boolean sharedToolchainCache) {
+        this.sharedToolchainCache = sharedToolchainCache;
+    }
+
+    public boolean isUseWorkerApi() {
+        return useWorkerApi;
+    }
+
+    public void setUseWorkerApi(boolean useWorkerApi) {
+        this.useWorkerApi = useWorkerApi;
+    }
+
+    public boolean isStagedGeneration() {
+        return stagedGeneration;
+    }
+
+    public void setStagedGeneration(boolean stagedGeneration) {
+        this.stagedGeneration = stagedGeneration;
+    }
+
+    public boolean isBundleSwagger() {
+        return bundleSwagger;
+    }
+
+    public void setBundleSwagger(boolean bundleSwagger) {
+        this.bundleSwagger = bundleSwagger;
+    }
+
+    public boolean isAggregateGeneration() {
+        return aggregateGeneration;
+    }
+
+    public void setAggregateGeneration(boolean aggregateGeneration) {
+        this.aggregateGeneration = aggregateGeneration;
+    }
+
+    public boolean isGenerateJsonCodecs() {
+        return generateJsonCodecs;
+    }
+
+    public void setGenerateJsonCodecs(boolean generateJsonCodecs) {
+        this.generateJsonCodecs = generateJsonCodecs;
+    }
+
+    public boolean isGenerateValidators() {
+        return generateValidators;
+    }
+
+    public void setGenerateValidators(boolean generateValidators) {
+        this.generateValidators = generateValidators;
+    }
+
+    public boolean isGenerateAsyncHandlers() {
+        return generateAsyncHandlers;
+    }
+
+    public void setGenerateAsyncHandlers(boolean generateAsyncHandlers) {
+        this.generateAsyncHandlers = generateAsyncHandlers;
+    }
+
+    public boolean isUseVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public void setUseVirtualThreads(boolean useVirtualThreads) {
+        this.useVirtualThreads = useVirtualThreads;
+    }
+
+    public boolean isGenerateServerBootstrap() {
+        return generateServerBootstrap;
+    }
+
+    public void setGenerateServerBootstrap(boolean generateServerBootstrap) {
+        this.generateServerBootstrap = generateServerBootstrap;
+    }
+
+    public int getServerMinThreads() {
+        return serverMinThreads;
+    }
+
+    public void setServerMinThreads(int serverMinThreads) {
+        this.serverMinThreads = serverMinThreads;
+    }
+
+    public int getServerMaxThreads() {
+        return serverMaxThreads;
+    }
+
+    public void setServerMaxThreads(int serverMaxThreads) {
+        this.serverMaxThreads = serverMaxThreads;
+    }
+
+    public int getServerMaxQueuedRequests() {
+        return serverMaxQueuedRequests;
+    }
+
+    public void setServerMaxQueuedRequests(int serverMaxQueuedRequests) {
+        this.serverMaxQueuedRequests = serverMaxQueuedRequests;
+    }
+
+    public int getServerAcceptors() {
+        return serverAcceptors;
+    }
+
+    public void setServerAcceptors(int serverAcceptors) {
+        this.serverAcceptors = serverAcceptors;
+    }
+
+    public int getServerSelectors() {
+        return serverSelectors;
+    }
+
+    public void setServerSelectors(int serverSelectors) {
+        this.serverSelectors = serverSelectors;
+    }
+
+    public long getServerIdleTimeout() {
+        return serverIdleTimeout;
+    }
+
+    public void setServerIdleTimeout(long serverIdleTimeout) {
+        this.serverIdleTimeout = serverIdleTimeout;
+    }
+
+    public int getServerOutputBufferSize() {
+        return serverOutputBufferSize;
+    }
+
+    public void setServerOutputBufferSize(int serverOutputBufferSize) {
+        this.serverOutputBufferSize = serverOutputBufferSize;
+    }
+
+    public boolean isServerHttp2Cleartext() {
+        return serverHttp2Cleartext;
+    }
+
+    public void setServerHttp2Cleartext(boolean serverHttp2Cleartext) {
+        this.serverHttp2Cleartext = serverHttp2Cleartext;
+    }
+
+    /**
+     * Get the settings of the generated ParsecServerBootstrap.
+     *
+     * @return setting name to value
+     */
+    public Map<String, String> getServerSettings() {
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("minThreads", String.valueOf(serverMinThreads));
+        settings.put("maxThreads", String.valueOf(serverMaxThreads));
+        settings.put("maxQueuedRequests", String.valueOf(serverMaxQueuedRequests));
+        settings.put("acceptors", String.valueOf(serverAcceptors));
+        settings.put("selectors", String.valueOf(serverSelectors));
+        settings.put("idleTimeout", String.valueOf(serverIdleTimeout));
+        settings.put("outputBufferSize", String.valueOf(serverOutputBufferSize));
+        settings.put("http2Cleartext", String.valueOf(serverHttp2Cleartext));
+        return settings;
+    }
 }
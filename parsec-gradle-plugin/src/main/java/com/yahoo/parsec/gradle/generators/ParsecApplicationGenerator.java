@@ -45,6 +45,20 @@ public class ParsecApplicationGenerator {
      * @throws IOException IOException
      */
     Map<String, String> getReplaceMaterials(boolean handleUncaughtException) throws IOException {
+        ParsecApplicationOptions options = new ParsecApplicationOptions();
+        options.setHandleUncaughtException(handleUncaughtException);
+        return getReplaceMaterials(options);
+    }
+
+    /**
+     * Parsec generate materials for ParsecApplication.
+     *
+     * @param options what the application registers
+     *
+     * @return replace materials
+     * @throws IOException IOException
+     */
+    Map<String, String> getReplaceMaterials(final ParsecApplicationOptions options) throws IOException {
         final String generatedNamespace = packageStruct.getGeneratedNamespace();
         final Map<String, List<String>> handlers = packageStruct.getHandlers();
         final Map<String, String> packages = packageStruct.getPackages();
@@ -60,11 +74,30 @@ public class ParsecApplicationGenerator {
             bindStringBuilder.append(
                     generateBindAndImpl(imports, handlers, packageName, generatedNamespace));
             registerStringBuilder.append(
-                    generateRegister(imports, resources, packageName, generatedNamespace, handleUncaughtException));
+                    generateRegister(imports, resources, packageName, generatedNamespace,
+                            options.isHandleUncaughtException()));
             importStringBuilder.append(
                     generateImport(imports));
         }
 
+        if (options.isRegisterJsonCodecs()) {
+            registerStringBuilder
+                    .append("        registerClasses(ParsecJsonCodec.getCodecClasses());")
+                    .append(System.getProperty("line.separator"));
+        }
+
+        if (options.isRegisterValidators()) {
+            registerStringBuilder
+                    .append("        register(ParsecValidators.class);")
+                    .append(System.getProperty("line.separator"));
+        }
+
+        if (options.isRegisterVirtualThreads()) {
+            registerStringBuilder
+                    .append("        registerClasses(ParsecVirtualThreads.getProviderClasses());")
+                    .append(System.getProperty("line.separator"));
+        }
+
         final Map<String, String> replaceMaterials = new HashMap<>();
         replaceMaterials.put("{imports}", importStringBuilder.toString());
         replaceMaterials.put("{binding}", bindStringBuilder.toString());
@@ -170,7 +203,20 @@ public class ParsecApplicationGenerator {
      * @throws IOException IOException
      */
     public void generateParsecApplication(boolean handleUncaughtException) throws IOException {
-        Map<String, String> replaceMaterials = getReplaceMaterials(handleUncaughtException);
+        ParsecApplicationOptions options = new ParsecApplicationOptions();
+        options.setHandleUncaughtException(handleUncaughtException);
+        generateParsecApplication(options);
+    }
+
+    /**
+     * Generate ParsecApplication.java
+     *
+     * @param options what the application registers
+     *
+     * @throws IOException IOException
+     */
+    public void generateParsecApplication(final ParsecApplicationOptions options) throws IOException {
+        Map<String, String> replaceMaterials = getReplaceMaterials(options);
         String packageName = packageStruct.getIntersectPackageName();
         String outputDir = ParsecGeneratorUtil.getPathFromGeneratedRoot(
                 packageStruct, ParsecGeneratorUtil.packageNameToPath(packageName));
@@ -0,0 +1,63 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+/**
+ * ParsecApplicationOptions.
+ * what the generated ParsecApplication registers besides the resources and handlers.
+ */
+public class ParsecApplicationOptions {
+
+    /**
+     * register the exception mapper of uncaught exceptions.
+     */
+    private boolean handleUncaughtException = false;
+
+    /**
+     * register the generated json codecs, see {@link ParsecJsonCodecGenerator}.
+     */
+    private boolean registerJsonCodecs = false;
+
+    /**
+     * register the generated validators, see {@link ParsecValidatorGenerator}.
+     */
+    private boolean registerValidators = false;
+
+    /**
+     * register the virtual thread executor, see {@link ParsecVirtualThreadGenerator}.
+     */
+    private boolean registerVirtualThreads = false;
+
+    public boolean isHandleUncaughtException() {
+        return handleUncaughtException;
+    }
+
+    public void setHandleUncaughtException(boolean handleUncaughtException) {
+        this.handleUncaughtException = handleUncaughtException;
+    }
+
+    public boolean isRegisterJsonCodecs() {
+        return registerJsonCodecs;
+    }
+
+    public void setRegisterJsonCodecs(boolean registerJsonCodecs) {
+        this.registerJsonCodecs = registerJsonCodecs;
+    }
+
+    public boolean isRegisterValidators() {
+        return registerValidators;
+    }
+
+    public void setRegisterValidators(boolean registerValidators) {
+        this.registerValidators = registerValidators;
+    }
+
+    public boolean isRegisterVirtualThreads() {
+        return registerVirtualThreads;
+    }
+
+    public void setRegisterVirtualThreads(boolean registerVirtualThreads) {
+        this.registerVirtualThreads = registerVirtualThreads;
+    }
+}
@@ -0,0 +1,246 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import com.yahoo.parsec.gradle.utils.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ParsecAsyncHandler Generator.
+ *
+ * Turns the resources and handlers of the server generator asynchronous: each handler method returns a
+ * CompletionStage, and the resource method suspends an AsyncResponse and resumes it when the stage
+ * completes, so the request thread is released while the handler waits on I/O. The resource methods
+ * that do not have the layout of the server generator are left as they are, and so are their handler
+ * methods; they are reported so that the build can warn about them.
+ */
+public class ParsecAsyncHandlerGenerator {
+
+    /**
+     * a resource method that only delegates to the handler, and maps the ResourceException it throws.
+     */
+    static final Pattern RESOURCE_METHOD_PATTERN = Pattern.compile(
+            "(?m)^    public ([\\w.<>,?\\[\\] ]+?) (\\w+)\\(\\R"
+                    + "(?s:(.*?))\\R?[ \\t]*\\) \\{\\R"
+                    + "        try \\{\\R"
+                    + "            ResourceContext context = _delegate\\.newResourceContext\\(_request, _response\\);\\R"
+                    + "            \\1 e = _delegate\\.\\2\\(((?s:[^;]*))\\);\\R"
+                    + "            return e;\\R"
+                    + "        \\} catch \\(ResourceException e\\) \\{\\R"
+                    + "(?s:(.*?))\\R"
+                    + "        \\}\\R"
+                    + "    \\}");
+
+    /**
+     * a public method of a resource class that does not suspend an AsyncResponse.
+     */
+    private static final Pattern SYNC_METHOD_PATTERN = Pattern.compile(
+            "(?m)^[ \\t]+public [\\w.<>,?\\[\\] ]+? (\\w+)\\((?!\\s*@Suspended)");
+
+    private static final Pattern THROW_PATTERN = Pattern.compile("\\bthrow ");
+
+    private static final Map<String, String> BOXED_TYPES = new HashMap<>();
+
+    static {
+        BOXED_TYPES.put("void", "Void");
+        BOXED_TYPES.put("boolean", "Boolean");
+        BOXED_TYPES.put("byte", "Byte");
+        BOXED_TYPES.put("short", "Short");
+        BOXED_TYPES.put("int", "Integer");
+        BOXED_TYPES.put("long", "Long");
+        BOXED_TYPES.put("float", "Float");
+        BOXED_TYPES.put("double", "Double");
+        BOXED_TYPES.put("char", "Character");
+    }
+
+    /**
+     * the package struct.
+     */
+    private ParsecPackageStruct packageStruct;
+
+    /**
+     * the file utils.
+     */
+    private FileUtils fileUtils;
+
+    /**
+     * default constructor.
+     *
+     * @param packageStruct package struct.
+     * @param fileUtils file utils
+     */
+    public ParsecAsyncHandlerGenerator(final ParsecPackageStruct packageStruct, final FileUtils fileUtils) {
+        this.packageStruct = packageStruct;
+        this.fileUtils = fileUtils;
+    }
+
+    /**
+     * Turn a resource class asynchronous.
+     *
+     * @param source resource source
+     * @param asyncMethods filled with the names of the methods made asynchronous
+     * @return resource source
+     */
+    static String toAsyncResource(final String source, final Set<String> asyncMethods) {
+        final String lineSeparator = source.contains("\r\n") ? "\r\n" : "\n";
+        Matcher matcher = RESOURCE_METHOD_PATTERN.matcher(source);
+        StringBuffer output = new StringBuffer();
+        while (matcher.find()) {
+            String name = matcher.group(2);
+            String parameters = matcher.group(3);
+            String arguments = matcher.group(4);
+            // the switch of the catch block, one level less indented, returning the typed exceptions
+            String exceptionMapping = THROW_PATTERN.matcher(matcher.group(5)).replaceAll("return ")
+                    .replaceAll("(?m)^    ", "");
+            asyncMethods.add(name);
+
+            StringBuilder method = new StringBuilder()
+                    .append("    public void ").append(name).append("(").append(lineSeparator)
+                    .append("        @Suspended final AsyncResponse _asyncResponse")
+                    .append(parameters.trim().isEmpty() ? "" : "," + lineSeparator + parameters)
+                    .append(lineSeparator)
+                    .append("    ) {").append(lineSeparator)
+                    .append("        try {").append(lineSeparator)
+                    .append("            ResourceContext context = _delegate.newResourceContext(_request, _response);")
+                    .append(lineSeparator)
+                    .append("            _delegate.").append(name).append("(").append(arguments)
+                    .append(").whenComplete((_result, _error) -> {").append(lineSeparator)
+                    .append("                if (_error == null) {").append(lineSeparator)
+                    .append("                    _asyncResponse.resume(_result);").append(lineSeparator)
+                    .append("                } else {").append(lineSeparator)
+                    .append("                    _asyncResponse.resume(").append(name).append("Exception(_error));")
+                    .append(lineSeparator)
+                    .append("                }").append(lineSeparator)
+                    .append("            });").append(lineSeparator)
+                    .append("        } catch (ResourceException e) {").append(lineSeparator)
+                    .append("            _asyncResponse.resume(").append(name).append("Exception(e));")
+                    .append(lineSeparator)
+                    .append("        }").append(lineSeparator)
+                    .append("    }").append(lineSeparator)
+                    .append(lineSeparator)
+                    .append("    Throwable ").append(name).append("Exception(Throwable error) {").append(lineSeparator)
+                    .append("        if (error instanceof CompletionException && error.getCause() != null) {")
+                    .append(lineSeparator)
+                    .append("            error = error.getCause();").append(lineSeparator)
+                    .append("        }").append(lineSeparator)
+                    .append("        if (!(error instanceof ResourceException)) {").append(lineSeparator)
+                    .append("            return error;").append(lineSeparator)
+                    .append("        }").append(lineSeparator)
+                    .append("        ResourceException e = (ResourceException) error;").append(lineSeparator)
+                    .append(exceptionMapping).append(lineSeparator)
+                    .append("    }");
+            matcher.appendReplacement(output, Matcher.quoteReplacement(method.toString()));
+        }
+        matcher.appendTail(output);
+
+        if (asyncMethods.isEmpty()) {
+            return source;
+        }
+        return ParsecGeneratorUtil.addImports(output.toString(), lineSeparator,
+                "java.util.concurrent.CompletionException",
+                "javax.ws.rs.container.AsyncResponse",
+                "javax.ws.rs.container.Suspended");
+    }
+
+    /**
+     * Find the resource methods that are left synchronous.
+     *
+     * @param source resource source
+     * @return names of the public methods that do not suspend an AsyncResponse, in declaration order
+     */
+    static Set<String> findSyncMethods(final String source) {
+        Set<String> syncMethods = new LinkedHashSet<>();
+        Matcher matcher = SYNC_METHOD_PATTERN.matcher(source);
+        while (matcher.find()) {
+            syncMethods.add(matcher.group(1));
+        }
+        return syncMethods;
+    }
+
+    /**
+     * Make the given methods of a handler interface return a CompletionStage.
+     *
+     * @param source handler source
+     * @param asyncMethods names of the methods to make asynchronous
+     * @return handler source
+     */
+    static String toAsyncHandler(final String source, final Set<String> asyncMethods) {
+        if (asyncMethods.isEmpty()) {
+            return source;
+        }
+        final String lineSeparator = source.contains("\r\n") ? "\r\n" : "\n";
+        Matcher matcher = Pattern.compile(
+                "(?m)^([ \\t]*public )([\\w.<>,?\\[\\] ]+?) (" + String.join("|", asyncMethods) + ")\\(")
+                .matcher(source);
+        StringBuffer output = new StringBuffer();
+        while (matcher.find()) {
+            String returnType = matcher.group(2);
+            if (!returnType.startsWith("CompletionStage<")) {
+                returnType = "CompletionStage<" + BOXED_TYPES.getOrDefault(returnType, returnType) + ">";
+            }
+            matcher.appendReplacement(output, Matcher.quoteReplacement(
+                    matcher.group(1) + returnType + " " + matcher.group(3) + "("));
+        }
+        matcher.appendTail(output);
+        return ParsecGeneratorUtil.addImports(
+                output.toString(), lineSeparator, "java.util.concurrent.CompletionStage");
+    }
+
+    /**
+     * Turn the generated resources and handlers asynchronous. A resource and its handler are paired by
+     * their API name, e.g. SampleResources and SampleHandler.
+     *
+     * @return qualified resource class name to the resource methods left synchronous, in name order
+     * @throws IOException IOException
+     */
+    public Map<String, Set<String>> generateAsyncHandlers() throws IOException {
+        final Map<String, Set<String>> syncMethodsByResource = new TreeMap<>();
+        final Map<String, String> packages = packageStruct.getPackages();
+        for (Map.Entry<String, List<String>> entry : packageStruct.getResources().entrySet()) {
+            String packageName = entry.getKey();
+            String dir = ParsecGeneratorUtil.getPathFromGeneratedRoot(packageStruct, packages.get(packageName));
+            for (String resource : entry.getValue()) {
+                Path resourcePath = Paths.get(dir, resource + ".java");
+                Path handlerPath = Paths.get(dir, resource.replaceAll("Resources$", "") + "Handler.java");
+                if (!Files.isRegularFile(resourcePath) || !Files.isRegularFile(handlerPath)) {
+                    continue;
+                }
+                Set<String> asyncMethods = new LinkedHashSet<>();
+                String asyncResource = toAsyncResource(read(resourcePath), asyncMethods);
+                write(resourcePath, asyncResource);
+                write(handlerPath, toAsyncHandler(read(handlerPath), asyncMethods));
+
+                Set<String> syncMethods = findSyncMethods(asyncResource);
+                if (!syncMethods.isEmpty()) {
+                    syncMethodsByResource.put(
+                            packageName + "." + packageStruct.getGeneratedNamespace() + "." + resource, syncMethods);
+                }
+            }
+        }
+        return syncMethodsByResource;
+    }
+
+    private static String read(final Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    private void write(final Path path, final String content) throws IOException {
+        fileUtils.writeResourceToFile(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), path.toString(), true);
+    }
+}
@@ -0,0 +1,40 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ParsecDaemonThreadFactory.
+ * to name the pool threads and keep them from blocking the daemon shutdown.
+ */
+final class ParsecDaemonThreadFactory implements ThreadFactory {
+
+    /**
+     * the prefix of the thread names.
+     */
+    private final String namePrefix;
+
+    /**
+     * the number of threads created.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * default constructor.
+     *
+     * @param namePrefix prefix of the thread names
+     */
+    ParsecDaemonThreadFactory(final String namePrefix) {
+        this.namePrefix = namePrefix;
+    }
+
+    @Override
+    public Thread newThread(final Runnable runnable) {
+        Thread thread = new Thread(runnable, namePrefix + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
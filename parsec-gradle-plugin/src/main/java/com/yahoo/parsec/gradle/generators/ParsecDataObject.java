@@ -0,0 +1,359 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import java.beans.Introspector;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ParsecDataObject.
+ * the fields and accessors of a generated data object, read from its source, for the generators that
+ * emit code against the data objects instead of reflecting on them at runtime.
+ *
+ * Only the layout the rdl model generator emits is understood: one public class per file, one private
+ * field per declaration, and public getters and setters named after the fields.
+ */
+public final class ParsecDataObject {
+
+    private static final Pattern PACKAGE_PATTERN = Pattern.compile("^package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+    private static final Pattern IMPORT_PATTERN = Pattern.compile("^import\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
+    private static final Pattern CLASS_PATTERN = Pattern.compile(
+            "^public\\s+(?:final\\s+)?class\\s+(\\w+)[^{]*\\{", Pattern.MULTILINE);
+
+    private static final Pattern FIELD_PATTERN = Pattern.compile(
+            "^\\s*(?:private|protected|public)\\s+((?:(?:static|final|transient|volatile)\\s+)*)"
+                    + "([\\w.]+(?:\\s*<[\\w.<>,\\s?]*>)?(?:\\s*\\[\\])*)\\s+(\\w+)\\s*(?:=[^;]*)?;",
+            Pattern.MULTILINE);
+
+    private static final Pattern METHOD_PATTERN = Pattern.compile(
+            "public\\s+(?:final\\s+)?([\\w.]+(?:\\s*<[\\w.<>,\\s?]*>)?(?:\\s*\\[\\])*)\\s+(\\w+)\\s*\\(([^)]*)\\)");
+
+    private static final Pattern BINDING_ANNOTATION_PATTERN = Pattern.compile(
+            "@(?:javax\\.xml\\.bind\\.annotation\\.)?(?:Xml|Json)\\w*");
+
+    /**
+     * the source file.
+     */
+    private final Path path;
+
+    /**
+     * the package of the class.
+     */
+    private final String packageName;
+
+    /**
+     * the simple class name.
+     */
+    private final String className;
+
+    /**
+     * simple name to qualified name of the imported classes.
+     */
+    private final Map<String, String> imports;
+
+    /**
+     * the annotation text before the class.
+     */
+    private final String annotations;
+
+    /**
+     * the instance fields, in declaration order.
+     */
+    private final List<Field> fields;
+
+    /**
+     * whether the class has a public no-arg constructor.
+     */
+    private final boolean instantiable;
+
+    /**
+     * whether the class customizes its binding with jaxb or json annotations.
+     */
+    private final boolean customBinding;
+
+    private ParsecDataObject(
+            final Path path, final String packageName, final String className, final Map<String, String> imports,
+            final String annotations, final List<Field> fields, final boolean instantiable,
+            final boolean customBinding) {
+        this.path = path;
+        this.packageName = packageName;
+        this.className = className;
+        this.imports = imports;
+        this.annotations = annotations;
+        this.fields = fields;
+        this.instantiable = instantiable;
+        this.customBinding = customBinding;
+    }
+
+    /**
+     * Read a data object from its source.
+     *
+     * @param path source file
+     * @return data object, null if the file has no public class
+     * @throws IOException IOException
+     */
+    public static ParsecDataObject parse(final Path path) throws IOException {
+        return parse(path, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Read a data object from source text.
+     *
+     * @param path source file
+     * @param source source text
+     * @return data object, null if the source has no public class
+     */
+    static ParsecDataObject parse(final Path path, final String source) {
+        Matcher classMatcher = CLASS_PATTERN.matcher(source);
+        if (!classMatcher.find()) {
+            return null;
+        }
+        String className = classMatcher.group(1);
+        String body = source.substring(classMatcher.end());
+
+        Matcher packageMatcher = PACKAGE_PATTERN.matcher(source);
+        String packageName = packageMatcher.find() ? packageMatcher.group(1) : "";
+
+        Map<String, String> imports = new HashMap<>();
+        Matcher importMatcher = IMPORT_PATTERN.matcher(source);
+        while (importMatcher.find()) {
+            String importName = importMatcher.group(1);
+            imports.put(importName.substring(importName.lastIndexOf('.') + 1), importName);
+        }
+
+        // method name in lower case to name and parameters, for the accessors of the fields
+        Map<String, String[]> methods = new HashMap<>();
+        boolean hasConstructor = false;
+        boolean hasNoArgConstructor = false;
+        Matcher methodMatcher = METHOD_PATTERN.matcher(body);
+        while (methodMatcher.find()) {
+            methods.put(methodMatcher.group(2).toLowerCase(Locale.ENGLISH),
+                    new String[] {methodMatcher.group(2), methodMatcher.group(3).trim()});
+        }
+        Matcher constructorMatcher = Pattern.compile("\\b" + className + "\\s*\\(([^)]*)\\)\\s*(?:throws[^{]*)?\\{")
+                .matcher(body);
+        while (constructorMatcher.find()) {
+            hasConstructor = true;
+            int start = constructorMatcher.start();
+            String before = body.substring(Math.max(0, start - 20), start);
+            if (constructorMatcher.group(1).trim().isEmpty() && before.matches("(?s).*public\\s+$")) {
+                hasNoArgConstructor = true;
+            }
+        }
+
+        List<Field> fields = new ArrayList<>();
+        Matcher fieldMatcher = FIELD_PATTERN.matcher(body);
+        while (fieldMatcher.find()) {
+            String modifiers = fieldMatcher.group(1);
+            if (modifiers.contains("static") || modifiers.contains("transient")) {
+                continue;
+            }
+            String name = fieldMatcher.group(3);
+            String[] getter = methods.get("get" + name.toLowerCase(Locale.ENGLISH));
+            if (getter == null) {
+                getter = methods.get("is" + name.toLowerCase(Locale.ENGLISH));
+            }
+            if (getter != null && countParameters(getter[1]) != 0) {
+                getter = null;
+            }
+            String[] setter = methods.get("set" + name.toLowerCase(Locale.ENGLISH));
+            if (setter != null && countParameters(setter[1]) != 1) {
+                setter = null;
+            }
+            fields.add(new Field(
+                    fieldMatcher.group(2).replaceAll("\\s+", ""), name,
+                    getter != null ? getter[0] : null, setter != null ? setter[0] : null,
+                    getAnnotations(body, fieldMatcher.start())
+            ));
+        }
+
+        return new ParsecDataObject(
+                path, packageName, className, Collections.unmodifiableMap(imports),
+                getAnnotations(source, classMatcher.start()), Collections.unmodifiableList(fields), !hasConstructor || hasNoArgConstructor,
+                BINDING_ANNOTATION_PATTERN.matcher(source).find());
+    }
+
+    /**
+     * Count the parameters of a method, the commas of generic types are not separators.
+     *
+     * @param parameters parameter list
+     * @return number of parameters
+     */
+    private static int countParameters(final String parameters) {
+        if (parameters.isEmpty()) {
+            return 0;
+        }
+        int count = 1;
+        int depth = 0;
+        for (char c : parameters.toCharArray()) {
+            if (c == '<') {
+                depth++;
+            } else if (c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get the annotation text right before a declaration, i.e. after the previous one.
+     *
+     * @param text source text or class body
+     * @param start start of the declaration
+     * @return annotations, empty if none
+     */
+    private static String getAnnotations(final String text, final int start) {
+        String annotations = text.substring(text.lastIndexOf(';', start - 1) + 1, start);
+        int first = annotations.indexOf('@');
+        return first < 0 ? "" : annotations.substring(first).trim();
+    }
+
+    /**
+     * Resolve a type name used in the data object to a qualified name, java.lang types are left as is.
+     *
+     * @param typeName type name
+     * @return qualified name
+     */
+    public String resolveType(final String typeName) {
+        if (typeName.contains(".")) {
+            return typeName;
+        }
+        if (imports.containsKey(typeName)) {
+            return imports.get(typeName);
+        }
+        return packageName.isEmpty() ? typeName : packageName + "." + typeName;
+    }
+
+    /**
+     * the path getter.
+     * @return source file
+     */
+    public Path getPath() { return path; }
+
+    /**
+     * the package name getter.
+     * @return package name
+     */
+    public String getPackageName() { return packageName; }
+
+    /**
+     * the class name getter.
+     * @return simple class name
+     */
+    public String getClassName() { return className; }
+
+    /**
+     * the qualified name getter.
+     * @return qualified class name
+     */
+    public String getQualifiedName() { return packageName.isEmpty() ? className : packageName + "." + className; }
+
+    /**
+     * the annotations getter.
+     * @return the annotation text before the class, empty if none
+     */
+    public String getAnnotations() { return annotations; }
+
+    /**
+     * the fields getter.
+     * @return instance fields, in declaration order
+     */
+    public List<Field> getFields() { return fields; }
+
+    /**
+     * the instantiable getter.
+     * @return whether the class has a public no-arg constructor
+     */
+    public boolean isInstantiable() { return instantiable; }
+
+    /**
+     * the custom binding getter.
+     * @return whether the class customizes its binding with jaxb or json annotations
+     */
+    public boolean isCustomBinding() { return customBinding; }
+
+    /**
+     * a field of a data object.
+     */
+    public static final class Field {
+
+        private final String type;
+
+        private final String name;
+
+        private final String getter;
+
+        private final String setter;
+
+        private final String annotations;
+
+        private Field(
+                final String type, final String name, final String getter, final String setter,
+                final String annotations) {
+            this.type = type;
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.annotations = annotations;
+        }
+
+        /**
+         * the type getter.
+         * @return the declared type, without whitespace
+         */
+        public String getType() { return type; }
+
+        /**
+         * the name getter.
+         * @return field name
+         */
+        public String getName() { return name; }
+
+        /**
+         * the getter name getter.
+         * @return getter name, null if the field has no public getter
+         */
+        public String getGetter() { return getter; }
+
+        /**
+         * the setter name getter.
+         * @return setter name, null if the field has no public setter
+         */
+        public String getSetter() { return setter; }
+
+        /**
+         * the annotations getter.
+         * @return the annotation text before the field, empty if none
+         */
+        public String getAnnotations() { return annotations; }
+
+        /**
+         * Get the property name the field is bound to, the getter name without its prefix as java beans
+         * decapitalize it.
+         *
+         * @return property name, the field name if the field has no getter
+         */
+        public String getPropertyName() {
+            if (getter == null) {
+                return name;
+            }
+            return Introspector.decapitalize(getter.substring(getter.startsWith("is") ? 2 : 3));
+        }
+    }
+}
@@ -6,9 +6,13 @@ package com.yahoo.parsec.gradle.generators;
 import com.yahoo.parsec.gradle.utils.FileUtils;
 import org.gradle.api.Project;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author sho
@@ -44,6 +48,11 @@ public class ParsecFileGenerator {
      */
     private ParsecValidationGroupGenerator validationGroupsGenerator;
 
+    /**
+     * the file utils.
+     */
+    private FileUtils fileUtils;
+
     private Project project;
 
     /**
@@ -64,6 +73,32 @@ public class ParsecFileGenerator {
         final ParsecGeneratorUtil generatorUtil
     ) throws IOException {
         init(generatedSourceRootPath, project, packageResolver, generatorUtil);
+        this.fileUtils = fileUtils;
+        this.applicationGenerator = new ParsecApplicationGenerator(packageStruct, generatorUtil);
+        this.validationGroupsGenerator = new ParsecValidationGroupGenerator(packageStruct, generatorUtil, fileUtils);
+    }
+
+    /**
+     * Constructor without the project, for the code that runs outside of the project, e.g. in a worker.
+     *
+     * @param generatedSourceRootPath generated source root path
+     * @param projectDir project directory
+     * @param fileUtils file utils
+     * @param packageResolver package resolver
+     * @param generatorUtil generators util
+     * @throws  IOException IOException
+     */
+    public ParsecFileGenerator(
+        final Path generatedSourceRootPath,
+        final File projectDir,
+        final FileUtils fileUtils,
+        final ParsecPackageResolver packageResolver,
+        final ParsecGeneratorUtil generatorUtil
+    ) throws IOException {
+        this.generatorUtil = generatorUtil;
+        this.fileUtils = fileUtils;
+        this.packageStruct = packageResolver.resolve(
+                projectDir, JAVA_SOURCE_ROOT, generatedSourceRootPath, PARSEC_GENERATED_NAMESPACE);
         this.applicationGenerator = new ParsecApplicationGenerator(packageStruct, generatorUtil);
         this.validationGroupsGenerator = new ParsecValidationGroupGenerator(packageStruct, generatorUtil, fileUtils);
     }
@@ -90,6 +125,7 @@ public class ParsecFileGenerator {
             final ParsecValidationGroupGenerator validationGroupsGenerator
     ) throws IOException {
         init(generatedSourceRootPath, project, packageResolver, generatorUtil);
+        this.fileUtils = fileUtils;
         this.applicationGenerator = applicationGenerator;
         this.validationGroupsGenerator = validationGroupsGenerator;
     }
@@ -127,31 +163,37 @@ public class ParsecFileGenerator {
      * Generate from template to source root.
      *
      * @param templateName template name
+     * @return the files, written only if they did not exist
      * @throws IOException IOException
      */
-    public void generateFromTemplateToSourceRoot(
+    public List<File> generateFromTemplateToSourceRoot(
             final String templateName) throws IOException {
         final Map<String, String> packages = packageStruct.getPackages();
+        final List<File> files = new ArrayList<>();
         for (Map.Entry<String, String> packageEntry : packages.entrySet()) {
             String outputDir = ParsecGeneratorUtil.getPathFromSourceRoot(
                     packageStruct, packageEntry.getValue());
             String packageName = packageEntry.getKey();
             generatorUtil.generateFromTemplateTo(templateName, packageName, outputDir, false);
+            files.add(new File(outputDir, templateName));
         }
+        return files;
     }
 
     /**
      * Generate from template to source root.
      *
      * @param templateName template name
+     * @return the file, written only if it did not exist
      * @throws IOException IOException
      */
-    public void generateFromTemplateToIntersectSourceRoot(
+    public File generateFromTemplateToIntersectSourceRoot(
             final String templateName)throws IOException {
         String packageName = packageStruct.getIntersectPackageName();
         String outputDir = ParsecGeneratorUtil.getPathFromSourceRoot(
                 packageStruct, ParsecGeneratorUtil.packageNameToPath(packageName));
         generatorUtil.generateFromTemplateTo(templateName, packageName, outputDir, false);
+        return new File(outputDir, templateName);
     }
 
     /**
@@ -179,6 +221,64 @@ public class ParsecFileGenerator {
         applicationGenerator.generateParsecApplication(handleUncaughtException);
     }
 
+    /**
+     * Generate ParsecApplication.java
+     *
+     * @param options what the application registers
+     *
+     * @throws IOException IOException
+     */
+    public void generateParsecApplication(final ParsecApplicationOptions options) throws IOException {
+        applicationGenerator.generateParsecApplication(options);
+    }
+
+    /**
+     * Generate ParsecJsonCodec.java
+     *
+     * @throws IOException IOException
+     */
+    public void generateParsecJsonCodec() throws IOException {
+        new ParsecJsonCodecGenerator(packageStruct, generatorUtil).generateParsecJsonCodec();
+    }
+
+    /**
+     * Turn the generated resources and handlers asynchronous.
+     *
+     * @return qualified resource class name to the resource methods left synchronous
+     * @throws IOException IOException
+     */
+    public Map<String, Set<String>> generateAsyncHandlers() throws IOException {
+        return new ParsecAsyncHandlerGenerator(packageStruct, fileUtils).generateAsyncHandlers();
+    }
+
+    /**
+     * Generate ParsecVirtualThreads.java and make the generated resources and servers use it.
+     *
+     * @throws IOException IOException
+     */
+    public void generateVirtualThreads() throws IOException {
+        new ParsecVirtualThreadGenerator(packageStruct, generatorUtil, fileUtils).generateVirtualThreads();
+    }
+
+    /**
+     * Generate ParsecServerBootstrap.java and make the generated servers use it.
+     *
+     * @param settings server setting name to value
+     * @throws IOException IOException
+     */
+    public void generateServerBootstrap(final Map<String, String> settings) throws IOException {
+        new ParsecServerBootstrapGenerator(packageStruct, generatorUtil, fileUtils).generateServerBootstrap(settings);
+    }
+
+    /**
+     * Generate ParsecValidators.java
+     *
+     * @throws IOException IOException
+     */
+    public void generateParsecValidators() throws IOException {
+        new ParsecValidatorGenerator(packageStruct, generatorUtil).generateParsecValidators();
+    }
+
     /**
      * Generate ParsecValidationGroup.java
      *
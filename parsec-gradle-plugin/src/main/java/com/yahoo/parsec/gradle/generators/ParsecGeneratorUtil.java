@@ -13,12 +13,36 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Parsec Generator Utilities.
  */
 public class ParsecGeneratorUtil {
 
+    /**
+     * the parsed templates by name, the templates are bundled so they never change for the life of the plugin.
+     */
+    private static final ConcurrentMap<String, ParsecTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    /**
+     * the package declaration of a java source.
+     */
+    private static final Pattern PACKAGE_PATTERN = Pattern.compile("(?m)^package [\\w.]+;\\R");
+
+    /**
+     * the buffer templates are rendered into, reused across renders of the same thread.
+     */
+    private static final ThreadLocal<StringBuilder> RENDER_BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder();
+        }
+    };
+
     /**
      * file utils.
      */
@@ -108,22 +132,49 @@ public class ParsecGeneratorUtil {
             final String templateName, final String packageName,
             final String outputDir, final Map<String, String> replaceMaterials, final boolean overwrite
     ) throws IOException {
-        try (InputStream inputStream = getClass().getResourceAsStream("/templates/" + templateName)) {
-            String template = new String(IOUtils.toByteArray(inputStream));
-            String output = template.replace("{packageName}", packageName);
-            for (Map.Entry<String, String> replaceEntry : replaceMaterials.entrySet()) {
-                output = output.replace(replaceEntry.getKey(), replaceEntry.getValue());
-            }
+        String output = renderTemplate(templateName, packageName, replaceMaterials);
+
+        fileUtils.checkAndCreateDirectory(outputDir);
+        fileUtils.writeResourceToFile(
+                new ByteArrayInputStream(output.getBytes()),
+                outputDir + "/" + templateName,
+                overwrite
+        );
+    }
 
-            fileUtils.checkAndCreateDirectory(outputDir);
-            fileUtils.writeResourceToFile(
-                    new ByteArrayInputStream(output.getBytes()),
-                    outputDir + "/" + templateName,
-                    overwrite
-            );
-        } catch (IOException e) {
-            throw e;
+    /**
+     * Render template with the package name and replaceMaterials.
+     *
+     * @param templateName template name
+     * @param packageName package name in template to be replaced
+     * @param replaceMaterials replace materials, placeholder with braces to value
+     * @return rendered template
+     * @throws IOException IOException
+     */
+    public String renderTemplate(
+            final String templateName, final String packageName, final Map<String, String> replaceMaterials
+    ) throws IOException {
+        Map<String, String> values = new HashMap<>(replaceMaterials);
+        values.put("{packageName}", packageName);
+        return getTemplate(templateName).render(values, RENDER_BUFFER.get()).toString();
+    }
+
+    /**
+     * Get template, it is loaded and parsed on first use only.
+     *
+     * @param templateName template name
+     * @return template
+     * @throws IOException IOException
+     */
+    ParsecTemplate getTemplate(final String templateName) throws IOException {
+        ParsecTemplate template = TEMPLATES.get(templateName);
+        if (template == null) {
+            try (InputStream inputStream = getClass().getResourceAsStream("/templates/" + templateName)) {
+                template = ParsecTemplate.parse(new String(IOUtils.toByteArray(inputStream)));
+            }
+            TEMPLATES.putIfAbsent(templateName, template);
         }
+        return template;
     }
 
     /**
@@ -143,7 +194,7 @@ public class ParsecGeneratorUtil {
      */
     public static String getPathFromSourceRoot(
             final ParsecPackageStruct packageStruct, final String packageName) {
-        return packageStruct.getProject().getProjectDir().getPath() + packageStruct.getJavaSourceRoot() + packageName;
+        return packageStruct.getProjectDir().getPath() + packageStruct.getJavaSourceRoot() + packageName;
     }
 
     /**
@@ -157,4 +208,26 @@ public class ParsecGeneratorUtil {
         return packageStruct.getGeneratedSourceRootPath()
                 + "/" + packageName + "/" + packageStruct.getGeneratedNamespace();
     }
+
+    /**
+     * Add the imports a source does not have yet, right after its package declaration.
+     *
+     * @param source java source
+     * @param lineSeparator line separator
+     * @param imports qualified class names
+     * @return java source
+     */
+    static String addImports(final String source, final String lineSeparator, final String... imports) {
+        StringBuilder missingImports = new StringBuilder();
+        for (String importClass : imports) {
+            if (!source.contains("import " + importClass + ";")) {
+                missingImports.append("import ").append(importClass).append(";").append(lineSeparator);
+            }
+        }
+        Matcher matcher = PACKAGE_PATTERN.matcher(source);
+        if (missingImports.length() == 0 || !matcher.find()) {
+            return source;
+        }
+        return source.substring(0, matcher.end()) + lineSeparator + missingImports + source.substring(matcher.end());
+    }
 }
@@ -0,0 +1,334 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * ParsecJsonCodecGenerator.
+ * generates ParsecJsonCodec, a streaming JSON reader and writer for each data object, so the data objects
+ * are not marshalled by reflection.
+ *
+ * A data object gets a codec if every field is a primitive, a boxed primitive, a String, another data
+ * object with a codec, or a List of those, and has a getter and a setter. The other data objects, e.g.
+ * with enum, timestamp or Map fields, are left to MOXy; MOXy writes a Map as a list of key and value entries.
+ */
+public class ParsecJsonCodecGenerator {
+
+    /**
+     * the template and the class name of the codec.
+     */
+    static final String TEMPLATE_NAME = "ParsecJsonCodec.java";
+
+    /**
+     * the scalar types, to the read call and the writer of a value of that type.
+     */
+    private static final Map<String, String[]> SCALARS = new HashMap<>();
+
+    static {
+        SCALARS.put("String", new String[] {"nextString", "stringValue"});
+        SCALARS.put("int", new String[] {"nextInt", null});
+        SCALARS.put("Integer", new String[] {"nextInt", "numberValue"});
+        SCALARS.put("long", new String[] {"nextLong", null});
+        SCALARS.put("Long", new String[] {"nextLong", "numberValue"});
+        SCALARS.put("short", new String[] {"nextShort", null});
+        SCALARS.put("Short", new String[] {"nextShort", "numberValue"});
+        SCALARS.put("byte", new String[] {"nextByte", null});
+        SCALARS.put("Byte", new String[] {"nextByte", "numberValue"});
+        SCALARS.put("float", new String[] {"nextFloat", null});
+        SCALARS.put("Float", new String[] {"nextFloat", "numberValue"});
+        SCALARS.put("double", new String[] {"nextDouble", null});
+        SCALARS.put("Double", new String[] {"nextDouble", "numberValue"});
+        SCALARS.put("boolean", new String[] {"nextBoolean", null});
+        SCALARS.put("Boolean", new String[] {"nextBoolean", "booleanValue"});
+    }
+
+    /**
+     * the nested class names of the template.
+     */
+    private static final Set<String> RESERVED_NAMES = new HashSet<>(Arrays.asList(
+            "AbstractCodec", "JsonReader", "JsonWriter", "ValueReader", "ValueWriter"));
+
+    /**
+     * the package struct.
+     */
+    private ParsecPackageStruct packageStruct;
+
+    /**
+     * the generator util.
+     */
+    private ParsecGeneratorUtil generatorUtil;
+
+    /**
+     * default constructor.
+     *
+     * @param packageStruct package struct.
+     * @param generatorUtil generators util
+     */
+    public ParsecJsonCodecGenerator(
+            final ParsecPackageStruct packageStruct, final ParsecGeneratorUtil generatorUtil) {
+        this.packageStruct = packageStruct;
+        this.generatorUtil = generatorUtil;
+    }
+
+    /**
+     * Get the data objects that get a codec.
+     *
+     * @return qualified name to data object, in name order
+     * @throws IOException IOException
+     */
+    Map<String, ParsecDataObject> getCodecDataObjects() throws IOException {
+        Map<String, ParsecDataObject> dataObjects = new TreeMap<>();
+        for (List<Path> paths : packageStruct.getDataobjects().values()) {
+            for (Path path : paths) {
+                ParsecDataObject dataObject = ParsecDataObject.parse(path);
+                if (dataObject != null && dataObject.isInstantiable() && !dataObject.isCustomBinding()) {
+                    dataObjects.put(dataObject.getQualifiedName(), dataObject);
+                }
+            }
+        }
+
+        // drop the data objects with unsupported fields until the ones left only refer to each other
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Iterator<ParsecDataObject> iterator = dataObjects.values().iterator();
+            while (iterator.hasNext()) {
+                if (!isSupported(iterator.next(), dataObjects)) {
+                    iterator.remove();
+                    changed = true;
+                }
+            }
+        }
+        return dataObjects;
+    }
+
+    private static boolean isSupported(
+            final ParsecDataObject dataObject, final Map<String, ParsecDataObject> dataObjects) {
+        for (ParsecDataObject.Field field : dataObject.getFields()) {
+            if (field.getGetter() == null || field.getSetter() == null) {
+                return false;
+            }
+            String type = simplifyType(field.getType());
+            String elementType = getElementType(type);
+            if (elementType != null) {
+                type = elementType;
+                if (!Character.isUpperCase(type.charAt(0)) && !type.contains(".")) {
+                    return false;
+                }
+            }
+            if (!SCALARS.containsKey(type) && !dataObjects.containsKey(dataObject.resolveType(type))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Drop the java.lang and java.util package from a type, so the qualified and simple names match alike.
+     *
+     * @param type field type
+     * @return simplified type
+     */
+    private static String simplifyType(final String type) {
+        return type.replace("java.util.", "").replace("java.lang.", "");
+    }
+
+    /**
+     * Get the element type of a List.
+     *
+     * @param type simplified field type
+     * @return element type, null if the type is not a List
+     */
+    private static String getElementType(final String type) {
+        if (type.startsWith("List<") && type.endsWith(">")) {
+            return type.substring("List<".length(), type.length() - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Get replace materials for ParsecJsonCodec.
+     *
+     * @return replace materials
+     * @throws IOException IOException
+     */
+    Map<String, String> getReplaceMaterials() throws IOException {
+        final String lineSeparator = System.getProperty("line.separator");
+        final Map<String, ParsecDataObject> dataObjects = getCodecDataObjects();
+
+        // a unique method and codec name for each data object, the simple names may repeat across packages
+        Map<String, String> codecNames = new HashMap<>();
+        Set<String> usedNames = new HashSet<>(RESERVED_NAMES);
+        for (ParsecDataObject dataObject : dataObjects.values()) {
+            String codecName = dataObject.getClassName();
+            for (int i = 2; usedNames.contains(codecName + "Codec"); i++) {
+                codecName = dataObject.getClassName() + i;
+            }
+            usedNames.add(codecName + "Codec");
+            codecNames.put(dataObject.getQualifiedName(), codecName);
+        }
+
+        StringBuilder names = new StringBuilder();
+        StringBuilder codecClasses = new StringBuilder();
+        StringBuilder codecs = new StringBuilder();
+        Set<String> constants = new HashSet<>();
+        for (ParsecDataObject dataObject : dataObjects.values()) {
+            String qualifiedName = dataObject.getQualifiedName();
+            String codecName = codecNames.get(qualifiedName);
+            StringBuilder writeFields = new StringBuilder();
+            StringBuilder readFields = new StringBuilder();
+
+            for (ParsecDataObject.Field field : dataObject.getFields()) {
+                String propertyName = field.getPropertyName();
+                String constant = toConstantName(codecName) + "_" + toConstantName(propertyName);
+                for (int i = 2; constants.contains(constant); i++) {
+                    constant = toConstantName(codecName) + "_" + toConstantName(propertyName) + "_" + i;
+                }
+                constants.add(constant);
+                names.append("    private static final byte[] ").append(constant)
+                        .append(" = name(\"").append(propertyName).append("\");").append(lineSeparator);
+
+                String getter = "value." + field.getGetter() + "()";
+                String type = simplifyType(field.getType());
+                String elementType = getElementType(type);
+                String write;
+                String read;
+                if (elementType != null) {
+                    write = "writer.listField(" + constant + ", " + getter + ", "
+                            + getValueWriter(dataObject, elementType, codecNames) + ");";
+                    read = "reader.nextList(" + getValueReader(dataObject, elementType, codecNames) + ")";
+                } else if (SCALARS.containsKey(type) && SCALARS.get(type)[1] == null) {
+                    write = "writer.name(" + constant + ").value(" + getter + ");";
+                    read = "reader." + SCALARS.get(type)[0] + "()";
+                } else {
+                    write = "writer.field(" + constant + ", " + getter + ", "
+                            + getValueWriter(dataObject, type, codecNames) + ");";
+                    read = SCALARS.containsKey(type)
+                            ? "reader." + SCALARS.get(type)[0] + "()"
+                            : "read" + codecNames.get(dataObject.resolveType(type)) + "(reader)";
+                }
+                writeFields.append("        ").append(write).append(lineSeparator);
+                readFields.append("            case \"").append(propertyName).append("\":").append(lineSeparator)
+                        .append("                value.").append(field.getSetter()).append("(").append(read)
+                        .append(");").append(lineSeparator)
+                        .append("                break;").append(lineSeparator);
+            }
+
+            codecClasses.append("            ").append(codecName).append("Codec.class,").append(lineSeparator);
+            codecs.append("    /**").append(lineSeparator)
+                    .append("     * ").append(dataObject.getClassName()).append(" codec.").append(lineSeparator)
+                    .append("     */").append(lineSeparator)
+                    .append("    @Provider").append(lineSeparator)
+                    .append("    @Produces(MediaType.APPLICATION_JSON)").append(lineSeparator)
+                    .append("    @Consumes(MediaType.APPLICATION_JSON)").append(lineSeparator)
+                    .append("    public static final class ").append(codecName).append("Codec extends AbstractCodec<")
+                    .append(qualifiedName).append("> {").append(lineSeparator)
+                    .append("        public ").append(codecName).append("Codec() {").append(lineSeparator)
+                    .append("            super(").append(qualifiedName).append(".class, ParsecJsonCodec::read")
+                    .append(codecName).append(", ParsecJsonCodec::write").append(codecName).append(");")
+                    .append(lineSeparator)
+                    .append("        }").append(lineSeparator)
+                    .append("    }").append(lineSeparator)
+                    .append(lineSeparator)
+                    .append("    public static void write").append(codecName).append("(")
+                    .append("final JsonWriter writer, final ").append(qualifiedName).append(" value)")
+                    .append(lineSeparator)
+                    .append("            throws IOException {").append(lineSeparator)
+                    .append("        writer.beginObject();").append(lineSeparator)
+                    .append(writeFields)
+                    .append("        writer.endObject();").append(lineSeparator)
+                    .append("    }").append(lineSeparator)
+                    .append(lineSeparator)
+                    .append("    public static ").append(qualifiedName).append(" read").append(codecName)
+                    .append("(final JsonReader reader) throws IOException {").append(lineSeparator)
+                    .append("        final ").append(qualifiedName).append(" value = new ").append(qualifiedName)
+                    .append("();").append(lineSeparator)
+                    .append("        reader.beginObject();").append(lineSeparator)
+                    .append("        while (reader.hasNext('}')) {").append(lineSeparator)
+                    .append("            final String name = reader.nextName();").append(lineSeparator)
+                    .append("            if (reader.nextNull()) {").append(lineSeparator)
+                    .append("                continue;").append(lineSeparator)
+                    .append("            }").append(lineSeparator)
+                    .append("            switch (name) {").append(lineSeparator)
+                    .append(readFields)
+                    .append("            default:").append(lineSeparator)
+                    .append("                reader.skipValue();").append(lineSeparator)
+                    .append("            }").append(lineSeparator)
+                    .append("        }").append(lineSeparator)
+                    .append("        return value;").append(lineSeparator)
+                    .append("    }").append(lineSeparator)
+                    .append(lineSeparator);
+        }
+
+        final Map<String, String> replaceMaterials = new HashMap<>();
+        replaceMaterials.put("{names}", trimEnd(names));
+        replaceMaterials.put("{codecClasses}", trimEnd(codecClasses));
+        replaceMaterials.put("{codecs}", trimEnd(codecs));
+        return replaceMaterials;
+    }
+
+    /**
+     * drop the line separators at the end, the placeholders are on lines of their own.
+     *
+     * @param stringBuilder generated lines
+     * @return generated lines without the trailing line separators
+     */
+    private static String trimEnd(final StringBuilder stringBuilder) {
+        int end = stringBuilder.length();
+        while (end > 0 && (stringBuilder.charAt(end - 1) == '\n' || stringBuilder.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return stringBuilder.substring(0, end);
+    }
+
+    private static String getValueWriter(
+            final ParsecDataObject dataObject, final String type, final Map<String, String> codecNames) {
+        if (SCALARS.containsKey(type)) {
+            return "JsonWriter::" + SCALARS.get(type)[1];
+        }
+        return "ParsecJsonCodec::write" + codecNames.get(dataObject.resolveType(type));
+    }
+
+    private static String getValueReader(
+            final ParsecDataObject dataObject, final String type, final Map<String, String> codecNames) {
+        if (SCALARS.containsKey(type)) {
+            return "JsonReader::" + SCALARS.get(type)[0];
+        }
+        return "ParsecJsonCodec::read" + codecNames.get(dataObject.resolveType(type));
+    }
+
+    /**
+     * camel case to upper snake case, e.g. salaryAmount to SALARY_AMOUNT.
+     *
+     * @param name name
+     * @return constant name
+     */
+    static String toConstantName(final String name) {
+        return name.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Generate ParsecJsonCodec.java into the generated namespace of the intersect package, next to
+     * ParsecApplication.
+     *
+     * @throws IOException IOException
+     */
+    public void generateParsecJsonCodec() throws IOException {
+        String packageName = packageStruct.getIntersectPackageName();
+        String outputDir = ParsecGeneratorUtil.getPathFromGeneratedRoot(
+                packageStruct, ParsecGeneratorUtil.packageNameToPath(packageName));
+        generatorUtil.generateFromTemplateTo(TEMPLATE_NAME, packageName, outputDir, getReplaceMaterials(), true);
+    }
+}
@@ -6,6 +6,7 @@ package com.yahoo.parsec.gradle.generators;
 import com.yahoo.parsec.gradle.utils.FileUtils;
 import org.gradle.api.Project;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -14,8 +15,16 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * ParsecPackageResolver.
@@ -23,6 +32,23 @@ import java.util.Map;
  */
 public class ParsecPackageResolver {
 
+    /**
+     * the max number of threads to read the generated files with.
+     */
+    private static final int MAX_THREADS = 8;
+
+    /**
+     * the min number of files to read in parallel, fewer are read on the calling thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    /**
+     * the header of the generated data objects contains it. The match pattern is not very accurate if we
+     * generate other classes with Serializable in the future, but there's no risk if the matched object
+     * is not a real data object.
+     */
+    private static final String DATA_OBJECT_PATTERN = " implements java.io.Serializable";
+
     /**
      * the generatorUtil.
      */
@@ -59,27 +85,67 @@ public class ParsecPackageResolver {
         final String javaSourceRoot,
         final Path generatedSourceRootPath,
         final String generatedNamespace) throws IOException {
+        ParsecPackageStruct packageStruct = resolve((File) null, javaSourceRoot, generatedSourceRootPath, generatedNamespace);
+        ParsecPackageStruct projectPackageStruct = new ParsecPackageStruct(
+                project, javaSourceRoot, generatedSourceRootPath, generatedNamespace,
+                packageStruct.getPackages(), packageStruct.getHandlers(), packageStruct.getResources(),
+                packageStruct.getDataobjects(), packageStruct.getIntersectPackageName()
+        );
+        projectPackageStruct.setValidationGroups(packageStruct.getValidationGroups());
+        return projectPackageStruct;
+    }
+
+    /**
+     * Resolve packages, handlers, resources and dataobjects without the project.
+     *
+     * @param projectDir project directory
+     * @param javaSourceRoot java source root
+     * @param generatedSourceRootPath generated source root path
+     * @param generatedNamespace generated namespace
+     * @throws IOException IOException
+     *
+     * @return PackagePackageStruct
+     */
+    public ParsecPackageStruct resolve(
+        final File projectDir,
+        final String javaSourceRoot,
+        final Path generatedSourceRootPath,
+        final String generatedNamespace) throws IOException {
         Map<String, String> packages = new HashMap<>();
         Map<String, List<String>> handlers = new HashMap<>();
         Map<String, List<String>> resources = new HashMap<>();
         Map<String, List<Path>> dataObjects = new HashMap<>();
+        Map<Path, Set<String>> dataObjectIndex;
         try {
             List<Path> filePaths = getFilePathsFromGeneratedSourceRoot(generatedSourceRootPath);
+            dataObjectIndex = indexDataObjects(filePaths, generatedNamespace);
             for (Path filePath : filePaths) {
                 resolveByFile(
                         filePath, generatedNamespace, generatedSourceRootPath,
-                        packages, handlers, resources, dataObjects
+                        packages, handlers, resources, dataObjects, dataObjectIndex.keySet()
                 );
             }
         } catch (IOException e) {
             throw e;
         }
 
-        return new ParsecPackageStruct(
-                project, javaSourceRoot, generatedSourceRootPath, generatedNamespace,
+        // the validation groups of the data objects by package, for the validation group generator
+        Map<String, Set<String>> validationGroups = new HashMap<>();
+        for (Map.Entry<String, List<Path>> entry : dataObjects.entrySet()) {
+            Set<String> groups = new TreeSet<>();
+            for (Path dataObject : entry.getValue()) {
+                groups.addAll(dataObjectIndex.get(dataObject));
+            }
+            validationGroups.put(entry.getKey(), groups);
+        }
+
+        ParsecPackageStruct packageStruct = new ParsecPackageStruct(
+                projectDir, javaSourceRoot, generatedSourceRootPath, generatedNamespace,
                 packages, handlers, resources, dataObjects,
                 generatorUtil.getIntersectPackageName(new ArrayList<>(packages.keySet()))
         );
+        packageStruct.setValidationGroups(validationGroups);
+        return packageStruct;
     }
 
     /**
@@ -104,6 +170,80 @@ public class ParsecPackageResolver {
         return paths;
     }
 
+    /**
+     * Index the generated data objects and their validation groups in one pass, each candidate
+     * file is read once, and in parallel if there are many of them.
+     *
+     * @param filePaths file paths
+     * @param generatedNamespace generated namespace
+     * @throws IOException IOException
+     *
+     * @return data object path to its validation groups
+     */
+    Map<Path, Set<String>> indexDataObjects(final List<Path> filePaths, final String generatedNamespace)
+            throws IOException {
+        final List<Path> candidates = new ArrayList<>();
+        List<Callable<Set<String>>> tasks = new ArrayList<>();
+        for (final Path filePath : filePaths) {
+            String filename = filePath.getFileName().toString().replace(".java", "");
+            if (filePath.toString().contains("/" + generatedNamespace + "/")
+                    && !isHandler(filename) && !isResource(filename)) {
+                candidates.add(filePath);
+                tasks.add(new Callable<Set<String>>() {
+                    @Override
+                    public Set<String> call() throws IOException {
+                        return scanDataObject(filePath);
+                    }
+                });
+            }
+        }
+
+        List<Set<String>> results = new ArrayList<>();
+        if (tasks.size() < PARALLEL_THRESHOLD) {
+            for (Callable<Set<String>> task : tasks) {
+                results.add(callTask(task));
+            }
+        } else {
+            int threads = Math.min(Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()), tasks.size());
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.max(1, threads), new ParsecDaemonThreadFactory("parsec-resolve-"));
+            try {
+                for (Future<Set<String>> future : executor.invokeAll(tasks)) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while resolving generated sources", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause.getMessage(), cause);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        Map<Path, Set<String>> dataObjects = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (results.get(i) != null) {
+                dataObjects.put(candidates.get(i), results.get(i));
+            }
+        }
+        return dataObjects;
+    }
+
+    private static <T> T callTask(final Callable<T> task) throws IOException {
+        try {
+            return task.call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
     /**
      * resolve by single file, extract as a function for testing.
      *
@@ -124,6 +264,22 @@ public class ParsecPackageResolver {
             final Map<String, List<String>> handlers,
             final Map<String, List<String>> resources,
             final Map<String, List<Path>> dataObjects
+    ) throws IOException {
+        resolveByFile(
+                filePath, generatedNamespace, generatedSourceRootPath,
+                packages, handlers, resources, dataObjects, null
+        );
+    }
+
+    private void resolveByFile(
+            final Path filePath,
+            final String generatedNamespace,
+            final Path generatedSourceRootPath,
+            final Map<String, String> packages,
+            final Map<String, List<String>> handlers,
+            final Map<String, List<String>> resources,
+            final Map<String, List<Path>> dataObjects,
+            final Set<Path> dataObjectPaths
     ) throws IOException {
         String pathString = filePath.toString();
         if (pathString.contains("/" + generatedNamespace + "/")) {
@@ -141,7 +297,7 @@ public class ParsecPackageResolver {
                 addValue(resources, packageName, filename);
                 // only keep the last package name of same path
                 packages.putIfAbsent(packageName, packagePath);
-            } else if (isDataObject(filePath)) {
+            } else if (dataObjectPaths != null ? dataObjectPaths.contains(filePath) : isDataObject(filePath)) {
                 addValue(dataObjects, packageName, filePath);
             }
         }
@@ -166,17 +322,30 @@ public class ParsecPackageResolver {
     }
 
     /**
-     * check if the file is generated data object.
+     * check if the file is generated data object, only the header of the file is read.
      *
      * @param filePath file path
      * @return boolean
      * @throws IOException
      */
     boolean isDataObject(final Path filePath) throws IOException {
-        // the match pattern is not very accurate if we generate other classes with Serializable in the future,
-        //  but there's no risk if the matched object is not a real data object
-        final String pattern = " implements java.io.Serializable";
-        return fileUtils.checkFileContains(filePath, pattern);
+        return hasDataObjectHeader(filePath);
+    }
+
+    private boolean hasDataObjectHeader(final Path filePath) throws IOException {
+        return fileUtils.checkFileHeaderContains(filePath, DATA_OBJECT_PATTERN);
+    }
+
+    /**
+     * Scan a file, its validation groups are returned if it is a generated data object.
+     *
+     * @param filePath file path
+     * @return validation groups, null if not a data object
+     * @throws IOException IOException
+     */
+    private Set<String> scanDataObject(final Path filePath) throws IOException {
+        return fileUtils.scanJavaFile(
+                filePath, DATA_OBJECT_PATTERN, ParsecValidationGroupGenerator.VALIDATION_GROUP_PATTERN);
     }
 
     /**
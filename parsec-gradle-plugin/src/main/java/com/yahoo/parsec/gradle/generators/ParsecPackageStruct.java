@@ -5,10 +5,12 @@ package com.yahoo.parsec.gradle.generators;
 
 import org.gradle.api.Project;
 
+import java.io.File;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * ParsecPackageStruct.
@@ -36,6 +38,11 @@ public final class ParsecPackageStruct {
      */
     private Map<String, List<Path>> dataobjects = new HashMap<>();
 
+    /**
+     * validation groups of the dataobjects by package, null if not indexed.
+     */
+    private Map<String, Set<String>> validationGroups;
+
     /**
      * Packages intersect package name.
      */
@@ -46,6 +53,11 @@ public final class ParsecPackageStruct {
      */
     private Project project;
 
+    /**
+     * Packages's project directory, used if there is no project.
+     */
+    private File projectDir;
+
     /**
      * Packages's java source root.
      */
@@ -84,7 +96,49 @@ public final class ParsecPackageStruct {
             final Map<String, List<Path>> dataobjects,
             final String intersectPackageName
     ) {
+        this(javaSourceRoot, generatedSourceRootPath, generatedNamespace,
+                packages, handlers, resources, dataobjects, intersectPackageName);
         this.project = project;
+    }
+
+    /**
+     * the constructor without project.
+     * @param projectDir project directory
+     * @param javaSourceRoot java source root
+     * @param generatedSourceRootPath generated source root
+     * @param generatedNamespace generated namespace
+     * @param packages pavkages
+     * @param handlers handlers
+     * @param resources resources
+     * @param dataobjects dataobjects
+     * @param intersectPackageName intersect package name
+     */
+    public ParsecPackageStruct(
+            final File projectDir,
+            final String javaSourceRoot,
+            final Path generatedSourceRootPath,
+            final String generatedNamespace,
+            final Map<String, String> packages,
+            final Map<String, List<String>> handlers,
+            final Map<String, List<String>> resources,
+            final Map<String, List<Path>> dataobjects,
+            final String intersectPackageName
+    ) {
+        this(javaSourceRoot, generatedSourceRootPath, generatedNamespace,
+                packages, handlers, resources, dataobjects, intersectPackageName);
+        this.projectDir = projectDir;
+    }
+
+    private ParsecPackageStruct(
+            final String javaSourceRoot,
+            final Path generatedSourceRootPath,
+            final String generatedNamespace,
+            final Map<String, String> packages,
+            final Map<String, List<String>> handlers,
+            final Map<String, List<String>> resources,
+            final Map<String, List<Path>> dataobjects,
+            final String intersectPackageName
+    ) {
         this.javaSourceRoot = javaSourceRoot;
         this.generatedSourceRootPath = generatedSourceRootPath;
         this.generatedNamespace = generatedNamespace;
@@ -125,12 +179,32 @@ public final class ParsecPackageStruct {
      */
     public String getIntersectPackageName() { return intersectPackageName; }
 
+    /**
+     * the validation groups getter.
+     * @return validation groups by package, null if not indexed
+     */
+    public Map<String, Set<String>> getValidationGroups() { return validationGroups; }
+
+    /**
+     * the validation groups setter, for the resolver that indexed them along with the dataobjects.
+     * @param validationGroups validation groups by package
+     */
+    void setValidationGroups(final Map<String, Set<String>> validationGroups) {
+        this.validationGroups = validationGroups;
+    }
+
     /**
      * the project getter.
      * @return project
      */
     public Project getProject() { return project; }
 
+    /**
+     * the project directory getter.
+     * @return project directory
+     */
+    public File getProjectDir() { return project != null ? project.getProjectDir() : projectDir; }
+
     /**
      * the java source root getter.
      * @return source root
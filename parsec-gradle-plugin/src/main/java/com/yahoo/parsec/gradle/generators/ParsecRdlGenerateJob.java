@@ -0,0 +1,148 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ParsecRdlGenerateJob.
+ * one invocation of the rdl binary for a single (RDL file, generator) pair.
+ * The schema may be read from the RDL file itself or from its parsed JSON schema.
+ */
+public final class ParsecRdlGenerateJob {
+
+    /**
+     * the RDL file.
+     */
+    private final String rdlFile;
+
+    /**
+     * the generator type, e.g. parsec-java-model.
+     */
+    private final String type;
+
+    /**
+     * the schema file the generator reads, the RDL file or its JSON schema.
+     */
+    private final String schemaFile;
+
+    /**
+     * the generator options.
+     */
+    private final List<String> options;
+
+    /**
+     * the full command line.
+     */
+    private final List<String> command;
+
+    /**
+     * the rdl executable.
+     */
+    private final String executable;
+
+    /**
+     * default constructor.
+     *
+     * @param executable rdl executable
+     * @param type generator type
+     * @param rdlFile RDL file
+     * @param options generator options
+     */
+    public ParsecRdlGenerateJob(
+            final String executable,
+            final String type,
+            final String rdlFile,
+            final List<String> options
+    ) {
+        this(executable, type, rdlFile, rdlFile, options);
+    }
+
+    /**
+     * constructor with the schema file to read instead of the RDL file.
+     *
+     * @param executable rdl executable
+     * @param type generator type
+     * @param rdlFile RDL file
+     * @param schemaFile schema file
+     * @param options generator options
+     */
+    public ParsecRdlGenerateJob(
+            final String executable,
+            final String type,
+            final String rdlFile,
+            final String schemaFile,
+            final List<String> options
+    ) {
+        this.executable = executable;
+        this.rdlFile = rdlFile;
+        this.type = type;
+        this.schemaFile = schemaFile;
+        this.options = Collections.unmodifiableList(new ArrayList<>(options));
+
+        List<String> command = new ArrayList<>(Arrays.asList(executable, "generate", type, schemaFile));
+        command.addAll(2, options);
+        this.command = Collections.unmodifiableList(command);
+    }
+
+    /**
+     * the rdlFile getter.
+     * @return RDL file
+     */
+    public String getRdlFile() { return rdlFile; }
+
+    /**
+     * the type getter.
+     * @return generator type
+     */
+    public String getType() { return type; }
+
+    /**
+     * the schemaFile getter.
+     * @return schema file
+     */
+    public String getSchemaFile() { return schemaFile; }
+
+    /**
+     * the options getter.
+     * @return generator options
+     */
+    public List<String> getOptions() { return options; }
+
+    /**
+     * the command getter.
+     * @return command line
+     */
+    public List<String> getCommand() { return command; }
+
+    /**
+     * Get the directory the generator writes to, the value of the -o option.
+     *
+     * @return output directory, null if not set
+     */
+    public String getOutputDir() {
+        int index = options.indexOf("-o");
+        return index >= 0 && index + 1 < options.size() ? options.get(index + 1) : null;
+    }
+
+    /**
+     * Get the same job writing to another directory.
+     *
+     * @param outputDir output directory
+     * @return job
+     */
+    public ParsecRdlGenerateJob withOutputDir(final String outputDir) {
+        List<String> newOptions = new ArrayList<>(options);
+        int index = newOptions.indexOf("-o");
+        if (index >= 0 && index + 1 < newOptions.size()) {
+            newOptions.set(index + 1, outputDir);
+        } else {
+            newOptions.addAll(0, Arrays.asList("-o", outputDir));
+        }
+        return new ParsecRdlGenerateJob(executable, type, rdlFile, schemaFile, newOptions);
+    }
+}
@@ -0,0 +1,279 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import org.apache.commons.compress.utils.IOUtils;
+import org.gradle.api.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ParsecRdlGenerateRunner.
+ * to run rdl generate jobs, either one after another or on a bounded thread pool.
+ */
+public class ParsecRdlGenerateRunner {
+
+    /**
+     * the logger.
+     */
+    private Logger logger;
+
+    /**
+     * the working directory of the rdl processes.
+     */
+    private File workingDir;
+
+    /**
+     * the PATH of the rdl processes, where the generators live.
+     */
+    private String binPath;
+
+    /**
+     * the listener told about every finished job, if any.
+     */
+    private JobListener jobListener;
+
+    /**
+     * default constructor.
+     *
+     * @param logger logger
+     * @param workingDir working directory
+     * @param binPath bin path
+     */
+    public ParsecRdlGenerateRunner(final Logger logger, final File workingDir, final String binPath) {
+        this.logger = logger;
+        this.workingDir = workingDir;
+        this.binPath = binPath;
+    }
+
+    /**
+     * Run jobs one after another, the process output goes straight to the console.
+     *
+     * @param jobs jobs
+     * @throws IOException IOException
+     */
+    public void runSerial(final List<ParsecRdlGenerateJob> jobs) throws IOException {
+        String lastRdlFile = null;
+        for (ParsecRdlGenerateJob job : jobs) {
+            if (!job.getRdlFile().equals(lastRdlFile)) {
+                logParsing(job);
+                lastRdlFile = job.getRdlFile();
+            }
+            logger.info(" Generating " + job.getType());
+            logger.debug("execute command: {}", job.getCommand());
+
+            long start = System.currentTimeMillis();
+            Process process = newProcessBuilder(job.getCommand()).inheritIO().start();
+            try {
+                int exitCode = process.waitFor();
+                jobFinished(job, System.currentTimeMillis() - start, exitCode);
+                if (exitCode != 0) {
+                    throw new IOException("Error parsing RDL file " + job.getRdlFile());
+                }
+            } catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing RDL file " + job.getRdlFile(), e);
+            }
+        }
+    }
+
+    /**
+     * Run jobs concurrently on a pool of at most the given number of threads.
+     * The output of each job is captured and logged as one block, in job order.
+     * The first failing job stops all the others.
+     *
+     * @param jobs jobs
+     * @param threads max number of threads
+     * @throws IOException IOException
+     */
+    public void runParallel(final List<ParsecRdlGenerateJob> jobs, final int threads) throws IOException {
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        final Set<Process> processes = ConcurrentHashMap.newKeySet();
+        final ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(threads, jobs.size())), new ParsecDaemonThreadFactory("parsec-generate-"));
+        final CompletionService<JobResult> completionService = new ExecutorCompletionService<>(executor);
+
+        try {
+            for (int i = 0; i < jobs.size(); i++) {
+                completionService.submit(new JobCallable(i, jobs.get(i), processes));
+            }
+
+            JobResult[] results = new JobResult[jobs.size()];
+            int nextToLog = 0;
+            for (int done = 0; done < jobs.size(); done++) {
+                JobResult result = completionService.take().get();
+                jobFinished(result.job, result.millis, result.exitCode);
+                if (result.exitCode != 0) {
+                    logParsing(result.job);
+                    logger.error(" Generating " + result.job.getType() + " failed");
+                    logOutput(result, true);
+                    throw new IOException("Error parsing RDL file " + result.job.getRdlFile());
+                }
+
+                // flush the finished jobs in the order they were submitted
+                results[result.index] = result;
+                while (nextToLog < results.length && results[nextToLog] != null) {
+                    JobResult next = results[nextToLog];
+                    if (nextToLog == 0 || !jobs.get(nextToLog - 1).getRdlFile().equals(next.job.getRdlFile())) {
+                        logParsing(next.job);
+                    }
+                    logger.info(" Generating " + next.job.getType());
+                    logOutput(next, false);
+                    results[nextToLog++] = null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while parsing RDL files", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+            for (Process process : processes) {
+                process.destroy();
+            }
+        }
+    }
+
+    /**
+     * Set the listener told about every finished job, the calls come from the thread running the jobs.
+     *
+     * @param jobListener job listener
+     */
+    public void setJobListener(final JobListener jobListener) {
+        this.jobListener = jobListener;
+    }
+
+    /**
+     * Create process builder of the command.
+     *
+     * @param command command
+     * @return process builder
+     */
+    ProcessBuilder newProcessBuilder(final List<String> command) {
+        ProcessBuilder processBuilder = new ProcessBuilder(command).directory(workingDir);
+
+        // Add execute PATH
+        Map<String, String> env = processBuilder.environment();
+        env.put("PATH", binPath);
+        return processBuilder;
+    }
+
+    private void jobFinished(final ParsecRdlGenerateJob job, final long millis, final int exitCode)
+            throws IOException {
+        if (jobListener != null) {
+            jobListener.jobFinished(job, millis, exitCode);
+        }
+    }
+
+    private void logParsing(final ParsecRdlGenerateJob job) {
+        logger.info("");
+        logger.info("Parsing " + job.getRdlFile());
+    }
+
+    private void logOutput(final JobResult result, final boolean failed) {
+        if (result.output.isEmpty()) {
+            return;
+        }
+        for (String line : result.output.split("\\r?\\n")) {
+            if (failed) {
+                logger.error(line);
+            } else {
+                logger.info(line);
+            }
+        }
+    }
+
+    /**
+     * the result of a finished job.
+     */
+    private static final class JobResult {
+        private final int index;
+        private final ParsecRdlGenerateJob job;
+        private final int exitCode;
+        private final String output;
+        private final long millis;
+
+        private JobResult(
+                final int index,
+                final ParsecRdlGenerateJob job,
+                final int exitCode,
+                final String output,
+                final long millis
+        ) {
+            this.index = index;
+            this.job = job;
+            this.exitCode = exitCode;
+            this.output = output;
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * told about every finished job.
+     */
+    public interface JobListener {
+        /**
+         * A job finished.
+         *
+         * @param job job
+         * @param millis wall time of the job
+         * @param exitCode exit code of the job
+         * @throws IOException IOException
+         */
+        void jobFinished(ParsecRdlGenerateJob job, long millis, int exitCode) throws IOException;
+    }
+
+    /**
+     * run one job and capture its output.
+     */
+    private final class JobCallable implements Callable<JobResult> {
+        private final int index;
+        private final ParsecRdlGenerateJob job;
+        private final Set<Process> processes;
+
+        private JobCallable(final int index, final ParsecRdlGenerateJob job, final Set<Process> processes) {
+            this.index = index;
+            this.job = job;
+            this.processes = processes;
+        }
+
+        @Override
+        public JobResult call() throws IOException, InterruptedException {
+            logger.debug("execute command: {}", job.getCommand());
+            long start = System.currentTimeMillis();
+            Process process = newProcessBuilder(job.getCommand()).redirectErrorStream(true).start();
+            processes.add(process);
+            try (InputStream inputStream = process.getInputStream()) {
+                String output = new String(IOUtils.toByteArray(inputStream), Charset.defaultCharset()).trim();
+                int exitCode = process.waitFor();
+                return new JobResult(index, job, exitCode, output, System.currentTimeMillis() - start);
+            } finally {
+                processes.remove(process);
+                process.destroy();
+            }
+        }
+    }
+}
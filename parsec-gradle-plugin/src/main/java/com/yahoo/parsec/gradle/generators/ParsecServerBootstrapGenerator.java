@@ -0,0 +1,148 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import com.yahoo.parsec.gradle.utils.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * ParsecServerBootstrap Generator.
+ *
+ * Generates ParsecServerBootstrap, which creates a Jetty server with the thread pool and connector settings of
+ * the extension, and makes the servers of the server generator create their Jetty server with it instead of
+ * new Server(port).
+ */
+public class ParsecServerBootstrapGenerator {
+
+    /**
+     * the template and the class name of the server bootstrap.
+     */
+    static final String TEMPLATE_NAME = "ParsecServerBootstrap.java";
+
+    /**
+     * the settings of the server bootstrap, to their default, the Jetty defaults.
+     */
+    static final Map<String, String> DEFAULT_SETTINGS = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_SETTINGS.put("minThreads", "8");
+        DEFAULT_SETTINGS.put("maxThreads", "200");
+        DEFAULT_SETTINGS.put("maxQueuedRequests", "-1");
+        DEFAULT_SETTINGS.put("acceptors", "-1");
+        DEFAULT_SETTINGS.put("selectors", "-1");
+        DEFAULT_SETTINGS.put("idleTimeout", "30000");
+        DEFAULT_SETTINGS.put("outputBufferSize", "32768");
+        DEFAULT_SETTINGS.put("http2Cleartext", "false");
+    }
+
+    /**
+     * the Jetty server of a server.
+     */
+    private static final Pattern NEW_SERVER_PATTERN = Pattern.compile(
+            "(?m)^([ \\t]*)Server (\\w+) = new Server\\((\\w+)\\);");
+
+    /**
+     * the package struct.
+     */
+    private ParsecPackageStruct packageStruct;
+
+    /**
+     * the generator util.
+     */
+    private ParsecGeneratorUtil generatorUtil;
+
+    /**
+     * the file utils.
+     */
+    private FileUtils fileUtils;
+
+    /**
+     * default constructor.
+     *
+     * @param packageStruct package struct.
+     * @param generatorUtil generators util
+     * @param fileUtils file utils
+     */
+    public ParsecServerBootstrapGenerator(
+            final ParsecPackageStruct packageStruct,
+            final ParsecGeneratorUtil generatorUtil,
+            final FileUtils fileUtils) {
+        this.packageStruct = packageStruct;
+        this.generatorUtil = generatorUtil;
+        this.fileUtils = fileUtils;
+    }
+
+    /**
+     * Parsec generate materials for ParsecServerBootstrap.
+     *
+     * @param settings setting name to value, the missing ones are the Jetty defaults
+     * @return replace materials
+     */
+    Map<String, String> getReplaceMaterials(final Map<String, String> settings) {
+        final Map<String, String> replaceMaterials = new HashMap<>();
+        for (Map.Entry<String, String> entry : DEFAULT_SETTINGS.entrySet()) {
+            String value = settings.get(entry.getKey());
+            replaceMaterials.put("{" + entry.getKey() + "}", value != null ? value : entry.getValue());
+        }
+        return replaceMaterials;
+    }
+
+    /**
+     * Make a server of the server generator create its Jetty server with ParsecServerBootstrap.
+     *
+     * @param source server source
+     * @param bootstrapClass qualified class name of ParsecServerBootstrap
+     * @return server source
+     */
+    static String toBootstrapServer(final String source, final String bootstrapClass) {
+        final String output = NEW_SERVER_PATTERN.matcher(source)
+                .replaceAll("$1Server $2 = ParsecServerBootstrap.newServer($3);");
+        if (output.equals(source)) {
+            return source;
+        }
+        return ParsecGeneratorUtil.addImports(output, source.contains("\r\n") ? "\r\n" : "\n", bootstrapClass);
+    }
+
+    /**
+     * Generate ParsecServerBootstrap.java, and make the generated servers use it. A server is paired with its
+     * resource by their API name, e.g. SampleServer and SampleResources.
+     *
+     * @param settings setting name to value, the missing ones are the Jetty defaults
+     * @throws IOException IOException
+     */
+    public void generateServerBootstrap(final Map<String, String> settings) throws IOException {
+        final String intersectPackageName = packageStruct.getIntersectPackageName();
+        generatorUtil.generateFromTemplateTo(TEMPLATE_NAME, intersectPackageName,
+                ParsecGeneratorUtil.getPathFromGeneratedRoot(
+                        packageStruct, ParsecGeneratorUtil.packageNameToPath(intersectPackageName)),
+                getReplaceMaterials(settings), true);
+        final String bootstrapClass = intersectPackageName + "." + packageStruct.getGeneratedNamespace()
+                + "." + TEMPLATE_NAME.replaceAll("\\.java$", "");
+
+        final Map<String, String> packages = packageStruct.getPackages();
+        for (Map.Entry<String, List<String>> entry : packageStruct.getResources().entrySet()) {
+            String dir = ParsecGeneratorUtil.getPathFromGeneratedRoot(packageStruct, packages.get(entry.getKey()));
+            for (String resource : entry.getValue()) {
+                Path serverPath = Paths.get(dir, resource.replaceAll("Resources$", "") + "Server.java");
+                if (Files.isRegularFile(serverPath)) {
+                    String source = new String(Files.readAllBytes(serverPath), StandardCharsets.UTF_8);
+                    fileUtils.writeResourceToFile(new ByteArrayInputStream(
+                            toBootstrapServer(source, bootstrapClass).getBytes(StandardCharsets.UTF_8)),
+                            serverPath.toString(), true);
+                }
+            }
+        }
+    }
+}
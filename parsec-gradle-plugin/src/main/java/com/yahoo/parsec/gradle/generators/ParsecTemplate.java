@@ -0,0 +1,98 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ParsecTemplate.
+ * a template parsed once into literal and placeholder segments, so rendering it is a single
+ * pass over the segments instead of one replace over the whole text per placeholder.
+ *
+ * A placeholder is a name in braces, e.g. {packageName}; a placeholder without a value is
+ * rendered as is, and the values are never scanned for placeholders themselves.
+ */
+public final class ParsecTemplate {
+
+    /**
+     * the placeholders, braces around letters and digits only so java blocks are left alone.
+     */
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{[A-Za-z][A-Za-z0-9]*\\}");
+
+    /**
+     * the literal before each placeholder, and the one after the last placeholder.
+     */
+    private final List<String> literals;
+
+    /**
+     * the placeholders, with their braces.
+     */
+    private final List<String> placeholders;
+
+    /**
+     * the length of all literals.
+     */
+    private final int literalLength;
+
+    private ParsecTemplate(final List<String> literals, final List<String> placeholders) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Parse template text.
+     *
+     * @param text template text
+     * @return template
+     */
+    public static ParsecTemplate parse(final String text) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        int last = 0;
+        while (matcher.find()) {
+            literals.add(text.substring(last, matcher.start()));
+            placeholders.add(matcher.group());
+            last = matcher.end();
+        }
+        literals.add(text.substring(last));
+        return new ParsecTemplate(
+                Collections.unmodifiableList(literals), Collections.unmodifiableList(placeholders));
+    }
+
+    /**
+     * Render the template into a buffer, the buffer is cleared first.
+     *
+     * @param values placeholder, with braces, to value
+     * @param buffer buffer
+     * @return the buffer
+     */
+    public StringBuilder render(final Map<String, String> values, final StringBuilder buffer) {
+        buffer.setLength(0);
+        buffer.ensureCapacity(literalLength);
+        for (int i = 0; i < placeholders.size(); i++) {
+            buffer.append(literals.get(i));
+            String placeholder = placeholders.get(i);
+            String value = values.get(placeholder);
+            buffer.append(value != null ? value : placeholder);
+        }
+        return buffer.append(literals.get(literals.size() - 1));
+    }
+
+    /**
+     * the placeholders getter.
+     * @return placeholders, with braces, in the order they appear
+     */
+    public List<String> getPlaceholders() { return placeholders; }
+}
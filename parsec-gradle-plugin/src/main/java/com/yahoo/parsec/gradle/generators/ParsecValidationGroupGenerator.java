@@ -12,12 +12,18 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 /**
  * ParsecValidationGroup Generator.
  */
 public class ParsecValidationGroupGenerator {
 
+    /**
+     * the validation group references in the generated data objects.
+     */
+    static final Pattern VALIDATION_GROUP_PATTERN = Pattern.compile("ParsecValidationGroups\\.(.+?)\\.class");
+
     /**
      * the package struct.
      */
@@ -54,20 +60,26 @@ public class ParsecValidationGroupGenerator {
      * replaceMaterial by pkg example:
      *  [ {package name1}: [ {replace key1}: {replace value1}, {replace key2}: {replace value2} ] ]
      *
+     * The validation groups indexed by the package resolver are used, the data objects are only
+     * read again if the package struct has no index.
+     *
      * @return replace materials
      * @throws IOException IOException
      */
     Map<String, Map<String, String>> getReplaceMaterialsByPkg() throws IOException {
-        final String regexPattern = "ParsecValidationGroups\\.(.+?)\\.class";
         final Map<String, List<Path>> dataobjects = packageStruct.getDataobjects();
+        final Map<String, Set<String>> indexedValidationGroups = packageStruct.getValidationGroups();
         final Map<String, Map<String, String>> replaceMaterialsByPkg = new HashMap<>();
 
         for (Map.Entry<String, List<Path>> entry : dataobjects.entrySet()) {
             String packageName = entry.getKey();
             Set<String> validationGroups = new HashSet<>();
-            for (Path dataobject : entry.getValue()) {
-                validationGroups.addAll(fileUtils.findPatternsInFile(
-                        dataobject, regexPattern));
+            if (indexedValidationGroups != null && indexedValidationGroups.containsKey(packageName)) {
+                validationGroups.addAll(indexedValidationGroups.get(packageName));
+            } else {
+                for (Path dataobject : entry.getValue()) {
+                    validationGroups.addAll(fileUtils.findPatternsInFile(dataobject, VALIDATION_GROUP_PATTERN));
+                }
             }
             if (validationGroups.size() > 0) {
                 StringBuilder validationGroupStringBuilder = new StringBuilder();
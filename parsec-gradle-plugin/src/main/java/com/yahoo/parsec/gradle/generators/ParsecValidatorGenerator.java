@@ -0,0 +1,635 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ParsecValidators Generator.
+ *
+ * Generates a plain java check of the constraints of each data object for each validation group, and a
+ * Jersey validation interceptor that runs them on the request parameters. A data object is only checked
+ * when every annotation on it is understood, the others are left to Hibernate Validator.
+ */
+public class ParsecValidatorGenerator {
+
+    /**
+     * the template name.
+     */
+    static final String TEMPLATE_NAME = "ParsecValidators.java";
+
+    /**
+     * the default validation group.
+     */
+    static final String DEFAULT_GROUP = "javax.validation.groups.Default";
+
+    private static final String CONSTRAINTS_PACKAGE = "javax.validation.constraints.";
+
+    private static final String HIBERNATE_CONSTRAINTS_PACKAGE = "org.hibernate.validator.constraints.";
+
+    private static final Pattern ANNOTATION_NAME_PATTERN = Pattern.compile("@([\\w.]+)\\s*");
+
+    private static final Pattern CLASS_LITERAL_PATTERN = Pattern.compile("([\\w.]+)\\.class");
+
+    private static final Set<String> STRING_TYPES = new HashSet<>(Arrays.asList("String", "CharSequence"));
+
+    private static final Set<String> INTEGRAL_TYPES = new HashSet<>(Arrays.asList(
+            "int", "long", "short", "byte", "Integer", "Long", "Short", "Byte"));
+
+    private static final Set<String> NUMBER_TYPES = new HashSet<>(Arrays.asList(
+            "int", "long", "short", "byte", "float", "double", "Integer", "Long", "Short", "Byte", "Float", "Double",
+            "BigDecimal", "BigInteger", "java.math.BigDecimal", "java.math.BigInteger"));
+
+    /**
+     * the cost order of the checks, the cheap ones run first.
+     */
+    private static final int NULL_CHECK = 0;
+    private static final int SIZE_CHECK = 1;
+    private static final int TEXT_CHECK = 2;
+    private static final int CASCADE_CHECK = 3;
+
+    /**
+     * the package struct.
+     */
+    private ParsecPackageStruct packageStruct;
+
+    /**
+     * the generator util.
+     */
+    private ParsecGeneratorUtil generatorUtil;
+
+    /**
+     * default constructor.
+     *
+     * @param packageStruct package struct.
+     * @param generatorUtil generators util
+     */
+    public ParsecValidatorGenerator(
+            final ParsecPackageStruct packageStruct, final ParsecGeneratorUtil generatorUtil) {
+        this.packageStruct = packageStruct;
+        this.generatorUtil = generatorUtil;
+    }
+
+    /**
+     * Get the checks of the data objects that get validators.
+     *
+     * @return qualified name to the checks of the data object, in name order
+     * @throws IOException IOException
+     */
+    Map<String, List<Check>> getValidatedDataObjects() throws IOException {
+        Map<String, List<Check>> checksByDataObject = new TreeMap<>();
+        for (List<Path> paths : packageStruct.getDataobjects().values()) {
+            for (Path path : paths) {
+                ParsecDataObject dataObject = ParsecDataObject.parse(path);
+                if (dataObject != null) {
+                    List<Check> checks = getChecks(dataObject);
+                    if (checks != null) {
+                        checksByDataObject.put(dataObject.getQualifiedName(), checks);
+                    }
+                }
+            }
+        }
+
+        // drop the data objects that cascade to unchecked ones until the ones left only cascade to each other
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Iterator<List<Check>> iterator = checksByDataObject.values().iterator();
+            while (iterator.hasNext()) {
+                for (Check check : iterator.next()) {
+                    if (check.cascadeType != null && !checksByDataObject.containsKey(check.cascadeType)) {
+                        iterator.remove();
+                        changed = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return checksByDataObject;
+    }
+
+    /**
+     * Get the checks of a data object.
+     *
+     * @param dataObject data object
+     * @return checks in declaration order, null if the data object has annotations that are not understood
+     */
+    List<Check> getChecks(final ParsecDataObject dataObject) {
+        for (Annotation annotation : parseAnnotations(dataObject, dataObject.getAnnotations())) {
+            if (!isBindingAnnotation(annotation.name)) {
+                return null;
+            }
+        }
+
+        List<Check> checks = new ArrayList<>();
+        for (ParsecDataObject.Field field : dataObject.getFields()) {
+            List<Annotation> annotations = parseAnnotations(dataObject, field.getAnnotations());
+            if (annotations.isEmpty()) {
+                continue;
+            }
+            if (field.getGetter() == null) {
+                return null;
+            }
+            String value = "value." + field.getGetter() + "()";
+            String type = field.getType().replace("java.util.", "").replace("java.lang.", "");
+            boolean primitive = Character.isLowerCase(type.charAt(0)) && !type.contains(".");
+            String container = type.startsWith("List<") || type.startsWith("Set<") || type.startsWith("Collection<")
+                    ? "collection" : type.startsWith("Map<") ? "map" : null;
+            boolean text = STRING_TYPES.contains(type);
+            boolean cascade = false;
+            Map<String, String> groupConversions = new HashMap<>();
+
+            for (Annotation annotation : annotations) {
+                String simpleName = annotation.name.substring(annotation.name.lastIndexOf('.') + 1);
+                String condition;
+                String regexp = null;
+                int cost;
+                if (annotation.name.equals("javax.validation.Valid")) {
+                    cascade = true;
+                    continue;
+                } else if (annotation.name.equals("javax.validation.groups.ConvertGroup")) {
+                    List<String> from = annotation.getGroups(dataObject, "from");
+                    List<String> to = annotation.getGroups(dataObject, "to");
+                    if (from.size() != 1 || to.size() != 1) {
+                        return null;
+                    }
+                    groupConversions.put(from.get(0), to.get(0));
+                    continue;
+                } else if (isBindingAnnotation(annotation.name)) {
+                    continue;
+                } else if (!annotation.name.equals(CONSTRAINTS_PACKAGE + simpleName)
+                        && !annotation.name.equals(HIBERNATE_CONSTRAINTS_PACKAGE + simpleName)) {
+                    return null;
+                } else if (!annotation.hasOnly("groups", "message", "payload", "value", "min", "max", "integer",
+                        "fraction", "regexp")) {
+                    return null;
+                }
+
+                switch (simpleName) {
+                    case "NotNull":
+                        if (primitive) {
+                            continue;
+                        }
+                        condition = value + " != null";
+                        cost = NULL_CHECK;
+                        break;
+                    case "Null":
+                        if (primitive) {
+                            return null;
+                        }
+                        condition = value + " == null";
+                        cost = NULL_CHECK;
+                        break;
+                    case "Size":
+                        if (!text && container == null) {
+                            return null;
+                        }
+                        Integer min = annotation.getInt("min", 0);
+                        Integer max = annotation.getInt("max", Integer.MAX_VALUE);
+                        if (min == null || max == null) {
+                            return null;
+                        }
+                        condition = "isSize(" + value + ", " + min + ", "
+                                + (max == Integer.MAX_VALUE ? "Integer.MAX_VALUE" : max) + ")";
+                        cost = SIZE_CHECK;
+                        break;
+                    case "NotEmpty":
+                        if (!text && container == null) {
+                            return null;
+                        }
+                        condition = "isNotEmpty(" + value + ")";
+                        cost = SIZE_CHECK;
+                        break;
+                    case "NotBlank":
+                        if (!text) {
+                            return null;
+                        }
+                        condition = "isNotBlank(" + value + ")";
+                        cost = TEXT_CHECK;
+                        break;
+                    case "Min":
+                    case "Max":
+                        Long limit = annotation.getLong("value");
+                        if (!INTEGRAL_TYPES.contains(type) || limit == null) {
+                            return null;
+                        }
+                        String operator = simpleName.equals("Min") ? " >= " : " <= ";
+                        condition = primitive
+                                ? value + operator + limit + "L"
+                                : "is" + simpleName + "(" + value + ", " + limit + "L)";
+                        cost = SIZE_CHECK;
+                        break;
+                    case "Digits":
+                        Integer integer = annotation.getInt("integer", null);
+                        Integer fraction = annotation.getInt("fraction", null);
+                        if (!NUMBER_TYPES.contains(type) || integer == null || fraction == null) {
+                            return null;
+                        }
+                        condition = "isDigits(" + value + ", " + integer + ", " + fraction + ")";
+                        cost = TEXT_CHECK;
+                        break;
+                    case "Pattern":
+                        regexp = annotation.attributes.get("regexp");
+                        if (!text || regexp == null || !regexp.startsWith("\"") || !regexp.endsWith("\"")) {
+                            return null;
+                        }
+                        condition = "isMatch(" + value + ", {pattern})";
+                        cost = TEXT_CHECK;
+                        break;
+                    default:
+                        return null;
+                }
+                checks.add(new Check(annotation.getGroups(dataObject, "groups"), cost, condition, regexp,
+                        null, null, null));
+            }
+
+            if (cascade) {
+                String elementType = container == null ? type
+                        : type.substring(type.startsWith("Map<") ? type.indexOf(',') + 1 : type.indexOf('<') + 1,
+                                type.length() - 1);
+                if (STRING_TYPES.contains(elementType) || NUMBER_TYPES.contains(elementType)
+                        || elementType.equals("boolean") || elementType.equals("Boolean")) {
+                    continue;
+                }
+                if (!elementType.matches("[\\w.]+") || !Character.isUpperCase(
+                        elementType.charAt(elementType.lastIndexOf('.') + 1))) {
+                    return null;
+                }
+                checks.add(new Check(Collections.<String>emptyList(), CASCADE_CHECK, value, null,
+                        dataObject.resolveType(elementType), container, groupConversions));
+            } else if (!groupConversions.isEmpty()) {
+                return null;
+            }
+        }
+        return checks;
+    }
+
+    private static boolean isBindingAnnotation(final String name) {
+        String simpleName = name.substring(name.lastIndexOf('.') + 1);
+        return simpleName.startsWith("Xml") || simpleName.startsWith("Json") || simpleName.equals("Deprecated")
+                || simpleName.equals("SuppressWarnings");
+    }
+
+    /**
+     * Parse the annotation text of a data object or a field.
+     *
+     * @param dataObject data object, to resolve the annotation names
+     * @param text annotation text
+     * @return annotations
+     */
+    static List<Annotation> parseAnnotations(final ParsecDataObject dataObject, final String text) {
+        List<Annotation> annotations = new ArrayList<>();
+        Matcher matcher = ANNOTATION_NAME_PATTERN.matcher(text);
+        int position = 0;
+        while (position < text.length() && matcher.find(position)) {
+            String name = dataObject.resolveType(matcher.group(1));
+            Map<String, String> attributes = new LinkedHashMap<>();
+            position = matcher.end();
+            if (position < text.length() && text.charAt(position) == '(') {
+                int end = findClosing(text, position);
+                for (String attribute : split(text.substring(position + 1, end))) {
+                    int equals = attribute.indexOf('=');
+                    if (equals < 0 || attribute.startsWith("\"")) {
+                        attributes.put("value", attribute.trim());
+                    } else {
+                        attributes.put(attribute.substring(0, equals).trim(), attribute.substring(equals + 1).trim());
+                    }
+                }
+                position = end + 1;
+            }
+            annotations.add(new Annotation(name, attributes));
+        }
+        return annotations;
+    }
+
+    /**
+     * Find the parenthesis that closes the one at start, skipping the string and char literals.
+     *
+     * @param text text
+     * @param start position of the opening parenthesis
+     * @return position of the closing parenthesis, the end of the text if there is none
+     */
+    private static int findClosing(final String text, final int start) {
+        int depth = 0;
+        for (int i = start; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipLiteral(text, i);
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return i;
+            }
+        }
+        return text.length();
+    }
+
+    private static int skipLiteral(final String text, final int start) {
+        char quote = text.charAt(start);
+        int i = start + 1;
+        while (i < text.length() && text.charAt(i) != quote) {
+            i += text.charAt(i) == '\\' ? 2 : 1;
+        }
+        return i;
+    }
+
+    /**
+     * Split the attributes of an annotation on the commas that are not in a literal, an array or a call.
+     *
+     * @param attributes attribute text
+     * @return attributes, without the empty ones
+     */
+    private static List<String> split(final String attributes) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < attributes.length(); i++) {
+            char c = attributes.charAt(i);
+            if (c == '"' || c == '\'') {
+                i = skipLiteral(attributes, i);
+            } else if (c == '{' || c == '(') {
+                depth++;
+            } else if (c == '}' || c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(attributes.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(attributes.substring(start));
+        List<String> nonEmptyParts = new ArrayList<>();
+        for (String part : parts) {
+            if (!part.trim().isEmpty()) {
+                nonEmptyParts.add(part.trim());
+            }
+        }
+        return nonEmptyParts;
+    }
+
+    /**
+     * Get replace materials for ParsecValidators.
+     *
+     * @return replace materials
+     * @throws IOException IOException
+     */
+    Map<String, String> getReplaceMaterials() throws IOException {
+        final String lineSeparator = System.getProperty("line.separator");
+        final Map<String, List<Check>> checksByDataObject = getValidatedDataObjects();
+
+        // every data object is checked in the default group and in every group used by one of them
+        Set<String> groups = new TreeSet<>();
+        groups.add(DEFAULT_GROUP);
+        for (List<Check> checks : checksByDataObject.values()) {
+            for (Check check : checks) {
+                groups.addAll(check.groups);
+                groups.addAll(check.groupConversions.values());
+            }
+        }
+
+        // a unique name for each data object and group, the simple names may repeat across packages
+        Map<String, String> names = new HashMap<>();
+        Set<String> usedNames = new HashSet<>();
+        for (String name : checksByDataObject.keySet()) {
+            names.put(name, getUniqueName(name, usedNames));
+        }
+        Map<String, String> groupNames = new HashMap<>();
+        Set<String> usedGroupNames = new HashSet<>();
+        for (String group : groups) {
+            groupNames.put(group, getUniqueName(group, usedGroupNames));
+        }
+
+        StringBuilder patterns = new StringBuilder();
+        StringBuilder registrations = new StringBuilder();
+        StringBuilder validators = new StringBuilder();
+        Map<String, String> patternConstants = new HashMap<>();
+        for (Map.Entry<String, List<Check>> entry : checksByDataObject.entrySet()) {
+            String qualifiedName = entry.getKey();
+            String name = names.get(qualifiedName);
+
+            // the checks are ordered by cost, and kept in declaration order for the same cost
+            List<Check> checks = new ArrayList<>(entry.getValue());
+            checks.sort(Comparator.comparingInt(check -> check.cost));
+
+            for (String group : groups) {
+                String methodName = "isValid" + name + groupNames.get(group);
+                List<String> conditions = new ArrayList<>();
+                for (Check check : checks) {
+                    if (check.cascadeType != null) {
+                        String cascadeGroup = check.groupConversions.getOrDefault(group, group);
+                        String validator = "ParsecValidators::isValid" + names.get(check.cascadeType)
+                                + groupNames.get(cascadeGroup);
+                        conditions.add(
+                                (check.container == null ? "isValid(" : "isValidEach(")
+                                        + check.condition + ", " + validator + ")");
+                    } else if (check.groups.isEmpty() ? group.equals(DEFAULT_GROUP) : check.groups.contains(group)) {
+                        String condition = check.condition;
+                        if (check.regexp != null) {
+                            String constant = patternConstants.get(check.regexp);
+                            if (constant == null) {
+                                constant = ParsecJsonCodecGenerator.toConstantName(name) + "_PATTERN_"
+                                        + (patternConstants.size() + 1);
+                                patternConstants.put(check.regexp, constant);
+                                patterns.append(lineSeparator)
+                                        .append("    private static final Pattern ").append(constant)
+                                        .append(" = Pattern.compile(").append(check.regexp).append(");")
+                                        .append(lineSeparator);
+                            }
+                            condition = condition.replace("{pattern}", constant);
+                        }
+                        conditions.add(condition);
+                    }
+                }
+
+                registrations.append("        register(").append(qualifiedName).append(".class, ")
+                        .append(group).append(".class,").append(lineSeparator)
+                        .append("                ParsecValidators::").append(methodName).append(");")
+                        .append(lineSeparator);
+                validators.append("    static boolean ").append(methodName).append("(final ")
+                        .append(qualifiedName).append(" value) {").append(lineSeparator)
+                        .append("        return ")
+                        .append(conditions.isEmpty() ? "true" : String.join(
+                                lineSeparator + "                && ", conditions))
+                        .append(";").append(lineSeparator)
+                        .append("    }").append(lineSeparator)
+                        .append(lineSeparator);
+            }
+        }
+
+        final Map<String, String> replaceMaterials = new HashMap<>();
+        replaceMaterials.put("{patterns}", trimEnd(patterns));
+        replaceMaterials.put("{registrations}", trimEnd(registrations));
+        replaceMaterials.put("{validators}", trimEnd(validators));
+        return replaceMaterials;
+    }
+
+    private static String getUniqueName(final String qualifiedName, final Set<String> usedNames) {
+        String simpleName = qualifiedName.substring(qualifiedName.lastIndexOf('.') + 1);
+        String name = simpleName;
+        for (int i = 2; usedNames.contains(name); i++) {
+            name = simpleName + i;
+        }
+        usedNames.add(name);
+        return name;
+    }
+
+    /**
+     * drop the line separators at the end, the placeholders are on lines of their own.
+     *
+     * @param stringBuilder generated lines
+     * @return generated lines without the trailing line separators
+     */
+    private static String trimEnd(final StringBuilder stringBuilder) {
+        int end = stringBuilder.length();
+        while (end > 0 && (stringBuilder.charAt(end - 1) == '\n' || stringBuilder.charAt(end - 1) == '\r')) {
+            end--;
+        }
+        return stringBuilder.substring(0, end);
+    }
+
+    /**
+     * Generate ParsecValidators.java into the generated namespace of the intersect package, next to
+     * ParsecApplication.
+     *
+     * @throws IOException IOException
+     */
+    public void generateParsecValidators() throws IOException {
+        String packageName = packageStruct.getIntersectPackageName();
+        String outputDir = ParsecGeneratorUtil.getPathFromGeneratedRoot(
+                packageStruct, ParsecGeneratorUtil.packageNameToPath(packageName));
+        generatorUtil.generateFromTemplateTo(TEMPLATE_NAME, packageName, outputDir, getReplaceMaterials(), true);
+    }
+
+    /**
+     * an annotation of a data object or a field.
+     */
+    static final class Annotation {
+
+        /**
+         * the qualified annotation name.
+         */
+        private final String name;
+
+        /**
+         * attribute name to the attribute text.
+         */
+        private final Map<String, String> attributes;
+
+        Annotation(final String name, final Map<String, String> attributes) {
+            this.name = name;
+            this.attributes = attributes;
+        }
+
+        boolean hasOnly(final String... names) {
+            return Arrays.asList(names).containsAll(attributes.keySet());
+        }
+
+        Integer getInt(final String attribute, final Integer defaultValue) {
+            Long value = attributes.containsKey(attribute) ? getLong(attribute) : Long.valueOf(defaultValue);
+            return value == null || value != value.intValue() ? null : value.intValue();
+        }
+
+        Long getLong(final String attribute) {
+            String value = attributes.get(attribute);
+            if (value == null || !value.matches("-?\\d+[lL]?")) {
+                return null;
+            }
+            return Long.valueOf(value.replaceAll("[lL]$", ""));
+        }
+
+        /**
+         * Get the qualified names of the classes of a class or class array attribute.
+         *
+         * @param dataObject data object, to resolve the class names
+         * @param attribute attribute name
+         * @return qualified class names, empty if the attribute is not set
+         */
+        List<String> getGroups(final ParsecDataObject dataObject, final String attribute) {
+            List<String> groups = new ArrayList<>();
+            if (attributes.containsKey(attribute)) {
+                Matcher matcher = CLASS_LITERAL_PATTERN.matcher(attributes.get(attribute));
+                while (matcher.find()) {
+                    String group = matcher.group(1);
+                    String outer = group.split("\\.")[0];
+                    if (Character.isLowerCase(outer.charAt(0))) {
+                        groups.add(group);
+                    } else if (group.equals("Default") && !dataObject.resolveType(group).startsWith("javax.")) {
+                        groups.add(DEFAULT_GROUP);
+                    } else {
+                        groups.add(dataObject.resolveType(outer) + group.substring(outer.length()));
+                    }
+                }
+            }
+            return groups;
+        }
+    }
+
+    /**
+     * a check of a field of a data object.
+     */
+    static final class Check {
+
+        /**
+         * the qualified names of the groups of the constraint, empty for the default group.
+         */
+        private final List<String> groups;
+
+        /**
+         * the cost order.
+         */
+        private final int cost;
+
+        /**
+         * the java condition, or the value to cascade to.
+         */
+        private final String condition;
+
+        /**
+         * the regular expression literal of a pattern check.
+         */
+        private final String regexp;
+
+        /**
+         * the qualified name of the data object to cascade to, null if the check is not a cascade.
+         */
+        private final String cascadeType;
+
+        /**
+         * collection or map if the cascade goes to the elements of a container.
+         */
+        private final String container;
+
+        /**
+         * the group conversions of a cascade, from group to group.
+         */
+        private final Map<String, String> groupConversions;
+
+        Check(
+                final List<String> groups, final int cost, final String condition, final String regexp,
+                final String cascadeType, final String container, final Map<String, String> groupConversions) {
+            this.groups = groups;
+            this.cost = cost;
+            this.condition = condition;
+            this.regexp = regexp;
+            this.cascadeType = cascadeType;
+            this.container = container;
+            this.groupConversions = groupConversions != null ? groupConversions : Collections.emptyMap();
+        }
+    }
+}
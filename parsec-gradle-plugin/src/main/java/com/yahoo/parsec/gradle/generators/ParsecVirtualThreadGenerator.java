@@ -0,0 +1,194 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.generators;
+
+import com.yahoo.parsec.gradle.utils.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ParsecVirtualThread Generator.
+ *
+ * Generates ParsecVirtualThreads, and makes the resource methods of the server generator managed async, so
+ * Jersey invokes them on the virtual thread executor of ParsecVirtualThreads instead of the container thread.
+ * The servers of the server generator register the executor too, and support async requests. The resource
+ * methods that already suspend an AsyncResponse release the container thread by themselves and are left as
+ * they are.
+ */
+public class ParsecVirtualThreadGenerator {
+
+    /**
+     * the template and the class name of the virtual threads support.
+     */
+    static final String TEMPLATE_NAME = "ParsecVirtualThreads.java";
+
+    /**
+     * the annotation that makes a resource method managed async.
+     */
+    private static final String MANAGED_ASYNC = "@ManagedAsync";
+
+    /**
+     * the request method designator of a resource method.
+     */
+    private static final Pattern HTTP_METHOD_PATTERN = Pattern.compile(
+            "(?m)^([ \\t]*)@(?:GET|POST|PUT|DELETE|PATCH|HEAD|OPTIONS)(\\R)");
+
+    /**
+     * the end of the parameters of a method and the start of its body.
+     */
+    private static final Pattern METHOD_BODY_PATTERN = Pattern.compile("\\)[ \\t]*\\{[ \\t]*\\R");
+
+    /**
+     * the resource config of a server.
+     */
+    private static final Pattern RESOURCE_CONFIG_PATTERN = Pattern.compile(
+            "(?m)^([ \\t]*)ResourceConfig (\\w+) = new ResourceConfig\\([^;]*\\);(\\R)");
+
+    /**
+     * the jersey servlet of a server.
+     */
+    private static final Pattern ADD_SERVLET_PATTERN = Pattern.compile(
+            "(?m)^([ \\t]*)(\\w+)\\.addServlet\\(new ServletHolder\\((new ServletContainer\\(\\w+\\))\\), "
+                    + "(\"[^\"]*\")\\);(\\R)");
+
+    /**
+     * the package struct.
+     */
+    private ParsecPackageStruct packageStruct;
+
+    /**
+     * the generator util.
+     */
+    private ParsecGeneratorUtil generatorUtil;
+
+    /**
+     * the file utils.
+     */
+    private FileUtils fileUtils;
+
+    /**
+     * default constructor.
+     *
+     * @param packageStruct package struct.
+     * @param generatorUtil generators util
+     * @param fileUtils file utils
+     */
+    public ParsecVirtualThreadGenerator(
+            final ParsecPackageStruct packageStruct,
+            final ParsecGeneratorUtil generatorUtil,
+            final FileUtils fileUtils) {
+        this.packageStruct = packageStruct;
+        this.generatorUtil = generatorUtil;
+        this.fileUtils = fileUtils;
+    }
+
+    /**
+     * Make the resource methods of a resource class managed async.
+     *
+     * @param source resource source
+     * @return resource source
+     */
+    static String toManagedAsyncResource(final String source) {
+        Matcher matcher = HTTP_METHOD_PATTERN.matcher(source);
+        Matcher bodyMatcher = METHOD_BODY_PATTERN.matcher(source);
+        StringBuffer output = new StringBuffer();
+        boolean changed = false;
+        while (matcher.find()) {
+            String header = bodyMatcher.find(matcher.end())
+                    ? source.substring(matcher.end(), bodyMatcher.start()) : "";
+            String previousLine = source.substring(0, matcher.start()).trim();
+            if (header.contains("@Suspended") || header.contains(MANAGED_ASYNC)
+                    || previousLine.endsWith(MANAGED_ASYNC)) {
+                continue;
+            }
+            matcher.appendReplacement(output, Matcher.quoteReplacement(
+                    matcher.group(1) + MANAGED_ASYNC + matcher.group(2) + matcher.group()));
+            changed = true;
+        }
+        matcher.appendTail(output);
+
+        if (!changed) {
+            return source;
+        }
+        return ParsecGeneratorUtil.addImports(output.toString(), lineSeparator(source),
+                "org.glassfish.jersey.server.ManagedAsync");
+    }
+
+    /**
+     * Make a server of the server generator register the virtual thread executor and support async requests.
+     *
+     * @param source server source
+     * @param virtualThreadsClass qualified class name of ParsecVirtualThreads
+     * @return server source
+     */
+    static String toVirtualThreadServer(final String source, final String virtualThreadsClass) {
+        String output = source;
+        if (!output.contains("ParsecVirtualThreads.getProviderClasses()")) {
+            output = RESOURCE_CONFIG_PATTERN.matcher(output).replaceAll(
+                    "$0$1$2.registerClasses(ParsecVirtualThreads.getProviderClasses());$3");
+        }
+        output = ADD_SERVLET_PATTERN.matcher(output).replaceAll(
+                "$1ServletHolder servletHolder = new ServletHolder($3);$5"
+                        + "$1servletHolder.setAsyncSupported(true);$5"
+                        + "$1$2.addServlet(servletHolder, $4);$5");
+
+        if (output.equals(source)) {
+            return source;
+        }
+        return ParsecGeneratorUtil.addImports(output, lineSeparator(source), virtualThreadsClass);
+    }
+
+    private static String lineSeparator(final String source) {
+        return source.contains("\r\n") ? "\r\n" : "\n";
+    }
+
+    /**
+     * Generate ParsecVirtualThreads.java, and make the generated resources and servers use it. A resource
+     * and its server are paired by their API name, e.g. SampleResources and SampleServer.
+     *
+     * @throws IOException IOException
+     */
+    public void generateVirtualThreads() throws IOException {
+        final String intersectPackageName = packageStruct.getIntersectPackageName();
+        generatorUtil.generateFromTemplateTo(TEMPLATE_NAME, intersectPackageName,
+                ParsecGeneratorUtil.getPathFromGeneratedRoot(
+                        packageStruct, ParsecGeneratorUtil.packageNameToPath(intersectPackageName)),
+                true);
+        final String virtualThreadsClass = intersectPackageName + "." + packageStruct.getGeneratedNamespace()
+                + "." + TEMPLATE_NAME.replaceAll("\\.java$", "");
+
+        final Map<String, String> packages = packageStruct.getPackages();
+        for (Map.Entry<String, List<String>> entry : packageStruct.getResources().entrySet()) {
+            String dir = ParsecGeneratorUtil.getPathFromGeneratedRoot(packageStruct, packages.get(entry.getKey()));
+            for (String resource : entry.getValue()) {
+                Path resourcePath = Paths.get(dir, resource + ".java");
+                Path serverPath = Paths.get(dir, resource.replaceAll("Resources$", "") + "Server.java");
+                if (Files.isRegularFile(resourcePath)) {
+                    write(resourcePath, toManagedAsyncResource(read(resourcePath)));
+                }
+                if (Files.isRegularFile(serverPath)) {
+                    write(serverPath, toVirtualThreadServer(read(serverPath), virtualThreadsClass));
+                }
+            }
+        }
+    }
+
+    private static String read(final Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+    }
+
+    private void write(final Path path, final String content) throws IOException {
+        fileUtils.writeResourceToFile(
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)), path.toString(), true);
+    }
+}
@@ -3,21 +3,29 @@
 
 package com.yahoo.parsec.gradle.utils;
 
+import org.apache.commons.codec.binary.Hex;
 import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import org.apache.commons.compress.utils.IOUtils;
 import org.gradle.api.logging.Logger;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -28,9 +36,12 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.security.CodeSource;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -43,12 +54,34 @@ import java.util.zip.ZipInputStream;
  */
 public class FileUtils {
 
+    /**
+     * buffer size to stream the bundled archives with.
+     */
+    private static final int ARCHIVE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * a line declaring a class, interface or enum, that is neither a comment nor an annotation.
+     */
+    private static final Pattern TYPE_DECLARATION =
+            Pattern.compile("^(?!\\s*(//|/\\*|\\*|@)).*(?<!\\.)\\b(class|interface|enum)\\b");
+
     private Logger logger;
 
+    /**
+     * the digests of the files written before, null to compare with the files themselves.
+     */
+    private OutputDigests outputDigests;
+
     public FileUtils(final Logger logger) {
         this.logger = logger;
     }
 
+    /**
+     * the output digests setter.
+     * @param outputDigests digests of the files written before, null to compare with the files themselves
+     */
+    public void setOutputDigests(OutputDigests outputDigests) { this.outputDigests = outputDigests; }
+
     /**
      * Check and create directory.
      *
@@ -103,32 +136,65 @@ public class FileUtils {
      */
     public void writeResourceToFile(final InputStream inputStream, String outputFile, boolean overwrite) throws IOException {
         File file = new File(outputFile);
-        String outputFileDigest = "";
 
-        if (file.exists()) {
-            if (!overwrite) {
-                logger.info("Skipping pre-existing " + outputFile);
-                return;
-            } else {
-                try (InputStream outputFileStream = new FileInputStream(file)) {
-                    outputFileDigest = DigestUtils.md5Hex(outputFileStream);
-                } catch (IOException e) {
-                    throw e;
-                }
-            }
+        if (file.exists() && !overwrite) {
+            logger.info("Skipping pre-existing " + outputFile);
+            return;
         }
 
-        try {
-            byte[] bytes = IOUtils.toByteArray(inputStream);
-            if (DigestUtils.md5Hex(bytes).equals(outputFileDigest)) {
-                logger.info("Skipping unmodified " + outputFile);
-                return;
-            } else {
-                logger.info("Creating file " + outputFile);
-                Files.copy(new ByteArrayInputStream(bytes), Paths.get(outputFile), StandardCopyOption.REPLACE_EXISTING);
+        byte[] bytes = IOUtils.toByteArray(inputStream);
+        String digest = DigestUtils.md5Hex(bytes);
+        if (file.isFile() && isUnmodified(file, bytes.length, digest)) {
+            logger.info("Skipping unmodified " + outputFile);
+        } else {
+            logger.info("Creating file " + outputFile);
+            Path tempFile = createTempFile(file);
+            try {
+                Files.write(tempFile, bytes);
+                replaceFile(tempFile, file.toPath());
+            } finally {
+                Files.deleteIfExists(tempFile);
             }
-        } catch (IOException e) {
-            throw e;
+        }
+
+        if (outputDigests != null) {
+            outputDigests.put(file, digest);
+        }
+    }
+
+    /**
+     * Create a temp file next to a file, to write its new content to before it replaces the file,
+     * so a process running or reading the file never sees it partly written.
+     *
+     * @param file file
+     * @return temp file
+     * @throws IOException IOException
+     */
+    private static Path createTempFile(final File file) throws IOException {
+        return Files.createTempFile(file.getAbsoluteFile().getParentFile().toPath(), "." + file.getName(), ".tmp");
+    }
+
+    /**
+     * Check an existing file has the given content, by the recorded digest if the file is
+     * unchanged since it was recorded, else by reading it.
+     *
+     * @param file existing file
+     * @param length length of the content
+     * @param digest digest of the content
+     * @return true if the file has the content
+     * @throws IOException IOException
+     */
+    private boolean isUnmodified(final File file, final long length, final String digest) throws IOException {
+        if (file.length() != length) {
+            return false;
+        }
+
+        String recordedDigest = outputDigests == null ? null : outputDigests.getDigest(file);
+        if (recordedDigest != null) {
+            return recordedDigest.equals(digest);
+        }
+        try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+            return DigestUtils.md5Hex(inputStream).equals(digest);
         }
     }
 
@@ -155,9 +221,40 @@ public class FileUtils {
      * @throws IOException IOException
      */
     public void writeResourceAsExecutable(InputStream inputStream, String outputFile) throws IOException{
-        writeResourceToFile(inputStream, outputFile, true);
         File file = new File(outputFile);
-        file.setExecutable(true);
+
+        // the binaries are streamed to the temp file with a fixed buffer, not held in memory
+        Path tempFile = createTempFile(file);
+        try {
+            MessageDigest messageDigest = DigestUtils.getMd5Digest();
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                byte[] buffer = new byte[ARCHIVE_BUFFER_SIZE];
+                int read;
+                while ((read = inputStream.read(buffer)) != -1) {
+                    messageDigest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            String digest = Hex.encodeHexString(messageDigest.digest());
+
+            if (file.isFile() && isUnmodified(file, Files.size(tempFile), digest)) {
+                logger.info("Skipping unmodified " + outputFile);
+            } else {
+                logger.info("Creating file " + outputFile);
+                tempFile.toFile().setExecutable(true);
+                replaceFile(tempFile, file.toPath());
+            }
+
+            if (outputDigests != null) {
+                outputDigests.put(file, digest);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        if (!file.canExecute()) {
+            file.setExecutable(true);
+        }
     }
 
     /**
@@ -207,12 +304,13 @@ public class FileUtils {
             }
 
             file = File.createTempFile("temp", ".tmp");
-            OutputStream out = new FileOutputStream(file);
-            int read;
-            byte[] bytes = new byte[1024];
+            try (OutputStream out = new FileOutputStream(file)) {
+                int read;
+                byte[] bytes = new byte[ARCHIVE_BUFFER_SIZE];
 
-            while ((read = input.read(bytes)) != -1) {
-                out.write(bytes, 0, read);
+                while ((read = input.read(bytes)) != -1) {
+                    out.write(bytes, 0, read);
+                }
             }
             file.deleteOnExit();
         }
@@ -220,6 +318,48 @@ public class FileUtils {
         return file;
     }
 
+    /**
+     * Extract entries of a zip or tgz resource as executables, streaming the archive once
+     * without copying it to a temp file. The archive is read only until every entry is found, and
+     * the other entries are not extracted. Each entry is streamed to its output file with a fixed buffer.
+     *
+     * @param resourcePath resource path, ends with .zip or .tgz
+     * @param entries entry name to output file
+     * @throws IOException IOException
+     */
+    public void extractArchiveEntriesAsExecutable(final String resourcePath, final Map<String, String> entries)
+            throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream(resourcePath)) {
+            if (inputStream == null) {
+                throw new IOException("Get resource failed: " + resourcePath);
+            }
+
+            Set<String> remaining = new HashSet<>(entries.keySet());
+            try (ArchiveInputStream archiveInputStream =
+                         openArchive(resourcePath, new BufferedInputStream(inputStream, ARCHIVE_BUFFER_SIZE))) {
+                ArchiveEntry entry;
+                while (!remaining.isEmpty() && (entry = archiveInputStream.getNextEntry()) != null) {
+                    String entryName = entry.getName().startsWith("./") ? entry.getName().substring(2) : entry.getName();
+                    if (!entry.isDirectory() && remaining.remove(entryName)) {
+                        writeResourceAsExecutable(archiveInputStream, entries.get(entryName));
+                    }
+                }
+            }
+
+            if (!remaining.isEmpty()) {
+                throw new IOException("Entries " + remaining + " not found in " + resourcePath);
+            }
+        }
+    }
+
+    private ArchiveInputStream openArchive(final String resourcePath, final InputStream inputStream)
+            throws IOException {
+        if (resourcePath.endsWith(".zip")) {
+            return new ZipArchiveInputStream(inputStream, "UTF8", true, true);
+        }
+        return new TarArchiveInputStream(new GzipCompressorInputStream(inputStream));
+    }
+
     /**
      * Un-TarZip a tgz file.
      *
@@ -296,6 +436,85 @@ public class FileUtils {
         return getFileContent(filePath).contains(stringPattern);
     }
 
+    /**
+     * check the header of a java file contains a string, the header ends with the line that
+     * opens the body of the first type declared. The file is read line by line and only up to
+     * the end of the header, so neither the time nor the memory depends on the size of the file.
+     *
+     * @param filePath input java file
+     * @param stringPattern string pattern, it must not span lines
+     * @return true if the header contains it
+     * @throws IOException io exception
+     */
+    public boolean checkFileHeaderContains(final Path filePath, final String stringPattern) throws IOException {
+        try (BufferedReader reader = newReader(filePath)) {
+            return readHeaderUntil(reader, stringPattern, null, null);
+        }
+    }
+
+    /**
+     * scan a java file in one pass: check its header contains a string and, only if it does, find
+     * the matches of a regex pattern in the whole file. The file is read line by line, so the
+     * memory does not depend on the size of the file.
+     *
+     * @param filePath input java file
+     * @param stringPattern string pattern of the header, it must not span lines
+     * @param regexPattern regex pattern with one group, its matches must not span lines
+     * @return set of matched groups, null if the header does not contain the string
+     * @throws IOException io exception
+     */
+    public Set<String> scanJavaFile(final Path filePath, final String stringPattern, final Pattern regexPattern)
+            throws IOException {
+        Set<String> matchResults = new HashSet<>();
+        try (BufferedReader reader = newReader(filePath)) {
+            if (!readHeaderUntil(reader, stringPattern, regexPattern, matchResults)) {
+                return null;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                addMatches(regexPattern, line, matchResults);
+            }
+        }
+        return matchResults;
+    }
+
+    private static BufferedReader newReader(final Path filePath) throws IOException {
+        return new BufferedReader(new InputStreamReader(Files.newInputStream(filePath), Charset.defaultCharset()));
+    }
+
+    /**
+     * read the header up to the line containing the string, matching each line read on the way.
+     */
+    private static boolean readHeaderUntil(
+            final BufferedReader reader,
+            final String stringPattern,
+            final Pattern regexPattern,
+            final Set<String> matchResults
+    ) throws IOException {
+        boolean inDeclaration = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (regexPattern != null) {
+                addMatches(regexPattern, line, matchResults);
+            }
+            if (line.contains(stringPattern)) {
+                return true;
+            }
+            inDeclaration = inDeclaration || TYPE_DECLARATION.matcher(line).find();
+            if (inDeclaration && line.contains("{")) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static void addMatches(final Pattern regexPattern, final String content, final Set<String> matchResults) {
+        Matcher matches = regexPattern.matcher(content);
+        while (matches.find()) {
+            matchResults.add(matches.group(1));
+        }
+    }
+
     /**
      * get file content.
      * @param filePath file path
@@ -315,17 +534,253 @@ public class FileUtils {
      * @throws IOException io exception
      */
     public Set<String> findPatternsInFile(final Path filePath, final String regexPattern) throws IOException {
+        return findPatternsInFile(filePath, Pattern.compile(regexPattern));
+    }
+
+    /**
+     * find match patterns in file path, with a compiled pattern.
+     *
+     * @param filePath file path
+     * @param regexPattern regex pattern
+     * @return set of matched patterns
+     * @throws IOException io exception
+     */
+    public Set<String> findPatternsInFile(final Path filePath, final Pattern regexPattern) throws IOException {
         Set<String> matchResults = new HashSet<>();
+        addMatches(regexPattern, getFileContent(filePath), matchResults);
+        return matchResults;
+    }
+
+    /**
+     * Get the SHA-256 digest of a file.
+     *
+     * @param filePath file path
+     * @return hex digest
+     * @throws IOException io exception
+     */
+    public String getFileDigest(final Path filePath) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(filePath)) {
+            return DigestUtils.sha256Hex(inputStream);
+        }
+    }
+
+    /**
+     * Hard link the files under a source directory to the same paths under an empty target directory,
+     * or copy them if the target is on another file store or the file store has no hard links.
+     * The files written through this class replace a linked file instead of writing into it,
+     * so the source files are never changed through their links.
+     *
+     * @param sourceDir source directory
+     * @param targetDir target directory
+     * @return the number of files linked
+     * @throws IOException io exception
+     */
+    public int linkFiles(final Path sourceDir, final Path targetDir) throws IOException {
+        final int[] linked = {0};
+        final boolean[] canLink = {true};
+        if (!Files.isDirectory(sourceDir)) {
+            return 0;
+        }
+        Files.walkFileTree(sourceDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(targetDir.resolve(sourceDir.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path filePath, BasicFileAttributes attrs) throws IOException {
+                Path target = targetDir.resolve(sourceDir.relativize(filePath).toString());
+                if (canLink[0]) {
+                    try {
+                        Files.createLink(target, filePath);
+                        linked[0]++;
+                        return FileVisitResult.CONTINUE;
+                    } catch (UnsupportedOperationException | FileSystemException e) {
+                        logger.info("Cannot link " + target + ", copying: " + e.getMessage());
+                        canLink[0] = false;
+                    }
+                }
+                Files.copy(filePath, target, StandardCopyOption.REPLACE_EXISTING);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return linked[0];
+    }
+
+    /**
+     * Move the files under a staging directory that differ from their counterpart under a target
+     * directory into it, each by an atomic rename where the file system supports it. The files
+     * that are the same are left in place so they keep their last modified time; a staged file
+     * still linked to its counterpart is the same without being read.
+     *
+     * @param stagingDir staging directory
+     * @param targetDir target directory
+     * @return the number of files moved
+     * @throws IOException io exception
+     */
+    public int moveChangedFiles(final Path stagingDir, final Path targetDir) throws IOException {
+        final int[] moved = {0};
+        if (!Files.isDirectory(stagingDir)) {
+            return 0;
+        }
+        Files.walkFileTree(stagingDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path filePath, BasicFileAttributes attrs) throws IOException {
+                Path target = targetDir.resolve(stagingDir.relativize(filePath).toString());
+                if (Files.isRegularFile(target) && Files.isSameFile(filePath, target)
+                        || isSameContent(filePath, target)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                logger.info("Moving in changed file " + target);
+                Files.createDirectories(target.getParent());
+                replaceFile(filePath, target);
+                moved[0]++;
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return moved[0];
+    }
+
+    /**
+     * Delete the files under a target directory that have no counterpart under a staging directory.
+     *
+     * @param stagingDir staging directory
+     * @param targetDir target directory
+     * @return the number of files deleted
+     * @throws IOException io exception
+     */
+    public int deleteMissingFiles(final Path stagingDir, final Path targetDir) throws IOException {
+        final int[] deleted = {0};
+        if (!Files.isDirectory(stagingDir) || !Files.isDirectory(targetDir)) {
+            return 0;
+        }
+        Files.walkFileTree(targetDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path filePath, BasicFileAttributes attrs) throws IOException {
+                if (!Files.exists(stagingDir.resolve(targetDir.relativize(filePath).toString()))) {
+                    logger.info("Deleting stale file " + filePath);
+                    Files.delete(filePath);
+                    deleted[0]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return deleted[0];
+    }
+
+    /**
+     * Copy the files under a directory that differ from their counterpart under a target directory
+     * into it. The files that are the same are left in place so they keep their last modified time.
+     *
+     * @param sourceDir source directory
+     * @param targetDir target directory
+     * @return the target of every file under the source directory, copied or not
+     * @throws IOException io exception
+     */
+    public List<Path> copyChangedFiles(final Path sourceDir, final Path targetDir) throws IOException {
+        final List<Path> targets = new ArrayList<>();
+        if (!Files.isDirectory(sourceDir)) {
+            return targets;
+        }
+        Files.walkFileTree(sourceDir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path filePath, BasicFileAttributes attrs) throws IOException {
+                Path target = targetDir.resolve(sourceDir.relativize(filePath).toString());
+                targets.add(target);
+                if (!isSameContent(filePath, target)) {
+                    logger.info("Copying changed file " + target);
+                    Files.createDirectories(target.getParent());
+                    Files.copy(filePath, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return targets;
+    }
+
+    /**
+     * Replace a target file by a source file, by an atomic rename where the file system supports it.
+     *
+     * @param source source file
+     * @param target target file
+     * @throws IOException io exception
+     */
+    private static void replaceFile(final Path source, final Path target) throws IOException {
         try {
-            String fileContent = getFileContent(filePath);
-            Matcher matches = Pattern.compile(regexPattern).matcher(fileContent);
-            while(matches.find()) {
-                matchResults.add(matches.group(1));
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static boolean isSameContent(final Path source, final Path target) throws IOException {
+        return Files.isRegularFile(target) && Files.size(target) == Files.size(source)
+                && Arrays.equals(Files.readAllBytes(target), Files.readAllBytes(source));
+    }
+
+    /**
+     * Hard link a file to a target, or copy it if the target is on another file store or the
+     * file store has no hard links. An existing target is replaced.
+     *
+     * @param source source file
+     * @param target target file
+     * @return true if linked, false if copied
+     * @throws IOException io exception
+     */
+    public boolean linkOrCopy(final Path source, final Path target) throws IOException {
+        Path targetDir = target.toAbsolutePath().getParent();
+        Files.createDirectories(targetDir);
+        if (Files.getFileStore(source).equals(Files.getFileStore(targetDir))) {
+            try {
+                if (Files.isRegularFile(target) && Files.isSameFile(source, target)) {
+                    return true;
+                }
+                Files.deleteIfExists(target);
+                Files.createLink(target, source);
+                return true;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                logger.info("Cannot link " + target + ", copying: " + e.getMessage());
             }
-        } catch (IOException e) {
-            throw e;
         }
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        return false;
+    }
 
-        return matchResults;
+    /**
+     * Delete a file if it exists.
+     *
+     * @param filePath file path
+     * @throws IOException io exception
+     */
+    public void deleteFile(final Path filePath) throws IOException {
+        if (Files.deleteIfExists(filePath)) {
+            logger.info("Deleting stale file " + filePath);
+        }
+    }
+
+    /**
+     * Delete a directory and everything under it if it exists.
+     *
+     * @param dirPath directory path
+     * @throws IOException io exception
+     */
+    public void deleteDirectory(final Path dirPath) throws IOException {
+        if (!Files.isDirectory(dirPath)) {
+            return;
+        }
+        Files.walkFileTree(dirPath, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path filePath, BasicFileAttributes attrs) throws IOException {
+                Files.delete(filePath);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
     }
 }
@@ -0,0 +1,259 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * GenerateManifest.
+ * maps each RDL file and its content hash to the files it produced, so parsec-generate
+ * only needs to regenerate changed RDL files and can prune the outputs of removed ones.
+ *
+ * The manifest is a plain text file:
+ * <pre>
+ * fingerprint {options and generator version hash}
+ * rdl {content hash} {RDL path}
+ * inc {content hash} {included RDL path}
+ * out {output path}
+ * src {source root file}
+ * </pre>
+ * where the inc lines, the RDL files the RDL file includes directly or not, and the out lines belong to
+ * the rdl line above them, and the src lines are the files kept in src/main/java that parsec-generate
+ * only writes if they do not exist.
+ */
+public class GenerateManifest {
+
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String RDL = "rdl";
+    private static final String INC = "inc";
+    private static final String OUT = "out";
+    private static final String SRC = "src";
+
+    /**
+     * the fingerprint of the generator options and version the outputs were generated with.
+     */
+    private String fingerprint;
+
+    /**
+     * RDL path to entry.
+     */
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    /**
+     * the files in src/main/java written from the templates, relative to the project directory.
+     */
+    private final Set<String> sourceRootFiles = new TreeSet<>();
+
+    /**
+     * Constructor.
+     *
+     * @param fingerprint fingerprint
+     */
+    public GenerateManifest(final String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Load manifest from file, an empty manifest is returned if the file does not exist.
+     *
+     * @param file manifest file
+     * @return manifest
+     * @throws IOException IOException
+     */
+    public static GenerateManifest load(final File file) throws IOException {
+        GenerateManifest manifest = new GenerateManifest("");
+        if (!file.isFile()) {
+            return manifest;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            Entry entry = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ", 3);
+                if (FINGERPRINT.equals(parts[0]) && parts.length == 2) {
+                    manifest.fingerprint = parts[1];
+                } else if (RDL.equals(parts[0]) && parts.length == 3) {
+                    entry = new Entry(parts[1]);
+                    manifest.entries.put(parts[2], entry);
+                } else if (INC.equals(parts[0]) && parts.length == 3 && entry != null) {
+                    entry.includes.put(parts[2], parts[1]);
+                } else if (OUT.equals(parts[0]) && parts.length >= 2 && entry != null) {
+                    entry.outputs.add(line.substring(OUT.length() + 1));
+                } else if (SRC.equals(parts[0]) && parts.length >= 2) {
+                    manifest.sourceRootFiles.add(line.substring(SRC.length() + 1));
+                }
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Save manifest to file.
+     *
+     * @param file manifest file
+     * @throws IOException IOException
+     */
+    public void save(final File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(FINGERPRINT + " " + fingerprint);
+            writer.newLine();
+            for (Map.Entry<String, Entry> rdlEntry : entries.entrySet()) {
+                writer.write(RDL + " " + rdlEntry.getValue().hash + " " + rdlEntry.getKey());
+                writer.newLine();
+                for (Map.Entry<String, String> include : rdlEntry.getValue().includes.entrySet()) {
+                    writer.write(INC + " " + include.getValue() + " " + include.getKey());
+                    writer.newLine();
+                }
+                for (String output : rdlEntry.getValue().outputs) {
+                    writer.write(OUT + " " + output);
+                    writer.newLine();
+                }
+            }
+            for (String sourceRootFile : sourceRootFiles) {
+                writer.write(SRC + " " + sourceRootFile);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * the fingerprint getter.
+     * @return fingerprint
+     */
+    public String getFingerprint() { return fingerprint; }
+
+    /**
+     * Get the RDL paths in the manifest.
+     *
+     * @return RDL paths
+     */
+    public Set<String> getRdlFiles() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Get the content hash of a RDL file.
+     *
+     * @param rdlFile RDL path
+     * @return hash, null if not in the manifest
+     */
+    public String getHash(final String rdlFile) {
+        Entry entry = entries.get(rdlFile);
+        return entry == null ? null : entry.hash;
+    }
+
+    /**
+     * Get the RDL files a RDL file includes, directly or not.
+     *
+     * @param rdlFile RDL path
+     * @return included RDL path to content hash, empty if not in the manifest
+     */
+    public Map<String, String> getIncludes(final String rdlFile) {
+        Entry entry = entries.get(rdlFile);
+        return entry == null ? Collections.<String, String>emptyMap() : Collections.unmodifiableMap(entry.includes);
+    }
+
+    /**
+     * Get the outputs of a RDL file.
+     *
+     * @param rdlFile RDL path
+     * @return outputs, empty if not in the manifest
+     */
+    public Set<String> getOutputs(final String rdlFile) {
+        Entry entry = entries.get(rdlFile);
+        return entry == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(entry.outputs);
+    }
+
+    /**
+     * Put a RDL file with its hash and outputs.
+     *
+     * @param rdlFile RDL path
+     * @param hash content hash
+     * @param outputs outputs
+     */
+    public void put(final String rdlFile, final String hash, final Set<String> outputs) {
+        put(rdlFile, hash, Collections.<String, String>emptyMap(), outputs);
+    }
+
+    /**
+     * Put a RDL file with its hash, the RDL files it includes and its outputs.
+     *
+     * @param rdlFile RDL path
+     * @param hash content hash
+     * @param includes included RDL path to content hash
+     * @param outputs outputs
+     */
+    public void put(
+            final String rdlFile,
+            final String hash,
+            final Map<String, String> includes,
+            final Set<String> outputs
+    ) {
+        Entry entry = new Entry(hash);
+        entry.includes.putAll(includes);
+        entry.outputs.addAll(outputs);
+        entries.put(rdlFile, entry);
+    }
+
+    /**
+     * Get the outputs owned by any RDL file in the manifest.
+     *
+     * @return outputs
+     */
+    public Set<String> getAllOutputs() {
+        Set<String> outputs = new HashSet<>();
+        for (Entry entry : entries.values()) {
+            outputs.addAll(entry.outputs);
+        }
+        return outputs;
+    }
+
+    /**
+     * Get the files in src/main/java written from the templates.
+     *
+     * @return paths relative to the project directory
+     */
+    public Set<String> getSourceRootFiles() {
+        return Collections.unmodifiableSet(sourceRootFiles);
+    }
+
+    /**
+     * Add a file in src/main/java written from a template.
+     *
+     * @param sourceRootFile path relative to the project directory
+     */
+    public void addSourceRootFile(final String sourceRootFile) {
+        sourceRootFiles.add(sourceRootFile);
+    }
+
+    /**
+     * manifest entry of a RDL file.
+     */
+    private static final class Entry {
+        private final String hash;
+        private final Map<String, String> includes = new TreeMap<>();
+        private final Set<String> outputs = new TreeSet<>();
+
+        private Entry(final String hash) {
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GenerateReport.
+ * the timings of a parsec-generate run: the wall time, exit code and output file count of each
+ * (RDL file, generator) job, and the wall time of each phase of the task.
+ *
+ * The report is saved as JSON:
+ * <pre>
+ * {
+ *   "mode": "serial",
+ *   "totalMillis": 1234,
+ *   "phases": {"findChangedRdlFiles": 3, "rdlGenerate": 1100, ...},
+ *   "jobs": [
+ *     {"rdlFile": "src/main/rdl/sample.rdl", "generator": "parsec-java-model",
+ *      "millis": 210, "exitCode": 0, "outputs": 12},
+ *     ...
+ *   ]
+ * }
+ * </pre>
+ * where outputs is -1 if the job ran along with others and its outputs could not be told apart.
+ */
+public class GenerateReport {
+
+    /**
+     * the number of slowest jobs listed in the summary.
+     */
+    private static final int SUMMARY_JOBS = 3;
+
+    /**
+     * how the generator jobs were run, serial or parallel.
+     */
+    private final String mode;
+
+    /**
+     * the start of the run.
+     */
+    private final long start = System.currentTimeMillis();
+
+    /**
+     * phase name to wall time, in the order the phases ran.
+     */
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    /**
+     * the finished jobs, in the order they finished.
+     */
+    private final List<Job> jobs = new ArrayList<>();
+
+    /**
+     * Constructor.
+     *
+     * @param mode how the generator jobs are run
+     */
+    public GenerateReport(final String mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Add the wall time of a phase, the times of a phase that runs more than once add up.
+     *
+     * @param name phase name
+     * @param millis wall time
+     */
+    public synchronized void addPhase(final String name, final long millis) {
+        Long previous = phases.get(name);
+        phases.put(name, previous == null ? millis : previous + millis);
+    }
+
+    /**
+     * Add a finished job.
+     *
+     * @param rdlFile RDL file
+     * @param generator generator
+     * @param millis wall time
+     * @param exitCode exit code
+     * @param outputs number of files produced, -1 if unknown
+     */
+    public synchronized void addJob(
+            final String rdlFile,
+            final String generator,
+            final long millis,
+            final int exitCode,
+            final int outputs
+    ) {
+        jobs.add(new Job(rdlFile, generator, millis, exitCode, outputs));
+    }
+
+    /**
+     * Get the phases.
+     *
+     * @return phase name to wall time
+     */
+    public synchronized Map<String, Long> getPhases() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(phases));
+    }
+
+    /**
+     * Get the finished jobs.
+     *
+     * @return jobs
+     */
+    public synchronized List<Job> getJobs() {
+        return Collections.unmodifiableList(new ArrayList<>(jobs));
+    }
+
+    /**
+     * Get a short summary of the run: the phases and the slowest jobs.
+     *
+     * @return summary lines
+     */
+    public synchronized List<String> getSummary() {
+        List<String> lines = new ArrayList<>();
+        StringBuilder phaseLine = new StringBuilder("parsec-generate: ")
+                .append(System.currentTimeMillis() - start).append(" ms, ")
+                .append(jobs.size()).append(" generator jobs (").append(mode).append(")");
+        for (Map.Entry<String, Long> entry : phases.entrySet()) {
+            phaseLine.append(", ").append(entry.getKey()).append(" ").append(entry.getValue()).append(" ms");
+        }
+        lines.add(phaseLine.toString());
+
+        List<Job> slowest = new ArrayList<>(jobs);
+        Collections.sort(slowest, new Comparator<Job>() {
+            @Override
+            public int compare(Job o1, Job o2) {
+                return Long.compare(o2.millis, o1.millis);
+            }
+        });
+        for (Job job : slowest.subList(0, Math.min(SUMMARY_JOBS, slowest.size()))) {
+            lines.add("  " + job.millis + " ms " + job.generator + " " + job.rdlFile
+                    + (job.exitCode != 0 ? " (exit code " + job.exitCode + ")" : ""));
+        }
+        return lines;
+    }
+
+    /**
+     * Save report to file as JSON.
+     *
+     * @param file report file
+     * @throws IOException IOException
+     */
+    public synchronized void save(final File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("{");
+            writer.newLine();
+            writer.write("  \"mode\": " + quote(mode) + ",");
+            writer.newLine();
+            writer.write("  \"totalMillis\": " + (System.currentTimeMillis() - start) + ",");
+            writer.newLine();
+            writer.write("  \"phases\": {");
+            String separator = "";
+            for (Map.Entry<String, Long> entry : phases.entrySet()) {
+                writer.write(separator + quote(entry.getKey()) + ": " + entry.getValue());
+                separator = ", ";
+            }
+            writer.write("},");
+            writer.newLine();
+            writer.write("  \"jobs\": [");
+            for (int i = 0; i < jobs.size(); i++) {
+                Job job = jobs.get(i);
+                writer.newLine();
+                writer.write("    {\"rdlFile\": " + quote(job.rdlFile)
+                        + ", \"generator\": " + quote(job.generator)
+                        + ", \"millis\": " + job.millis
+                        + ", \"exitCode\": " + job.exitCode
+                        + ", \"outputs\": " + job.outputs + "}"
+                        + (i < jobs.size() - 1 ? "," : ""));
+            }
+            writer.newLine();
+            writer.write("  ]");
+            writer.newLine();
+            writer.write("}");
+            writer.newLine();
+        }
+    }
+
+    private static String quote(final String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    /**
+     * a finished job.
+     */
+    public static final class Job {
+        private final String rdlFile;
+        private final String generator;
+        private final long millis;
+        private final int exitCode;
+        private final int outputs;
+
+        private Job(
+                final String rdlFile,
+                final String generator,
+                final long millis,
+                final int exitCode,
+                final int outputs
+        ) {
+            this.rdlFile = rdlFile;
+            this.generator = generator;
+            this.millis = millis;
+            this.exitCode = exitCode;
+            this.outputs = outputs;
+        }
+
+        /**
+         * the RDL file getter.
+         * @return RDL file
+         */
+        public String getRdlFile() { return rdlFile; }
+
+        /**
+         * the generator getter.
+         * @return generator
+         */
+        public String getGenerator() { return generator; }
+
+        /**
+         * the wall time getter.
+         * @return wall time
+         */
+        public long getMillis() { return millis; }
+
+        /**
+         * the exit code getter.
+         * @return exit code
+         */
+        public int getExitCode() { return exitCode; }
+
+        /**
+         * the output count getter.
+         * @return number of files produced, -1 if unknown
+         */
+        public int getOutputs() { return outputs; }
+    }
+}
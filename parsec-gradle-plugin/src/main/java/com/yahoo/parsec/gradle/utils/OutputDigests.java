@@ -0,0 +1,157 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * OutputDigests.
+ * records the size, last modified time and digest of each file parsec wrote, so the next write
+ * of the same content can be skipped without reading the file back.
+ *
+ * The digests are a plain text file:
+ * <pre>
+ * out {size} {last modified millis} {md5} {output path}
+ * </pre>
+ */
+public class OutputDigests {
+
+    private static final String OUT = "out";
+
+    /**
+     * output path to entry.
+     */
+    private final Map<String, Entry> entries = new TreeMap<>();
+
+    /**
+     * Load digests from file, empty digests are returned if the file does not exist.
+     *
+     * @param file digests file
+     * @return digests
+     * @throws IOException IOException
+     */
+    public static OutputDigests load(final File file) throws IOException {
+        OutputDigests digests = new OutputDigests();
+        if (!file.isFile()) {
+            return digests;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ", 5);
+                if (OUT.equals(parts[0]) && parts.length == 5) {
+                    try {
+                        digests.entries.put(
+                                parts[4],
+                                new Entry(Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3])
+                        );
+                    } catch (NumberFormatException e) {
+                        // corrupted line, the file is read back next time it is written
+                    }
+                }
+            }
+        }
+        return digests;
+    }
+
+    /**
+     * Save digests to file, the outputs that no longer exist are left out.
+     *
+     * @param file digests file
+     * @throws IOException IOException
+     */
+    public synchronized void save(final File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                if (!new File(entry.getKey()).isFile()) {
+                    continue;
+                }
+                Entry value = entry.getValue();
+                writer.write(OUT + " " + value.size + " " + value.lastModified + " " + value.digest
+                        + " " + entry.getKey());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Get the recorded digest of an output, if the output still has the recorded size and
+     * last modified time.
+     *
+     * @param outputFile output file
+     * @return digest, null if not recorded or the output changed since
+     */
+    public synchronized String getDigest(final File outputFile) {
+        Entry entry = entries.get(outputFile.getPath());
+        if (entry == null || entry.size != outputFile.length() || entry.lastModified != outputFile.lastModified()) {
+            return null;
+        }
+        return entry.digest;
+    }
+
+    /**
+     * Record the digest of an output as it is now on disk.
+     *
+     * @param outputFile output file
+     * @param digest digest of the output content
+     */
+    public synchronized void put(final File outputFile, final String digest) {
+        entries.put(outputFile.getPath(), new Entry(outputFile.length(), outputFile.lastModified(), digest));
+    }
+
+    /**
+     * Record the outputs under a directory under the paths they were moved to in another directory,
+     * e.g. the staged outputs once they are moved in. A moved file keeps its size and last modified
+     * time; the entries that do not match the file now at the new path are dropped.
+     *
+     * @param fromDir directory the outputs were written to
+     * @param toDir directory the outputs were moved to
+     */
+    public synchronized void move(final File fromDir, final File toDir) {
+        String fromPrefix = fromDir.getPath() + File.separator;
+        Map<String, Entry> moved = new TreeMap<>();
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Entry> entry = iterator.next();
+            if (entry.getKey().startsWith(fromPrefix)) {
+                iterator.remove();
+                File target = new File(toDir, entry.getKey().substring(fromPrefix.length()));
+                Entry value = entry.getValue();
+                if (value.size == target.length() && value.lastModified == target.lastModified()) {
+                    moved.put(target.getPath(), value);
+                }
+            }
+        }
+        entries.putAll(moved);
+    }
+
+    /**
+     * digests entry of an output.
+     */
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final String digest;
+
+        private Entry(final long size, final long lastModified, final String digest) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+}
@@ -5,13 +5,18 @@ package com.yahoo.parsec.gradle.utils;
 
 import com.yahoo.parsec.gradle.ParsecPluginExtension;
 import org.gradle.api.Project;
+import org.gradle.api.file.Directory;
+import org.gradle.api.provider.Provider;
 
 import java.io.File;
+import java.io.Serializable;
 
 /**
  * @author sho
  */
-public class PathUtils {
+public class PathUtils implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     /**
      * RDL binary filename.
@@ -23,6 +28,11 @@ public class PathUtils {
      */
     public static final String RDL_GEN_PARSEC_PREFIX = "rdl-gen-parsec-";
 
+    /**
+     * Relative aggregate store path, in the root project build directory.
+     */
+    private static final String RELATIVE_AGGREGATE_STORE_PATH = "parsec/aggregate";
+
     /**
      * Relative bin path.
      */
@@ -33,6 +43,21 @@ public class PathUtils {
      */
     private static final String RELATIVE_DOC_PATH = "generated-resources/parsec/doc";
 
+    /**
+     * Relative parsec-generate manifest path.
+     */
+    private static final String RELATIVE_GENERATE_MANIFEST_PATH = "parsec/generate-manifest.txt";
+
+    /**
+     * Relative parsec-generate report path.
+     */
+    private static final String RELATIVE_GENERATE_REPORT_PATH = "reports/parsec/generate-report.json";
+
+    /**
+     * Relative output digests path.
+     */
+    private static final String RELATIVE_OUTPUT_DIGESTS_PATH = "parsec/output-digests.txt";
+
     /**
      * Relative generated resources path.
      */
@@ -43,6 +68,22 @@ public class PathUtils {
      */
     private static final String RELATIVE_GENERATED_SOURCES_PATH = "generated-sources/java";
 
+    /**
+     * Relative path prefix of the directories the generator jobs write to, at the same depth as the generated
+     * sources path, since the server generator places the handler implementations relative to its output.
+     */
+    private static final String RELATIVE_JOB_OUTPUT_PATH = "parsec-jobs-";
+
+    /**
+     * Relative parsed RDL schema cache path.
+     */
+    private static final String RELATIVE_SCHEMA_CACHE_PATH = "parsec/schema";
+
+    /**
+     * Relative staging path, at the same depth as the generated sources path.
+     */
+    private static final String RELATIVE_STAGING_PATH = "parsec-staging";
+
     /**
      * Relative Swagger-ui path.
      */
@@ -54,9 +95,41 @@ public class PathUtils {
     private static final String RELATIVE_TEST_SOURCES_ROOT_PATH = "src/test/java";
 
     /**
-     * Gradle project instance.
+     * Toolchain stamp file name, in the bin path.
+     */
+    private static final String TOOLCHAIN_STAMP = ".parsec-toolchain";
+
+    /**
+     * Project build directory provider, it follows later changes of the build directory;
+     * null if created from the directories. It is not transient, the configuration cache stores
+     * its value with the task, the snapshots handed to the workers have none.
      */
-    private Project project;
+    private Provider<Directory> buildDirectory;
+
+    /**
+     * Root project build directory provider; null if created from the directories.
+     */
+    private Provider<Directory> rootBuildDirectory;
+
+    /**
+     * Project directory.
+     */
+    private File projectDir;
+
+    /**
+     * Project build directory, used if there is no build directory provider.
+     */
+    private File buildDir;
+
+    /**
+     * Root project build directory, used if there is no root build directory provider.
+     */
+    private File rootBuildDir;
+
+    /**
+     * Gradle user home directory.
+     */
+    private File gradleUserHomeDir;
 
     /**
      * Parsec plugin extension.
@@ -70,10 +143,114 @@ public class PathUtils {
      * @param pluginExtension plugin extension
      */
     public PathUtils(final Project project, final ParsecPluginExtension pluginExtension) {
-        this.project = project;
+        this(project.getProjectDir(), project.getLayout().getBuildDirectory(),
+                project.getRootProject().getLayout().getBuildDirectory(),
+                project.getGradle().getGradleUserHomeDir(), pluginExtension);
+    }
+
+    /**
+     * Constructor from the build directory providers, e.g. the directory properties of a task.
+     *
+     * @param projectDir project directory
+     * @param buildDirectory project build directory provider
+     * @param rootBuildDirectory root project build directory provider
+     * @param gradleUserHomeDir gradle user home directory
+     * @param pluginExtension plugin extension
+     */
+    public PathUtils(
+            final File projectDir,
+            final Provider<Directory> buildDirectory,
+            final Provider<Directory> rootBuildDirectory,
+            final File gradleUserHomeDir,
+            final ParsecPluginExtension pluginExtension
+    ) {
+        this.projectDir = projectDir;
+        this.buildDirectory = buildDirectory;
+        this.rootBuildDirectory = rootBuildDirectory;
+        this.gradleUserHomeDir = gradleUserHomeDir;
         this.pluginExtension = pluginExtension;
     }
 
+    /**
+     * Constructor from the directories, for the code that runs outside of the project, e.g. in a worker.
+     *
+     * @param projectDir project directory
+     * @param buildDir project build directory
+     * @param gradleUserHomeDir gradle user home directory
+     * @param pluginExtension plugin extension
+     */
+    public PathUtils(
+            final File projectDir,
+            final File buildDir,
+            final File gradleUserHomeDir,
+            final ParsecPluginExtension pluginExtension
+    ) {
+        this(projectDir, buildDir, buildDir, gradleUserHomeDir, pluginExtension);
+    }
+
+    /**
+     * Constructor from the directories, for the code that runs outside of the project, e.g. in a worker.
+     *
+     * @param projectDir project directory
+     * @param buildDir project build directory
+     * @param rootBuildDir root project build directory
+     * @param gradleUserHomeDir gradle user home directory
+     * @param pluginExtension plugin extension
+     */
+    public PathUtils(
+            final File projectDir,
+            final File buildDir,
+            final File rootBuildDir,
+            final File gradleUserHomeDir,
+            final ParsecPluginExtension pluginExtension
+    ) {
+        this.projectDir = projectDir;
+        this.buildDir = buildDir;
+        this.rootBuildDir = rootBuildDir;
+        this.gradleUserHomeDir = gradleUserHomeDir;
+        this.pluginExtension = pluginExtension;
+    }
+
+    /**
+     * Get a serializable copy with the build directory as it is now, e.g. to hand over to a worker.
+     *
+     * @param pluginExtension plugin extension of the copy
+     * @return path utils
+     */
+    public PathUtils snapshot(final ParsecPluginExtension pluginExtension) {
+        return new PathUtils(getProjectDir(), getBuildDir(), getRootBuildDir(), getGradleUserHomeDir(), pluginExtension);
+    }
+
+    /**
+     * Get project directory.
+     *
+     * @return project directory
+     */
+    public File getProjectDir() {
+        return projectDir;
+    }
+
+    private File getBuildDir() {
+        return buildDirectory != null ? buildDirectory.get().getAsFile() : buildDir;
+    }
+
+    private File getRootBuildDir() {
+        return rootBuildDirectory != null ? rootBuildDirectory.get().getAsFile() : rootBuildDir;
+    }
+
+    private File getGradleUserHomeDir() {
+        return gradleUserHomeDir;
+    }
+
+    /**
+     * Get relative aggregate store path.
+     *
+     * @return relative aggregate store path
+     */
+    public static String getRelativeAggregateStorePath() {
+        return RELATIVE_AGGREGATE_STORE_PATH;
+    }
+
     /**
      * Get relative bin path.
      *
@@ -92,6 +269,33 @@ public class PathUtils {
         return RELATIVE_DOC_PATH;
     }
 
+    /**
+     * Get relative parsec-generate manifest path.
+     *
+     * @return relative parsec-generate manifest path
+     */
+    public static String getRelativeGenerateManifestPath() {
+        return RELATIVE_GENERATE_MANIFEST_PATH;
+    }
+
+    /**
+     * Get relative parsec-generate report path.
+     *
+     * @return relative parsec-generate report path
+     */
+    public static String getRelativeGenerateReportPath() {
+        return RELATIVE_GENERATE_REPORT_PATH;
+    }
+
+    /**
+     * Get relative output digests path.
+     *
+     * @return relative output digests path
+     */
+    public static String getRelativeOutputDigestsPath() {
+        return RELATIVE_OUTPUT_DIGESTS_PATH;
+    }
+
     /**
      * Get relative generated resources path.
      *
@@ -110,6 +314,33 @@ public class PathUtils {
         return RELATIVE_GENERATED_SOURCES_PATH;
     }
 
+    /**
+     * Get relative parsed RDL schema cache path.
+     *
+     * @return relative parsed RDL schema cache path
+     */
+    public static String getRelativeSchemaCachePath() {
+        return RELATIVE_SCHEMA_CACHE_PATH;
+    }
+
+    /**
+     * Get relative job output path prefix, followed by the job index.
+     *
+     * @return relative job output path prefix
+     */
+    public static String getRelativeJobOutputPath() {
+        return RELATIVE_JOB_OUTPUT_PATH;
+    }
+
+    /**
+     * Get relative staging path.
+     *
+     * @return relative staging path
+     */
+    public static String getRelativeStagingPath() {
+        return RELATIVE_STAGING_PATH;
+    }
+
     /**
      * Get relative Swagger UI path.
      *
@@ -133,7 +364,7 @@ public class PathUtils {
      * @return project path
      */
     public String getProjectPath() {
-        return project.getProjectDir().getPath();
+        return getProjectDir().getPath();
     }
 
     /**
@@ -142,15 +373,27 @@ public class PathUtils {
      * @return project build path
      */
     public String getProjectBuildPath() {
-        return project.getBuildDir().getPath();
+        return getBuildDir().getPath();
+    }
+
+    /**
+     * Get aggregate store directory, shared by every project of the build.
+     *
+     * @return aggregate store directory
+     */
+    public File getAggregateStoreDir() {
+        return new File(getRootBuildDir().getPath() + "/" + getRelativeAggregateStorePath());
     }
 
     /**
-     * Get bin path.
+     * Get bin path, in the per-user toolchain cache if shared.
      *
      * @return bin path
      */
     public String getBinPath() {
+        if (pluginExtension.isSharedToolchainCache()) {
+            return ToolchainCache.getToolchainDir(getGradleUserHomeDir()).getPath();
+        }
         return getProjectBuildPath() + "/" + getRelativeBinPath();
     }
 
@@ -163,6 +406,15 @@ public class PathUtils {
         return getBinPath() + "/" + RDL_BINARY;
     }
 
+    /**
+     * Get toolchain stamp file.
+     *
+     * @return toolchain stamp file
+     */
+    public File getToolchainStampFile() {
+        return new File(getBinPath() + "/" + TOOLCHAIN_STAMP);
+    }
+
     /**
      * Get doc path.
      *
@@ -172,6 +424,42 @@ public class PathUtils {
         return getProjectBuildPath() + "/" + getRelativeDocPath();
     }
 
+    /**
+     * Get doc directory.
+     *
+     * @return doc directory
+     */
+    public File getDocDir() {
+        return new File(getDocPath());
+    }
+
+    /**
+     * Get parsec-generate manifest file.
+     *
+     * @return parsec-generate manifest file
+     */
+    public File getGenerateManifestFile() {
+        return new File(getProjectBuildPath() + "/" + getRelativeGenerateManifestPath());
+    }
+
+    /**
+     * Get parsec-generate report file.
+     *
+     * @return parsec-generate report file
+     */
+    public File getGenerateReportFile() {
+        return new File(getProjectBuildPath() + "/" + getRelativeGenerateReportPath());
+    }
+
+    /**
+     * Get output digests file.
+     *
+     * @return output digests file
+     */
+    public File getOutputDigestsFile() {
+        return new File(getProjectBuildPath() + "/" + getRelativeOutputDigestsPath());
+    }
+
     /**
      * Get generated resources path.
      *
@@ -199,6 +487,54 @@ public class PathUtils {
         return new File(getGeneratedSourcesPath());
     }
 
+    /**
+     * Get parsed RDL schema cache directory.
+     *
+     * @return parsed RDL schema cache directory
+     */
+    public File getSchemaCacheDir() {
+        return new File(getProjectBuildPath() + "/" + getRelativeSchemaCachePath());
+    }
+
+    /**
+     * Get the directory a generator job writes to, e.g. build/parsec-jobs-0/java for a job writing to
+     * build/generated-sources/java, so the paths relative to the output directory resolve the same.
+     *
+     * @param index job index
+     * @param outputDir the output directory of the job
+     * @return job output directory
+     */
+    public File getJobOutputDir(final int index, final File outputDir) {
+        return new File(getProjectBuildPath() + "/" + getRelativeJobOutputPath() + index, outputDir.getName());
+    }
+
+    /**
+     * Get staging directory.
+     *
+     * @return staging directory
+     */
+    public File getStagingDir() {
+        return new File(getProjectBuildPath() + "/" + getRelativeStagingPath());
+    }
+
+    /**
+     * Get staged generated sources path, where the generators write in staged generation.
+     *
+     * @return staged generated sources path
+     */
+    public String getStagedGeneratedSourcesPath() {
+        return getStagingDir().getPath() + "/java";
+    }
+
+    /**
+     * Get staged doc path, where the generators write in staged generation.
+     *
+     * @return staged doc path
+     */
+    public String getStagedDocPath() {
+        return getStagingDir().getPath() + "/doc";
+    }
+
     /**
      * Get Swagger-ui path.
      *
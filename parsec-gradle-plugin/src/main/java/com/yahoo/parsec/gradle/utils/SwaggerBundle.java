@@ -0,0 +1,167 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.utils;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * SwaggerBundle.
+ * the swagger jsons merged into one document, so swagger-ui or a server can fetch every spec
+ * in one request, with a gzip variant to serve as is.
+ *
+ * The bundle maps each swagger json file name to its spec:
+ * <pre>
+ * {
+ *   "sample_swagger.json": {...},
+ *   ...
+ * }
+ * </pre>
+ * and is named after its content hash, e.g. _swagger-bundle.0123456789abcdef.json, so it can be
+ * cached for good.
+ */
+public class SwaggerBundle {
+
+    /**
+     * bundle file name prefix.
+     */
+    public static final String PREFIX = "_swagger-bundle.";
+
+    /**
+     * the number of hex digits of the content hash in the file name.
+     */
+    private static final int NAME_HASH_LENGTH = 16;
+
+    /**
+     * the merged document.
+     */
+    private final byte[] content;
+
+    /**
+     * swagger json file name to the sha256 of its content, in file name order.
+     */
+    private final Map<String, String> hashes;
+
+    /**
+     * the bundle file name.
+     */
+    private final String fileName;
+
+    private SwaggerBundle(final byte[] content, final Map<String, String> hashes) {
+        this.content = content;
+        this.hashes = hashes;
+        this.fileName = PREFIX + DigestUtils.sha256Hex(content).substring(0, NAME_HASH_LENGTH) + ".json";
+    }
+
+    /**
+     * Merge swagger jsons into a bundle.
+     *
+     * @param swaggerJsons swagger jsons, in the order they are bundled
+     * @return bundle
+     * @throws IOException IOException
+     */
+    public static SwaggerBundle create(final List<Path> swaggerJsons) throws IOException {
+        String lineSeparator = System.getProperty("line.separator");
+        Map<String, String> hashes = new LinkedHashMap<>();
+        StringBuilder stringBuilder = new StringBuilder("{");
+        for (Path swaggerJson : swaggerJsons) {
+            byte[] bytes = Files.readAllBytes(swaggerJson);
+            String name = swaggerJson.getFileName().toString();
+            hashes.put(name, DigestUtils.sha256Hex(bytes));
+            stringBuilder.append(hashes.size() > 1 ? "," : "")
+                    .append(lineSeparator)
+                    .append("  \"").append(name).append("\": ")
+                    .append(new String(bytes, StandardCharsets.UTF_8).trim());
+        }
+        stringBuilder.append(lineSeparator).append("}").append(lineSeparator);
+        return new SwaggerBundle(
+                stringBuilder.toString().getBytes(StandardCharsets.UTF_8), Collections.unmodifiableMap(hashes));
+    }
+
+    /**
+     * the file name getter.
+     * @return bundle file name
+     */
+    public String getFileName() { return fileName; }
+
+    /**
+     * the hashes getter.
+     * @return swagger json file name to the sha256 of its content
+     */
+    public Map<String, String> getHashes() { return hashes; }
+
+    /**
+     * Write the bundle and its gzip variant into a directory, and delete the bundles of other content.
+     *
+     * @param fileUtils file utils
+     * @param dir directory
+     * @return the bundle and its gzip variant
+     * @throws IOException IOException
+     */
+    public List<File> save(final FileUtils fileUtils, final File dir) throws IOException {
+        deleteStaleBundles(fileUtils, dir);
+
+        List<File> files = new ArrayList<>();
+        files.add(new File(dir, fileName));
+        files.add(new File(dir, fileName + ".gz"));
+        fileUtils.writeResourceToFile(new ByteArrayInputStream(content), files.get(0).getPath(), true);
+        fileUtils.writeResourceToFile(new ByteArrayInputStream(gzip(content)), files.get(1).getPath(), true);
+        return files;
+    }
+
+    /**
+     * Delete the bundles of other content from a directory.
+     *
+     * @param fileUtils file utils
+     * @param dir directory
+     * @throws IOException IOException
+     */
+    public void deleteStaleBundles(final FileUtils fileUtils, final File dir) throws IOException {
+        File[] staleFiles = dir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File parent, String name) {
+                return name.startsWith(PREFIX) && !name.equals(fileName) && !name.equals(fileName + ".gz");
+            }
+        });
+        if (staleFiles != null) {
+            for (File staleFile : staleFiles) {
+                fileUtils.deleteFile(staleFile.toPath());
+            }
+        }
+    }
+
+    /**
+     * Gzip at the best compression, the output only depends on the input.
+     *
+     * @param bytes input
+     * @return gzipped input
+     * @throws IOException IOException
+     */
+    static byte[] gzip(final byte[] bytes) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzipOutputStream.write(bytes);
+        }
+        return outputStream.toByteArray();
+    }
+}
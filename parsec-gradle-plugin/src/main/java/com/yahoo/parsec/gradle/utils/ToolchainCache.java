@@ -0,0 +1,167 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.utils;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.compress.utils.IOUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ToolchainCache.
+ * the versions of the bundled rdl parser and generators, and the per-user cache they can be
+ * extracted to once per machine instead of once per project.
+ *
+ * The cache lives in {gradle user home}/caches/parsec/toolchain/{version hash}, the extraction
+ * is guarded by a file lock next to it so concurrent builds do not extract over each other.
+ */
+public final class ToolchainCache {
+
+    /**
+     * relative path of the cache in the gradle user home.
+     */
+    private static final String RELATIVE_CACHE_PATH = "caches/parsec/toolchain";
+
+    /**
+     * the in-process locks, file locks are held by the whole JVM and cannot guard
+     * projects built in parallel by the same daemon.
+     */
+    private static final ConcurrentMap<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private static String pluginVersion;
+
+    private static String generatorVersion;
+
+    private ToolchainCache() {
+    }
+
+    /**
+     * Get the version of the plugin.
+     *
+     * @return plugin version
+     */
+    public static synchronized String getPluginVersion() {
+        if (pluginVersion == null) {
+            Properties properties = new Properties();
+            try (InputStream inputStream = ToolchainCache.class.getResourceAsStream(
+                    "/parsec-gradle-plugin.properties")) {
+                if (inputStream != null) {
+                    properties.load(inputStream);
+                }
+            } catch (IOException e) {
+                return "unknown";
+            }
+            pluginVersion = properties.getProperty("version", "unknown");
+        }
+        return pluginVersion;
+    }
+
+    /**
+     * Get the version of the rdl parser and the parsec generators.
+     *
+     * @return generator version
+     */
+    public static synchronized String getGeneratorVersion() {
+        if (generatorVersion == null) {
+            generatorVersion = "rdl:" + getResourceFirstLine("/rdl-bin/metadata.xml")
+                    + ",rdl-gen:" + getResourceFirstLine("/rdl-gen/metadata.xml");
+        }
+        return generatorVersion;
+    }
+
+    /**
+     * Get the platform of the rdl binaries.
+     *
+     * @return rdl bin suffix
+     */
+    public static String getRdlBinSuffix() {
+        return System.getProperty("os.name").equals("Mac OS X") ? "darwin" : "linux";
+    }
+
+    /**
+     * Get the version of the toolchain, it changes whenever the extracted files would.
+     *
+     * @return toolchain version
+     */
+    public static String getToolchainVersion() {
+        return getPluginVersion() + "," + getGeneratorVersion() + "," + getRdlBinSuffix();
+    }
+
+    /**
+     * Get the toolchain directory in the per-user cache.
+     *
+     * @param gradleUserHome gradle user home
+     * @return toolchain directory
+     */
+    public static File getToolchainDir(final File gradleUserHome) {
+        return new File(new File(gradleUserHome, RELATIVE_CACHE_PATH),
+                DigestUtils.sha256Hex(getToolchainVersion()).substring(0, 16));
+    }
+
+    /**
+     * Run the action holding the lock of the toolchain directory, against both other threads
+     * and other processes.
+     *
+     * @param toolchainDir toolchain directory
+     * @param action action
+     * @throws IOException IOException
+     */
+    public static void withLock(final File toolchainDir, final LockedAction action) throws IOException {
+        File lockFile = new File(toolchainDir.getPath() + ".lock");
+        File parent = lockFile.getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+
+        ReentrantLock lock = LOCKS.computeIfAbsent(lockFile.getAbsolutePath(), key -> new ReentrantLock());
+        lock.lock();
+        try (
+                RandomAccessFile file = new RandomAccessFile(lockFile, "rw");
+                FileChannel channel = file.getChannel()
+        ) {
+            FileLock fileLock = channel.lock();
+            try {
+                action.run();
+            } finally {
+                fileLock.release();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static String getResourceFirstLine(final String resourcePath) {
+        try (InputStream inputStream = ToolchainCache.class.getResourceAsStream(resourcePath)) {
+            if (inputStream == null) {
+                return "unknown";
+            }
+            String content = new String(IOUtils.toByteArray(inputStream), StandardCharsets.UTF_8).trim();
+            return content.split("\\r?\\n")[0];
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+
+    /**
+     * action run under the toolchain lock.
+     */
+    public interface LockedAction {
+        /**
+         * Run.
+         *
+         * @throws IOException IOException
+         */
+        void run() throws IOException;
+    }
+}
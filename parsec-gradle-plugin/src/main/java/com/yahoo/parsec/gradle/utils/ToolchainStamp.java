@@ -0,0 +1,170 @@
+// Copyright 2016 Yahoo Inc.
+// Licensed under the terms of the Apache license. Please see LICENSE.md file distributed with this work for terms.
+
+package com.yahoo.parsec.gradle.utils;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * ToolchainStamp.
+ * records the toolchain version and the files parsec-init extracted, so parsec-init can skip
+ * the extraction when the extracted files are still there and untouched.
+ *
+ * The stamp is a plain text file:
+ * <pre>
+ * version {plugin, rdl and generator versions}
+ * digest {sha256 of the version and file lines}
+ * file {size} {last modified millis} {path relative to the stamped directory}
+ * </pre>
+ */
+public class ToolchainStamp {
+
+    private static final String VERSION = "version";
+    private static final String DIGEST = "digest";
+    private static final String FILE = "file";
+
+    /**
+     * the toolchain version.
+     */
+    private final String version;
+
+    /**
+     * relative path to "size last-modified".
+     */
+    private final Map<String, String> files = new TreeMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param version toolchain version
+     */
+    public ToolchainStamp(final String version) {
+        this.version = version;
+    }
+
+    /**
+     * Create stamp of the files under a directory.
+     *
+     * @param version toolchain version
+     * @param dir directory
+     * @param stampFile stamp file, left out of the stamp
+     * @return stamp
+     * @throws IOException IOException
+     */
+    public static ToolchainStamp create(final String version, final Path dir, final File stampFile)
+            throws IOException {
+        final ToolchainStamp stamp = new ToolchainStamp(version);
+        stamp.files.putAll(listFiles(dir, stampFile));
+        return stamp;
+    }
+
+    /**
+     * Load stamp from file, null is returned if the file does not exist or is corrupted.
+     *
+     * @param file stamp file
+     * @return stamp or null
+     * @throws IOException IOException
+     */
+    public static ToolchainStamp load(final File file) throws IOException {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        ToolchainStamp stamp = null;
+        String digest = null;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ", 2);
+                if (VERSION.equals(parts[0]) && parts.length == 2) {
+                    stamp = new ToolchainStamp(parts[1]);
+                } else if (DIGEST.equals(parts[0]) && parts.length == 2) {
+                    digest = parts[1];
+                } else if (FILE.equals(parts[0]) && parts.length == 2 && stamp != null) {
+                    String[] fileParts = parts[1].split(" ", 3);
+                    if (fileParts.length == 3) {
+                        stamp.files.put(fileParts[2], fileParts[0] + " " + fileParts[1]);
+                    }
+                }
+            }
+        }
+        return stamp != null && stamp.getDigest().equals(digest) ? stamp : null;
+    }
+
+    /**
+     * Save stamp to file.
+     *
+     * @param file stamp file
+     * @throws IOException IOException
+     */
+    public void save(final File file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(VERSION + " " + version);
+            writer.newLine();
+            writer.write(DIGEST + " " + getDigest());
+            writer.newLine();
+            for (Map.Entry<String, String> entry : files.entrySet()) {
+                writer.write(FILE + " " + entry.getValue() + " " + entry.getKey());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Check the stamp is of the given version and the stamped files are unchanged.
+     *
+     * @param expectedVersion toolchain version
+     * @param dir directory
+     * @param stampFile stamp file
+     * @return true if up to date
+     * @throws IOException IOException
+     */
+    public boolean isUpToDate(final String expectedVersion, final Path dir, final File stampFile)
+            throws IOException {
+        return version.equals(expectedVersion) && !files.isEmpty() && files.equals(listFiles(dir, stampFile));
+    }
+
+    /**
+     * the version getter.
+     * @return toolchain version
+     */
+    public String getVersion() { return version; }
+
+    private String getDigest() {
+        return DigestUtils.sha256Hex(version + files);
+    }
+
+    private static Map<String, String> listFiles(final Path dir, final File stampFile) throws IOException {
+        final Map<String, String> files = new TreeMap<>();
+        if (!Files.isDirectory(dir)) {
+            return files;
+        }
+        final Path stampPath = stampFile.toPath().toAbsolutePath();
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path filePath, BasicFileAttributes attrs) {
+                if (!filePath.toAbsolutePath().equals(stampPath)) {
+                    files.put(
+                            dir.relativize(filePath).toString(),
+                            attrs.size() + " " + attrs.lastModifiedTime().toMillis()
+                    );
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+}
@@ -0,0 +1,677 @@
+package {packageName}.parsec_generated;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Parsec Json Codec.
+ *
+ * Streaming JSON readers and writers generated for the data objects, registered in ParsecApplication
+ * ahead of MOXy. The data objects with fields of other types are left to MOXy.
+ */
+@SuppressWarnings("unused")
+public final class ParsecJsonCodec {
+
+{names}
+
+    private ParsecJsonCodec() {
+    }
+
+    /**
+     * Get the codec provider classes, one per data object.
+     *
+     * @return codec provider classes
+     */
+    public static Class<?>[] getCodecClasses() {
+        return new Class<?>[] {
+{codecClasses}
+        };
+    }
+
+{codecs}
+
+    private static byte[] name(final String name) {
+        return ("\"" + name + "\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a value.
+     *
+     * @param <T> value type
+     */
+    public interface ValueReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    /**
+     * Writes a non null value.
+     *
+     * @param <T> value type
+     */
+    public interface ValueWriter<T> {
+        void write(JsonWriter writer, T value) throws IOException;
+    }
+
+    /**
+     * JSON message body reader and writer of a data object.
+     *
+     * @param <T> data object type
+     */
+    public abstract static class AbstractCodec<T> implements MessageBodyReader<T>, MessageBodyWriter<T> {
+
+        private final Class<T> type;
+
+        private final ValueReader<T> valueReader;
+
+        private final ValueWriter<T> valueWriter;
+
+        protected AbstractCodec(
+                final Class<T> type, final ValueReader<T> valueReader, final ValueWriter<T> valueWriter) {
+            this.type = type;
+            this.valueReader = valueReader;
+            this.valueWriter = valueWriter;
+        }
+
+        @Override
+        public boolean isReadable(
+                final Class<?> type, final Type genericType, final Annotation[] annotations,
+                final MediaType mediaType) {
+            return this.type == type;
+        }
+
+        @Override
+        public T readFrom(
+                final Class<T> type, final Type genericType, final Annotation[] annotations,
+                final MediaType mediaType, final MultivaluedMap<String, String> httpHeaders,
+                final InputStream entityStream) throws IOException {
+            JsonReader reader = new JsonReader(entityStream);
+            try {
+                // a null entity is rejected, as MOXy does
+                T value = valueReader.read(reader);
+                reader.endOfInput();
+                return value;
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(e.getMessage(), e);
+            }
+        }
+
+        @Override
+        public boolean isWriteable(
+                final Class<?> type, final Type genericType, final Annotation[] annotations,
+                final MediaType mediaType) {
+            return this.type == type;
+        }
+
+        @Override
+        public long getSize(
+                final T value, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                final MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(
+                final T value, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+                final OutputStream entityStream) throws IOException {
+            JsonWriter writer = new JsonWriter(entityStream);
+            if (value == null) {
+                writer.nullValue();
+            } else {
+                valueWriter.write(writer, value);
+            }
+            writer.flush();
+        }
+    }
+
+    /**
+     * Buffered JSON writer, the field names are written as pre-encoded bytes.
+     */
+    public static final class JsonWriter {
+
+        private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+        private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+        private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+
+        private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+
+        private final OutputStream out;
+
+        private final byte[] buffer = new byte[8192];
+
+        private int position;
+
+        private boolean comma;
+
+        public JsonWriter(final OutputStream out) {
+            this.out = out;
+        }
+
+        public void beginObject() throws IOException {
+            beforeValue();
+            writeByte('{');
+            comma = false;
+        }
+
+        public void endObject() throws IOException {
+            writeByte('}');
+            comma = true;
+        }
+
+        public void beginArray() throws IOException {
+            beforeValue();
+            writeByte('[');
+            comma = false;
+        }
+
+        public void endArray() throws IOException {
+            writeByte(']');
+            comma = true;
+        }
+
+        public JsonWriter name(final byte[] name) throws IOException {
+            if (comma) {
+                writeByte(',');
+            }
+            writeBytes(name);
+            comma = false;
+            return this;
+        }
+
+        public <T> void field(final byte[] name, final T value, final ValueWriter<? super T> valueWriter)
+                throws IOException {
+            if (value != null) {
+                name(name);
+                valueWriter.write(this, value);
+            }
+        }
+
+        public <T> void listField(final byte[] name, final List<T> value, final ValueWriter<? super T> valueWriter)
+                throws IOException {
+            if (value != null) {
+                name(name);
+                list(value, valueWriter);
+            }
+        }
+
+        public <T> void list(final List<T> value, final ValueWriter<? super T> valueWriter) throws IOException {
+            beginArray();
+            for (T element : value) {
+                if (element == null) {
+                    nullValue();
+                } else {
+                    valueWriter.write(this, element);
+                }
+            }
+            endArray();
+        }
+
+        public void nullValue() throws IOException {
+            beforeValue();
+            writeBytes(NULL);
+        }
+
+        public void value(final long value) throws IOException {
+            beforeValue();
+            writeAscii(Long.toString(value));
+        }
+
+        public void value(final float value) throws IOException {
+            beforeValue();
+            writeAscii(Float.isNaN(value) || Float.isInfinite(value) ? "null" : Float.toString(value));
+        }
+
+        public void value(final double value) throws IOException {
+            beforeValue();
+            writeAscii(Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value));
+        }
+
+        public void value(final boolean value) throws IOException {
+            beforeValue();
+            writeBytes(value ? TRUE : FALSE);
+        }
+
+        public void stringValue(final String value) throws IOException {
+            beforeValue();
+            writeString(value);
+        }
+
+        public void numberValue(final Number value) throws IOException {
+            if (value instanceof Float) {
+                value(value.floatValue());
+            } else if (value instanceof Double) {
+                value(value.doubleValue());
+            } else {
+                value(value.longValue());
+            }
+        }
+
+        public void booleanValue(final Boolean value) throws IOException {
+            value(value.booleanValue());
+        }
+
+        public void flush() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+            out.flush();
+        }
+
+        private void beforeValue() throws IOException {
+            if (comma) {
+                writeByte(',');
+            }
+            comma = true;
+        }
+
+        private void writeString(final String value) throws IOException {
+            writeByte('"');
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    if (c == '"' || c == '\\') {
+                        writeByte('\\');
+                        writeByte(c);
+                    } else if (c >= 0x20) {
+                        writeByte(c);
+                    } else if (c == '\n') {
+                        writeByte('\\');
+                        writeByte('n');
+                    } else if (c == '\r') {
+                        writeByte('\\');
+                        writeByte('r');
+                    } else if (c == '\t') {
+                        writeByte('\\');
+                        writeByte('t');
+                    } else {
+                        ensure(6);
+                        buffer[position++] = '\\';
+                        buffer[position++] = 'u';
+                        buffer[position++] = '0';
+                        buffer[position++] = '0';
+                        buffer[position++] = HEX[c >> 4];
+                        buffer[position++] = HEX[c & 0xf];
+                    }
+                } else if (c < 0x800) {
+                    ensure(2);
+                    buffer[position++] = (byte) (0xc0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    ensure(4);
+                    buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    writeByte('?');
+                } else {
+                    ensure(3);
+                    buffer[position++] = (byte) (0xe0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+            writeByte('"');
+        }
+
+        private void writeAscii(final String value) throws IOException {
+            int length = value.length();
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) value.charAt(i);
+            }
+        }
+
+        private void writeBytes(final byte[] bytes) throws IOException {
+            if (bytes.length > buffer.length) {
+                out.write(buffer, 0, position);
+                position = 0;
+                out.write(bytes);
+                return;
+            }
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeByte(final int b) throws IOException {
+            ensure(1);
+            buffer[position++] = (byte) b;
+        }
+
+        private void ensure(final int length) throws IOException {
+            if (position + length > buffer.length) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+        }
+    }
+
+    /**
+     * JSON reader over a whole message body, syntax and type errors are IllegalArgumentExceptions.
+     */
+    public static final class JsonReader {
+
+        private final byte[] bytes;
+
+        private final int limit;
+
+        private int position;
+
+        private boolean comma;
+
+        public JsonReader(final InputStream in) throws IOException {
+            byte[] data = new byte[8192];
+            int length = 0;
+            int read;
+            while ((read = in.read(data, length, data.length - length)) != -1) {
+                length += read;
+                if (length == data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+            }
+            this.bytes = data;
+            this.limit = length;
+        }
+
+        public void beginObject() {
+            expect('{');
+            comma = false;
+        }
+
+        public void beginArray() {
+            expect('[');
+            comma = false;
+        }
+
+        /**
+         * Check if the object or array has another member, the closing bracket is consumed if not.
+         *
+         * @param close closing bracket
+         * @return true if there is another member
+         */
+        public boolean hasNext(final char close) {
+            if (peek() == close) {
+                position++;
+                comma = true;
+                return false;
+            }
+            if (comma) {
+                expect(',');
+            }
+            comma = false;
+            return true;
+        }
+
+        public String nextName() {
+            String name = nextString();
+            expect(':');
+            comma = false;
+            return name;
+        }
+
+        /**
+         * Consume a null, if the next value is null.
+         *
+         * @return true if a null was consumed
+         */
+        public boolean nextNull() {
+            if (peek() != 'n') {
+                return false;
+            }
+            literal("null");
+            return true;
+        }
+
+        public String nextString() {
+            if (nextNull()) {
+                return null;
+            }
+            expect('"');
+            int start = position;
+            while (position < limit && bytes[position] != '"' && bytes[position] != '\\') {
+                position++;
+            }
+            if (position < limit && bytes[position] == '"') {
+                comma = true;
+                return new String(bytes, start, position++ - start, StandardCharsets.UTF_8);
+            }
+
+            StringBuilder builder = new StringBuilder(new String(bytes, start, position - start, StandardCharsets.UTF_8));
+            int segment = position;
+            while (true) {
+                if (position >= limit) {
+                    throw error("Unterminated string");
+                }
+                byte b = bytes[position];
+                if (b == '"') {
+                    builder.append(new String(bytes, segment, position - segment, StandardCharsets.UTF_8));
+                    position++;
+                    comma = true;
+                    return builder.toString();
+                }
+                if (b != '\\') {
+                    position++;
+                    continue;
+                }
+                builder.append(new String(bytes, segment, position - segment, StandardCharsets.UTF_8));
+                if (++position >= limit) {
+                    throw error("Unterminated string");
+                }
+                byte escape = bytes[position++];
+                switch (escape) {
+                case '"':
+                case '\\':
+                case '/':
+                    builder.append((char) escape);
+                    break;
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (position + 4 > limit) {
+                        throw error("Unterminated string");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(
+                                new String(bytes, position, 4, StandardCharsets.US_ASCII), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    position += 4;
+                    break;
+                default:
+                    throw error("Invalid escape");
+                }
+                segment = position;
+            }
+        }
+
+        public int nextInt() {
+            long value = nextLong();
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw error("Integer out of range");
+            }
+            return (int) value;
+        }
+
+        public short nextShort() {
+            long value = nextLong();
+            if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                throw error("Short out of range");
+            }
+            return (short) value;
+        }
+
+        public byte nextByte() {
+            long value = nextLong();
+            if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                throw error("Byte out of range");
+            }
+            return (byte) value;
+        }
+
+        public long nextLong() {
+            String number = nextNumber();
+            try {
+                return Long.parseLong(number);
+            } catch (NumberFormatException e) {
+                double value = Double.parseDouble(number);
+                if (value != Math.rint(value) || value < Long.MIN_VALUE || value > Long.MAX_VALUE) {
+                    throw error("Not an integer: " + number);
+                }
+                return (long) value;
+            }
+        }
+
+        public float nextFloat() {
+            return Float.parseFloat(nextNumber());
+        }
+
+        public double nextDouble() {
+            return Double.parseDouble(nextNumber());
+        }
+
+        public boolean nextBoolean() {
+            int c = peek();
+            if (c == '"') {
+                String value = nextString();
+                if ("true".equals(value) || "false".equals(value)) {
+                    return Boolean.parseBoolean(value);
+                }
+                throw error("Not a boolean: " + value);
+            }
+            if (c == 't') {
+                literal("true");
+                return true;
+            }
+            literal("false");
+            return false;
+        }
+
+        public <T> List<T> nextList(final ValueReader<T> valueReader) throws IOException {
+            List<T> list = new ArrayList<>();
+            beginArray();
+            while (hasNext(']')) {
+                list.add(nextNull() ? null : valueReader.read(this));
+            }
+            return list;
+        }
+
+        public void skipValue() {
+            int c = peek();
+            if (c == '{') {
+                beginObject();
+                while (hasNext('}')) {
+                    nextName();
+                    skipValue();
+                }
+            } else if (c == '[') {
+                beginArray();
+                while (hasNext(']')) {
+                    skipValue();
+                }
+            } else if (c == '"') {
+                nextString();
+            } else if (c == 't' || c == 'f') {
+                nextBoolean();
+            } else if (!nextNull()) {
+                nextNumber();
+            }
+        }
+
+        public void endOfInput() {
+            if (peek() != -1) {
+                throw error("Unexpected content after the value");
+            }
+        }
+
+        private String nextNumber() {
+            if (peek() == '"') {
+                return nextString().trim();
+            }
+            int start = position;
+            while (position < limit) {
+                byte b = bytes[position];
+                if ((b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            if (start == position) {
+                throw error("Expected a number");
+            }
+            comma = true;
+            return new String(bytes, start, position - start, StandardCharsets.US_ASCII);
+        }
+
+        private void literal(final String literal) {
+            skipWhitespace();
+            if (!new String(bytes, position, Math.min(literal.length(), limit - position), StandardCharsets.US_ASCII)
+                    .equals(literal)) {
+                throw error("Expected " + literal);
+            }
+            position += literal.length();
+            comma = true;
+        }
+
+        private void expect(final char c) {
+            if (peek() != c) {
+                throw error("Expected '" + c + "'");
+            }
+            position++;
+        }
+
+        private int peek() {
+            skipWhitespace();
+            return position < limit ? bytes[position] : -1;
+        }
+
+        private void skipWhitespace() {
+            while (position < limit) {
+                byte b = bytes[position];
+                if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+        }
+
+        private IllegalArgumentException error(final String message) {
+            return new IllegalArgumentException(message + " at offset " + position + " of the JSON entity");
+        }
+    }
+}
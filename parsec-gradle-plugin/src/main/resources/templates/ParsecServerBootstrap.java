@@ -0,0 +1,252 @@
+package {packageName}.parsec_generated;
+
+import org.eclipse.jetty.server.ConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.BlockingArrayQueue;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.component.LifeCycle;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Parsec Server Bootstrap.
+ *
+ * Creates the Jetty server of the generated servers with the thread pool and the connector set in the parsec
+ * extension, instead of the Jetty defaults. Each setting can be overridden at run time with a system property,
+ * e.g. -Dparsec.server.maxThreads=400. While the server runs, the queue depth and the utilization of its thread
+ * pool are exposed as the com.yahoo.parsec:type=ThreadPool,port=[port] MXBean, and by getThreadPoolStatus.
+ */
+@SuppressWarnings("unused")
+public final class ParsecServerBootstrap {
+
+    /**
+     * the prefix of the system properties that override the settings.
+     */
+    public static final String PROPERTY_PREFIX = "parsec.server.";
+
+    /**
+     * the settings of the parsec extension.
+     */
+    static final int DEFAULT_MIN_THREADS = {minThreads};
+    static final int DEFAULT_MAX_THREADS = {maxThreads};
+    static final int DEFAULT_MAX_QUEUED_REQUESTS = {maxQueuedRequests};
+    static final int DEFAULT_ACCEPTORS = {acceptors};
+    static final int DEFAULT_SELECTORS = {selectors};
+    static final long DEFAULT_IDLE_TIMEOUT = {idleTimeout}L;
+    static final int DEFAULT_OUTPUT_BUFFER_SIZE = {outputBufferSize};
+    static final boolean DEFAULT_HTTP2_CLEARTEXT = {http2Cleartext};
+
+    /**
+     * the idle time after which the threads above the min threads stop, the Jetty default.
+     */
+    private static final int THREAD_IDLE_TIMEOUT = 60000;
+
+    /**
+     * the connection factory of HTTP/2 cleartext, in org.eclipse.jetty.http2:http2-server.
+     */
+    private static final String HTTP2_CLEARTEXT_CONNECTION_FACTORY =
+            "org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory";
+
+    private ParsecServerBootstrap() {
+    }
+
+    /**
+     * Create a server listening on a port.
+     *
+     * @param port port
+     * @return server, not started
+     */
+    public static Server newServer(final int port) {
+        final QueuedThreadPool threadPool = newThreadPool(
+                getInt("minThreads", DEFAULT_MIN_THREADS),
+                getInt("maxThreads", DEFAULT_MAX_THREADS),
+                getInt("maxQueuedRequests", DEFAULT_MAX_QUEUED_REQUESTS));
+        final Server server = new Server(threadPool);
+
+        final HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConfiguration.setOutputBufferSize(getInt("outputBufferSize", DEFAULT_OUTPUT_BUFFER_SIZE));
+        final ServerConnector connector = new ServerConnector(server,
+                getInt("acceptors", DEFAULT_ACCEPTORS), getInt("selectors", DEFAULT_SELECTORS),
+                new HttpConnectionFactory(httpConfiguration));
+        if (getBoolean("http2Cleartext", DEFAULT_HTTP2_CLEARTEXT)) {
+            connector.addConnectionFactory(newHttp2CleartextConnectionFactory(httpConfiguration));
+        }
+        connector.setPort(port);
+        connector.setIdleTimeout(getLong("idleTimeout", DEFAULT_IDLE_TIMEOUT));
+        server.addConnector(connector);
+
+        server.addLifeCycleListener(new ThreadPoolStatusRegistration(threadPool, port));
+        return server;
+    }
+
+    /**
+     * Create the thread pool of a server.
+     *
+     * @param minThreads min threads
+     * @param maxThreads max threads
+     * @param maxQueuedRequests max jobs waiting for a thread, unbounded if not positive
+     * @return thread pool
+     */
+    static QueuedThreadPool newThreadPool(final int minThreads, final int maxThreads, final int maxQueuedRequests) {
+        // the initial capacity and the growth of the queue Jetty uses by default
+        final int capacity = Math.max(minThreads, 8);
+        final BlockingQueue<Runnable> queue = maxQueuedRequests > 0
+                ? new BlockingArrayQueue<Runnable>(Math.min(capacity, maxQueuedRequests), capacity, maxQueuedRequests)
+                : new BlockingArrayQueue<Runnable>(capacity, capacity);
+        final QueuedThreadPool threadPool = new QueuedThreadPool(maxThreads, minThreads, THREAD_IDLE_TIMEOUT, queue);
+        threadPool.setName("parsec-server");
+        return threadPool;
+    }
+
+    private static ConnectionFactory newHttp2CleartextConnectionFactory(final HttpConfiguration httpConfiguration) {
+        try {
+            return (ConnectionFactory) Class.forName(HTTP2_CLEARTEXT_CONNECTION_FACTORY)
+                    .getConstructor(HttpConfiguration.class).newInstance(httpConfiguration);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(
+                    "HTTP/2 cleartext needs org.eclipse.jetty.http2:http2-server on the classpath", e);
+        }
+    }
+
+    private static int getInt(final String name, final int defaultValue) {
+        return Integer.getInteger(PROPERTY_PREFIX + name, defaultValue);
+    }
+
+    private static long getLong(final String name, final long defaultValue) {
+        return Long.getLong(PROPERTY_PREFIX + name, defaultValue);
+    }
+
+    private static boolean getBoolean(final String name, final boolean defaultValue) {
+        final String value = System.getProperty(PROPERTY_PREFIX + name);
+        return value != null ? Boolean.parseBoolean(value) : defaultValue;
+    }
+
+    /**
+     * Get the status of the thread pool of a server.
+     *
+     * @param server server created by newServer
+     * @return thread pool status
+     */
+    public static ThreadPoolMXBean getThreadPoolStatus(final Server server) {
+        final ThreadPool threadPool = server.getThreadPool();
+        if (!(threadPool instanceof QueuedThreadPool)) {
+            throw new IllegalArgumentException("Not a server of ParsecServerBootstrap: " + threadPool);
+        }
+        return new ThreadPoolStatus((QueuedThreadPool) threadPool);
+    }
+
+    /**
+     * The status of the thread pool of a server.
+     */
+    public interface ThreadPoolMXBean {
+
+        /**
+         * @return jobs waiting for a thread
+         */
+        int getQueueDepth();
+
+        /**
+         * @return threads in the pool
+         */
+        int getThreads();
+
+        /**
+         * @return threads running a job, the acceptors and selectors included
+         */
+        int getBusyThreads();
+
+        /**
+         * @return max threads
+         */
+        int getMaxThreads();
+
+        /**
+         * @return busy threads over max threads, from 0 to 1
+         */
+        double getUtilization();
+    }
+
+    private static final class ThreadPoolStatus implements ThreadPoolMXBean {
+
+        private final QueuedThreadPool threadPool;
+
+        ThreadPoolStatus(final QueuedThreadPool threadPool) {
+            this.threadPool = threadPool;
+        }
+
+        @Override
+        public int getQueueDepth() {
+            return threadPool.getQueueSize();
+        }
+
+        @Override
+        public int getThreads() {
+            return threadPool.getThreads();
+        }
+
+        @Override
+        public int getBusyThreads() {
+            return threadPool.getBusyThreads();
+        }
+
+        @Override
+        public int getMaxThreads() {
+            return threadPool.getMaxThreads();
+        }
+
+        @Override
+        public double getUtilization() {
+            return threadPool.getMaxThreads() > 0 ? (double) getBusyThreads() / threadPool.getMaxThreads() : 0;
+        }
+    }
+
+    /**
+     * Registers the status of the thread pool while the server runs.
+     */
+    private static final class ThreadPoolStatusRegistration extends AbstractLifeCycle.AbstractLifeCycleListener {
+
+        private final ThreadPoolStatus status;
+
+        private final int port;
+
+        private ObjectName name;
+
+        ThreadPoolStatusRegistration(final QueuedThreadPool threadPool, final int port) {
+            this.status = new ThreadPoolStatus(threadPool);
+            this.port = port;
+        }
+
+        @Override
+        public void lifeCycleStarted(final LifeCycle event) {
+            try {
+                final ObjectName objectName = new ObjectName("com.yahoo.parsec:type=ThreadPool,port=" + port);
+                ManagementFactory.getPlatformMBeanServer().registerMBean(status, objectName);
+                name = objectName;
+            } catch (JMException e) {
+                System.err.println("*** Cannot register the thread pool status: " + e);
+            }
+        }
+
+        @Override
+        public void lifeCycleStopped(final LifeCycle event) {
+            if (name == null) {
+                return;
+            }
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException e) {
+                System.err.println("*** Cannot unregister the thread pool status: " + e);
+            } finally {
+                name = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package {packageName}.parsec_generated;
+
+import org.glassfish.jersey.server.spi.ValidationInterceptor;
+import org.glassfish.jersey.server.spi.ValidationInterceptorContext;
+
+import javax.validation.Constraint;
+import javax.validation.Valid;
+import javax.validation.ValidationException;
+import javax.validation.groups.ConvertGroup;
+import javax.validation.groups.Default;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Parsec Validators.
+ *
+ * Checks the constraints of the data objects with plain java, one method per data object and validation
+ * group, instead of walking the constraint metadata of Hibernate Validator on each request. The checks
+ * only tell whether the parameters are valid: when one fails, or when a resource method has constraints
+ * they do not cover, the validation goes on to Hibernate Validator, so the constraint violations and the
+ * error response stay the same.
+ */
+@SuppressWarnings("unused")
+public final class ParsecValidators implements ValidationInterceptor {
+
+    /**
+     * data object class to validation group to validator.
+     */
+    private static final Map<Class<?>, Map<Class<?>, Predicate<Object>>> VALIDATORS = new HashMap<>();
+
+    /**
+     * the validators of a resource method that Hibernate Validator has to validate.
+     */
+    @SuppressWarnings("unchecked")
+    private static final Predicate<Object>[] NOT_COVERED = new Predicate[0];
+{patterns}
+
+    static {
+{registrations}
+    }
+
+    /**
+     * resource method to the validator of each parameter, null for the parameters without any.
+     */
+    private final ConcurrentMap<Method, Predicate<Object>[]> parameterValidators = new ConcurrentHashMap<>();
+
+    @Override
+    public void onValidate(final ValidationInterceptorContext context) throws ValidationException {
+        if (!isValid(context)) {
+            context.proceed();
+        }
+    }
+
+    /**
+     * Check the parameters of a resource method with the generated validators.
+     *
+     * @param context validation context
+     * @return true if the parameters are valid, false if they are not or Hibernate Validator has to tell
+     */
+    private boolean isValid(final ValidationInterceptorContext context) {
+        final Predicate<Object>[] validators = parameterValidators.computeIfAbsent(
+                context.getInvocable().getHandlingMethod(),
+                method -> getParameterValidators(context.getResource().getClass(), method));
+        if (validators == NOT_COVERED) {
+            return false;
+        }
+        final Object[] args = context.getArgs();
+        for (int i = 0; i < validators.length; i++) {
+            if (validators[i] != null && args[i] != null && !validators[i].test(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the validators of the parameters of a resource method.
+     *
+     * @param resourceClass resource class
+     * @param method resource method
+     * @return validator of each parameter, NOT_COVERED if the resource or a parameter has constraints
+     *         without a generated validator
+     */
+    @SuppressWarnings("unchecked")
+    private static Predicate<Object>[] getParameterValidators(final Class<?> resourceClass, final Method method) {
+        for (Class<?> type = resourceClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            if (hasConstraints(type)) {
+                return NOT_COVERED;
+            }
+            for (Field field : type.getDeclaredFields()) {
+                if (hasConstraints(field)) {
+                    return NOT_COVERED;
+                }
+            }
+            for (Method declaredMethod : type.getDeclaredMethods()) {
+                if (hasConstraints(declaredMethod)) {
+                    return NOT_COVERED;
+                }
+            }
+        }
+
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        final Annotation[][] parameterAnnotations = method.getParameterAnnotations();
+        final Predicate<Object>[] validators = new Predicate[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            Class<?> group = null;
+            for (Annotation annotation : parameterAnnotations[i]) {
+                if (isConstraint(annotation)) {
+                    return NOT_COVERED;
+                } else if (annotation instanceof Valid) {
+                    group = group != null ? group : Default.class;
+                } else if (annotation instanceof ConvertGroup) {
+                    ConvertGroup convertGroup = (ConvertGroup) annotation;
+                    if (convertGroup.from() != Default.class) {
+                        return NOT_COVERED;
+                    }
+                    group = convertGroup.to();
+                } else if (annotation instanceof ConvertGroup.List) {
+                    return NOT_COVERED;
+                }
+            }
+            if (group != null) {
+                Map<Class<?>, Predicate<Object>> validatorsByGroup = VALIDATORS.get(parameterTypes[i]);
+                validators[i] = validatorsByGroup != null ? validatorsByGroup.get(group) : null;
+                if (validators[i] == null) {
+                    return NOT_COVERED;
+                }
+            }
+        }
+        return validators;
+    }
+
+    /**
+     * Check if an element has constraints or cascades the validation, the group conversions and the
+     * validators of the parameters are told apart by the caller.
+     *
+     * @param element class, field or method
+     * @return true if Hibernate Validator would validate something on the element
+     */
+    private static boolean hasConstraints(final AnnotatedElement element) {
+        for (Annotation annotation : element.getDeclaredAnnotations()) {
+            if (isConstraint(annotation) || annotation instanceof Valid) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConstraint(final Annotation annotation) {
+        Class<? extends Annotation> annotationType = annotation.annotationType();
+        return annotationType.isAnnotationPresent(Constraint.class)
+                || annotationType.getSimpleName().equals("List") && annotationType.getEnclosingClass() != null
+                        && annotationType.getEnclosingClass().isAnnotationPresent(Constraint.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void register(final Class<T> type, final Class<?> group, final Predicate<T> validator) {
+        VALIDATORS.computeIfAbsent(type, key -> new HashMap<>()).put(group, (Predicate<Object>) validator);
+    }
+
+    private static boolean isSize(final CharSequence value, final int min, final int max) {
+        return value == null || value.length() >= min && value.length() <= max;
+    }
+
+    private static boolean isSize(final Collection<?> value, final int min, final int max) {
+        return value == null || value.size() >= min && value.size() <= max;
+    }
+
+    private static boolean isSize(final Map<?, ?> value, final int min, final int max) {
+        return value == null || value.size() >= min && value.size() <= max;
+    }
+
+    private static boolean isNotEmpty(final CharSequence value) {
+        return value != null && value.length() > 0;
+    }
+
+    private static boolean isNotEmpty(final Collection<?> value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static boolean isNotEmpty(final Map<?, ?> value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private static boolean isNotBlank(final CharSequence value) {
+        return value != null && value.toString().trim().length() > 0;
+    }
+
+    private static boolean isMin(final Number value, final long min) {
+        return value == null || value.longValue() >= min;
+    }
+
+    private static boolean isMax(final Number value, final long max) {
+        return value == null || value.longValue() <= max;
+    }
+
+    private static boolean isMatch(final CharSequence value, final Pattern pattern) {
+        return value == null || pattern.matcher(value).matches();
+    }
+
+    /**
+     * Check the digits of a number the way Hibernate Validator does.
+     *
+     * @param value number
+     * @param integer max integer digits
+     * @param fraction max fraction digits
+     * @return true if the number has no more digits than allowed
+     */
+    private static boolean isDigits(final Number value, final int integer, final int fraction) {
+        if (value == null) {
+            return true;
+        }
+        final BigDecimal decimal;
+        try {
+            decimal = value instanceof BigDecimal
+                    ? (BigDecimal) value : new BigDecimal(value.toString()).stripTrailingZeros();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        return integer >= decimal.precision() - decimal.scale() && fraction >= Math.max(decimal.scale(), 0);
+    }
+
+    private static <T> boolean isValid(final T value, final Predicate<T> validator) {
+        return value == null || validator.test(value);
+    }
+
+    private static <T> boolean isValidEach(final Iterable<T> values, final Predicate<T> validator) {
+        if (values != null) {
+            for (T value : values) {
+                if (value != null && !validator.test(value)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static <T> boolean isValidEach(final Map<?, T> values, final Predicate<T> validator) {
+        return values == null || isValidEach(values.values(), validator);
+    }
+
+{validators}
+}
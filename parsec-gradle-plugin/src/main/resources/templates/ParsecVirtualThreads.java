@@ -0,0 +1,103 @@
+package {packageName}.parsec_generated;
+
+import org.glassfish.jersey.server.ManagedAsyncExecutor;
+import org.glassfish.jersey.spi.ExecutorServiceProvider;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Parsec Virtual Threads.
+ *
+ * The generated resource methods are managed async: Jersey suspends the request, releases the container
+ * thread and invokes the resource method on its managed async executor. On JDK 21 and later, the executor
+ * registered here starts a virtual thread for each resource method, so a handler blocked on I/O holds a
+ * virtual thread instead of a container thread. On older JDKs nothing is registered, and Jersey invokes the
+ * resource methods on its default managed async thread pool.
+ */
+@SuppressWarnings("unused")
+public final class ParsecVirtualThreads {
+
+    /**
+     * the first java version with virtual threads out of preview.
+     */
+    private static final int VIRTUAL_THREADS_VERSION = 21;
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor, null if the JDK does not have virtual threads.
+     */
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = getNewVirtualThreadPerTaskExecutor();
+
+    private ParsecVirtualThreads() {
+    }
+
+    /**
+     * Check if the JDK runs virtual threads.
+     *
+     * @return true on JDK 21 and later
+     */
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Get the providers to register in the application.
+     *
+     * @return the virtual thread executor provider, nothing if the JDK does not have virtual threads
+     */
+    public static Set<Class<?>> getProviderClasses() {
+        return isAvailable()
+                ? Collections.<Class<?>>singleton(VirtualThreadExecutorProvider.class)
+                : Collections.<Class<?>>emptySet();
+    }
+
+    /**
+     * Create an executor that starts a virtual thread for each task.
+     *
+     * @return executor
+     * @throws IllegalStateException if the JDK does not have virtual threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!isAvailable()) {
+            throw new IllegalStateException("Virtual threads need JDK " + VIRTUAL_THREADS_VERSION + " or later");
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create a virtual thread executor", e);
+        }
+    }
+
+    private static Method getNewVirtualThreadPerTaskExecutor() {
+        // the version is "1.8" up to java 8, and the feature version since java 9
+        final String[] version = System.getProperty("java.specification.version", "").split("\\.");
+        try {
+            if (Integer.parseInt(version[0]) < VIRTUAL_THREADS_VERSION) {
+                return null;
+            }
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NumberFormatException | NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The managed async executor of Jersey, one virtual thread per resource method.
+     */
+    @ManagedAsyncExecutor
+    public static final class VirtualThreadExecutorProvider implements ExecutorServiceProvider {
+
+        @Override
+        public ExecutorService getExecutorService() {
+            return newVirtualThreadPerTaskExecutor();
+        }
+
+        @Override
+        public void dispose(final ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+}
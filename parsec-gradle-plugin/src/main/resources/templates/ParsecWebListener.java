@@ -33,6 +33,8 @@ public class ParsecWebListener implements ServletContextListener {
         if (null != defaultWebapp) {
             defaultWebapp.addMapping("/*");
             defaultWebapp.setLoadOnStartup(1);
+            // the async and managed async resource methods suspend the request
+            defaultWebapp.setAsyncSupported(true);
         }
 
         ParsecWrapperServlet swaggerServlet = new ParsecWrapperServlet();
@@ -1,7 +1,10 @@
 package com.yahoo.parsec.gradle
 
 import com.yahoo.parsec.gradle.utils.FileUtils
+import com.yahoo.parsec.gradle.utils.GenerateManifest
+import com.yahoo.parsec.gradle.utils.OutputDigests
 import com.yahoo.parsec.gradle.utils.PathUtils
+import org.apache.commons.codec.digest.DigestUtils
 import org.gradle.api.Project
 import org.gradle.api.Task
 import org.gradle.api.logging.Logger
@@ -221,6 +224,559 @@ class ParsecGenerateTest extends Specification {
 
     }
 
+    def "should only regenerate changed RDL files and prune the outputs of removed ones"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            rdlDir.mkdirs()
+            def rdlA = new File(rdlDir, "a.rdl")
+            def rdlB = new File(rdlDir, "b.rdl")
+            rdlA.text = "type A string;"
+            rdlB.text = "type B string;"
+            def invocations = prepareFakeRDL()
+            def fileUtils = getMockFileUtils()
+            passFileUtils(this.task, fileUtils)
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.generateServer = false
+            pluginExtension.generateSwagger = false
+            pluginExtension.generateJson = false
+            def generatedDir = projectDir.absolutePath + "/build/generated-sources/java/com/example"
+
+        when: "first build generates every RDL file"
+            task.executeTask()
+
+        then:
+            invocations.readLines().sort() == ["a.rdl", "b.rdl"]
+            new File(generatedDir, "A.java").exists()
+            new File(generatedDir, "B.java").exists()
+
+        when: "nothing changed"
+            invocations.text = ""
+            task.executeTask()
+
+        then:
+            invocations.text == ""
+
+        when: "one RDL file changed and the other removed"
+            rdlA.text = "type A int32;"
+            rdlB.delete()
+            task.executeTask()
+
+        then:
+            invocations.readLines() == ["a.rdl"]
+            new File(generatedDir, "A.java").text.contains("int32")
+            !new File(generatedDir, "B.java").exists()
+    }
+
+    def "should regenerate a RDL file when a RDL file it includes changed"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            new File(rdlDir, "common").mkdirs()
+            def rdlA = new File(rdlDir, "a.rdl")
+            def common = new File(rdlDir, "common/common.rdl")
+            def types = new File(rdlDir, "common/types.rdl")
+            rdlA.text = 'include "common/common.rdl";\ntype A Common;'
+            common.text = 'include "types.rdl";\ntype Common string;'
+            types.text = "type Id string;"
+            new File(rdlDir, "b.rdl").text = "type B string;"
+            def invocations = prepareFakeRDL()
+            def fileUtils = getMockFileUtils()
+            passFileUtils(this.task, fileUtils)
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.sourceFiles = "a.rdl,b.rdl"
+            pluginExtension.generateServer = false
+            pluginExtension.generateSwagger = false
+            pluginExtension.generateJson = false
+
+        when:
+            task.executeTask()
+
+        then:
+            invocations.readLines().sort() == ["a.rdl", "b.rdl"]
+            GenerateManifest.load(pathUtils.getGenerateManifestFile()).getIncludes("src/main/rdl/a.rdl").keySet() ==
+                    ["src/main/rdl/common/common.rdl", "src/main/rdl/common/types.rdl"] as Set
+
+        when: "a RDL file included through another one changed"
+            invocations.text = ""
+            types.text = "type Id int32;"
+            task.executeTask()
+
+        then: "only the RDL file including it is generated again"
+            invocations.readLines() == ["a.rdl"]
+
+        when: "nothing changed"
+            invocations.text = ""
+            task.executeTask()
+
+        then:
+            invocations.text == ""
+    }
+
+    def "the RDL files of the source path should be inputs of the task, not only the listed ones"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            new File(rdlDir, "common").mkdirs()
+            def rdlA = new File(rdlDir, "a.rdl")
+            def types = new File(rdlDir, "common/types.rdl")
+            rdlA.text = 'include "common/types.rdl";\ntype A Id;'
+            types.text = "type Id string;"
+            new File(rdlDir, "common/README.md").text = "types"
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.sourceFiles = "a.rdl"
+
+        expect: "Gradle snapshots the included file, a change of it makes the task out of date"
+            task.inputs.files.files == [rdlA, types] as Set
+            task.inputs.hasInputs
+    }
+
+    def "parallelGeneration should record the outputs of each RDL file apart"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            rdlDir.mkdirs()
+            new File(rdlDir, "a.rdl").text = "type A string;"
+            new File(rdlDir, "b.rdl").text = "type B string;"
+            prepareFakeRDL()
+            def fileUtils = getMockFileUtils()
+            passFileUtils(this.task, fileUtils)
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.generateServer = false
+            pluginExtension.generateSwagger = false
+            pluginExtension.generateJson = false
+            pluginExtension.parallelGeneration = true
+            def reportFile = new File(projectDir, "build/reports/parsec/generate-report.json")
+
+        when:
+            task.executeTask()
+
+        then:
+            def manifest = GenerateManifest.load(pathUtils.getGenerateManifestFile())
+            manifest.getOutputs("src/main/rdl/a.rdl") == ["generated-sources/java/com/example/A.java"] as Set
+            manifest.getOutputs("src/main/rdl/b.rdl") == ["generated-sources/java/com/example/B.java"] as Set
+            def report = new groovy.json.JsonSlurper().parse(reportFile)
+            report.mode == "parallel"
+            report.jobs.every { it.outputs == 1 }
+            !new File(projectDir, "build").list().any { it.startsWith("parsec-jobs-") }
+    }
+
+    @Unroll
+    def "the generator jobs should resolve the paths relative to their output directory from the generated sources (parallel: #parallel, staged: #staged)"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            rdlDir.mkdirs()
+            new File(rdlDir, "a.rdl").text = "type A string;"
+            prepareFakeRDL()
+            // the server generator writes the handler implementations to ../../../src/main/java from its output
+            def rdl = new File(pathUtils.getRdlBinaryPath())
+            rdl.text = rdl.text + """mkdir -p "\$3/../../../src/main/java/com/example"
+echo impl > "\$3/../../../src/main/java/com/example/\$(echo \$name | tr a-z A-Z)HandlerImpl.java"
+"""
+            def fileUtils = getMockFileUtils()
+            passFileUtils(this.task, fileUtils)
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.generateServer = false
+            pluginExtension.generateSwagger = false
+            pluginExtension.generateJson = false
+            pluginExtension.parallelGeneration = parallel
+            pluginExtension.stagedGeneration = staged
+
+        when:
+            task.executeTask()
+
+        then:
+            new File(projectDir, "src/main/java/com/example/AHandlerImpl.java").text == "impl\n"
+            !new File(projectDir, "build/src").exists()
+            new File(projectDir, "build/generated-sources/java/com/example/A.java").exists()
+
+        where:
+            parallel | staged
+            false    | false
+            true     | false
+            false    | true
+    }
+
+    def "stagedGeneration should only move in changed files and leave the outputs alone if a generator fails"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            rdlDir.mkdirs()
+            def rdlA = new File(rdlDir, "a.rdl")
+            def rdlB = new File(rdlDir, "b.rdl")
+            rdlA.text = "type A string;"
+            rdlB.text = "type B string;"
+            def invocations = prepareFakeRDL()
+            def fileUtils = getMockFileUtils()
+            passFileUtils(this.task, fileUtils)
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.generateServer = false
+            pluginExtension.generateSwagger = false
+            pluginExtension.generateJson = false
+            pluginExtension.parallelGeneration = true
+            pluginExtension.stagedGeneration = true
+            def generatedDir = projectDir.absolutePath + "/build/generated-sources/java/com/example"
+            def stagingDir = new File(projectDir, "build/parsec-staging")
+
+        when: "first build moves every output in"
+            task.executeTask()
+
+        then:
+            invocations.readLines().sort() == ["a.rdl", "b.rdl"]
+            new File(generatedDir, "A.java").text == "type A string;"
+            new File(generatedDir, "B.java").text == "type B string;"
+            !stagingDir.exists()
+
+        when: "one RDL file changed and the generator fails half way"
+            new File(generatedDir, "A.java").setLastModified(1000000000000L)
+            new File(generatedDir, "B.java").setLastModified(1000000000000L)
+            rdlB.text = "type B int32;"
+            def rdl = new File(pathUtils.getRdlBinaryPath())
+            def script = rdl.text
+            rdl.text = script + "exit 1\n"
+            task.executeTask()
+
+        then: "the outputs are the ones of the last good build"
+            thrown(Exception)
+            new File(generatedDir, "B.java").text == "type B string;"
+            new File(generatedDir, "B.java").lastModified() == 1000000000000L
+            !stagingDir.exists()
+
+        when: "the generator works again"
+            rdl.text = script
+            task.executeTask()
+
+        then: "only the changed file is replaced"
+            new File(generatedDir, "B.java").text == "type B int32;"
+            new File(generatedDir, "A.java").lastModified() == 1000000000000L
+            !stagingDir.exists()
+    }
+
+    def "stagedGeneration should record the output digests under the paths the outputs are moved to"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            rdlDir.mkdirs()
+            new File(rdlDir, "a.rdl").text = "type A string;"
+            prepareFakeRDL()
+            def fileUtils = getMockFileUtils()
+            passFileUtils(this.task, fileUtils)
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.generateServer = false
+            pluginExtension.generateJson = false
+            pluginExtension.stagedGeneration = true
+            pathUtils.getDocDir().mkdirs()
+            new File(pathUtils.getDocDir(), "a_swagger.json").text = '{"swagger": "2.0"}'
+            def swaggerIndex = new File(pathUtils.getDocDir(), "_local-swagger-jsons.js")
+
+        when:
+            task.executeTask()
+            def digests = OutputDigests.load(pathUtils.getOutputDigestsFile())
+
+        then:
+            swaggerIndex.isFile()
+            digests.getDigest(swaggerIndex) == DigestUtils.md5Hex(swaggerIndex.bytes)
+            !pathUtils.getOutputDigestsFile().text.contains("parsec-staging")
+    }
+
+    def "stagedGeneration should post process in the staging directory and swap the outputs in once"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            rdlDir.mkdirs()
+            def rdlA = new File(rdlDir, "a.rdl")
+            def rdlB = new File(rdlDir, "b.rdl")
+            rdlA.text = "type A string;"
+            rdlB.text = "type B string;"
+            prepareFakeRDL()
+            def fileUtils = getMockFileUtils()
+            passFileUtils(this.task, fileUtils)
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.generateServer = false
+            pluginExtension.generateJson = false
+            pluginExtension.stagedGeneration = true
+            def generatedDir = projectDir.absolutePath + "/build/generated-sources/java/com/example"
+            def stagedDocPath = new File(projectDir, "build/parsec-staging/doc").path
+
+        when:
+            task.executeTask()
+
+        then: "the swagger index is made from the staged docs"
+            1 * fileUtils.findFiles(stagedDocPath, _)
+            new File(generatedDir, "A.java").exists()
+            new File(generatedDir, "B.java").exists()
+
+        when: "a RDL file changed, another one is removed, and the post processing fails"
+            rdlB.text = "type B int32;"
+            rdlA.delete()
+            task.executeTask()
+
+        then: "the outputs are the ones of the last good build"
+            1 * fileUtils.findFiles(stagedDocPath, _) >> { throw new IOException("swagger index failed") }
+            thrown(Exception)
+            new File(generatedDir, "A.java").exists()
+            new File(generatedDir, "B.java").text == "type B string;"
+            !new File(projectDir, "build/parsec-staging").exists()
+
+        when: "the post processing works again"
+            task.executeTask()
+
+        then:
+            !new File(generatedDir, "A.java").exists()
+            new File(generatedDir, "B.java").text == "type B int32;"
+    }
+
+    def "aggregateGeneration should generate a RDL file shared by several projects once"() throws Exception {
+        given:
+            def invocations = prepareFakeRDL()
+            def children = ["app1", "app2"].collect { name ->
+                def child = new ProjectBuilder().withName(name).withParent(project)
+                        .withProjectDir(new File(projectDir, name)).build()
+                def extension = child.extensions.create("settings", ParsecPluginExtension)
+                def rdlDir = new File(child.projectDir, "src/main/rdl")
+                rdlDir.mkdirs()
+                new File(rdlDir, "a.rdl").text = "type A string;"
+                new File(rdlDir, name + ".rdl").text = "type " + name + " string;"
+                extension.sourcePath = rdlDir.absolutePath
+                extension.generateServer = false
+                extension.generateSwagger = false
+                extension.generateJson = false
+                extension.aggregateGeneration = true
+                def bin = new File(new PathUtils(child, extension).getRdlBinaryPath())
+                bin.parentFile.mkdirs()
+                bin.text = new File(pathUtils.getRdlBinaryPath()).text
+                bin.setExecutable(true)
+                child.task('generateTask', type: ParsecGenerateTask)
+            }
+
+        when:
+            children[0].executeTask()
+
+        then:
+            invocations.readLines().sort() == ["a.rdl", "app1.rdl"]
+
+        when: "the other project generates the shared RDL file"
+            invocations.text = ""
+            children[1].executeTask()
+
+        then: "it is copied from the aggregate store"
+            invocations.readLines() == ["app2.rdl"]
+            new File(projectDir, "app2/build/generated-sources/java/com/example/A.java").text == "type A string;"
+            new File(projectDir, "app2/build/generated-sources/java/com/example/APP2.java").exists()
+            new File(projectDir, "build/parsec/aggregate").list().length == 3
+    }
+
+    def "should write a report of the time and outputs of every generator job"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            rdlDir.mkdirs()
+            new File(rdlDir, "a.rdl").text = "type A string;"
+            new File(rdlDir, "b.rdl").text = "type B string;"
+            prepareFakeRDL()
+            def fileUtils = getMockFileUtils()
+            passFileUtils(this.task, fileUtils)
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.generateServer = false
+            pluginExtension.generateSwagger = false
+            pluginExtension.generateJson = false
+            def reportFile = new File(projectDir, "build/reports/parsec/generate-report.json")
+
+        when:
+            task.executeTask()
+
+        then:
+            def report = new groovy.json.JsonSlurper().parse(reportFile)
+            report.mode == "serial"
+            report.jobs.collect { it.rdlFile }.sort() == ["src/main/rdl/a.rdl", "src/main/rdl/b.rdl"]
+            report.jobs.every { it.generator == "parsec-java-model" && it.exitCode == 0 && it.outputs == 1 }
+            report.phases.keySet().containsAll(["findChangedRdlFiles", "rdlGenerate"])
+    }
+
+    def "parseOnce should parse each RDL file once and feed every generator the cached schema"() throws Exception {
+        given:
+            def rdlDir = new File(projectDir, "src/main/rdl")
+            rdlDir.mkdirs()
+            def rdlA = new File(rdlDir, "a.rdl")
+            def rdlB = new File(rdlDir, "b.rdl")
+            rdlA.text = "type A string;"
+            rdlB.text = "type B string;"
+            def invocations = prepareFakeRDL()
+            def fileUtils = getMockFileUtils()
+            passFileUtils(this.task, fileUtils)
+            setTaskProperties(rdlDir.absolutePath)
+            pluginExtension.generateServer = false
+            pluginExtension.generateSwagger = false
+            pluginExtension.generateJson = false
+            pluginExtension.generateClient = true
+            pluginExtension.parseOnce = true
+            def generatedDir = projectDir.absolutePath + "/build/generated-sources/java/com/example"
+            def schemaCacheDir = new File(projectDir, "build/parsec/schema")
+
+        when: "first build parses every RDL file once"
+            task.executeTask()
+
+        then:
+            invocations.readLines().sort() == ["a.json", "a.json", "b.json", "b.json", "parse a.rdl", "parse b.rdl"]
+            new File(generatedDir, "A.java").text == "type A string;"
+            schemaCacheDir.list().length == 2
+
+        when: "the outputs of an unchanged RDL file are gone"
+            invocations.text = ""
+            new File(generatedDir, "A.java").delete()
+            task.executeTask()
+
+        then: "its cached schema is reused"
+            invocations.readLines() == ["a.json", "a.json"]
+            new File(generatedDir, "A.java").exists()
+
+        when: "one RDL file changed"
+            invocations.text = ""
+            rdlB.text = "type B int32;"
+            task.executeTask()
+
+        then: "only it is parsed again and its stale schema is removed"
+            invocations.readLines() == ["parse b.rdl", "b.json", "b.json"]
+            new File(generatedDir, "B.java").text.contains("int32")
+            schemaCacheDir.list().length == 2
+    }
+
+    def "cache inputs should not depend on the project location"() throws Exception {
+        given:
+            setTaskProperties(new File(projectDir, "src/main/rdl").absolutePath)
+            pluginExtension.additionSwaggerJsonPath = new File(projectDir, "src/main/webapp/doc").absolutePath
+
+        expect:
+            task.getAdditionSwaggerJsonPath() == "src/main/webapp/doc"
+            !task.getGeneratorOptions().toString().contains(projectDir.absolutePath)
+            task.getGeneratorVersion().startsWith("rdl:")
+            task.getPluginVersion() != null
+    }
+
+    def "the task should not be cached or up to date while a file generated into src/main/java is missing"() throws Exception {
+        given:
+            def fileUtils = getMockFileUtils()
+            setTaskProperties(new File(projectDir, "src/main/rdl").absolutePath)
+            def javaDir = new File(projectDir, "src/main/java/com/example")
+            javaDir.mkdirs()
+            ["DefaultResourceContext.java", "DefaultApplication.java", "DefaultWebListener.java"].each {
+                new File(javaDir, it).text = "class " + it
+            }
+
+        expect: "not generated in this workspace yet, the files are looked up by name"
+            !ParsecGenerateWork.isSourceRootFileMissing(pluginExtension, pathUtils, fileUtils)
+
+        when: "the manifest records the files"
+            def manifest = new GenerateManifest("fingerprint")
+            ["DefaultResourceContext.java", "DefaultApplication.java", "DefaultWebListener.java"].each {
+                manifest.addSourceRootFile("src/main/java/com/example/" + it)
+            }
+            manifest.save(pathUtils.getGenerateManifestFile())
+
+        then:
+            !ParsecGenerateWork.isSourceRootFileMissing(pluginExtension, pathUtils, fileUtils)
+            task.outputs.upToDateSpec.isSatisfiedBy(task)
+
+        when: "a recorded file is deleted"
+            new File(javaDir, "DefaultApplication.java").delete()
+
+        then:
+            ParsecGenerateWork.isSourceRootFileMissing(pluginExtension, pathUtils, fileUtils)
+            !task.outputs.upToDateSpec.isSatisfiedBy(task)
+
+        when: "the exception mapper is not recorded nor found"
+            new File(javaDir, "DefaultApplication.java").text = "class DefaultApplication"
+            pluginExtension.handleUncaughtExceptions = true
+
+        then:
+            ParsecGenerateWork.isSourceRootFileMissing(pluginExtension, pathUtils, fileUtils)
+
+        when: "the server is not generated"
+            pluginExtension.generateServer = false
+
+        then:
+            !ParsecGenerateWork.isSourceRootFileMissing(pluginExtension, pathUtils, fileUtils)
+    }
+
+    def "worker parameters should be serializable and resolve the same paths"() throws Exception {
+        given:
+            pluginExtension.sourceFiles = "a.rdl"
+            pluginExtension.useWorkerApi = true
+            def extension = new ParsecPluginExtension(pluginExtension)
+            def bytes = new ByteArrayOutputStream()
+            new ObjectOutputStream(bytes).writeObject([extension, pathUtils.snapshot(extension)])
+
+        when:
+            def params = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject()
+            ParsecPluginExtension copy = params[0]
+            PathUtils copyPathUtils = params[1]
+
+        then:
+            copy.sourceFiles == "a.rdl"
+            copy.useWorkerApi
+            copyPathUtils.getProjectDir() == projectDir
+            copyPathUtils.getGeneratedSourcesDir() == pathUtils.getGeneratedSourcesDir()
+            copyPathUtils.getSchemaCacheDir() == pathUtils.getSchemaCacheDir()
+            copyPathUtils.getBinPath() == pathUtils.getBinPath()
+    }
+
+    def "paths and inputs should follow settings made after the plugin was applied"() throws Exception {
+        given:
+            def appProject = new ProjectBuilder().withProjectDir(testFolder.newFolder("app_project")).build()
+            appProject.pluginManager.apply("java")
+            appProject.pluginManager.apply(ParsecGradlePlugin)
+            def rdlDir = new File(appProject.projectDir, "rdl")
+            rdlDir.mkdirs()
+            new File(rdlDir, "a.rdl").text = "type A string;"
+            ParsecGenerateTask generateTask = appProject.tasks.getByName("parsec-generate")
+
+        when:
+            appProject.buildDir = new File(appProject.projectDir, "out")
+            appProject.extensions.getByType(ParsecPluginExtension).sourcePath = "rdl"
+
+        then:
+            appProject.sourceSets.main.java.srcDirs.contains(new File(appProject.projectDir, "out/generated-sources/java"))
+            generateTask.getGeneratedSourcesDir() == new File(appProject.projectDir, "out/generated-sources/java")
+            generateTask.getRdlFiles().files == [new File(rdlDir, "a.rdl")] as Set
+    }
+
+    def "paths should be resolved from the build directories kept with the task"() throws Exception {
+        given:
+            def appProject = new ProjectBuilder().withProjectDir(testFolder.newFolder("cached_project")).build()
+            appProject.pluginManager.apply("java")
+            appProject.pluginManager.apply(ParsecGradlePlugin)
+            ParsecGenerateTask generateTask = appProject.tasks.getByName("parsec-generate")
+
+        when: "the directories are fixed, as the configuration cache stores them"
+            generateTask.buildDirectory.set(new File(appProject.projectDir, "out"))
+            generateTask.buildDirectory.finalizeValue()
+            generateTask.rootBuildDirectory.finalizeValue()
+            appProject.buildDir = new File(appProject.projectDir, "later")
+
+        then:
+            generateTask.getGeneratedSourcesDir() == new File(appProject.projectDir, "out/generated-sources/java")
+            generateTask.getManifestFile().path.startsWith(new File(appProject.projectDir, "out").path)
+    }
+
+    def "the plugin should not create its tasks until they are needed"() throws Exception {
+        given:
+            def appProject = new ProjectBuilder().withProjectDir(testFolder.newFolder("lazy_project")).build()
+            def created = []
+            appProject.pluginManager.apply("java")
+            appProject.pluginManager.apply(ParsecGradlePlugin)
+            appProject.tasks.withType(AbstractParsecGradleTask).configureEach { created << it.name }
+
+        when: "the project is configured and compileJava is created"
+            appProject.sourceSets.main.java.srcDirs
+            def compileJava = appProject.tasks.getByName("compileJava")
+
+        then:
+            appProject.tasks.names.containsAll(["parsec-init", "parsec-generate"])
+            created.isEmpty()
+
+        when: "the compileJava dependencies are resolved"
+            def dependencies = compileJava.taskDependencies.getDependencies(compileJava)
+            def generateDependencies = appProject.tasks.getByName("parsec-generate").taskDependencies
+                    .getDependencies(appProject.tasks.getByName("parsec-generate"))
+
+        then:
+            dependencies*.name.contains("parsec-generate")
+            generateDependencies*.name == ["parsec-init"]
+            created.sort() == ["parsec-generate", "parsec-init"]
+    }
+
     def "test getter methods"() throws Exception {
         /* Use this to test any getter methods of interest */
 
@@ -292,6 +848,33 @@ class ParsecGenerateTest extends Specification {
         new File(tempDir + "/build/bin/parsec_rdl").setExecutable(true)
     }
 
+    /**
+     * Put a fake rdl binary in place of the real one, it writes one java file per RDL file
+     * and records the RDL files it was invoked with.
+     * @return the file recording the invocations
+     */
+    private File prepareFakeRDL(){
+        def invocations = new File(projectDir, "build/invocations.txt")
+        def rdl = new File(pathUtils.getRdlBinaryPath())
+        rdl.parentFile.mkdirs()
+        invocations.text = ""
+        rdl.text = """#!/bin/sh
+PATH=/bin:/usr/bin
+eval file=\\\${\$#}
+name=\$(basename "\$(basename "\$file" .rdl)" .json)
+if [ "\$4" = json ]; then
+    cp "\$file" "\$3/\$name.json"
+    echo "parse \$(basename "\$file")" >> ${invocations.absolutePath}
+    exit 0
+fi
+mkdir -p "\$3/com/example"
+cp "\$file" "\$3/com/example/\$(echo \$name | tr a-z A-Z).java"
+echo "\$(basename "\$file")" >> ${invocations.absolutePath}
+"""
+        rdl.setExecutable(true)
+        return invocations
+    }
+
     /**
      * Get the string file path of the resource folder with the rdls
      * Will return a random non-existing file path if no resource
@@ -2,6 +2,7 @@ package com.yahoo.parsec.gradle
 
 import com.yahoo.parsec.gradle.utils.FileUtils
 import com.yahoo.parsec.gradle.utils.PathUtils
+import com.yahoo.parsec.gradle.utils.ToolchainStamp
 import org.gradle.api.Project
 import org.gradle.api.Task
 import org.gradle.api.logging.Logger
@@ -110,6 +111,26 @@ class ParsecInitializationTest extends Specification {
 
     }
 
+    def "should skip the extraction if the toolchain stamp is up to date"() throws Exception {
+        given:
+            Logger mockLog = Mock()
+            FileUtils fileUtils = Spy(FileUtils, constructorArgs: [mockLog])
+            task.setFileUtils(fileUtils)
+            def binDir = new File(pathUtils.getBinPath())
+            binDir.mkdirs()
+            new File(binDir, pathUtils.RDL_BINARY).text = "rdl"
+            ToolchainStamp.create(task.getToolchainVersion(), binDir.toPath(), pathUtils.getToolchainStampFile())
+                    .save(pathUtils.getToolchainStampFile())
+
+        when:
+            task.executeTask()
+
+        then:
+            0 * fileUtils.getFileFromResource(_)
+            0 * fileUtils.unTarZip("/rdl-bin/rdl.tgz", _, _)
+            0 * fileUtils.writeResourceAsExecutable(_, _)
+    }
+
     def "should unzip parsec_bin"() throws Exception {
         when:
             task.executeTask()
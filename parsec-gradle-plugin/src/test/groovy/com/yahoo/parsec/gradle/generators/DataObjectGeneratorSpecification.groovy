@@ -0,0 +1,55 @@
+package com.yahoo.parsec.gradle.generators
+
+import com.yahoo.parsec.gradle.utils.FileUtils
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import java.nio.file.Path
+
+/**
+ * The fixture of the generators that read the generated data objects.
+ */
+abstract class DataObjectGeneratorSpecification extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    ParsecGeneratorUtil generatorUtil
+    FileUtils fileUtils
+
+    def setup(){
+        generatorUtil = Mock()
+        fileUtils = Spy(FileUtils)
+        generatorUtil.getIntersectPackageName(_) >> "java.com.example"
+    }
+
+    def getPackageStruct(Path generatedSourceRoot){
+        return new ParsecPackageResolver(generatorUtil, fileUtils).resolve(
+                testFolder.root, "src/main", generatedSourceRoot, "parsec_generated")
+    }
+
+    /**
+     * Write a data object the way the RDL generator does, the annotations are imported by their simple names.
+     */
+    def writeDataObject(Path dir, String name, String fields, String accessors){
+        dir.resolve(name + ".java").text = """package com.example.parsec_generated;
+
+import java.util.List;
+import java.util.Map;
+import javax.validation.Valid;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import javax.validation.groups.ConvertGroup;
+import javax.validation.groups.Default;
+
+public final class ${name} implements java.io.Serializable {
+${fields}
+    public ${name}() { }
+${accessors}
+}
+"""
+    }
+}
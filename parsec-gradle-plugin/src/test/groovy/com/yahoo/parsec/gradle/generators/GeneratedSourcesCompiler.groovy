@@ -0,0 +1,64 @@
+package com.yahoo.parsec.gradle.generators
+
+import javax.tools.DiagnosticCollector
+import javax.tools.JavaFileObject
+import javax.tools.ToolProvider
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+
+/**
+ * Compiles generated sources against the test classpath, for the tests that run the generated code.
+ */
+class GeneratedSourcesCompiler {
+
+    static final Path SAMPLE_DIR = Paths.get("./src/test/resources/generated-sources/java/com/example/parsec_generated")
+
+    /**
+     * Copy the sample sources of the RDL generator to compile.
+     *
+     * @param dir directory of the com.example.parsec_generated package
+     * @param names class names
+     */
+    static void copySampleSources(Path dir, String... names) {
+        names.each {
+            def source = SAMPLE_DIR.resolve(it + ".java").text
+            if (it == "User") {
+                // the reflection equals and hash code of commons-lang3 are not on the test classpath
+                source = source.replaceAll(/import org\.apache\.commons\.lang3\.builder\.\w+;/, "")
+                        .replaceAll(/(?s)\s*@Override\s+public int hashCode\(\).*(?=}\s*$)/, "\n")
+            }
+            dir.resolve(it + ".java").text = source
+        }
+    }
+
+    /**
+     * Compile every java file under a source root.
+     *
+     * @param sourceRoot source root
+     * @param outputDir class output directory
+     * @return class loader of the compiled classes, on top of the test classpath
+     */
+    static ClassLoader compile(Path sourceRoot, Path outputDir) {
+        def compiler = ToolProvider.getSystemJavaCompiler()
+        assert compiler != null: "the tests that compile the generated sources need a JDK"
+        def sources = []
+        Files.walk(sourceRoot).withCloseable { paths ->
+            paths.filter { it.toString().endsWith(".java") }.forEach { sources.add(it.toFile()) }
+        }
+        Files.createDirectories(outputDir)
+        def diagnostics = new DiagnosticCollector<JavaFileObject>()
+        def fileManager = compiler.getStandardFileManager(diagnostics, null, null)
+        try {
+            def compiled = compiler.getTask(null, fileManager, diagnostics,
+                    ["-classpath", System.getProperty("java.class.path"), "-d", outputDir.toString(),
+                     "-source", "8", "-target", "8", "-nowarn"],
+                    null, fileManager.getJavaFileObjectsFromFiles(sources)).call()
+            assert compiled: diagnostics.diagnostics.findAll { it.kind == javax.tools.Diagnostic.Kind.ERROR }
+                    .collect { it.toString() }.join("\n")
+        } finally {
+            fileManager.close()
+        }
+        return new URLClassLoader([outputDir.toUri().toURL()] as URL[], GeneratedSourcesCompiler.classLoader)
+    }
+}
@@ -0,0 +1,79 @@
+package com.yahoo.parsec.gradle.generators
+
+import org.eclipse.persistence.jaxb.BeanValidationMode
+import org.eclipse.persistence.jaxb.MarshallerProperties
+import org.glassfish.jersey.internal.MapPropertiesDelegate
+import org.glassfish.jersey.moxy.json.MoxyJsonConfig
+import org.glassfish.jersey.moxy.json.MoxyJsonFeature
+import org.glassfish.jersey.server.ApplicationHandler
+import org.glassfish.jersey.server.ContainerRequest
+import org.glassfish.jersey.server.ResourceConfig
+
+/**
+ * A Jersey application with the MOXy setup of the generated ParsecApplication, handling the requests in memory,
+ * for the tests that run the generated code.
+ */
+class InMemoryApplication {
+
+    /**
+     * A response.
+     */
+    static class Response {
+        int status
+        String body
+    }
+
+    final ApplicationHandler handler
+
+    /**
+     * @param resources resource class
+     * @param providers the providers registered ahead of MOXy, as ParsecApplication does
+     */
+    InMemoryApplication(Class<?> resources, Class<?>... providers) {
+        this(new ResourceConfig(resources).registerClasses(providers))
+    }
+
+    /**
+     * @param config resource config, with the resources, the providers and the binders
+     */
+    InMemoryApplication(ResourceConfig config) {
+        config.register(MoxyJsonFeature)
+                .register(new MoxyJsonConfig()
+                        .property(MarshallerProperties.BEAN_VALIDATION_MODE, BeanValidationMode.NONE).resolver())
+        handler = new ApplicationHandler(config)
+    }
+
+    /**
+     * Get a resource.
+     *
+     * @param path path
+     * @return response
+     */
+    Response get(String path) {
+        return request("GET", path, null)
+    }
+
+    /**
+     * Post a JSON body.
+     *
+     * @param path path
+     * @param body JSON body
+     * @return response
+     */
+    Response post(String path, String body) {
+        return request("POST", path, body)
+    }
+
+    private Response request(String method, String path, String body) {
+        def request = new ContainerRequest(URI.create("http://localhost/"), URI.create("http://localhost" + path),
+                method, null, new MapPropertiesDelegate())
+        request.headers.putSingle("Accept", "application/json")
+        if (body != null) {
+            request.headers.putSingle("Content-Type", "application/json")
+            request.entityStream = new ByteArrayInputStream(body.getBytes("UTF-8"))
+        }
+        def output = new ByteArrayOutputStream()
+        def response = handler.apply(request, output).get()
+        return new Response(status: response.status, body: output.toString("UTF-8"))
+    }
+}
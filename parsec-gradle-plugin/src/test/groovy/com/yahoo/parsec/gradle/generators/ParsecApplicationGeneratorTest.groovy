@@ -56,4 +56,58 @@ class ParsecApplicationGeneratorTest extends Specification {
 
     }
 
+    @Unroll
+    def "generateParsecApplication(registerJsonCodecs: #registerJsonCodecs) should register the json codecs if asked"(){
+        when:
+        getApplicationGenerator().generateParsecApplication(new ParsecApplicationOptions(registerJsonCodecs: registerJsonCodecs))
+
+        then:
+        1 * generatorUtil.generateFromTemplateTo(
+                "ParsecApplication.java", "java.com.example",
+                "./src/test/resources/generated-sources/java/com/example/parsec_generated",
+                _ as Map<String, String>, true) >> { dummy1, dummy2, dummy3, materials, overwrite ->
+            assert registerJsonCodecs == materials.get("{register}")
+                    .contains("registerClasses(ParsecJsonCodec.getCodecClasses());")
+        }
+
+        where:
+            registerJsonCodecs << [ false, true ]
+    }
+
+    @Unroll
+    def "generateParsecApplication(registerValidators: #registerValidators) should register the validators if asked"(){
+        when:
+        getApplicationGenerator().generateParsecApplication(new ParsecApplicationOptions(registerValidators: registerValidators))
+
+        then:
+        1 * generatorUtil.generateFromTemplateTo(
+                "ParsecApplication.java", "java.com.example",
+                "./src/test/resources/generated-sources/java/com/example/parsec_generated",
+                _ as Map<String, String>, true) >> { dummy1, dummy2, dummy3, materials, overwrite ->
+            assert registerValidators == materials.get("{register}").contains("register(ParsecValidators.class);")
+        }
+
+        where:
+            registerValidators << [ false, true ]
+    }
+
+    @Unroll
+    def "generateParsecApplication(registerVirtualThreads: #registerVirtualThreads) should register the virtual thread executor if asked"(){
+        when:
+        getApplicationGenerator().generateParsecApplication(
+                new ParsecApplicationOptions(registerVirtualThreads: registerVirtualThreads))
+
+        then:
+        1 * generatorUtil.generateFromTemplateTo(
+                "ParsecApplication.java", "java.com.example",
+                "./src/test/resources/generated-sources/java/com/example/parsec_generated",
+                _ as Map<String, String>, true) >> { dummy1, dummy2, dummy3, materials, overwrite ->
+            assert registerVirtualThreads == materials.get("{register}")
+                    .contains("registerClasses(ParsecVirtualThreads.getProviderClasses());")
+        }
+
+        where:
+            registerVirtualThreads << [ false, true ]
+    }
+
 }
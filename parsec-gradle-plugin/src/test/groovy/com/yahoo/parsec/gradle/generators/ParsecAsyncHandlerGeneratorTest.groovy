@@ -0,0 +1,194 @@
+package com.yahoo.parsec.gradle.generators
+
+import com.yahoo.parsec.gradle.utils.FileUtils
+import groovy.json.JsonSlurper
+import org.glassfish.hk2.utilities.binding.AbstractBinder
+import org.glassfish.jersey.server.ResourceConfig
+import org.gradle.api.logging.Logger
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.Method
+import java.lang.reflect.Proxy
+import java.nio.file.Files
+import java.nio.file.Paths
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionStage
+
+/**
+ * Parsec Async Handler Generator Unit Test
+ */
+class ParsecAsyncHandlerGeneratorTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    static final String SAMPLE_DIR = "./src/test/resources/generated-sources/java/com/example/parsec_generated/"
+
+    def "toAsyncResource() should resume an AsyncResponse with the result or the typed exception"(){
+        given:
+            def asyncMethods = new LinkedHashSet<String>()
+
+        when:
+            def resource = ParsecAsyncHandlerGenerator.toAsyncResource(
+                    new File(SAMPLE_DIR + "SampleResources.java").text, asyncMethods)
+
+        then:
+            asyncMethods as List == ["getUser", "postUser", "putUser"]
+            resource.contains("import java.util.concurrent.CompletionException;")
+            resource.contains("""    public void getUser(
+        @Suspended final AsyncResponse _asyncResponse,
+        @PathParam("id") Integer id
+    ) {""")
+            resource.contains("            _delegate.putUser(context, id, user).whenComplete((_result, _error) -> {")
+            resource.contains("                    _asyncResponse.resume(_result);")
+            resource.contains("            _asyncResponse.resume(postUserException(e));")
+            resource.contains("    Throwable postUserException(Throwable error) {")
+            resource.contains("""        case ResourceException.BAD_REQUEST:
+            return typedException(code, e, ResourceError.class);""")
+            !resource.contains("throw typedException")
+            !resource.contains("return e;")
+    }
+
+    def "toAsyncResource() should leave the resource methods it does not recognize"(){
+        given:
+            def asyncMethods = new LinkedHashSet<String>()
+            def source = """package a;
+
+public class CustomResources {
+    public String get(
+    ) {
+        return _delegate.get(context);
+    }
+}
+"""
+
+        expect:
+            ParsecAsyncHandlerGenerator.toAsyncResource(source, asyncMethods) == source
+            asyncMethods.isEmpty()
+    }
+
+    def "toAsyncHandler() should make the async methods return a CompletionStage"(){
+        when:
+            def handler = ParsecAsyncHandlerGenerator.toAsyncHandler(
+                    new File(SAMPLE_DIR + "SampleHandler.java").text, ["getUser", "postUser"] as Set)
+
+        then:
+            handler.contains("import java.util.concurrent.CompletionStage;")
+            handler.contains("    public CompletionStage<User> getUser(ResourceContext context, Integer id);")
+            handler.contains("    public CompletionStage<String> postUser(ResourceContext context, User user);")
+            handler.contains("    public String putUser(ResourceContext context, Integer id, User user);")
+            handler.contains("    public ResourceContext newResourceContext(")
+            ParsecAsyncHandlerGenerator.toAsyncHandler(handler, ["getUser", "postUser"] as Set) == handler
+    }
+
+    def "generateAsyncHandlers() should rewrite the resources and their handlers once"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            ["SampleResources.java", "SampleHandler.java", "User.java"].each {
+                Files.copy(Paths.get(SAMPLE_DIR + it), dir.resolve(it))
+            }
+            def fileUtils = new FileUtils(Mock(Logger))
+            def generatorUtil = Mock(ParsecGeneratorUtil)
+            generatorUtil.getIntersectPackageName(_) >> "com.example"
+            def packageStruct = new ParsecPackageResolver(generatorUtil, fileUtils).resolve(
+                    testFolder.root, "src/main", testFolder.root.toPath().resolve("generated-sources"),
+                    "parsec_generated")
+            def generator = new ParsecAsyncHandlerGenerator(packageStruct, fileUtils)
+
+        when:
+            def syncMethods = generator.generateAsyncHandlers()
+            def resource = dir.resolve("SampleResources.java").text
+            def handler = dir.resolve("SampleHandler.java").text
+            generator.generateAsyncHandlers()
+
+        then:
+            syncMethods.isEmpty()
+            resource.contains("public void getUser(")
+            handler.contains("public CompletionStage<User> getUser(ResourceContext context, Integer id);")
+            dir.resolve("SampleResources.java").text == resource
+            dir.resolve("SampleHandler.java").text == handler
+    }
+
+    def "generateAsyncHandlers() should report the resource methods left synchronous"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            dir.resolve("SampleResources.java").text = new File(SAMPLE_DIR + "SampleResources.java").text.replace(
+                    "    WebApplicationException typedException(", """    @GET
+    @Path("/ping")
+    public String ping() {
+        return _delegate.ping();
+    }
+
+    WebApplicationException typedException(""")
+            Files.copy(Paths.get(SAMPLE_DIR + "SampleHandler.java"), dir.resolve("SampleHandler.java"))
+
+        expect:
+            getGenerator().generateAsyncHandlers() == ["com.example.parsec_generated.SampleResources": ["ping"] as Set]
+            ParsecAsyncHandlerGenerator.findSyncMethods(
+                    new File(SAMPLE_DIR + "SampleResources.java").text) as List == ["getUser", "postUser", "putUser"]
+    }
+
+    @Unroll
+    def "the rewritten resources and handlers should compile and resume the response of user #id with the handler stage"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            GeneratedSourcesCompiler.copySampleSources(dir,
+                    "SampleResources", "SampleHandler", "ResourceContext", "ResourceException", "ResourceError", "User")
+            dir.resolve("ParsecValidationGroups.java").text = new ParsecGeneratorUtil(new FileUtils(Mock(Logger)))
+                    .renderTemplate("ParsecValidationGroups.java", "com.example",
+                            ["{validationGroups}": "    public interface Insert { }\n    public interface Update { }\n"])
+            getGenerator().generateAsyncHandlers()
+            def classLoader = GeneratedSourcesCompiler.compile(
+                    testFolder.root.toPath().resolve("generated-sources"), testFolder.root.toPath().resolve("classes"))
+            def handlerClass = classLoader.loadClass("com.example.parsec_generated.SampleHandler")
+            def userClass = classLoader.loadClass("com.example.parsec_generated.User")
+            def exceptionClass = classLoader.loadClass("com.example.parsec_generated.ResourceException")
+            def handler = Proxy.newProxyInstance(classLoader, [handlerClass] as Class[],
+                    { proxy, Method method, Object[] args ->
+                        if (method.name != "getUser") {
+                            return null
+                        }
+                        switch (args[1]) {
+                            case 1: return CompletableFuture.completedFuture(userClass.newInstance().setName("alice"))
+                            case 2: return CompletableFuture.supplyAsync { userClass.newInstance().setName("bob") }
+                            case 3: return CompletableFuture.supplyAsync { throw exceptionClass.newInstance(403) }
+                            default: throw exceptionClass.newInstance(401)
+                        }
+                    } as InvocationHandler)
+            def application = new InMemoryApplication(new ResourceConfig(
+                    classLoader.loadClass("com.example.parsec_generated.SampleResources")).register(new AbstractBinder() {
+                @Override
+                protected void configure() {
+                    bind(handler).to(handlerClass)
+                }
+            }))
+
+        expect:
+            handlerClass.getMethod("getUser", classLoader.loadClass("com.example.parsec_generated.ResourceContext"),
+                    Integer).returnType == CompletionStage
+            def response = application.get("/sample/v1/users/" + id)
+            response.status == status
+            !name || new JsonSlurper().parseText(response.body).name == name
+
+        where: "a ResourceException thrown by the handler or completing its stage is mapped to the typed error"
+            id | status | name
+            1  | 200    | "alice"
+            2  | 200    | "bob"
+            3  | 403    | null
+            4  | 401    | null
+    }
+
+    def getGenerator(){
+        def fileUtils = new FileUtils(Mock(Logger))
+        def generatorUtil = Mock(ParsecGeneratorUtil)
+        generatorUtil.getIntersectPackageName(_) >> "com.example"
+        def packageStruct = new ParsecPackageResolver(generatorUtil, fileUtils).resolve(
+                testFolder.root, "src/main", testFolder.root.toPath().resolve("generated-sources/java"),
+                "parsec_generated")
+        return new ParsecAsyncHandlerGenerator(packageStruct, fileUtils)
+    }
+}
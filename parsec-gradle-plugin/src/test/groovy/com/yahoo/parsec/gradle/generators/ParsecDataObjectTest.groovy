@@ -0,0 +1,54 @@
+package com.yahoo.parsec.gradle.generators
+
+import spock.lang.Specification
+
+import java.nio.file.Paths
+
+/**
+ * Parsec Data Object Unit Test
+ */
+class ParsecDataObjectTest extends Specification {
+
+    def "parse() should read the fields, accessors and annotations of a generated data object"(){
+        when:
+            def dataObject = ParsecDataObject.parse(
+                    Paths.get("./src/test/resources/generated-sources/java/com/example/parsec_generated/User.java"))
+
+        then:
+            dataObject.qualifiedName == "com.example.parsec_generated.User"
+            dataObject.instantiable
+            !dataObject.customBinding
+            dataObject.fields*.name == ["name", "occupation", "age", "id", "salary"]
+            dataObject.fields*.type == ["String", "String", "int", "String", "Double"]
+            dataObject.fields*.getter == ["getName", "getOccupation", "getAge", "getId", "getSalary"]
+            dataObject.fields*.setter == ["setName", "setOccupation", "setAge", "setId", "setSalary"]
+            dataObject.fields[0].annotations.startsWith("@NotNull(")
+            dataObject.fields[0].annotations.contains("@Size(")
+            dataObject.fields[2].annotations == ""
+            dataObject.resolveType("List") == "java.util.List"
+            dataObject.resolveType("Address") == "com.example.parsec_generated.Address"
+    }
+
+    def "parse() should tell the data objects that cannot be instantiated or bind with annotations"(){
+        when:
+            def dataObject = ParsecDataObject.parse(Paths.get("A.java"), """package a;
+@XmlRootElement
+public class A {
+    private static final long serialVersionUID = 1L;
+    private Map<String, List<Integer>> values;
+    public A(int i) { }
+    public Map<String, List<Integer>> getValues() { return values; }
+    public void setValues(Map<String, List<Integer>> values) { this.values = values; }
+}
+""")
+
+        then:
+            !dataObject.instantiable
+            dataObject.customBinding
+            dataObject.annotations == "@XmlRootElement"
+            dataObject.fields*.name == ["values"]
+            dataObject.fields[0].type == "Map<String,List<Integer>>"
+            dataObject.fields[0].setter == "setValues"
+            dataObject.fields[0].propertyName == "values"
+    }
+}
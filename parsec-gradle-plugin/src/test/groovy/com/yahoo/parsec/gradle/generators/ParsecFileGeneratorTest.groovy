@@ -115,6 +115,17 @@ class ParsecFileGeneratorTest extends Specification {
 
     }
 
+    def "generateParsecApplication(options) should pass the options to the application generator"() {
+        given:
+            def options = new ParsecApplicationOptions(handleUncaughtException: true, registerValidators: true)
+
+        when:
+            getGenerator().generateParsecApplication(options)
+
+        then:
+            1 * applicationGenerator.generateParsecApplication(options)
+    }
+
     def "generateParsecValidationGroups() should be generated by validation groups generator"() {
         when:
             getGenerator().generateParsecValidationGroups()
@@ -107,6 +107,22 @@ class ParsecGeneratorUtilTest extends Specification{
             "ParsecApplication.java"  | "com"               | "/tmp/yahoo"
     }
 
+    @Unroll
+    def "renderTemplate(#templateName) should render the same as replacing each placeholder in turn"() {
+        given:
+            def materials = ["{imports}": "import com.example.A;", "{binding}": "bind(A.class);",
+                             "{register}": "register(A.class);", "{validationGroups}": "    public interface Insert { }"]
+            def expected = getClass().getResourceAsStream("/templates/" + templateName).text
+                    .replace("{packageName}", "com.example")
+            materials.each { key, value -> expected = expected.replace(key, value) }
 
+        expect:
+            getGeneratorUtil().renderTemplate(templateName, "com.example", materials) == expected
+            getGeneratorUtil().getTemplate(templateName).is(getGeneratorUtil().getTemplate(templateName))
 
+        where:
+            templateName << ["DefaultApplication.java", "DefaultExceptionMapper.java", "DefaultResourceContext.java",
+                             "DefaultWebListener.java", "ParsecApplication.java", "ParsecExceptionMapper.java",
+                             "ParsecValidationGroups.java", "ParsecWebListener.java", "ParsecWrapperServlet.java"]
+    }
 }
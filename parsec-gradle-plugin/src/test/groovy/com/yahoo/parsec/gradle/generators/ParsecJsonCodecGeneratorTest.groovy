@@ -0,0 +1,230 @@
+package com.yahoo.parsec.gradle.generators
+
+import spock.lang.Unroll
+
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+
+/**
+ * Parsec Json Codec Generator Unit Test
+ */
+class ParsecJsonCodecGeneratorTest extends DataObjectGeneratorSpecification {
+
+    def getGenerator(Path generatedSourceRoot){
+        return new ParsecJsonCodecGenerator(getPackageStruct(generatedSourceRoot), generatorUtil)
+    }
+
+    def "generateParsecJsonCodec() should generate a codec for each data object next to ParsecApplication"(){
+        when:
+            getGenerator(Paths.get("./src/test/resources/generated-sources")).generateParsecJsonCodec()
+
+        then:
+        1 * generatorUtil.generateFromTemplateTo("ParsecJsonCodec.java", "java.com.example",
+                "./src/test/resources/generated-sources/java/com/example/parsec_generated",
+                _ as Map<String, String>, true) >> { dummy1, dummy2, dummy3, materials, overwrite ->
+            assert materials.get("{names}").contains('private static final byte[] USER_NAME = name("name");')
+            assert materials.get("{names}").contains('private static final byte[] USER_SALARY = name("salary");')
+            assert materials.get("{codecClasses}").trim() == "UserCodec.class,"
+            def codecs = materials.get("{codecs}")
+            assert codecs.contains("public static final class UserCodec extends AbstractCodec<com.example.parsec_generated.User>")
+            assert codecs.contains("writer.field(USER_NAME, value.getName(), JsonWriter::stringValue);")
+            assert codecs.contains("writer.name(USER_AGE).value(value.getAge());")
+            assert codecs.contains("writer.field(USER_SALARY, value.getSalary(), JsonWriter::numberValue);")
+            assert codecs.contains("value.setSalary(reader.nextDouble());")
+        }
+    }
+
+    def "getCodecDataObjects() should leave the data objects with unsupported fields and the ones using them to MOXy"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            Files.write(dir.resolve("SampleResources.java"), "package com.example.parsec_generated;".bytes)
+            writeDataObject(dir, "Team", """
+    private List<Member> members;
+""", """
+    public List<Member> getMembers() { return members; }
+    public Team setMembers(List<Member> members) { this.members = members; return this; }
+""")
+            writeDataObject(dir, "Ranking", """
+    private Map<String, Integer> scores;
+""", """
+    public Map<String, Integer> getScores() { return scores; }
+    public Ranking setScores(Map<String, Integer> scores) { this.scores = scores; return this; }
+""")
+            writeDataObject(dir, "Member", """
+    private String name;
+""", """
+    public String getName() { return name; }
+    public Member setName(String name) { this.name = name; return this; }
+""")
+            writeDataObject(dir, "Event", """
+    private Color color;
+""", """
+    public Color getColor() { return color; }
+    public Event setColor(Color color) { this.color = color; return this; }
+""")
+            writeDataObject(dir, "Calendar", """
+    private List<Event> events;
+""", """
+    public List<Event> getEvents() { return events; }
+    public Calendar setEvents(List<Event> events) { this.events = events; return this; }
+""")
+            writeDataObject(dir, "ReadOnly", """
+    private String name;
+""", """
+    public String getName() { return name; }
+""")
+
+        when:
+            def generator = getGenerator(testFolder.root.toPath().resolve("generated-sources"))
+            def dataObjects = generator.getCodecDataObjects()
+            def materials = generator.getReplaceMaterials()
+
+        then:
+            dataObjects.keySet() as List == ["com.example.parsec_generated.Member", "com.example.parsec_generated.Team"]
+            materials.get("{codecs}").contains(
+                    "writer.listField(TEAM_MEMBERS, value.getMembers(), ParsecJsonCodec::writeMember);")
+            materials.get("{codecs}").contains("value.setMembers(reader.nextList(ParsecJsonCodec::readMember));")
+            !materials.get("{codecs}").contains("Ranking")
+    }
+
+    @Unroll
+    def "the generated codec should read and write the data objects like MOXy: #body"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            writeDataObject(dir, "User", """
+    private String name;
+    private int age;
+    private Double salary;
+    private boolean active;
+    private List<String> tags;
+    private Address address;
+""", """
+    public String getName() { return name; }
+    public int getAge() { return age; }
+    public Double getSalary() { return salary; }
+    public boolean getActive() { return active; }
+    public List<String> getTags() { return tags; }
+    public Address getAddress() { return address; }
+    public User setName(String name) { this.name = name; return this; }
+    public User setAge(int age) { this.age = age; return this; }
+    public User setSalary(Double salary) { this.salary = salary; return this; }
+    public User setActive(boolean active) { this.active = active; return this; }
+    public User setTags(List<String> tags) { this.tags = tags; return this; }
+    public User setAddress(Address address) { this.address = address; return this; }
+""")
+            writeDataObject(dir, "Ranking", """
+    private Map<String, Integer> scores;
+""", """
+    public Map<String, Integer> getScores() { return scores; }
+    public Ranking setScores(Map<String, Integer> scores) { this.scores = scores; return this; }
+""")
+            writeDataObject(dir, "Address", """
+    private String city;
+    private long zip;
+""", """
+    public String getCity() { return city; }
+    public long getZip() { return zip; }
+    public Address setCity(String city) { this.city = city; return this; }
+    public Address setZip(long zip) { this.zip = zip; return this; }
+""")
+            def classLoader = compileWithResources(dir)
+            def resources = classLoader.loadClass("com.example.parsec_generated.UserResources")
+            def codecClasses = classLoader.loadClass("com.example.parsec_generated.ParsecJsonCodec")
+                    .getCodecClasses() as Class<?>[]
+            def moxy = new InMemoryApplication(resources)
+            def codec = new InMemoryApplication(resources, codecClasses)
+
+        expect:
+            codecClasses*.simpleName as Set == ["AddressCodec", "UserCodec"] as Set
+            def moxyResponse = moxy.post("/users", body)
+            def codecResponse = codec.post("/users", body)
+            moxyResponse.status == status
+            codecResponse.status == status
+            parse(codecResponse.body) == parse(moxyResponse.body)
+
+        where: "the null fields are left out, the missing primitives are 0 or false, and malformed or empty bodies are 400"
+            body                                                                                | status
+            '{"name":"Alice","age":30,"salary":1.5,"active":true,"tags":["a",null],' +
+                    '"address":{"city":"Taipei","zip":100}}'                                    | 200
+            '{"name":"Alice","salary":null,"tags":null,"address":{}}'                           | 200
+            '{"name":"Alice","unknown":{"nested":[1,"}"]},"age":"31","active":"true"}'          | 200
+            '{"name":"\\u00e9\\n\\"x\\""}'                                                      | 200
+            '{}'                                                                                | 200
+            '{"name":"Alice",'                                                                  | 400
+            '{"name" "Alice"}'                                                                  | 400
+            'null'                                                                              | 400
+            ''                                                                                  | 400
+            '  '                                                                                | 400
+    }
+
+    @Unroll
+    def "the generated codec should reject the values MOXy coerces or drops: #body"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            writeDataObject(dir, "User", """
+    private String name;
+    private int age;
+    private List<String> tags;
+""", """
+    public String getName() { return name; }
+    public int getAge() { return age; }
+    public List<String> getTags() { return tags; }
+    public User setName(String name) { this.name = name; return this; }
+    public User setAge(int age) { this.age = age; return this; }
+    public User setTags(List<String> tags) { this.tags = tags; return this; }
+""")
+            def classLoader = compileWithResources(dir)
+            def resources = classLoader.loadClass("com.example.parsec_generated.UserResources")
+            def codecClasses = classLoader.loadClass("com.example.parsec_generated.ParsecJsonCodec")
+                    .getCodecClasses() as Class<?>[]
+
+        expect:
+            new InMemoryApplication(resources).post("/users", body).status == 200
+            new InMemoryApplication(resources, codecClasses).post("/users", body).status == 400
+
+        where:
+            body << ['{"age":"thirty"}', '{"age":1.5}', '{"name":5}', '{"tags":"a"}', '{"name":"a"} x', '[]']
+    }
+
+    /**
+     * Generate ParsecJsonCodec next to the data objects and a resource echoing a User, and compile them.
+     */
+    def compileWithResources(Path dir){
+        dir.resolve("UserResources.java").text = """package com.example.parsec_generated;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+@Path("/users")
+public class UserResources {
+    @POST
+    @Consumes("application/json")
+    @Produces("application/json")
+    public User echo(User user) { return user; }
+}
+"""
+        def generator = getGenerator(testFolder.root.toPath().resolve("generated-sources"))
+        dir.resolve("ParsecJsonCodec.java").text = new ParsecGeneratorUtil(fileUtils).renderTemplate(
+                "ParsecJsonCodec.java", "com.example", generator.getReplaceMaterials())
+        return GeneratedSourcesCompiler.compile(
+                testFolder.root.toPath().resolve("generated-sources"), testFolder.root.toPath().resolve("classes"))
+    }
+
+    def parse(String json){
+        return json ? new groovy.json.JsonSlurper().parseText(json) : null
+    }
+
+    def "toConstantName() should convert camel case to upper snake case"(){
+        expect:
+            ParsecJsonCodecGenerator.toConstantName(name) == constant
+
+        where:
+            name            | constant
+            "user"          | "USER"
+            "salaryAmount"  | "SALARY_AMOUNT"
+            "User2"         | "USER2"
+    }
+}
@@ -2,10 +2,12 @@ package com.yahoo.parsec.gradle.generators
 
 import com.yahoo.parsec.gradle.utils.FileUtils
 import org.gradle.api.Project
+import org.gradle.api.logging.Logger
 import org.gradle.testfixtures.ProjectBuilder
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.nio.file.Files
 import java.nio.file.Path
 import java.nio.file.Paths
 
@@ -48,7 +50,7 @@ class ParsecPackageResolverTest extends Specification {
         given:
             def packageResolver = getPPR()
             filePath = getFilePath(generatedSourceRootPath, packagePath, generatedNameSpace, fileName)
-            fileUtils.checkFileContains(filePath, _) >> dataobjectIsSet
+            fileUtils.checkFileHeaderContains(filePath, _) >> dataobjectIsSet
 
         when:
             packageResolver.resolveByFile(
@@ -89,8 +91,8 @@ class ParsecPackageResolverTest extends Specification {
                 project, javaSourceRoot, generatedSourceRootPath, generatedNameSpace)
 
         then:
-            fileUtils.checkFileContains(_ as Path, _) >> { Path filePath, dummy ->
-                return filePath.endsWith("User.java")
+            fileUtils.scanJavaFile(_ as Path, _, _) >> { Path filePath, dummy1, dummy2 ->
+                return filePath.endsWith("User.java") ? ["Insert"] as Set : null
             }
             def intersectPackageName = "java.com.example"
             generatorUtil.getIntersectPackageName(["java.com.example"]) >> "java.com.example"
@@ -102,6 +104,7 @@ class ParsecPackageResolverTest extends Specification {
             packageStruct.getResources().containsKey(intersectPackageName)
             packageStruct.getPackages().containsKey(intersectPackageName)
             packageStruct.getDataobjects().containsKey(intersectPackageName)
+            packageStruct.getValidationGroups() == [(intersectPackageName): ["Insert"] as Set]
     }
 
     def "resolve() should throw excpetion if get file paths got exception"(){
@@ -117,6 +120,34 @@ class ParsecPackageResolverTest extends Specification {
             thrown(IOException)
     }
 
+    def "indexDataObjects() should index the data objects among many generated files in one pass"(){
+        given:
+            def root = Files.createTempDirectory("generated-sources")
+            def dir = root.resolve(packagePath + "/" + generatedNameSpace)
+            Files.createDirectories(dir)
+            def paths = (1..100).collect { i ->
+                def path = dir.resolve("Model${i}.java")
+                path.text = "package com.example.parsec_generated;\n\npublic final class Model${i}" +
+                        (i % 2 == 0 ? " implements java.io.Serializable" : "") + " {\n" +
+                        "    @NotNull(groups = { ParsecValidationGroups.Group${i % 4}.class })\n" +
+                        "    private String name;\n}\n"
+                return path
+            }
+            paths << dir.resolve("SampleResources.java")
+            def resolver = new ParsecPackageResolver(generatorUtil, new FileUtils(Mock(Logger)))
+
+        when:
+            def dataObjects = resolver.indexDataObjects(paths, generatedNameSpace)
+
+        then:
+            dataObjects.keySet() == paths.findAll { it.fileName.toString() ==~ /Model\d*[02468]\.java/ } as Set
+            dataObjects[dir.resolve("Model4.java")] == ["Group0"] as Set
+            dataObjects[dir.resolve("Model6.java")] == ["Group2"] as Set
+
+        cleanup:
+            root.toFile().deleteDir()
+    }
+
     def getFilePath(Path generatedSourceRootPath, def packagePath, def generatedNameSpace, def fileName){
         return Paths.get(generatedSourceRootPath.toString() + "/" + packagePath + "/" + generatedNameSpace + "/" + fileName)
     }
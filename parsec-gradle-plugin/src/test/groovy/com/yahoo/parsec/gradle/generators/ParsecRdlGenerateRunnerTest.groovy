@@ -0,0 +1,136 @@
+package com.yahoo.parsec.gradle.generators
+
+import org.gradle.api.logging.Logger
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Parsec Rdl Generate Runner Unit Test
+ */
+class ParsecRdlGenerateRunnerTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    Logger logger
+    File rdl
+
+    def setup(){
+        logger = Mock()
+
+        // fake rdl binary: echo the generator type, fail on RDL files named bad*.rdl,
+        // and let the model generator finish last so the jobs complete out of order
+        rdl = testFolder.newFile("rdl")
+        rdl.text = '''#!/bin/sh
+eval file=\\${$#}
+case "$file" in
+    *bad*) echo "syntax error in $file"; exit 1 ;;
+esac
+case "$4" in
+    *model) sleep 0.3 ;;
+esac
+echo "generated $4"
+'''
+        rdl.setExecutable(true)
+    }
+
+    def getRunner(){
+        return new ParsecRdlGenerateRunner(logger, testFolder.root, "/bin:/usr/bin")
+    }
+
+    def getJobs(List<String> files){
+        def jobs = []
+        files.each { file ->
+            ["parsec-java-model", "parsec-java-server"].each { type ->
+                jobs << new ParsecRdlGenerateJob(rdl.absolutePath, type, file, ["-o", "out"])
+            }
+        }
+        return jobs
+    }
+
+    def "job command should insert options between generate and type"(){
+        expect:
+            new ParsecRdlGenerateJob("rdl", "json", "a.rdl", ["-o", "out"]).getCommand() ==
+                    ["rdl", "generate", "-o", "out", "json", "a.rdl"]
+    }
+
+    def "runSerial() should throw exception with the RDL file name if the generator failed"(){
+        when:
+            getRunner().runSerial(getJobs(["good.rdl", "bad.rdl"]))
+
+        then:
+            def e = thrown(IOException)
+            e.getMessage() == "Error parsing RDL file bad.rdl"
+    }
+
+    def "runParallel() should log the output of each job grouped and in job order"(){
+        when:
+            getRunner().runParallel(getJobs(["a.rdl", "b.rdl"]), 4)
+
+        then:
+            1 * logger.info("Parsing a.rdl")
+        then:
+            1 * logger.info(" Generating parsec-java-model")
+        then:
+            1 * logger.info("generated parsec-java-model")
+        then:
+            1 * logger.info(" Generating parsec-java-server")
+        then:
+            1 * logger.info("generated parsec-java-server")
+        then:
+            1 * logger.info("Parsing b.rdl")
+        then:
+            1 * logger.info(" Generating parsec-java-model")
+        then:
+            1 * logger.info("generated parsec-java-model")
+        then:
+            1 * logger.info(" Generating parsec-java-server")
+        then:
+            1 * logger.info("generated parsec-java-server")
+    }
+
+    def "runParallel() should fail fast with the RDL file name if any job failed"(){
+        when:
+            getRunner().runParallel(getJobs(["a.rdl", "bad.rdl", "c.rdl"]), 2)
+
+        then:
+            def e = thrown(IOException)
+            e.getMessage() == "Error parsing RDL file bad.rdl"
+            1 * logger.error("syntax error in bad.rdl")
+    }
+
+    def "runParallel() should do nothing if no jobs"(){
+        when:
+            getRunner().runParallel([], 4)
+
+        then:
+            0 * logger._
+    }
+
+    @Unroll
+    def "#mode should tell the job listener the time and exit code of every finished job"(){
+        given:
+            def runner = getRunner()
+            def finished = []
+            runner.setJobListener({ job, millis, exitCode ->
+                finished << [job.getRdlFile(), job.getType(), millis, exitCode]
+            } as ParsecRdlGenerateRunner.JobListener)
+
+        when:
+            run(runner, getJobs(["a.rdl", "bad.rdl"]))
+
+        then:
+            thrown(IOException)
+            finished.findAll { it[3] == 0 }.collect { it[0] + " " + it[1] } as Set ==
+                    ["a.rdl parsec-java-model", "a.rdl parsec-java-server"] as Set
+            finished.find { it[0] == "a.rdl" && it[1] == "parsec-java-model" }[2] >= 300
+            finished.find { it[3] != 0 }[0] == "bad.rdl"
+
+        where:
+            mode          | run
+            "runSerial"   | { r, jobs -> r.runSerial(jobs) }
+            "runParallel" | { r, jobs -> r.runParallel(jobs, 1) }
+    }
+}
@@ -0,0 +1,145 @@
+package com.yahoo.parsec.gradle.generators
+
+import com.yahoo.parsec.gradle.utils.FileUtils
+import org.eclipse.jetty.server.Server
+import org.eclipse.jetty.server.ServerConnector
+import org.eclipse.jetty.util.thread.QueuedThreadPool
+import org.gradle.api.logging.Logger
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import javax.management.ObjectName
+import java.lang.management.ManagementFactory
+import java.nio.file.Files
+import java.nio.file.Paths
+
+/**
+ * Parsec Server Bootstrap Generator Unit Test
+ */
+class ParsecServerBootstrapGeneratorTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    static final String SAMPLE_DIR = "./src/test/resources/generated-sources/java/com/example/parsec_generated/"
+
+    def "getReplaceMaterials() should fill every setting of the template, with the Jetty defaults for the missing ones"(){
+        given:
+            def generator = new ParsecServerBootstrapGenerator(null, Mock(ParsecGeneratorUtil), Spy(FileUtils))
+            def placeholders = ParsecTemplate.parse(
+                    getClass().getResourceAsStream("/templates/ParsecServerBootstrap.java").text).placeholders
+
+        when:
+            def materials = generator.getReplaceMaterials(["maxThreads": "400", "http2Cleartext": "true"])
+
+        then:
+            materials.keySet() + "{packageName}" == placeholders as Set
+            materials["{maxThreads}"] == "400"
+            materials["{http2Cleartext}"] == "true"
+            materials["{minThreads}"] == "8"
+            materials["{maxQueuedRequests}"] == "-1"
+            materials["{idleTimeout}"] == "30000"
+    }
+
+    def "toBootstrapServer() should create the Jetty server with ParsecServerBootstrap once"(){
+        when:
+            def server = ParsecServerBootstrapGenerator.toBootstrapServer(
+                    new File(SAMPLE_DIR + "SampleServer.java").text, "com.example.parsec_generated.ParsecServerBootstrap")
+
+        then:
+            server.contains("import com.example.parsec_generated.ParsecServerBootstrap;")
+            server.contains("            Server server = ParsecServerBootstrap.newServer(port);")
+            !server.contains("new Server(")
+            ParsecServerBootstrapGenerator.toBootstrapServer(
+                    server, "com.example.parsec_generated.ParsecServerBootstrap") == server
+    }
+
+    def "generateServerBootstrap() should generate ParsecServerBootstrap and rewrite the servers"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            ["SampleResources.java", "SampleServer.java", "User.java"].each {
+                Files.copy(Paths.get(SAMPLE_DIR + it), dir.resolve(it))
+            }
+            def fileUtils = new FileUtils(Mock(Logger))
+            def generatorUtil = Mock(ParsecGeneratorUtil)
+            generatorUtil.getIntersectPackageName(_) >> "com.example"
+            def packageStruct = new ParsecPackageResolver(generatorUtil, fileUtils).resolve(
+                    testFolder.root, "src/main", testFolder.root.toPath().resolve("generated-sources/java"),
+                    "parsec_generated")
+
+        when:
+            new ParsecServerBootstrapGenerator(packageStruct, generatorUtil, fileUtils)
+                    .generateServerBootstrap(["selectors": "4"])
+
+        then:
+            1 * generatorUtil.generateFromTemplateTo("ParsecServerBootstrap.java", "com.example", dir.toString(),
+                    _ as Map<String, String>, true) >> { dummy1, dummy2, dummy3, materials, overwrite ->
+                assert materials["{selectors}"] == "4"
+            }
+            dir.resolve("SampleServer.java").text.contains("Server server = ParsecServerBootstrap.newServer(port);")
+    }
+
+    def "the generated bootstrap and the rewritten servers should compile and run Jetty with the settings"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            GeneratedSourcesCompiler.copySampleSources(dir, "SampleResources", "SampleHandler", "SampleServer",
+                    "ResourceContext", "ResourceException", "ResourceError", "User")
+            // the jetty http container of jersey is not a test dependency, and the sample server does not use it
+            dir.resolve("SampleServer.java").text = dir.resolve("SampleServer.java").text
+                    .replace("import org.glassfish.jersey.jetty.JettyHttpContainerFactory;", "")
+            def fileUtils = new FileUtils(Mock(Logger))
+            def templateUtil = new ParsecGeneratorUtil(fileUtils)
+            dir.resolve("ParsecValidationGroups.java").text = templateUtil.renderTemplate("ParsecValidationGroups.java",
+                    "com.example", ["{validationGroups}": "    public interface Insert { }\n    public interface Update { }\n"])
+            def generatorUtil = Mock(ParsecGeneratorUtil)
+            generatorUtil.getIntersectPackageName(_) >> "com.example"
+            generatorUtil.generateFromTemplateTo(ParsecServerBootstrapGenerator.TEMPLATE_NAME, "com.example", _, _, true) >> {
+                dummy1, dummy2, dummy3, Map<String, String> materials, overwrite ->
+                    dir.resolve(ParsecServerBootstrapGenerator.TEMPLATE_NAME).text = templateUtil.renderTemplate(
+                            ParsecServerBootstrapGenerator.TEMPLATE_NAME, "com.example", materials)
+            }
+            def packageStruct = new ParsecPackageResolver(generatorUtil, fileUtils).resolve(
+                    testFolder.root, "src/main", testFolder.root.toPath().resolve("generated-sources/java"),
+                    "parsec_generated")
+            new ParsecServerBootstrapGenerator(packageStruct, generatorUtil, fileUtils).generateServerBootstrap(
+                    ["minThreads": "2", "maxThreads": "16", "maxQueuedRequests": "4", "idleTimeout": "1000"])
+            def classLoader = GeneratedSourcesCompiler.compile(
+                    testFolder.root.toPath().resolve("generated-sources"), testFolder.root.toPath().resolve("classes"))
+            def bootstrap = classLoader.loadClass("com.example.parsec_generated.ParsecServerBootstrap")
+
+        when:
+            Server server = bootstrap.newServer(0)
+            System.setProperty("parsec.server.maxThreads", "32")
+            Server overridden
+            try {
+                overridden = bootstrap.newServer(0)
+            } finally {
+                System.clearProperty("parsec.server.maxThreads")
+            }
+            def port, registered, status, threads
+            server.start()
+            try {
+                port = (server.connectors[0] as ServerConnector).localPort
+                registered = ManagementFactory.platformMBeanServer.isRegistered(
+                        new ObjectName("com.yahoo.parsec:type=ThreadPool,port=0"))
+                status = bootstrap.getThreadPoolStatus(server)
+                threads = status.threads
+            } finally {
+                server.stop()
+            }
+
+        then:
+            classLoader.loadClass("com.example.parsec_generated.SampleServer") != null
+            (server.threadPool as QueuedThreadPool).minThreads == 2
+            (server.threadPool as QueuedThreadPool).maxThreads == 16
+            (server.connectors[0] as ServerConnector).idleTimeout == 1000
+            (overridden.threadPool as QueuedThreadPool).maxThreads == 32
+            port > 0
+            registered
+            status.maxThreads == 16
+            threads >= 2
+            !ManagementFactory.platformMBeanServer.isRegistered(
+                    new ObjectName("com.yahoo.parsec:type=ThreadPool,port=0"))
+    }
+}
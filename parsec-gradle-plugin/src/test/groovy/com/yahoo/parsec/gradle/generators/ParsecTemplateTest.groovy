@@ -0,0 +1,36 @@
+package com.yahoo.parsec.gradle.generators
+
+import spock.lang.Specification
+
+/**
+ * Parsec Template Unit Test
+ */
+class ParsecTemplateTest extends Specification {
+
+    def "parse() should split placeholders from literals and leave java blocks alone"() {
+        when:
+            def template = ParsecTemplate.parse("package {packageName};\nclass A { }\n{register}{packageName}")
+
+        then:
+            template.getPlaceholders() == ["{packageName}", "{register}", "{packageName}"]
+    }
+
+    def "render() should render in one pass into the given buffer"() {
+        given:
+            def template = ParsecTemplate.parse("package {packageName};\n{imports}\nclass A {\n}\n")
+            def buffer = new StringBuilder("left over")
+
+        when:
+            def output = template.render(["{packageName}": "com.example", "{imports}": "// {packageName}"], buffer)
+
+        then:
+            output.is(buffer)
+            buffer.toString() == "package com.example;\n// {packageName}\nclass A {\n}\n"
+    }
+
+    def "render() should keep placeholders without a value"() {
+        expect:
+            ParsecTemplate.parse("{a}-{b}").render(["{a}": "1"], new StringBuilder()).toString() == "1-{b}"
+            ParsecTemplate.parse("").render([:], new StringBuilder()).toString() == ""
+    }
+}
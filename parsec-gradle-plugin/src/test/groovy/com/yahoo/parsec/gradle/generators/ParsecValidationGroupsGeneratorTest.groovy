@@ -21,6 +21,9 @@ class ParsecValidationGroupsGeneratorTest extends Specification{
         fileUtils = Spy(FileUtils)
 
         generatorUtil.getIntersectPackageName(_) >> "java.com.example"
+    }
+
+    def resolvePackageStruct(){
         packageStruct = new ParsecPackageResolver(generatorUtil, fileUtils).resolve(
                 ProjectBuilder.builder().build(),
                 "src/main",
@@ -34,13 +37,15 @@ class ParsecValidationGroupsGeneratorTest extends Specification{
 
     def "generateParsecValidationGroups() should generate from template with expected arguments"() {
         given:
-            fileUtils.findPatternsInFile(_ as Path, "ParsecValidationGroups\\.(.+?)\\.class") >> { Path path, def dummy ->
-                path.getFileName().endsWith("User.java") ? ["Create", "Update"] as Set : [:] as Set }
+            fileUtils.scanJavaFile(_ as Path, _, _) >> { Path path, def dummy1, def dummy2 ->
+                path.getFileName().endsWith("User.java") ? ["Create", "Update"] as Set : null }
+            resolvePackageStruct()
 
         when:
             getGenerator().generateParsecValidationGroups()
 
         then:
+        0 * fileUtils.findPatternsInFile(_, _)
         1 * generatorUtil.generateFromTemplateTo("ParsecValidationGroups.java", "java.com.example",
                 "./src/test/resources/generated-sources/java/com/example/parsec_generated",
                 _ as Map<String, String>, true) >> { dummy1, dummy2, dummy3, materials, overwrite ->
@@ -50,5 +55,26 @@ class ParsecValidationGroupsGeneratorTest extends Specification{
 
     }
 
+    def "generateParsecValidationGroups() should read the data objects if the package struct has no index"() {
+        given:
+            resolvePackageStruct()
+            packageStruct = new ParsecPackageStruct(
+                    packageStruct.getProjectDir(), packageStruct.getJavaSourceRoot(),
+                    packageStruct.getGeneratedSourceRootPath(), packageStruct.getGeneratedNamespace(),
+                    packageStruct.getPackages(), packageStruct.getHandlers(), packageStruct.getResources(),
+                    packageStruct.getDataobjects(), packageStruct.getIntersectPackageName())
+
+        when:
+            getGenerator().generateParsecValidationGroups()
+
+        then:
+        1 * generatorUtil.generateFromTemplateTo("ParsecValidationGroups.java", "java.com.example",
+                "./src/test/resources/generated-sources/java/com/example/parsec_generated",
+                _ as Map<String, String>, true) >> { dummy1, dummy2, dummy3, materials, overwrite ->
+            assert materials.get("{validationGroups}").indexOf("public interface Insert { }") > 0
+            assert materials.get("{validationGroups}").indexOf("public interface Update { }") > 0
+        }
+    }
+
 
 }
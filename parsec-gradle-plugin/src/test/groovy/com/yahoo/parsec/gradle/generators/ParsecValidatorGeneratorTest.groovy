@@ -0,0 +1,227 @@
+package com.yahoo.parsec.gradle.generators
+
+import org.glassfish.jersey.server.model.Invocable
+import org.glassfish.jersey.server.model.MethodHandler
+import org.glassfish.jersey.server.spi.ValidationInterceptorContext
+import spock.lang.Unroll
+
+import javax.validation.Validation
+import java.lang.reflect.ParameterizedType
+import java.lang.reflect.Type
+import java.nio.file.Files
+import java.nio.file.Path
+import java.nio.file.Paths
+
+/**
+ * Parsec Validator Generator Unit Test
+ */
+class ParsecValidatorGeneratorTest extends DataObjectGeneratorSpecification {
+
+    def getGenerator(Path generatedSourceRoot){
+        return new ParsecValidatorGenerator(getPackageStruct(generatedSourceRoot), generatorUtil)
+    }
+
+    def "generateParsecValidators() should check each group of the data objects with the cheap checks first"(){
+        when:
+            getGenerator(Paths.get("./src/test/resources/generated-sources")).generateParsecValidators()
+
+        then:
+        1 * generatorUtil.generateFromTemplateTo("ParsecValidators.java", "java.com.example",
+                "./src/test/resources/generated-sources/java/com/example/parsec_generated",
+                _ as Map<String, String>, true) >> { dummy1, dummy2, dummy3, materials, overwrite ->
+            def registrations = materials.get("{registrations}")
+            assert registrations.contains("register(com.example.parsec_generated.User.class, "
+                    + "com.example.parsec_generated.ParsecValidationGroups.Insert.class,")
+            assert registrations.contains("register(com.example.parsec_generated.User.class, "
+                    + "javax.validation.groups.Default.class,")
+            def validators = materials.get("{validators}")
+            assert validators.contains("""static boolean isValidUserInsert(final com.example.parsec_generated.User value) {
+        return value.getName() != null
+                && value.getId() == null
+                && isSize(value.getName(), 3, 5)
+                && isSize(value.getOccupation(), 4, Integer.MAX_VALUE)
+                && isDigits(value.getSalary(), 8, 2);
+    }""".replace("\n", System.getProperty("line.separator")))
+            assert validators.contains("""static boolean isValidUserDefault(final com.example.parsec_generated.User value) {
+        return true;
+    }""".replace("\n", System.getProperty("line.separator")))
+            assert materials.get("{patterns}") == ""
+        }
+    }
+
+    def "getValidatedDataObjects() should cascade with the converted groups and leave the unknown constraints to Hibernate Validator"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            Files.write(dir.resolve("SampleResources.java"), "package com.example.parsec_generated;".bytes)
+            writeDataObject(dir, "Team", """
+    @NotNull
+    @Valid
+    private Member lead;
+
+    @Valid
+    @ConvertGroup(from = Default.class, to = ParsecValidationGroups.Insert.class)
+    private List<Member> members;
+""", """
+    public Member getLead() { return lead; }
+    public List<Member> getMembers() { return members; }
+""")
+            writeDataObject(dir, "Member", """
+    @Pattern(regexp = "[a-z]+", groups = { ParsecValidationGroups.Insert.class })
+    private String name;
+""", """
+    public String getName() { return name; }
+""")
+            writeDataObject(dir, "Country", """
+    @com.yahoo.parsec.constraint.validators.CountryCode
+    private String code;
+""", """
+    public String getCode() { return code; }
+""")
+            writeDataObject(dir, "Trip", """
+    @Valid
+    private Country country;
+""", """
+    public Country getCountry() { return country; }
+""")
+
+        when:
+            def generator = getGenerator(testFolder.root.toPath().resolve("generated-sources"))
+            def dataObjects = generator.getValidatedDataObjects()
+            def materials = generator.getReplaceMaterials()
+
+        then:
+            dataObjects.keySet() as List == ["com.example.parsec_generated.Member", "com.example.parsec_generated.Team"]
+            materials.get("{patterns}").contains('private static final Pattern MEMBER_PATTERN_1 = Pattern.compile("[a-z]+");')
+            materials.get("{validators}").contains("return isMatch(value.getName(), MEMBER_PATTERN_1);")
+            materials.get("{validators}").contains("""return value.getLead() != null
+                && isValid(value.getLead(), ParsecValidators::isValidMemberDefault)
+                && isValidEach(value.getMembers(), ParsecValidators::isValidMemberInsert);""".replace(
+                    "\n", System.getProperty("line.separator")))
+    }
+
+    @Unroll
+    def "the generated validators should only leave #method(#argument) to Hibernate Validator if it is invalid or not covered"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            def classLoader = compileWithSampleModel(dir)
+            def resourceClass = classLoader.loadClass("com.example.parsec_generated." +
+                    (method.contains("Team") ? "TeamResources" : "SampleResources"))
+            def resource = resourceClass.newInstance()
+            def resourceMethod = resourceClass.methods.find { it.name == method }
+            def args = [argument].flatten().withIndex().collect { value, i ->
+                newInstance(resourceMethod.genericParameterTypes[i], value) } as Object[]
+            def proceeded = 0
+            def context = [
+                    getResource: { resource },
+                    getInvocable: { Invocable.create(MethodHandler.create(resourceClass), resourceMethod) },
+                    getArgs: { args },
+                    proceed: { proceeded++ }
+            ] as ValidationInterceptorContext
+
+        when:
+            classLoader.loadClass("com.example.parsec_generated.ParsecValidators").newInstance().onValidate(context)
+
+        then:
+            Validation.buildDefaultValidatorFactory().validator.forExecutables()
+                    .validateParameters(resource, resourceMethod, args).isEmpty() == valid
+            proceeded == (valid && covered ? 0 : 1)
+
+        where: "postUser converts to Insert, putUser to Update, and postTeam converts the members to Insert"
+            method     | argument                                                     | valid | covered
+            "getUser"  | 1                                                            | true  | true
+            "postUser" | [name: "alice", occupation: "engineer", salary: 1234.5]      | true  | true
+            "postUser" | [name: "alice", salary: 12345678.99]                         | true  | true
+            "postUser" | null                                                         | true  | true
+            "postUser" | [occupation: "engineer"]                                     | false | true
+            "postUser" | [name: "al"]                                                 | false | true
+            "postUser" | [name: "alexis"]                                             | false | true
+            "postUser" | [name: "alice", occupation: "dev"]                           | false | true
+            "postUser" | [name: "alice", id: "1"]                                     | false | true
+            "postUser" | [name: "alice", salary: 123456789.0]                         | false | true
+            "postUser" | [name: "alice", salary: 1.234]                               | false | true
+            "putUser"  | [1, [occupation: "engineer"]]                                | true  | true
+            "putUser"  | [1, [name: "al", occupation: "engineer"]]                    | false | true
+            "putUser"  | [1, [name: "alice"]]                                         | false | true
+            "postTeam" | [code: "a", members: [[name: "alice"], [name: "bob"]]]      | true  | true
+            "postTeam" | [code: "a", members: [[name: "alice"], [age: 3]]]           | false | true
+            "postTeam" | [code: "a", members: [[name: "alice", salary: 1.234]]]      | false | true
+            "postTeam" | [code: "abcd", members: []]                                  | false | true
+            "postTeam" | [members: [[name: "alice"]]]                                 | false | true
+            "putTeam"  | [code: "a"]                                                  | true  | false
+            "putTeam"  | [code: "abcd"]                                               | false | false
+            "findTeam" | "a"                                                          | true  | false
+            "findTeam" | "abcd"                                                       | false | false
+    }
+
+    /**
+     * Copy the sample model, add a Team of Users and a resource for it, generate ParsecValidationGroups and
+     * ParsecValidators next to them, and compile them.
+     */
+    def compileWithSampleModel(Path dir){
+        GeneratedSourcesCompiler.copySampleSources(dir,
+                "SampleResources", "SampleHandler", "ResourceContext", "ResourceException", "ResourceError", "User")
+        writeDataObject(dir, "Team", """
+    @NotNull
+    @Size(min = 1, max = 3)
+    private String code;
+
+    @Valid
+    @ConvertGroup(from = Default.class, to = ParsecValidationGroups.Insert.class)
+    private List<User> members;
+""", """
+    public String getCode() { return code; }
+    public List<User> getMembers() { return members; }
+    public Team setCode(String code) { this.code = code; return this; }
+    public Team setMembers(List<User> members) { this.members = members; return this; }
+""")
+        dir.resolve("TeamResources.java").text = """package com.example.parsec_generated;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.PUT;
+import javax.ws.rs.Path;
+import javax.ws.rs.QueryParam;
+
+@Path("/teams")
+public class TeamResources {
+    @POST
+    public String postTeam(@Valid Team team) { return "ok"; }
+
+    @PUT
+    public String putTeam(@NotNull @Valid Team team) { return "ok"; }
+
+    @GET
+    public String findTeam(@Size(max = 3) @QueryParam("code") String code) { return "ok"; }
+}
+"""
+        def generatedSourceRoot = testFolder.root.toPath().resolve("generated-sources")
+        def packageStruct = getPackageStruct(generatedSourceRoot)
+        def templateUtil = new ParsecGeneratorUtil(fileUtils)
+        dir.resolve("ParsecValidationGroups.java").text = templateUtil.renderTemplate("ParsecValidationGroups.java",
+                "com.example", new ParsecValidationGroupGenerator(packageStruct, generatorUtil, fileUtils)
+                        .getReplaceMaterialsByPkg().values().first())
+        dir.resolve("ParsecValidators.java").text = templateUtil.renderTemplate("ParsecValidators.java",
+                "com.example", getGenerator(generatedSourceRoot).getReplaceMaterials())
+        return GeneratedSourcesCompiler.compile(generatedSourceRoot, testFolder.root.toPath().resolve("classes"))
+    }
+
+    /**
+     * Create a parameter of a resource method, the data objects from maps of their properties.
+     */
+    def newInstance(Type type, Object value){
+        if (value instanceof Map) {
+            def instance = (type as Class).newInstance()
+            value.each { name, property ->
+                def setter = instance.class.methods.find { it.name == "set" + name.capitalize() }
+                setter.invoke(instance, newInstance(setter.genericParameterTypes[0], property))
+            }
+            return instance
+        } else if (value instanceof List) {
+            return value.collect { newInstance((type as ParameterizedType).actualTypeArguments[0], it) }
+        }
+        return value?.asType(type as Class)
+    }
+}
@@ -0,0 +1,149 @@
+package com.yahoo.parsec.gradle.generators
+
+import com.yahoo.parsec.gradle.utils.FileUtils
+import groovy.json.JsonSlurper
+import org.glassfish.hk2.utilities.binding.AbstractBinder
+import org.glassfish.jersey.server.ResourceConfig
+import org.gradle.api.logging.Logger
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.Method
+import java.lang.reflect.Proxy
+import java.nio.file.Files
+import java.nio.file.Paths
+
+/**
+ * Parsec Virtual Thread Generator Unit Test
+ */
+class ParsecVirtualThreadGeneratorTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    static final String SAMPLE_DIR = "./src/test/resources/generated-sources/java/com/example/parsec_generated/"
+
+    def "toManagedAsyncResource() should make each resource method managed async once"(){
+        when:
+            def resource = ParsecVirtualThreadGenerator.toManagedAsyncResource(
+                    new File(SAMPLE_DIR + "SampleResources.java").text)
+
+        then:
+            resource.contains("import org.glassfish.jersey.server.ManagedAsync;")
+            resource.contains("""    @ManagedAsync
+    @GET
+    @Path("/users/{id}")""")
+            resource.contains("""    @ManagedAsync
+    @POST
+    @Path("/users")""")
+            resource.contains("""    @ManagedAsync
+    @PUT""")
+            ParsecVirtualThreadGenerator.toManagedAsyncResource(resource) == resource
+    }
+
+    def "toManagedAsyncResource() should leave the resource methods that suspend an AsyncResponse"(){
+        given:
+            def resource = ParsecAsyncHandlerGenerator.toAsyncResource(
+                    new File(SAMPLE_DIR + "SampleResources.java").text, new LinkedHashSet<String>())
+
+        expect:
+            ParsecVirtualThreadGenerator.toManagedAsyncResource(resource) == resource
+    }
+
+    def "toVirtualThreadServer() should register the executor and support async requests"(){
+        when:
+            def server = ParsecVirtualThreadGenerator.toVirtualThreadServer(
+                    new File(SAMPLE_DIR + "SampleServer.java").text, "com.example.parsec_generated.ParsecVirtualThreads")
+
+        then:
+            server.contains("import com.example.parsec_generated.ParsecVirtualThreads;")
+            server.contains("""            ResourceConfig config = new ResourceConfig(SampleResources.class).register(new Binder());
+            config.registerClasses(ParsecVirtualThreads.getProviderClasses());
+            ServletHolder servletHolder = new ServletHolder(new ServletContainer(config));
+            servletHolder.setAsyncSupported(true);
+            handler.addServlet(servletHolder, "/*");
+""")
+            ParsecVirtualThreadGenerator.toVirtualThreadServer(
+                    server, "com.example.parsec_generated.ParsecVirtualThreads") == server
+    }
+
+    def "generateVirtualThreads() should generate ParsecVirtualThreads and rewrite the resources and servers"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            ["SampleResources.java", "SampleServer.java", "User.java"].each {
+                Files.copy(Paths.get(SAMPLE_DIR + it), dir.resolve(it))
+            }
+            def fileUtils = new FileUtils(Mock(Logger))
+            def generatorUtil = Mock(ParsecGeneratorUtil)
+            generatorUtil.getIntersectPackageName(_) >> "com.example"
+            def packageStruct = new ParsecPackageResolver(generatorUtil, fileUtils).resolve(
+                    testFolder.root, "src/main", testFolder.root.toPath().resolve("generated-sources/java"),
+                    "parsec_generated")
+
+        when:
+            new ParsecVirtualThreadGenerator(packageStruct, generatorUtil, fileUtils).generateVirtualThreads()
+
+        then:
+            1 * generatorUtil.generateFromTemplateTo(
+                    "ParsecVirtualThreads.java", "com.example", dir.toString(), true)
+            dir.resolve("SampleResources.java").text.contains("@ManagedAsync")
+            dir.resolve("SampleServer.java").text.contains("servletHolder.setAsyncSupported(true);")
+            dir.resolve("SampleServer.java").text.contains("import com.example.parsec_generated.ParsecVirtualThreads;")
+    }
+
+    def "the rewritten resources and servers should compile and invoke the resource methods off the request thread"(){
+        given:
+            def dir = testFolder.newFolder("generated-sources", "java", "com", "example", "parsec_generated").toPath()
+            GeneratedSourcesCompiler.copySampleSources(dir, "SampleResources", "SampleHandler", "SampleServer",
+                    "ResourceContext", "ResourceException", "ResourceError", "User")
+            // the jetty http container of jersey is not a test dependency, and the sample server does not use it
+            dir.resolve("SampleServer.java").text = dir.resolve("SampleServer.java").text
+                    .replace("import org.glassfish.jersey.jetty.JettyHttpContainerFactory;", "")
+            def fileUtils = new FileUtils(Mock(Logger))
+            def templateUtil = new ParsecGeneratorUtil(fileUtils)
+            dir.resolve("ParsecValidationGroups.java").text = templateUtil.renderTemplate("ParsecValidationGroups.java",
+                    "com.example", ["{validationGroups}": "    public interface Insert { }\n    public interface Update { }\n"])
+            def generatorUtil = Mock(ParsecGeneratorUtil)
+            generatorUtil.getIntersectPackageName(_) >> "com.example"
+            generatorUtil.generateFromTemplateTo(ParsecVirtualThreadGenerator.TEMPLATE_NAME, "com.example", _, true) >> {
+                dir.resolve(ParsecVirtualThreadGenerator.TEMPLATE_NAME).text = templateUtil.renderTemplate(
+                        ParsecVirtualThreadGenerator.TEMPLATE_NAME, "com.example", [:])
+            }
+            def packageStruct = new ParsecPackageResolver(generatorUtil, fileUtils).resolve(
+                    testFolder.root, "src/main", testFolder.root.toPath().resolve("generated-sources/java"),
+                    "parsec_generated")
+            new ParsecVirtualThreadGenerator(packageStruct, generatorUtil, fileUtils).generateVirtualThreads()
+            def classLoader = GeneratedSourcesCompiler.compile(
+                    testFolder.root.toPath().resolve("generated-sources"), testFolder.root.toPath().resolve("classes"))
+            def virtualThreads = classLoader.loadClass("com.example.parsec_generated.ParsecVirtualThreads")
+            def handlerClass = classLoader.loadClass("com.example.parsec_generated.SampleHandler")
+            def userClass = classLoader.loadClass("com.example.parsec_generated.User")
+            Thread handlerThread = null
+            def handler = Proxy.newProxyInstance(classLoader, [handlerClass] as Class[],
+                    { proxy, Method method, Object[] args ->
+                        handlerThread = Thread.currentThread()
+                        return method.name == "getUser" ? userClass.newInstance().setName("alice") : null
+                    } as InvocationHandler)
+            def config = new ResourceConfig(classLoader.loadClass("com.example.parsec_generated.SampleResources"))
+                    .registerClasses(virtualThreads.getProviderClasses() as Set<Class<?>>)
+                    .register(new AbstractBinder() {
+                @Override
+                protected void configure() {
+                    bind(handler).to(handlerClass)
+                }
+            })
+
+        when:
+            def response = new InMemoryApplication(config).get("/sample/v1/users/1")
+
+        then:
+            classLoader.loadClass("com.example.parsec_generated.SampleServer") != null
+            response.status == 200
+            new JsonSlurper().parseText(response.body).name == "alice"
+            handlerThread != null && handlerThread != Thread.currentThread()
+            (Thread.metaClass.respondsTo(handlerThread, "isVirtual") && handlerThread.isVirtual()) ==
+                    virtualThreads.isAvailable()
+    }
+}
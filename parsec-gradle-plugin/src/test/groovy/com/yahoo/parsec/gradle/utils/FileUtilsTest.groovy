@@ -1,23 +1,30 @@
 package com.yahoo.parsec.gradle.utils
 
+import org.apache.commons.codec.digest.DigestUtils
 import org.gradle.api.logging.Logger
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
 import spock.lang.Specification
 import spock.lang.Unroll
 
 import java.nio.file.NoSuchFileException
 import java.nio.file.Paths
+import java.util.regex.Pattern
 
 /**
  *@author waynewu
  */
 class FileUtilsTest extends Specification{
 
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
     Logger mockLog
-    def file, fileWithValidationGroup, fileWithoutValidationGroup, invalidFile
+    def file, fileWithValidationGroup, fileWithoutValidationGroup, invalidFile, generatedTestResource
 
     def setup(){
         mockLog = Mock()
-        def generatedTestResource = "./src/test/resources/generated-sources/java/com/example/parsec_generated"
+        generatedTestResource = "./src/test/resources/generated-sources/java/com/example/parsec_generated"
         file = generatedTestResource + "/User.java"
         fileWithValidationGroup = generatedTestResource + "/User.java"
         fileWithoutValidationGroup = generatedTestResource + "/SampleResources.java"
@@ -53,6 +60,260 @@ class FileUtilsTest extends Specification{
             false       | "not found pattern"
     }
 
+    @Unroll
+    def "checkFileHeaderContains() should return #expectValue if given a string #givenString"(){
+        expect:
+            expectValue == getUtil().checkFileHeaderContains(getFilePathFromFilename(file), givenString)
+
+        where:
+            expectValue | givenString
+            true        | "implements java.io.Serializable"
+            true        | "import java.util.List;"
+            false       | "ParsecValidationGroups.Insert.class"
+            false       | "not found pattern"
+    }
+
+    @Unroll
+    def "scanJavaFile() should return #expectValue for #givenFile"(){
+        expect:
+            expectValue == getUtil().scanJavaFile(getFilePathFromFilename(generatedTestResource + givenFile),
+                    " implements java.io.Serializable", Pattern.compile("ParsecValidationGroups\\.(.+?)\\.class"))
+
+        where:
+            expectValue                   | givenFile
+            ["Insert", "Update"] as Set   | "/User.java"
+            null                          | "/SampleResources.java"
+    }
+
+    def "checkFileHeaderContains() should skip comments and annotations before the type declaration"(){
+        given:
+            def javaFile = testFolder.newFile("Sample.java")
+            javaFile.text = """package com.example;
+
+// this class { is documented }
+/**
+ * a {@link Object} sample
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+@Target(ElementType.class)
+public final class Sample
+        implements java.io.Serializable {
+    private String name = "implements Runnable";
+}
+"""
+
+        expect:
+            getUtil().checkFileHeaderContains(javaFile.toPath(), "implements java.io.Serializable")
+            !getUtil().checkFileHeaderContains(javaFile.toPath(), "implements Runnable")
+    }
+
+    @Unroll
+    def "extractArchiveEntriesAsExecutable() should only extract the given entries of #archive"(){
+        given:
+            def outputDir = testFolder.newFolder("bin")
+            def entries = names.collectEntries { [(it): new File(outputDir, it + "-out").path] }
+
+        when:
+            getUtil().extractArchiveEntriesAsExecutable(archive, entries)
+
+        then:
+            outputDir.list().sort() == names.collect { it + "-out" }.sort()
+            names.every { new File(outputDir, it + "-out").canExecute() }
+            new File(outputDir, names[0] + "-out").text == content
+
+        where:
+            archive               | names                       | content
+            "/archive/sample.zip" | ["gen-model", "gen-server"] | "model\n"
+            "/archive/sample.tgz" | ["rdl"]                     | "#!/bin/sh\necho rdl\n"
+    }
+
+    def "extractArchiveEntriesAsExecutable() should throw exception if an entry is not found"(){
+        when:
+            getUtil().extractArchiveEntriesAsExecutable("/archive/sample.zip",
+                    ["gen-client": new File(testFolder.root, "gen-client").path])
+
+        then:
+            def e = thrown(IOException)
+            e.getMessage() == "Entries [gen-client] not found in /archive/sample.zip"
+    }
+
+    def "writeResourceToFile() should keep an unmodified file and its last modified time"(){
+        given:
+            def output = testFolder.newFile("Unmodified.java")
+            output.text = "class Unmodified {}"
+            output.setLastModified(1000000000000L)
+
+        when:
+            getUtil().writeResourceToFile(new ByteArrayInputStream("class Unmodified {}".bytes), output.path, true)
+
+        then:
+            output.lastModified() == 1000000000000L
+            1 * mockLog.info("Skipping unmodified " + output.path)
+    }
+
+    def "writeResourceToFile() should skip by the recorded digest without reading the file"(){
+        given:
+            def output = new File(testFolder.root, "Recorded.java")
+            def util = getUtil()
+            util.setOutputDigests(new OutputDigests())
+            util.writeResourceToFile(new ByteArrayInputStream("class A {}".bytes), output.path, true)
+            def lastModified = output.lastModified()
+            // same size and time as recorded, so the content on disk is not looked at
+            output.text = "class B {}"
+            output.setLastModified(lastModified)
+
+        when:
+            util.writeResourceToFile(new ByteArrayInputStream("class A {}".bytes), output.path, true)
+
+        then:
+            output.text == "class B {}"
+            1 * mockLog.info("Skipping unmodified " + output.path)
+    }
+
+    def "writeResourceToFile() should rewrite a file whose content changed and record it"(){
+        given:
+            def output = testFolder.newFile("Changed.java")
+            output.text = "class A {}"
+            def digests = new OutputDigests()
+            def util = getUtil()
+            util.setOutputDigests(digests)
+
+        when:
+            util.writeResourceToFile(new ByteArrayInputStream("class B {}".bytes), output.path, true)
+
+        then:
+            output.text == "class B {}"
+            digests.getDigest(output) == DigestUtils.md5Hex("class B {}")
+            1 * mockLog.info("Creating file " + output.path)
+    }
+
+    def "writeResourceAsExecutable() should replace a changed file instead of writing into it"(){
+        given:
+            def binDir = testFolder.newFolder("bin")
+            def output = new File(binDir, "rdl")
+            output.text = "#!/bin/sh\necho old\n"
+            def oldKey = java.nio.file.Files.readAttributes(output.toPath(),
+                    java.nio.file.attribute.BasicFileAttributes).fileKey()
+            def running = new FileInputStream(output)
+
+        when:
+            getUtil().writeResourceAsExecutable(new ByteArrayInputStream("#!/bin/sh\necho new\n".bytes), output.path)
+
+        then: "a process that opened the old file still reads it whole"
+            running.text == "#!/bin/sh\necho old\n"
+            output.text == "#!/bin/sh\necho new\n"
+            output.canExecute()
+            java.nio.file.Files.readAttributes(output.toPath(),
+                    java.nio.file.attribute.BasicFileAttributes).fileKey() != oldKey
+            binDir.list() == ["rdl"] as String[]
+
+        cleanup:
+            running?.close()
+    }
+
+    def "writeResourceAsExecutable() should stream a content larger than its buffer and keep an unmodified file"(){
+        given:
+            def content = new byte[200 * 1024 + 7]
+            new Random(17).nextBytes(content)
+            def output = new File(testFolder.newFolder("bin"), "rdl")
+            def digests = new OutputDigests()
+            def util = getUtil()
+            util.setOutputDigests(digests)
+
+        when:
+            util.writeResourceAsExecutable(new ByteArrayInputStream(content), output.path)
+
+        then:
+            output.bytes == content
+            output.canExecute()
+            digests.getDigest(output) == DigestUtils.md5Hex(content)
+
+        when: "the same content is written again"
+            output.setLastModified(1000000000000L)
+            util.setOutputDigests(null)
+            util.writeResourceAsExecutable(new ByteArrayInputStream(content), output.path)
+
+        then:
+            output.lastModified() == 1000000000000L
+            output.parentFile.list() == ["rdl"] as String[]
+            1 * mockLog.info("Skipping unmodified " + output.path)
+    }
+
+    def "moveChangedFiles() should move in new and changed files and keep the unchanged ones"(){
+        given:
+            def stagingDir = testFolder.newFolder("staging")
+            def targetDir = testFolder.newFolder("target")
+            new File(stagingDir, "com/example").mkdirs()
+            new File(targetDir, "com/example").mkdirs()
+            new File(stagingDir, "com/example/Same.java").text = "class Same {}"
+            new File(stagingDir, "com/example/Changed.java").text = "class Changed { int id; }"
+            new File(stagingDir, "com/example/New.java").text = "class New {}"
+            def same = new File(targetDir, "com/example/Same.java")
+            same.text = "class Same {}"
+            same.setLastModified(1000000000000L)
+            new File(targetDir, "com/example/Changed.java").text = "class Changed {}"
+
+        when:
+            def moved = getUtil().moveChangedFiles(stagingDir.toPath(), targetDir.toPath())
+
+        then:
+            moved == 2
+            same.lastModified() == 1000000000000L
+            new File(targetDir, "com/example/Changed.java").text == "class Changed { int id; }"
+            new File(targetDir, "com/example/New.java").text == "class New {}"
+            !new File(stagingDir, "com/example/New.java").exists()
+    }
+
+    def "linkFiles() should link the files, and moveChangedFiles() should leave the ones still linked"(){
+        given:
+            def targetDir = testFolder.newFolder("target")
+            def stagingDir = new File(testFolder.root, "staging")
+            new File(targetDir, "com/example").mkdirs()
+            def same = new File(targetDir, "com/example/Same.java")
+            same.text = "class Same {}"
+            same.setLastModified(1000000000000L)
+            new File(targetDir, "com/example/Changed.java").text = "class Changed {}"
+            def util = getUtil()
+
+        when:
+            def linked = util.linkFiles(targetDir.toPath(), stagingDir.toPath())
+
+        then:
+            linked == 2
+            java.nio.file.Files.isSameFile(same.toPath(), new File(stagingDir, "com/example/Same.java").toPath())
+
+        when: "a staged file is rewritten, which replaces its link"
+            util.writeResourceToFile(new ByteArrayInputStream("class Changed { int id; }".bytes),
+                    new File(stagingDir, "com/example/Changed.java").path, true)
+
+        then: "the target file is not changed through the link"
+            new File(targetDir, "com/example/Changed.java").text == "class Changed {}"
+
+        when:
+            def moved = util.moveChangedFiles(stagingDir.toPath(), targetDir.toPath())
+
+        then:
+            moved == 1
+            new File(targetDir, "com/example/Changed.java").text == "class Changed { int id; }"
+            same.lastModified() == 1000000000000L
+    }
+
+    def "linkOrCopy() should hard link on the same file store and replace the target"(){
+        given:
+            def source = testFolder.newFile("sample_swagger.json")
+            source.text = '{"swagger": "2.0"}'
+            def target = new File(testFolder.root, "webapp/doc/sample_swagger.json")
+            target.parentFile.mkdirs()
+            target.text = "stale"
+
+        when:
+            def linked = getUtil().linkOrCopy(source.toPath(), target.toPath())
+
+        then:
+            linked
+            target.text == '{"swagger": "2.0"}'
+            java.nio.file.Files.isSameFile(source.toPath(), target.toPath())
+    }
 
     def getFilePathFromFilename(def filename){
         Paths.get(filename)
@@ -0,0 +1,85 @@
+package com.yahoo.parsec.gradle.utils
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+/**
+ * Generate Manifest Unit Test
+ */
+class GenerateManifestTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    def "load() should return an empty manifest if the file does not exist"(){
+        when:
+            def manifest = GenerateManifest.load(new File(testFolder.root, "not_found.txt"))
+
+        then:
+            manifest.getFingerprint() == ""
+            manifest.getRdlFiles().isEmpty()
+            manifest.getHash("src/main/rdl/sample.rdl") == null
+            manifest.getOutputs("src/main/rdl/sample.rdl").isEmpty()
+    }
+
+    def "save() and load() should keep fingerprint, hashes and outputs"(){
+        given:
+            def file = new File(testFolder.root, "parsec/generate-manifest.txt")
+            def manifest = new GenerateManifest("abc123")
+            manifest.put("src/main/rdl/sample.rdl", "hash1", [
+                    "generated-sources/java/com/example/parsec_generated/User.java",
+                    "generated-resources/parsec/doc/sample_swagger.json"
+            ] as Set)
+            manifest.put("src/main/rdl/my types.rdl", "hash2", [
+                    "generated-sources/java/com/example/parsec_generated/My Type.java"
+            ] as Set)
+            manifest.addSourceRootFile("src/main/java/com/example/DefaultApplication.java")
+
+        when:
+            manifest.save(file)
+            def loaded = GenerateManifest.load(file)
+
+        then:
+            loaded.getFingerprint() == "abc123"
+            loaded.getRdlFiles() == ["src/main/rdl/my types.rdl", "src/main/rdl/sample.rdl"] as Set
+            loaded.getHash("src/main/rdl/sample.rdl") == "hash1"
+            loaded.getHash("src/main/rdl/my types.rdl") == "hash2"
+            loaded.getOutputs("src/main/rdl/sample.rdl") == manifest.getOutputs("src/main/rdl/sample.rdl")
+            loaded.getOutputs("src/main/rdl/my types.rdl") ==
+                    ["generated-sources/java/com/example/parsec_generated/My Type.java"] as Set
+            loaded.getSourceRootFiles() == ["src/main/java/com/example/DefaultApplication.java"] as Set
+    }
+
+    def "save() and load() should keep the included RDL files of each RDL file"(){
+        given:
+            def file = new File(testFolder.root, "parsec/generate-manifest.txt")
+            def manifest = new GenerateManifest("abc123")
+            manifest.put("src/main/rdl/sample.rdl", "hash1",
+                    ["src/main/rdl/common.rdl": "hash2", "src/main/rdl/my types.rdl": "hash3"],
+                    ["generated-sources/java/com/example/parsec_generated/User.java"] as Set)
+            manifest.put("src/main/rdl/common.rdl", "hash2", [] as Set)
+
+        when:
+            manifest.save(file)
+            def loaded = GenerateManifest.load(file)
+
+        then:
+            loaded.getIncludes("src/main/rdl/sample.rdl") ==
+                    ["src/main/rdl/common.rdl": "hash2", "src/main/rdl/my types.rdl": "hash3"]
+            loaded.getIncludes("src/main/rdl/common.rdl").isEmpty()
+            loaded.getIncludes("src/main/rdl/not_found.rdl").isEmpty()
+            loaded.getOutputs("src/main/rdl/sample.rdl") ==
+                    ["generated-sources/java/com/example/parsec_generated/User.java"] as Set
+    }
+
+    def "getAllOutputs() should return the outputs of every RDL file"(){
+        given:
+            def manifest = new GenerateManifest("abc123")
+            manifest.put("a.rdl", "hash1", ["a/User.java", "a/ParsecResourceError.java"] as Set)
+            manifest.put("b.rdl", "hash2", ["b/User.java", "a/ParsecResourceError.java"] as Set)
+
+        expect:
+            manifest.getAllOutputs() == ["a/User.java", "b/User.java", "a/ParsecResourceError.java"] as Set
+    }
+}
@@ -0,0 +1,58 @@
+package com.yahoo.parsec.gradle.utils
+
+import groovy.json.JsonSlurper
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+/**
+ * Generate Report Unit Test
+ */
+class GenerateReportTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    def "save() should write the phases and jobs as JSON"(){
+        given:
+            def file = new File(testFolder.root, "reports/parsec/generate-report.json")
+            def report = new GenerateReport("parallel")
+            report.addPhase("findChangedRdlFiles", 3)
+            report.addPhase("rdlGenerate", 120)
+            report.addPhase("rdlGenerate", 30)
+            report.addJob("src/main/rdl/my \"quoted\".rdl", "parsec-java-model", 100, 0, -1)
+            report.addJob("src/main/rdl/b.rdl", "parsec-java-server", 50, 1, -1)
+
+        when:
+            report.save(file)
+            def json = new JsonSlurper().parse(file)
+
+        then:
+            json.mode == "parallel"
+            json.totalMillis >= 0
+            json.phases == [findChangedRdlFiles: 3, rdlGenerate: 150]
+            json.jobs == [
+                    [rdlFile: "src/main/rdl/my \"quoted\".rdl", generator: "parsec-java-model",
+                     millis: 100, exitCode: 0, outputs: -1],
+                    [rdlFile: "src/main/rdl/b.rdl", generator: "parsec-java-server",
+                     millis: 50, exitCode: 1, outputs: -1]
+            ]
+    }
+
+    def "getSummary() should list the phases and the slowest jobs first"(){
+        given:
+            def report = new GenerateReport("serial")
+            report.addPhase("rdlGenerate", 200)
+            (1..5).each { report.addJob("r${it}.rdl", "parsec-java-model", it * 10, 0, 1) }
+            report.addJob("bad.rdl", "parsec-java-model", 1, 2, 0)
+
+        when:
+            def summary = report.getSummary()
+
+        then:
+            summary.size() == 4
+            summary[0].contains("6 generator jobs (serial), rdlGenerate 200 ms")
+            summary[1] == "  50 ms parsec-java-model r5.rdl"
+            summary[3] == "  30 ms parsec-java-model r3.rdl"
+    }
+}
@@ -0,0 +1,79 @@
+package com.yahoo.parsec.gradle.utils
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+/**
+ * Output Digests Unit Test
+ */
+class OutputDigestsTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    def "load() should return empty digests if the file does not exist"(){
+        when:
+            def digests = OutputDigests.load(new File(testFolder.root, "not_found.txt"))
+
+        then:
+            digests.getDigest(testFolder.newFile("User.java")) == null
+    }
+
+    def "save() and load() should keep the digests of the outputs that still exist"(){
+        given:
+            def file = new File(testFolder.root, "parsec/output-digests.txt")
+            def user = testFolder.newFile("My User.java")
+            user.text = "class User {}"
+            def removed = testFolder.newFile("Removed.java")
+            def digests = new OutputDigests()
+            digests.put(user, "digest1")
+            digests.put(removed, "digest2")
+            removed.delete()
+
+        when:
+            digests.save(file)
+            def loaded = OutputDigests.load(file)
+
+        then:
+            loaded.getDigest(user) == "digest1"
+            file.readLines().size() == 1
+    }
+
+    def "getDigest() should return null if the output changed since it was recorded"(){
+        given:
+            def user = testFolder.newFile("User.java")
+            user.text = "class User {}"
+            def digests = new OutputDigests()
+            digests.put(user, "digest1")
+
+        when:
+            user.text = "class User { int id; }"
+
+        then:
+            digests.getDigest(user) == null
+    }
+
+    def "move() should record the moved outputs under their new paths"(){
+        given:
+            def stagingDir = testFolder.newFolder("staging")
+            def targetDir = testFolder.newFolder("target")
+            def staged = new File(stagingDir, "User.java")
+            staged.text = "class User {}"
+            def kept = new File(stagingDir, "Kept.java")
+            kept.text = "class Kept {}"
+            def digests = new OutputDigests()
+            digests.put(staged, "digest1")
+            digests.put(kept, "digest2")
+            new File(targetDir, "Kept.java").text = "class Kept { int id; }"
+
+        when: "one file is moved, the other one is not"
+            java.nio.file.Files.move(staged.toPath(), new File(targetDir, "User.java").toPath())
+            digests.move(stagingDir, targetDir)
+
+        then:
+            digests.getDigest(new File(targetDir, "User.java")) == "digest1"
+            digests.getDigest(new File(targetDir, "Kept.java")) == null
+            digests.getDigest(kept) == null
+    }
+}
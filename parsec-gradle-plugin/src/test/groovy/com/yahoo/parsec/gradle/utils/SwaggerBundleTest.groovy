@@ -0,0 +1,63 @@
+package com.yahoo.parsec.gradle.utils
+
+import groovy.json.JsonSlurper
+import org.apache.commons.codec.digest.DigestUtils
+import org.gradle.api.logging.Logger
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import java.util.zip.GZIPInputStream
+
+/**
+ * Swagger Bundle Unit Test
+ */
+class SwaggerBundleTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    def "create() should merge the swagger jsons by file name and hash each of them"(){
+        given:
+            def a = testFolder.newFile("a_swagger.json")
+            def b = testFolder.newFile("b_swagger.json")
+            a.text = '{"swagger": "2.0", "paths": {"/a": {}}}\n'
+            b.text = '{"swagger": "2.0", "paths": {"/b": {}}}\n'
+
+        when:
+            def bundle = SwaggerBundle.create([a.toPath(), b.toPath()])
+            def files = bundle.save(new FileUtils(Mock(Logger)), testFolder.newFolder("doc"))
+
+        then:
+            bundle.getFileName() ==~ /_swagger-bundle\.[0-9a-f]{16}\.json/
+            bundle.getHashes().keySet() as List == ["a_swagger.json", "b_swagger.json"]
+            bundle.getHashes()["a_swagger.json"] == DigestUtils.sha256Hex(a.bytes)
+            new JsonSlurper().parse(files[0]) == [
+                    "a_swagger.json": [swagger: "2.0", paths: ["/a": [:]]],
+                    "b_swagger.json": [swagger: "2.0", paths: ["/b": [:]]]
+            ]
+            new GZIPInputStream(new FileInputStream(files[1])).bytes == files[0].bytes
+    }
+
+    def "save() should name the bundle after its content and delete the stale ones"(){
+        given:
+            def a = testFolder.newFile("a_swagger.json")
+            def doc = testFolder.newFolder("doc")
+            def fileUtils = new FileUtils(Mock(Logger))
+            a.text = '{"swagger": "2.0"}'
+            def oldFiles = SwaggerBundle.create([a.toPath()]).save(fileUtils, doc)
+
+        when:
+            a.text = '{"swagger": "2.0", "info": {}}'
+            def newFiles = SwaggerBundle.create([a.toPath()]).save(fileUtils, doc)
+
+        then:
+            oldFiles[0].name != newFiles[0].name
+            doc.list().sort() == newFiles.collect { it.name }.sort()
+    }
+
+    def "gzip() should not depend on when it runs"(){
+        expect:
+            SwaggerBundle.gzip("swagger".bytes) == SwaggerBundle.gzip("swagger".bytes)
+    }
+}
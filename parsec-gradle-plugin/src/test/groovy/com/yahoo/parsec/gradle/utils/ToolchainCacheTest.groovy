@@ -0,0 +1,58 @@
+package com.yahoo.parsec.gradle.utils
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * Toolchain Cache Unit Test
+ */
+class ToolchainCacheTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    def "getToolchainDir() should be in the gradle user home and keyed by the toolchain version"(){
+        given:
+            def gradleUserHome = testFolder.newFolder("gradle_home")
+
+        when:
+            def toolchainDir = ToolchainCache.getToolchainDir(gradleUserHome)
+
+        then:
+            toolchainDir.parentFile == new File(gradleUserHome, "caches/parsec/toolchain")
+            toolchainDir.name.length() == 16
+            toolchainDir == ToolchainCache.getToolchainDir(gradleUserHome)
+            ToolchainCache.getToolchainVersion().endsWith("," + ToolchainCache.getRdlBinSuffix())
+    }
+
+    def "withLock() should run one action at a time"(){
+        given:
+            def toolchainDir = new File(testFolder.root, "caches/parsec/toolchain/abc")
+            def running = new AtomicInteger()
+            def maxRunning = new AtomicInteger()
+            def executor = Executors.newFixedThreadPool(4)
+            def action = {
+                ToolchainCache.withLock(toolchainDir, {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), { a, b -> Math.max(a, b) })
+                    Thread.sleep(50)
+                    running.decrementAndGet()
+                } as ToolchainCache.LockedAction)
+                return null
+            } as Callable
+
+        when:
+            executor.invokeAll((1..4).collect { action }).each { it.get() }
+
+        then:
+            maxRunning.get() == 1
+            new File(testFolder.root, "caches/parsec/toolchain/abc.lock").exists()
+
+        cleanup:
+            executor.shutdown()
+    }
+}
@@ -0,0 +1,57 @@
+package com.yahoo.parsec.gradle.utils
+
+import org.junit.Rule
+import org.junit.rules.TemporaryFolder
+import spock.lang.Specification
+
+/**
+ * Toolchain Stamp Unit Test
+ */
+class ToolchainStampTest extends Specification {
+
+    @Rule
+    TemporaryFolder testFolder = new TemporaryFolder()
+
+    File binDir
+    File stampFile
+
+    def setup(){
+        binDir = testFolder.newFolder("bin")
+        stampFile = new File(binDir, ".parsec-toolchain")
+        new File(binDir, "rdl").text = "rdl"
+        new File(binDir, "rdl-gen-parsec-java-model").text = "model"
+    }
+
+    def "load() should return null if the file does not exist"(){
+        expect:
+            ToolchainStamp.load(stampFile) == null
+    }
+
+    def "saved stamp should be up to date until a file or the version changes"(){
+        given:
+            ToolchainStamp.create("1.0,rdl:1.5.1", binDir.toPath(), stampFile).save(stampFile)
+
+        when:
+            def stamp = ToolchainStamp.load(stampFile)
+
+        then:
+            stamp.getVersion() == "1.0,rdl:1.5.1"
+            stamp.isUpToDate("1.0,rdl:1.5.1", binDir.toPath(), stampFile)
+            !stamp.isUpToDate("1.1,rdl:1.5.1", binDir.toPath(), stampFile)
+
+        when:
+            new File(binDir, "rdl-gen-parsec-java-model").delete()
+
+        then:
+            !stamp.isUpToDate("1.0,rdl:1.5.1", binDir.toPath(), stampFile)
+    }
+
+    def "load() should return null if the stamp was edited"(){
+        given:
+            ToolchainStamp.create("1.0", binDir.toPath(), stampFile).save(stampFile)
+            stampFile.text = stampFile.text.replace("version 1.0", "version 2.0")
+
+        expect:
+            ToolchainStamp.load(stampFile) == null
+    }
+}